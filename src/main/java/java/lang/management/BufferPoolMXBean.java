@@ -90,4 +90,38 @@ public interface BufferPoolMXBean extends PlatformManagedObject {
      *          the memory usage is not available
      */
     long getMemoryUsed();
+
+    /**
+     * Returns the number of requests for a buffer that this pool has
+     * served with a buffer it holds for reuse, for a pool that reuses
+     * buffers, such as the pool of temporary direct buffers that channels
+     * use for I/O on non-direct buffers.
+     *
+     * @implSpec
+     * The default implementation returns {@code -1L}.
+     *
+     * @return  The number of requests served with a reused buffer, or
+     *          {@code -1L} if this pool does not reuse buffers
+     *
+     * @since 1.8
+     */
+    default long getHitCount() {
+        return -1L;
+    }
+
+    /**
+     * Returns the number of requests for a buffer that this pool has
+     * served by allocating a new buffer, for a pool that reuses buffers.
+     *
+     * @implSpec
+     * The default implementation returns {@code -1L}.
+     *
+     * @return  The number of requests served with a new buffer, or
+     *          {@code -1L} if this pool does not reuse buffers
+     *
+     * @since 1.8
+     */
+    default long getMissCount() {
+        return -1L;
+    }
 }
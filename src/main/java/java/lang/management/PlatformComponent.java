@@ -216,6 +216,19 @@ enum PlatformComponent {
             }
         }),
 
+    /**
+     * Contention instrumentation of AbstractQueuedSynchronizer.
+     */
+    SYNCHRONIZER_CONTENTION(
+        "java.lang.management.SynchronizerContentionMXBean",
+        "java.util.concurrent.locks", "SynchronizerContention", defaultKeyProperties(),
+        true, // singleton
+        new MXBeanFetcher<SynchronizerContentionMXBean>() {
+            public List<SynchronizerContentionMXBean> getMXBeans() {
+                return Collections.singletonList(ManagementFactoryHelper.getSynchronizerContentionMXBean());
+            }
+        }),
+
 
     // Sun Platform Extension
 
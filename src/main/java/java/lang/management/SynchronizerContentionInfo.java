@@ -0,0 +1,173 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.lang.management;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * 20261016
+ * A. 单个 {@link java.util.concurrent.locks.AbstractQueuedSynchronizer} 同步器的竞争统计快照, 由 {@link SynchronizerContentionMXBean} 返回。
+ * B. 同步器以类名和 identity hash code 标识, 与 {@link LockInfo} 及线程转储中的表示一致, 便于与持有者、等待者对应。
+ * C. 时间均以纳秒为单位。
+ */
+
+/**
+ * A snapshot of the contention counters of one
+ * {@link java.util.concurrent.locks.AbstractQueuedSynchronizer
+ * synchronizer}, as returned by {@link SynchronizerContentionMXBean}.
+ * The synchronizer is identified as in {@link LockInfo}, by the name of
+ * its class and its identity hash code, which also identify it in thread
+ * dumps.  Times are in nanoseconds.
+ *
+ * <h3>MXBean Mapping</h3>
+ * {@code SynchronizerContentionInfo} is mapped to a
+ * {@link javax.management.openmbean.CompositeData CompositeData} with an
+ * item for each of its properties, and reconstructed by its public
+ * constructor.
+ *
+ * @see SynchronizerContentionMXBean
+ * @since 1.8
+ */
+public class SynchronizerContentionInfo {
+
+    private final String className;
+    private final int identityHashCode;
+    private final long contendedAcquireCount;
+    private final long acquireWaitTime;
+    private final long parkCount;
+    private final int queueLength;
+    private final int peakQueueLength;
+    private final long conditionAwaitCount;
+    private final long conditionWaitTime;
+
+    /**
+     * Constructs a {@code SynchronizerContentionInfo} object.
+     *
+     * @param className the fully qualified name of the class of the
+     *        synchronizer
+     * @param identityHashCode the {@link System#identityHashCode identity
+     *        hash code} of the synchronizer
+     * @param contendedAcquireCount the number of acquires that queued
+     * @param acquireWaitTime the total time spent queued to acquire
+     * @param parkCount the number of times a thread queued to acquire parked
+     * @param queueLength the number of threads queued to acquire
+     * @param peakQueueLength the greatest number of threads queued to
+     *        acquire at any one time
+     * @param conditionAwaitCount the number of condition waits
+     * @param conditionWaitTime the total time spent in condition waits,
+     *        excluding reacquiring
+     * @throws NullPointerException if {@code className} is null
+     */
+    @ConstructorProperties({"className", "identityHashCode",
+                            "contendedAcquireCount", "acquireWaitTime",
+                            "parkCount", "queueLength", "peakQueueLength",
+                            "conditionAwaitCount", "conditionWaitTime"})
+    public SynchronizerContentionInfo(String className, int identityHashCode,
+                                      long contendedAcquireCount,
+                                      long acquireWaitTime, long parkCount,
+                                      int queueLength, int peakQueueLength,
+                                      long conditionAwaitCount,
+                                      long conditionWaitTime) {
+        if (className == null) {
+            throw new NullPointerException("Parameter className cannot be null");
+        }
+        this.className = className;
+        this.identityHashCode = identityHashCode;
+        this.contendedAcquireCount = contendedAcquireCount;
+        this.acquireWaitTime = acquireWaitTime;
+        this.parkCount = parkCount;
+        this.queueLength = queueLength;
+        this.peakQueueLength = peakQueueLength;
+        this.conditionAwaitCount = conditionAwaitCount;
+        this.conditionWaitTime = conditionWaitTime;
+    }
+
+    /**
+     * Returns the fully qualified name of the class of the synchronizer.
+     * @return the fully qualified name of the class of the synchronizer.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the identity hash code of the synchronizer.
+     * @return the identity hash code of the synchronizer.
+     */
+    public int getIdentityHashCode() {
+        return identityHashCode;
+    }
+
+    /**
+     * Returns the number of acquires of the synchronizer that queued.
+     * @return the number of contended acquires.
+     */
+    public long getContendedAcquireCount() {
+        return contendedAcquireCount;
+    }
+
+    /**
+     * Returns the total time threads have spent queued to acquire the
+     * synchronizer, in nanoseconds.
+     * @return the total acquire wait time in nanoseconds.
+     */
+    public long getAcquireWaitTime() {
+        return acquireWaitTime;
+    }
+
+    /**
+     * Returns the number of times threads queued to acquire the
+     * synchronizer have parked.
+     * @return the number of parks.
+     */
+    public long getParkCount() {
+        return parkCount;
+    }
+
+    /**
+     * Returns the number of threads queued to acquire the synchronizer
+     * when the snapshot was taken.
+     * @return the queue length.
+     */
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * Returns the greatest number of threads that have been queued to
+     * acquire the synchronizer at any one time.
+     * @return the peak queue length.
+     */
+    public int getPeakQueueLength() {
+        return peakQueueLength;
+    }
+
+    /**
+     * Returns the number of waits on conditions of the synchronizer.
+     * @return the number of condition waits.
+     */
+    public long getConditionAwaitCount() {
+        return conditionAwaitCount;
+    }
+
+    /**
+     * Returns the total time threads have spent waiting on conditions of
+     * the synchronizer, from releasing it to being signalled or timing
+     * out, in nanoseconds.
+     * @return the total condition wait time in nanoseconds.
+     */
+    public long getConditionWaitTime() {
+        return conditionWaitTime;
+    }
+
+    /**
+     * Returns a string representation of the synchronizer, in the form
+     * of {@link LockInfo#toString}.
+     * @return the string representation of the synchronizer.
+     */
+    public String toString() {
+        return className + '@' + Integer.toHexString(identityHashCode);
+    }
+}
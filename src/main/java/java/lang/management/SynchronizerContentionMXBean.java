@@ -0,0 +1,124 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.lang.management;
+
+/**
+ * 20261016
+ * A. {@link java.util.concurrent.locks.AbstractQueuedSynchronizer} 竞争统计的管理接口, 用于定位 ReentrantLock、ReentrantReadWriteLock、
+ *    Semaphore 等同步器的竞争导致的延迟尖刺, 而不必依赖线程转储。
+ * B. 统计默认关闭, 需以 -Djava.util.concurrent.locks.instrumentContention=true 启动; 关闭时所有计数均为0, 且同步器没有任何额外开销。
+ * C. 只统计进入同步队列的获取(竞争获取), 首次 tryAcquire 即成功的获取不经过队列, 不被统计。 时间均以纳秒为单位。
+ */
+
+/**
+ * The management interface for the contention instrumentation of
+ * {@link java.util.concurrent.locks.AbstractQueuedSynchronizer}, and so of
+ * the synchronizers built on it such as
+ * {@link java.util.concurrent.locks.ReentrantLock ReentrantLock},
+ * {@link java.util.concurrent.locks.ReentrantReadWriteLock
+ * ReentrantReadWriteLock} and {@link java.util.concurrent.Semaphore
+ * Semaphore}.
+ *
+ * <p>Instrumentation is disabled by default, in which case all counts are
+ * zero and synchronizers bear no cost.  It is enabled by starting the Java
+ * virtual machine with the system property
+ * {@code java.util.concurrent.locks.instrumentContention} set to
+ * {@code true}.  Only <em>contended</em> acquires, those that queue, are
+ * recorded; an acquire that succeeds without queuing is not seen.  The
+ * wait time of a condition wait runs from releasing the synchronizer to
+ * being signalled, interrupted or timing out; reacquiring it afterwards
+ * is recorded as a contended acquire.  All times are in nanoseconds.
+ *
+ * <p> A Java virtual machine has a single instance of the implementation
+ * class of this interface, which can be obtained by calling
+ * {@link ManagementFactory#getPlatformMXBean(Class)
+ * ManagementFactory.getPlatformMXBean(SynchronizerContentionMXBean.class)}.
+ * It is also registered with the platform {@link
+ * javax.management.MBeanServer MBeanServer}, under the {@link
+ * javax.management.ObjectName ObjectName}:
+ * <pre>
+ *     java.util.concurrent.locks:type=SynchronizerContention
+ * </pre>
+ *
+ * @see SynchronizerContentionInfo
+ * @since 1.8
+ */
+public interface SynchronizerContentionMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns {@code true} if contention instrumentation is enabled.
+     *
+     * @return {@code true} if contention instrumentation is enabled
+     */
+    boolean isInstrumentationEnabled();
+
+    /**
+     * Returns the total number of contended acquires of all
+     * synchronizers, including those that have been garbage collected.
+     *
+     * @return the total number of contended acquires
+     */
+    long getContendedAcquireCount();
+
+    /**
+     * Returns the total time threads have spent queued to acquire
+     * synchronizers, in nanoseconds.
+     *
+     * @return the total acquire wait time in nanoseconds
+     */
+    long getAcquireWaitTime();
+
+    /**
+     * Returns the total number of times threads queued to acquire
+     * synchronizers have parked.
+     *
+     * @return the total number of parks
+     */
+    long getParkCount();
+
+    /**
+     * Returns the number of threads currently queued to acquire
+     * synchronizers.
+     *
+     * @return the number of queued threads
+     */
+    int getQueueLength();
+
+    /**
+     * Returns the greatest number of threads that have been queued to
+     * acquire any one synchronizer at any one time.
+     *
+     * @return the peak queue length
+     */
+    int getPeakQueueLength();
+
+    /**
+     * Returns the total number of condition waits.
+     *
+     * @return the total number of condition waits
+     */
+    long getConditionAwaitCount();
+
+    /**
+     * Returns the total time threads have spent in condition waits, in
+     * nanoseconds.
+     *
+     * @return the total condition wait time in nanoseconds
+     */
+    long getConditionWaitTime();
+
+    /**
+     * Returns the contention counters of the reachable synchronizers with
+     * the longest total acquire wait times, longest first.
+     *
+     * @param maxSynchronizers the maximum number of synchronizers to
+     *        return
+     * @return the counters of at most {@code maxSynchronizers}
+     *         synchronizers, empty if instrumentation is disabled
+     * @throws IllegalArgumentException if {@code maxSynchronizers} is
+     *         negative
+     */
+    SynchronizerContentionInfo[] getMostContendedSynchronizers(int maxSynchronizers);
+}
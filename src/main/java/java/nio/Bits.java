@@ -5,9 +5,18 @@
 
 package java.nio;
 
+import java.io.FileDescriptor;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 import sun.misc.JavaLangRefAccess;
 import sun.misc.SharedSecrets;
@@ -606,9 +615,9 @@ class Bits {                            // package-private
     // direct buffer memory.  This value may be changed during VM
     // initialization if it is launched with "-XX:MaxDirectMemorySize=<size>".
     private static volatile long maxMemory = VM.maxDirectMemory();
-    private static final AtomicLong reservedMemory = new AtomicLong();
-    private static final AtomicLong totalCapacity = new AtomicLong();
-    private static final AtomicLong count = new AtomicLong();
+    private static final LongAdder reservedMemory = new LongAdder();
+    private static final LongAdder totalCapacity = new LongAdder();
+    private static final LongAdder count = new LongAdder();
     private static volatile boolean memoryLimitSet = false;
     // max. number of sleeps during try-reserving with exponentially
     // increasing delay before throwing OutOfMemoryError:
@@ -616,6 +625,58 @@ class Bits {                            // package-private
     // which means that OOME will be thrown after 0.5 s of trying
     private static final int MAX_SLEEPS = 9;
 
+    // The capacity counted against maxMemory is claimed from a single
+    // counter, but small reservations take it from per-thread stripes of
+    // credit, which are topped up from the counter a chunk at a time and
+    // hold at most two chunks each, so that threads reserving and
+    // releasing small buffers rarely touch the shared counter.  When the
+    // counter is exhausted, the credit of all stripes is returned to it
+    // before a reservation fails.
+
+    // The capacity claimed against maxMemory: that of the reserved buffers,
+    // plus the credit held in stripes
+    private static final AtomicLong claimedCapacity = new AtomicLong();
+
+    // The number of stripes, a power of two, and the spacing of their
+    // counters in the credit array, to keep them on separate cache lines
+    private static final int STRIPES;
+    private static final int STRIDE = 8;
+    static {
+        int n = 1;
+        while (n < 2 * Runtime.getRuntime().availableProcessors() && n < 64)
+            n <<= 1;
+        STRIPES = n;
+    }
+    private static final AtomicLongArray credit =
+        new AtomicLongArray(STRIPES * STRIDE);
+
+    // The largest chunk of credit a stripe claims at once
+    private static final long MAX_CREDIT_CHUNK = 1L << 20;
+
+    // How reserveMemory proceeds when the limit would be exceeded and no
+    // pending Cleaner frees enough memory, set with the
+    // jdk.nio.reserveMemory.mode property: "sync" (the default) calls
+    // System.gc() and retries with exponential back-off delays; "async"
+    // asks a daemon thread to call System.gc() and fails at once; and
+    // "failfast" fails at once.
+    private static final int MODE_SYNC = 0;
+    private static final int MODE_ASYNC = 1;
+    private static final int MODE_FAIL_FAST = 2;
+    private static volatile int reclaimMode = MODE_SYNC;
+
+    private static int reclaimMode(String s) {
+        if ("async".equals(s))
+            return MODE_ASYNC;
+        if ("failfast".equals(s))
+            return MODE_FAIL_FAST;
+        return MODE_SYNC;
+    }
+
+    private static String reclaimModeName(int mode) {
+        return (mode == MODE_ASYNC) ? "async"
+            : (mode == MODE_FAIL_FAST) ? "failfast" : "sync";
+    }
+
     // 无论何时分配或释放直接内存，都应调用这些方法。 它们允许用户控制进程可以访问的直接内存量。 所有大小均以字节为单位指定。
     // These methods should be called whenever direct memory is allocated or
     // freed.  They allow the user to control the amount of direct memory
@@ -624,6 +685,8 @@ class Bits {                            // package-private
 
         if (!memoryLimitSet && VM.isBooted()) {
             maxMemory = VM.maxDirectMemory();
+            reclaimMode = reclaimMode(
+                VM.getSavedProperty("jdk.nio.reserveMemory.mode"));
             memoryLimitSet = true;
         }
 
@@ -632,6 +695,22 @@ class Bits {                            // package-private
             return;
         }
 
+        int mode = reclaimMode;
+        long start = System.nanoTime();
+        boolean reserved = false;
+        try {
+            reserved = reserveMemorySlowly(size, cap, mode);
+        } finally {
+            SlowReservation.record(cap, System.nanoTime() - start,
+                                   mode, reserved);
+        }
+        if (!reserved) {
+            // no luck
+            throw new OutOfMemoryError("Direct buffer memory");
+        }
+    }
+
+    private static boolean reserveMemorySlowly(long size, int cap, int mode) {
         final JavaLangRefAccess jlra = SharedSecrets.getJavaLangRefAccess();
 
         // retry while helping enqueue pending Reference objects
@@ -639,10 +718,18 @@ class Bits {                            // package-private
         // Cleaner(s) that free direct buffer memory
         while (jlra.tryHandlePendingReference()) {
             if (tryReserveMemory(size, cap)) {
-                return;
+                return true;
             }
         }
 
+        if (mode == MODE_ASYNC) {
+            Reclaimer.request();
+            return false;
+        }
+        if (mode == MODE_FAIL_FAST) {
+            return false;
+        }
+
         // trigger VM's Reference processing
         System.gc();
 
@@ -654,10 +741,10 @@ class Bits {                            // package-private
             int sleeps = 0;
             while (true) {
                 if (tryReserveMemory(size, cap)) {
-                    return;
+                    return true;
                 }
                 if (sleeps >= MAX_SLEEPS) {
-                    break;
+                    return false;
                 }
                 if (!jlra.tryHandlePendingReference()) {
                     try {
@@ -669,10 +756,6 @@ class Bits {                            // package-private
                     }
                 }
             }
-
-            // no luck
-            throw new OutOfMemoryError("Direct buffer memory");
-
         } finally {
             if (interrupted) {
                 // don't swallow interrupts
@@ -686,24 +769,194 @@ class Bits {                            // package-private
         // -XX:MaxDirectMemorySize limits the total capacity rather than the
         // actual memory usage, which will differ when buffers are page
         // aligned.
-        long totalCap;
-        while (cap <= maxMemory - (totalCap = totalCapacity.get())) {
-            if (totalCapacity.compareAndSet(totalCap, totalCap + cap)) {
-                reservedMemory.addAndGet(size);
-                count.incrementAndGet();
+        if (!takeCredit(cap) && !claim(cap) &&
+            !(reclaimCredit() && claim(cap))) {
+            return false;
+        }
+        reservedMemory.add(size);
+        totalCapacity.add(cap);
+        count.increment();
+        return true;
+    }
+
+    static void unreserveMemory(long size, int cap) {
+        count.decrement();
+        reservedMemory.add(-size);
+        totalCapacity.add(-cap);
+        long chunk = creditChunk();
+        if (cap < chunk) {
+            int i = stripe();
+            long c = credit.addAndGet(i, cap);
+            if (c > 2 * chunk && credit.compareAndSet(i, c, chunk)) {
+                claimedCapacity.addAndGet(chunk - c);
+            }
+        } else {
+            claimedCapacity.addAndGet(-cap);
+        }
+    }
+
+    // Returns the size of the chunks of credit claimed by stripes; capacity
+    // reserved for buffers of at least this size is claimed directly
+    private static long creditChunk() {
+        return Math.min(MAX_CREDIT_CHUNK, maxMemory / (STRIPES * 16L));
+    }
+
+    // Returns the index of the credit of the current thread's stripe
+    private static int stripe() {
+        return ((int)Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+    }
+
+    // Takes the given capacity from the current thread's stripe of credit,
+    // claiming a chunk for it if needed
+    private static boolean takeCredit(int cap) {
+        long chunk = creditChunk();
+        if (cap >= chunk) {
+            return false;
+        }
+        int i = stripe();
+        long c;
+        while ((c = credit.get(i)) >= cap) {
+            if (credit.compareAndSet(i, c, c - cap)) {
                 return true;
             }
         }
+        if (claim(chunk)) {
+            credit.addAndGet(i, chunk - cap);
+            return true;
+        }
+        return false;
+    }
 
+    // Claims the given capacity against maxMemory
+    private static boolean claim(long cap) {
+        long claimed;
+        while (cap <= maxMemory - (claimed = claimedCapacity.get())) {
+            if (claimedCapacity.compareAndSet(claimed, claimed + cap)) {
+                return true;
+            }
+        }
         return false;
     }
 
+    // Returns the credit of all stripes to the claimable capacity,
+    // returning true if there was any
+    private static boolean reclaimCredit() {
+        long total = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            total += credit.getAndSet(i * STRIDE, 0);
+        }
+        if (total == 0) {
+            return false;
+        }
+        claimedCapacity.addAndGet(-total);
+        return true;
+    }
 
-    static void unreserveMemory(long size, int cap) {
-        long cnt = count.decrementAndGet();
-        long reservedMem = reservedMemory.addAndGet(-size);
-        long totalCap = totalCapacity.addAndGet(-cap);
-        assert cnt >= 0 && reservedMem >= 0 && totalCap >= 0;
+    /**
+     * The daemon thread that calls System.gc() on behalf of reservations
+     * made in the "async" mode, so that the Cleaners of unreachable direct
+     * buffers run and later reservations succeed.  Requests made while a
+     * collection is pending are coalesced.
+     */
+    private static final class Reclaimer implements Runnable {
+        private static final AtomicBoolean requested = new AtomicBoolean();
+        private static volatile Thread thread;
+
+        static void request() {
+            if (!requested.compareAndSet(false, true)) {
+                return;
+            }
+            Thread t = thread;
+            if (t == null) {
+                synchronized (Reclaimer.class) {
+                    if ((t = thread) == null) {
+                        thread = t = AccessController.doPrivileged(
+                            new PrivilegedAction<Thread>() {
+                                public Thread run() {
+                                    Thread t = new Thread(
+                                        new Reclaimer(),
+                                        "Direct Memory Reclaimer");
+                                    t.setDaemon(true);
+                                    t.start();
+                                    return t;
+                                }
+                            });
+                        return;
+                    }
+                }
+            }
+            LockSupport.unpark(t);
+        }
+
+        public void run() {
+            final JavaLangRefAccess jlra = SharedSecrets.getJavaLangRefAccess();
+            while (true) {
+                if (requested.get()) {
+                    System.gc();
+                    while (jlra.tryHandlePendingReference()) { }
+                    requested.set(false);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * A reservation that did not succeed at once, kept until reported
+     * as a jdk.DirectMemoryReservation event.  At most MAX_PENDING are
+     * kept; later ones are not reported.
+     */
+    private static final class SlowReservation
+        implements sun.misc.JavaNioAccess.SlowReservation
+    {
+        private static final int MAX_PENDING = 1024;
+        private static final ConcurrentLinkedQueue<SlowReservation> pending =
+            new ConcurrentLinkedQueue<>();
+        private static final AtomicInteger pendingCount = new AtomicInteger();
+
+        private final long time = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private final int capacity;
+        private final long waitTime;
+        private final int mode;
+        private final boolean reserved;
+
+        private SlowReservation(int capacity, long waitTime, int mode,
+                                boolean reserved) {
+            this.capacity = capacity;
+            this.waitTime = waitTime;
+            this.mode = mode;
+            this.reserved = reserved;
+        }
+
+        static void record(int capacity, long waitTime, int mode,
+                           boolean reserved) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING) {
+                pendingCount.decrementAndGet();
+                return;
+            }
+            pending.offer(new SlowReservation(capacity, waitTime, mode,
+                                              reserved));
+        }
+
+        static List<sun.misc.JavaNioAccess.SlowReservation> poll() {
+            List<sun.misc.JavaNioAccess.SlowReservation> list =
+                new ArrayList<>();
+            SlowReservation r;
+            while ((r = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                list.add(r);
+            }
+            return list;
+        }
+
+        @Override public long getTime()          { return time; }
+        @Override public String getThreadName()  { return threadName; }
+        @Override public int getCapacity()       { return capacity; }
+        @Override public long getWaitTime()      { return waitTime; }
+        @Override public String getReclaimMode() { return reclaimModeName(mode); }
+        @Override public boolean isReserved()    { return reserved; }
     }
 
     // -- Monitoring of direct buffer usage --
@@ -721,15 +974,15 @@ class Bits {                            // package-private
                         }
                         @Override
                         public long getCount() {
-                            return Bits.count.get();
+                            return Bits.count.sum();
                         }
                         @Override
                         public long getTotalCapacity() {
-                            return Bits.totalCapacity.get();
+                            return Bits.totalCapacity.sum();
                         }
                         @Override
                         public long getMemoryUsed() {
-                            return Bits.reservedMemory.get();
+                            return Bits.reservedMemory.sum();
                         }
                     };
                 }
@@ -738,9 +991,28 @@ class Bits {                            // package-private
                     return new DirectByteBuffer(addr, cap, ob);
                 }
                 @Override
+                public MappedSegment newMappedSegment(long addr, long size,
+                                                      boolean readOnly,
+                                                      FileDescriptor fd,
+                                                      Runnable unmapper) {
+                    return new MappedSegment(addr, size, readOnly, fd, unmapper);
+                }
+                @Override
                 public void truncate(Buffer buf) {
                     buf.truncate();
                 }
+                @Override
+                public void reserveMemory(long size, int cap) {
+                    Bits.reserveMemory(size, cap);
+                }
+                @Override
+                public void unreserveMemory(long size, int cap) {
+                    Bits.unreserveMemory(size, cap);
+                }
+                @Override
+                public List<sun.misc.JavaNioAccess.SlowReservation> pollSlowReservations() {
+                    return Bits.SlowReservation.poll();
+                }
         });
     }
 
@@ -0,0 +1,1110 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.nio;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import sun.misc.Cleaner;
+import sun.misc.Unsafe;
+
+
+/**
+ * 20261016
+ * A. 文件的一段内存映射区域, 大小不限, 用 {@code long} 偏移访问, 可以显式解除映射。 通过 {@link java.nio.channels.FileChannel#mapSegment} 创建。
+ *    与 {@link MappedByteBuffer} 不同: 后者容量最多 {@link Integer#MAX_VALUE} 字节, 且映射要到缓冲区被GC后才释放; 本类可映射整个大文件,
+ *    {@link #close} 后立即释放映射, 未关闭的段在被GC时解除映射。
+ * B. 没有 position 和 limit: 每个 get/put 方法都带有相对段起点的偏移, 访问越界抛 {@link IndexOutOfBoundsException}。 批量方法在段与数组之间一次传输。
+ *    多字节值按段的字节序读写, 初始为 {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}。
+ * C. 可被多个线程并发使用(字节序应在共享前设置)。 关闭时等待其他线程正在进行的访问完成后再解除映射, 因此访问绝不会碰到已解除映射的内存;
+ *    关闭后的访问抛 {@link IllegalStateException}。 为了降低开销, 每个线程把访问登记在分布于不同缓存行的若干计数器之一中, 批量方法整个传输只登记一次。
+ * D. 与映射字节缓冲区一样, 文件被截断时段的全部或部分可能不可访问, 文件被本程序或其他程序修改时段的内容可能随时变化。
+ */
+/**
+ * A memory-mapped region of a file, of any size, that is accessed by
+ * {@code long} offsets and that may be unmapped explicitly.
+ *
+ * <p> Mapped segments are created via the {@link
+ * java.nio.channels.FileChannel#mapSegment FileChannel.mapSegment} method.
+ * Unlike a {@link MappedByteBuffer}, whose capacity is at most {@link
+ * Integer#MAX_VALUE} bytes and whose mapping remains valid until the buffer
+ * is garbage-collected, a segment may map a whole file however large it is,
+ * and its mapping is released as soon as the segment is {@link #close
+ * closed}.  A segment that is never closed is unmapped when it is
+ * garbage-collected.
+ *
+ * <p> A segment has no position or limit: each of its get and put methods
+ * takes the offset, relative to the start of the segment, at which to read
+ * or write, and throws {@link IndexOutOfBoundsException} if the bytes it
+ * accesses are not all within the segment.  The bulk methods transfer
+ * elements between the segment and an array in a single operation.
+ * Multi-byte values are read and written in the segment's {@link #order
+ * byte order}, which is initially {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.
+ *
+ * <p> Segments are safe for use by multiple concurrent threads, except
+ * that the byte order should be set before the segment is shared.  No
+ * ordering is imposed on concurrent reads and writes of the same bytes.
+ * Closing a segment waits until the accesses that are in progress in other
+ * threads complete, and then unmaps it, so that an access never touches
+ * memory that is no longer mapped; an access that is attempted after the
+ * segment is closed throws {@link IllegalStateException}.  To keep this
+ * cheap, each thread registers its accesses in one of several counters
+ * that are kept on separate cache lines; the bulk methods register once
+ * for the whole transfer.
+ *
+ * <p> As with a mapped byte buffer, all or part of a segment may become
+ * inaccessible if the mapped file is truncated, and the content of a segment
+ * may change at any time if the file is changed by this program or another.
+ *
+ * @see java.nio.channels.FileChannel#mapSegment
+ * @since 1.8
+ */
+
+public final class MappedSegment
+    implements Closeable
+{
+
+    private static final Unsafe unsafe = Bits.unsafe();
+
+    private static final boolean unaligned = Bits.unaligned();
+
+    // The number of access counters, a power of two, and the spacing of
+    // their slots in the users array, to keep them on separate cache lines
+    private static final int STRIPES;
+    private static final int STRIDE = 16;
+    static {
+        int n = 1;
+        while (n < 2 * Runtime.getRuntime().availableProcessors() && n < 64)
+            n <<= 1;
+        STRIPES = n;
+    }
+
+    // The largest region flushed by a single force
+    private static final int FORCE_CHUNK = 1 << 30;
+
+    // The start and size of the mapped region; address is 0 if size is 0
+    private final long address;
+    private final long size;
+
+    private final boolean readOnly;
+
+    // The descriptor used by force, as for a mapped byte buffer
+    private final FileDescriptor fd;
+
+    // Unmaps the region, at most once; null if size is 0
+    private final Cleaner cleaner;
+
+    // The number of accesses in progress, counted by stripe
+    private final AtomicIntegerArray users =
+        new AtomicIntegerArray(STRIPES * STRIDE);
+
+    private volatile boolean closed;
+
+    private boolean bigEndian = true;
+    private boolean nativeByteOrder
+        = (Bits.byteOrder() == ByteOrder.BIG_ENDIAN);
+
+    MappedSegment(long addr, long size, boolean readOnly,      // package-private
+                  FileDescriptor fd, Runnable unmapper)
+    {
+        this.address = addr;
+        this.size = size;
+        this.readOnly = readOnly;
+        this.fd = fd;
+        this.cleaner = Cleaner.create(this, unmapper);
+    }
+
+
+    // -- Access registration --
+
+    // Registers an access by the current thread, returning the slot to pass
+    // to release; the access may proceed only if the segment is not closed
+    // once it is counted, as close sets closed before waiting for the
+    // counters to drain.
+    private int acquire() {
+        int i = ((int)Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+        users.getAndIncrement(i);
+        if (closed) {
+            users.getAndDecrement(i);
+            throw new IllegalStateException("Segment closed");
+        }
+        return i;
+    }
+
+    private void release(int i) {
+        users.getAndDecrement(i);
+    }
+
+    // Returns the address of the n bytes at the given offset
+    private long ix(long offset, long n) {
+        if (offset < 0 || offset > size - n)
+            throw new IndexOutOfBoundsException();
+        return address + offset;
+    }
+
+    private void checkWritable() {
+        if (readOnly)
+            throw new ReadOnlyBufferException();
+    }
+
+
+    // -- Segment state --
+
+    /**
+     * Returns the size of this segment.
+     *
+     * @return  The number of bytes mapped by this segment
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Tells whether or not this segment is read-only.
+     *
+     * @return  <tt>true</tt> if, and only if, this segment was mapped in
+     *          {@link java.nio.channels.FileChannel.MapMode#READ_ONLY
+     *          READ_ONLY} mode
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Tells whether or not this segment is open.
+     *
+     * @return  <tt>true</tt> if, and only if, this segment has not been
+     *          closed
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Retrieves this segment's byte order.
+     *
+     * @return  This segment's byte order
+     */
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Modifies this segment's byte order.
+     *
+     * <p> The byte order is not guarded against concurrent access; it should
+     * be set before the segment is made visible to other threads. </p>
+     *
+     * @param  bo
+     *         The new byte order, either {@link ByteOrder#BIG_ENDIAN
+     *         BIG_ENDIAN} or {@link ByteOrder#LITTLE_ENDIAN LITTLE_ENDIAN}
+     *
+     * @return  This segment
+     */
+    public MappedSegment order(ByteOrder bo) {
+        bigEndian = (bo == ByteOrder.BIG_ENDIAN);
+        nativeByteOrder =
+            (bigEndian == (Bits.byteOrder() == ByteOrder.BIG_ENDIAN));
+        return this;
+    }
+
+    /**
+     * Closes this segment, unmapping the region of the file that it maps.
+     *
+     * <p> Once closed, any further attempt to access the segment throws
+     * {@link IllegalStateException}.  If accesses by other threads are in
+     * progress, this method waits until they complete before unmapping the
+     * region.  Invoking this method on a segment that is already closed has
+     * no effect. </p>
+     */
+    public void close() {
+        closed = true;
+        for (int i = 0; i < STRIPES; i++) {
+            while (users.get(i * STRIDE) != 0)
+                Thread.yield();
+        }
+        if (cleaner != null)
+            cleaner.clean();
+    }
+
+    // not used, but a potential target for a store, see load() for details.
+    private static byte unused;
+
+    /**
+     * Loads this segment's content into physical memory.
+     *
+     * <p> This method makes a best effort to ensure that, when it returns,
+     * this segment's content is resident in physical memory, by touching
+     * each of its pages.  Invoking this method may cause some number of page
+     * faults and I/O operations to occur. </p>
+     *
+     * @return  This segment
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment load() {
+        int s = acquire();
+        try {
+            // Start at the page boundary below the first byte, as the
+            // mapping does, so that an unaligned region whose tail spills
+            // onto one more page still has that page touched
+            int ps = Bits.pageSize();
+            long end = address + size;
+            byte x = 0;
+            for (long a = address - (address % ps); a < end; a += ps)
+                x ^= unsafe.getByte(a);
+            if (unused != 0)
+                unused = x;
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Forces any changes made to this segment's content to be written to the
+     * storage device containing the mapped file, as {@link
+     * MappedByteBuffer#force MappedByteBuffer.force} does.
+     *
+     * <p> If this segment was not mapped in read/write mode ({@link
+     * java.nio.channels.FileChannel.MapMode#READ_WRITE}) then invoking this
+     * method has no effect. </p>
+     *
+     * @return  This segment
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment force() {
+        int s = acquire();
+        try {
+            if (!readOnly) {
+                // Flush through transient buffers over the region, which have
+                // no cleaner and so never unmap it
+                for (long off = 0; off < size; off += FORCE_CHUNK) {
+                    int n = (int)Math.min(FORCE_CHUNK, size - off);
+                    new DirectByteBuffer(n, address + off, fd, null).force();
+                }
+            }
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+
+    // -- Single-value get/put methods --
+
+    /**
+     * Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset of the byte within this segment
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the size of
+     *          this segment
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public byte get(long offset) {
+        long a = ix(offset, 1);
+        int s = acquire();
+        try {
+            return unsafe.getByte(a);
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Writes the given byte at the given offset.
+     *
+     * @param  offset
+     *         The offset of the byte within this segment
+     *
+     * @param  b
+     *         The byte value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the size of
+     *          this segment
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment put(long offset, byte b) {
+        checkWritable();
+        long a = ix(offset, 1);
+        int s = acquire();
+        try {
+            unsafe.putByte(a, b);
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the two bytes at the given offset, composing them into a char
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The char value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus one
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public char getChar(long offset) {
+        long a = ix(offset, 2);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                char x = unsafe.getChar(a);
+                return (nativeByteOrder ? x : Bits.swap(x));
+            }
+            return Bits.getChar(a, bigEndian);
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Writes two bytes containing the given char value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The char value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putChar(long offset, char value) {
+        checkWritable();
+        long a = ix(offset, 2);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                unsafe.putChar(a, (nativeByteOrder ? value : Bits.swap(value)));
+            } else {
+                Bits.putChar(a, value, bigEndian);
+            }
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the two bytes at the given offset, composing them into a short
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus one
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public short getShort(long offset) {
+        long a = ix(offset, 2);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                short x = unsafe.getShort(a);
+                return (nativeByteOrder ? x : Bits.swap(x));
+            }
+            return Bits.getShort(a, bigEndian);
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Writes two bytes containing the given short value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The short value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putShort(long offset, short value) {
+        checkWritable();
+        long a = ix(offset, 2);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                unsafe.putShort(a, (nativeByteOrder ? value : Bits.swap(value)));
+            } else {
+                Bits.putShort(a, value, bigEndian);
+            }
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into an int
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus three
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public int getInt(long offset) {
+        long a = ix(offset, 4);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                int x = unsafe.getInt(a);
+                return (nativeByteOrder ? x : Bits.swap(x));
+            }
+            return Bits.getInt(a, bigEndian);
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Writes four bytes containing the given int value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The int value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putInt(long offset, int value) {
+        checkWritable();
+        long a = ix(offset, 4);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                unsafe.putInt(a, (nativeByteOrder ? value : Bits.swap(value)));
+            } else {
+                Bits.putInt(a, value, bigEndian);
+            }
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a long
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public long getLong(long offset) {
+        long a = ix(offset, 8);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                long x = unsafe.getLong(a);
+                return (nativeByteOrder ? x : Bits.swap(x));
+            }
+            return Bits.getLong(a, bigEndian);
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Writes eight bytes containing the given long value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The long value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putLong(long offset, long value) {
+        checkWritable();
+        long a = ix(offset, 8);
+        int s = acquire();
+        try {
+            if (unaligned) {
+                unsafe.putLong(a, (nativeByteOrder ? value : Bits.swap(value)));
+            } else {
+                Bits.putLong(a, value, bigEndian);
+            }
+        } finally {
+            release(s);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into a float
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus three
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public float getFloat(long offset) {
+        return Float.intBitsToFloat(getInt(offset));
+    }
+
+    /**
+     * Writes four bytes containing the given float value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The float value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putFloat(long offset, float value) {
+        return putInt(offset, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a
+     * double value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public double getDouble(long offset) {
+        return Double.longBitsToDouble(getLong(offset));
+    }
+
+    /**
+     * Writes eight bytes containing the given double value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte of the value
+     *
+     * @param  value
+     *         The double value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or greater than the size of
+     *          this segment, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment putDouble(long offset, double value) {
+        return putLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+
+    // -- Bulk get/put methods --
+
+    // Copies length elements of 2^shift bytes each from the segment at the
+    // given offset into the array, swapping their bytes if the segment's
+    // byte order is not the native order
+    private void getArray(long offset, Object dst, long baseOffset,
+                          int off, int length, int shift)
+    {
+        long a = ix(offset, (long)length << shift);
+        int s = acquire();
+        try {
+            long pos = (long)off << shift;
+            long bytes = (long)length << shift;
+            if (shift == 0 || nativeByteOrder) {
+                Bits.copyToArray(a, dst, baseOffset, pos, bytes);
+            } else if (shift == 1) {
+                Bits.copyToShortArray(a, dst, pos, bytes);
+            } else if (shift == 2) {
+                Bits.copyToIntArray(a, dst, pos, bytes);
+            } else {
+                Bits.copyToLongArray(a, dst, pos, bytes);
+            }
+        } finally {
+            release(s);
+        }
+    }
+
+    // Copies length elements of 2^shift bytes each from the array into the
+    // segment at the given offset, swapping their bytes if the segment's
+    // byte order is not the native order
+    private void putArray(long offset, Object src, long baseOffset,
+                          int off, int length, int shift)
+    {
+        checkWritable();
+        long a = ix(offset, (long)length << shift);
+        int s = acquire();
+        try {
+            long pos = (long)off << shift;
+            long bytes = (long)length << shift;
+            if (shift == 0 || nativeByteOrder) {
+                Bits.copyFromArray(src, baseOffset, pos, a, bytes);
+            } else if (shift == 1) {
+                Bits.copyFromShortArray(src, pos, a, bytes);
+            } else if (shift == 2) {
+                Bits.copyFromIntArray(src, pos, a, bytes);
+            } else {
+                Bits.copyFromLongArray(src, pos, a, bytes);
+            }
+        } finally {
+            release(s);
+        }
+    }
+
+    /**
+     * Reads bytes from this segment, starting at the given offset, into the
+     * given array.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     *
+     * @param  dst
+     *         The array into which bytes are to be written
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be written;
+     *         must be non-negative and no larger than <tt>dst.length</tt>
+     *
+     * @param  length
+     *         The number of bytes to be read; must be non-negative and no
+     *         larger than <tt>dst.length - off</tt>
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>off</tt> and <tt>length</tt>
+     *          parameters do not hold, or if the bytes to be read are not all
+     *          within this segment
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment get(long offset, byte[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_BYTE_BASE_OFFSET, off, length, 0);
+        return this;
+    }
+
+    /**
+     * Reads chars from this segment, starting at the given offset, into the
+     * given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which chars are to be written
+     * @param  off
+     *         The offset within the array of the first char to be written
+     * @param  length
+     *         The number of chars to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, char[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_CHAR_BASE_OFFSET, off, length, 1);
+        return this;
+    }
+
+    /**
+     * Reads shorts from this segment, starting at the given offset, into the
+     * given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which shorts are to be written
+     * @param  off
+     *         The offset within the array of the first short to be written
+     * @param  length
+     *         The number of shorts to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, short[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_SHORT_BASE_OFFSET, off, length, 1);
+        return this;
+    }
+
+    /**
+     * Reads ints from this segment, starting at the given offset, into the
+     * given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which ints are to be written
+     * @param  off
+     *         The offset within the array of the first int to be written
+     * @param  length
+     *         The number of ints to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, int[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_INT_BASE_OFFSET, off, length, 2);
+        return this;
+    }
+
+    /**
+     * Reads longs from this segment, starting at the given offset, into the
+     * given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which longs are to be written
+     * @param  off
+     *         The offset within the array of the first long to be written
+     * @param  length
+     *         The number of longs to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, long[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_LONG_BASE_OFFSET, off, length, 3);
+        return this;
+    }
+
+    /**
+     * Reads floats from this segment, starting at the given offset, into the
+     * given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which floats are to be written
+     * @param  off
+     *         The offset within the array of the first float to be written
+     * @param  length
+     *         The number of floats to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, float[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_FLOAT_BASE_OFFSET, off, length, 2);
+        return this;
+    }
+
+    /**
+     * Reads doubles from this segment, starting at the given offset, into
+     * the given array; otherwise as {@link #get(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be read
+     * @param  dst
+     *         The array into which doubles are to be written
+     * @param  off
+     *         The offset within the array of the first double to be written
+     * @param  length
+     *         The number of doubles to be read
+     *
+     * @return  This segment
+     */
+    public MappedSegment get(long offset, double[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        getArray(offset, dst, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, off, length, 3);
+        return this;
+    }
+
+    /**
+     * Writes bytes from the given array into this segment, starting at the
+     * given offset.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be read;
+     *         must be non-negative and no larger than <tt>src.length</tt>
+     *
+     * @param  length
+     *         The number of bytes to be written; must be non-negative and no
+     *         larger than <tt>src.length - off</tt>
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>off</tt> and <tt>length</tt>
+     *          parameters do not hold, or if the bytes to be written are not
+     *          all within this segment
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this segment is closed
+     */
+    public MappedSegment put(long offset, byte[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_BYTE_BASE_OFFSET, off, length, 0);
+        return this;
+    }
+
+    /**
+     * Writes chars from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which chars are to be read
+     * @param  off
+     *         The offset within the array of the first char to be read
+     * @param  length
+     *         The number of chars to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, char[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_CHAR_BASE_OFFSET, off, length, 1);
+        return this;
+    }
+
+    /**
+     * Writes shorts from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which shorts are to be read
+     * @param  off
+     *         The offset within the array of the first short to be read
+     * @param  length
+     *         The number of shorts to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, short[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_SHORT_BASE_OFFSET, off, length, 1);
+        return this;
+    }
+
+    /**
+     * Writes ints from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which ints are to be read
+     * @param  off
+     *         The offset within the array of the first int to be read
+     * @param  length
+     *         The number of ints to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, int[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_INT_BASE_OFFSET, off, length, 2);
+        return this;
+    }
+
+    /**
+     * Writes longs from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which longs are to be read
+     * @param  off
+     *         The offset within the array of the first long to be read
+     * @param  length
+     *         The number of longs to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, long[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_LONG_BASE_OFFSET, off, length, 3);
+        return this;
+    }
+
+    /**
+     * Writes floats from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which floats are to be read
+     * @param  off
+     *         The offset within the array of the first float to be read
+     * @param  length
+     *         The number of floats to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, float[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_FLOAT_BASE_OFFSET, off, length, 2);
+        return this;
+    }
+
+    /**
+     * Writes doubles from the given array into this segment, starting at the
+     * given offset; otherwise as {@link #put(long, byte[], int, int)}.
+     *
+     * @param  offset
+     *         The offset within this segment of the first byte to be written
+     * @param  src
+     *         The array from which doubles are to be read
+     * @param  off
+     *         The offset within the array of the first double to be read
+     * @param  length
+     *         The number of doubles to be written
+     *
+     * @return  This segment
+     */
+    public MappedSegment put(long offset, double[] src, int off, int length) {
+        Buffer.checkBounds(off, length, src.length);
+        putArray(offset, src, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, off, length, 3);
+        return this;
+    }
+
+    /**
+     * Returns a string summarizing the state of this segment.
+     *
+     * @return  A summary string
+     */
+    public String toString() {
+        return getClass().getName() + "[size=" + size
+            + (readOnly ? ", read-only" : "")
+            + (closed ? ", closed" : "") + "]";
+    }
+}
@@ -28,6 +28,7 @@ package java.nio.channels;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.MappedSegment;
 import java.nio.channels.spi.AbstractInterruptibleChannel;
 import java.nio.file.*;
 import java.nio.file.attribute.FileAttribute;
@@ -777,6 +778,327 @@ public abstract class FileChannel
      */
     public abstract int write(ByteBuffer src, long position) throws IOException;
 
+    /**
+     * Reads a sequence of bytes from this channel into a subsequence of the
+     * given buffers, starting at the given file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #read(ByteBuffer[],int,int)} method, except that bytes are read starting
+     * at the given file position rather than at the channel's current
+     * position.  This method does not modify this channel's position.  If the
+     * given position is greater than the file's current size then no bytes
+     * are read.
+     *
+     * <p> The default implementation of this method reads into each buffer in
+     * turn with {@link #read(ByteBuffer,long)}, stopping when a buffer is not
+     * filled.  The implementation returned by {@link #open open} reads into
+     * all of the buffers with a single vectored read where the operating
+     * system supports one.  </p>
+     *
+     * @param  dsts
+     *         The buffers into which bytes are to be transferred
+     *
+     * @param  offset
+     *         The offset within the buffer array of the first buffer into
+     *         which bytes are to be transferred; must be non-negative and no
+     *         larger than <tt>dsts.length</tt>
+     *
+     * @param  length
+     *         The maximum number of buffers to be accessed; must be
+     *         non-negative and no larger than <tt>dsts.length</tt>&nbsp;-&nbsp;<tt>offset</tt>
+     *
+     * @param  position
+     *         The file position at which the transfer is to begin;
+     *         must be non-negative
+     *
+     * @return  The number of bytes read, possibly zero, or <tt>-1</tt> if the
+     *          given position is greater than or equal to the file's current
+     *          size
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  IllegalArgumentException
+     *          If the position is negative
+     *
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the read operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the read operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long read(ByteBuffer[] dsts, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int rem = dsts[i].remaining();
+            int n = read(dsts[i], position + total);
+            if (n < 0)
+                return (total > 0) ? total : -1;
+            total += n;
+            if (n < rem)
+                break;
+        }
+        return total;
+    }
+
+    /**
+     * Reads a sequence of bytes from this channel into the given buffers,
+     * starting at the given file position.
+     *
+     * <p> An invocation of this method of the form <tt>c.read(dsts,
+     * position)</tt> behaves in exactly the same manner as the invocation
+     *
+     * <blockquote><pre>
+     * c.read(dsts, 0, dsts.length, position);</pre></blockquote>
+     *
+     * @since 1.8
+     */
+    public final long read(ByteBuffer[] dsts, long position)
+        throws IOException
+    {
+        return read(dsts, 0, dsts.length, position);
+    }
+
+    /**
+     * Writes a sequence of bytes to this channel from a subsequence of the
+     * given buffers, starting at the given file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #write(ByteBuffer[],int,int)} method, except that bytes are written
+     * starting at the given file position rather than at the channel's
+     * current position.  This method does not modify this channel's position.
+     * If the given position is greater than the file's current size then the
+     * file will be grown to accommodate the new bytes; the values of any
+     * bytes between the previous end-of-file and the newly-written bytes are
+     * unspecified.
+     *
+     * <p> The default implementation of this method writes each buffer in
+     * turn with {@link #write(ByteBuffer,long)}, stopping when a buffer is
+     * not written in full.  The implementation returned by {@link #open open}
+     * writes all of the buffers with a single vectored write where the
+     * operating system supports one.  </p>
+     *
+     * @param  srcs
+     *         The buffers from which bytes are to be transferred
+     *
+     * @param  offset
+     *         The offset within the buffer array of the first buffer from
+     *         which bytes are to be transferred; must be non-negative and no
+     *         larger than <tt>srcs.length</tt>
+     *
+     * @param  length
+     *         The maximum number of buffers to be accessed; must be
+     *         non-negative and no larger than <tt>srcs.length</tt>&nbsp;-&nbsp;<tt>offset</tt>
+     *
+     * @param  position
+     *         The file position at which the transfer is to begin;
+     *         must be non-negative
+     *
+     * @return  The number of bytes written, possibly zero
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  IllegalArgumentException
+     *          If the position is negative
+     *
+     * @throws  NonWritableChannelException
+     *          If this channel was not opened for writing
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the write operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the write operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long write(ByteBuffer[] srcs, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > srcs.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int rem = srcs[i].remaining();
+            int n = write(srcs[i], position + total);
+            total += n;
+            if (n < rem)
+                break;
+        }
+        return total;
+    }
+
+    /**
+     * Writes a sequence of bytes to this channel from the given buffers,
+     * starting at the given file position.
+     *
+     * <p> An invocation of this method of the form <tt>c.write(srcs,
+     * position)</tt> behaves in exactly the same manner as the invocation
+     *
+     * <blockquote><pre>
+     * c.write(srcs, 0, srcs.length, position);</pre></blockquote>
+     *
+     * @since 1.8
+     */
+    public final long write(ByteBuffer[] srcs, long position)
+        throws IOException
+    {
+        return write(srcs, 0, srcs.length, position);
+    }
+
+    /**
+     * Reads sequences of bytes from several regions of this channel's file,
+     * each into its own buffer.
+     *
+     * <p> For each index <i>i</i> of the given subsequence, an attempt is
+     * made to read up to <i>r</i> bytes into <tt>dsts[</tt><i>i</i><tt>]</tt>
+     * starting at file position <tt>positions[</tt><i>i</i><tt>]</tt>, where
+     * <i>r</i> is the number of bytes remaining in that buffer, as {@link
+     * #read(ByteBuffer,long)} would; the position of each buffer is advanced
+     * by the number of bytes read into it.  This method does not modify this
+     * channel's position.  The regions may be given in any order, and may
+     * overlap.
+     *
+     * <p> As with the other read methods, fewer bytes than requested may be
+     * read, in which case the buffers that have bytes remaining may be passed
+     * to a further invocation.
+     *
+     * <p> The default implementation of this method reads each region in turn
+     * with {@link #read(ByteBuffer,long)}.  The implementation returned by
+     * {@link #open open} reads the regions in ascending order of position,
+     * reading each run of regions that are adjacent, or separated only by
+     * small gaps, with a single vectored read, so that a batch of nearby
+     * regions costs a single system call.  </p>
+     *
+     * @param  dsts
+     *         The buffers into which bytes are to be transferred
+     *
+     * @param  positions
+     *         The file positions at which the transfers into the
+     *         corresponding buffers are to begin; each must be non-negative
+     *
+     * @param  offset
+     *         The offset within the buffer and position arrays of the first
+     *         region to be read; must be non-negative and no larger than the
+     *         length of either array
+     *
+     * @param  length
+     *         The number of regions to be read; must be non-negative and no
+     *         larger than the length of either array minus <tt>offset</tt>
+     *
+     * @return  The number of bytes read, possibly zero, or <tt>-1</tt> if
+     *          every given position of a buffer with bytes remaining is
+     *          greater than or equal to the file's current size
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  IllegalArgumentException
+     *          If any of the positions is negative
+     *
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the read operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the read operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long read(ByteBuffer[] dsts, long[] positions,
+                     int offset, int length)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length)
+            || (offset > positions.length - length))
+            throw new IndexOutOfBoundsException();
+        for (int i = offset; i < offset + length; i++) {
+            if (positions[i] < 0)
+                throw new IllegalArgumentException("Negative position");
+        }
+        long total = 0;
+        int reads = 0;
+        int eofs = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (!dsts[i].hasRemaining())
+                continue;
+            int n = read(dsts[i], positions[i]);
+            reads++;
+            if (n < 0)
+                eofs++;
+            else
+                total += n;
+        }
+        return (reads > 0 && eofs == reads) ? -1 : total;
+    }
+
+    /**
+     * Reads sequences of bytes from several regions of this channel's file,
+     * each into its own buffer.
+     *
+     * <p> An invocation of this method of the form <tt>c.read(dsts,
+     * positions)</tt> behaves in exactly the same manner as the invocation
+     *
+     * <blockquote><pre>
+     * c.read(dsts, positions, 0, dsts.length);</pre></blockquote>
+     *
+     * @since 1.8
+     */
+    public final long read(ByteBuffer[] dsts, long[] positions)
+        throws IOException
+    {
+        return read(dsts, positions, 0, dsts.length);
+    }
+
 
     // -- Memory-mapped buffers --
 
@@ -916,6 +1238,65 @@ public abstract class FileChannel
                                          long position, long size)
         throws IOException;
 
+    /**
+     * Maps a region of this channel's file directly into memory as a {@link
+     * MappedSegment}, which may be larger than {@link
+     * java.lang.Integer#MAX_VALUE} bytes and which may be unmapped explicitly.
+     *
+     * <p> This method behaves as {@link #map map} does, except that the size
+     * of the region is not limited to that of a buffer, and that the region
+     * is unmapped as soon as the returned segment is {@link
+     * MappedSegment#close closed}, rather than only when it is
+     * garbage-collected.  A segment is thus suited to mapping a large file
+     * once, in place of many buffers each mapping a part of it, and to
+     * releasing the mapping without waiting for the garbage collector.
+     *
+     * <p> The default implementation of this method throws {@link
+     * UnsupportedOperationException}. </p>
+     *
+     * @param  mode
+     *         One of the constants {@link MapMode#READ_ONLY READ_ONLY}, {@link
+     *         MapMode#READ_WRITE READ_WRITE}, or {@link MapMode#PRIVATE
+     *         PRIVATE} defined in the {@link MapMode} class, according to
+     *         whether the file is to be mapped read-only, read/write, or
+     *         privately (copy-on-write), respectively
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped segment
+     *
+     * @throws NonReadableChannelException
+     *         If the <tt>mode</tt> is {@link MapMode#READ_ONLY READ_ONLY} but
+     *         this channel was not opened for reading
+     *
+     * @throws NonWritableChannelException
+     *         If the <tt>mode</tt> is {@link MapMode#READ_WRITE READ_WRITE} or
+     *         {@link MapMode#PRIVATE PRIVATE} but this channel was not opened
+     *         for both reading and writing
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     *
+     * @throws UnsupportedOperationException
+     *         If this channel does not support mapped segments
+     *
+     * @throws IOException
+     *         If some other I/O error occurs
+     *
+     * @see java.nio.MappedSegment
+     * @since 1.8
+     */
+    public MappedSegment mapSegment(MapMode mode, long position, long size)
+        throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
 
     // -- Locks --
 
@@ -1890,4 +1890,16 @@ public class ArrayList<E> extends AbstractList<E> implements List<E>, RandomAcce
         }
         modCount++;
     }
+
+    // 使用指定比较器进行并行排序, 直接对底层数组原地排序
+    @Override
+    @SuppressWarnings("unchecked")
+    public void parallelSort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        Arrays.parallelSort((E[]) elementData, 0, size, c);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
 }
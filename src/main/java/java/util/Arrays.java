@@ -36,6 +36,7 @@ import java.util.function.IntToDoubleFunction;
 import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
 import java.util.function.LongBinaryOperator;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
@@ -1181,6 +1182,641 @@ public class Arrays {
                  MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
     }
 
+    /*
+     * Radix sorting of primitive type arrays, and of object arrays by key.
+     */
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The algorithm requires a working space no greater than the size of
+     * the original array. Ranges shorter than a minimum length are sorted using
+     * the appropriate {@link Arrays#sort(int[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void radixSort(int[] a) {
+        RadixSort.sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The algorithm requires a working space no greater than the size of
+     * the specified range of the original array. Ranges shorter than a minimum
+     * length are sorted using the appropriate {@link Arrays#sort(int[])
+     * Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void radixSort(int[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The elements of each pass are counted, and then distributed, in
+     * parallel chunks; the {@link ForkJoinPool#commonPool() ForkJoin common
+     * pool} is used to execute any parallel tasks. The algorithm requires a
+     * working space no greater than the size of the original array. Ranges
+     * shorter than a minimum length are sorted using the appropriate {@link
+     * Arrays#sort(int[]) Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(int[] a) {
+        RadixSort.sort(a, 0, a.length, true);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The elements of each pass are counted, and then distributed, in
+     * parallel chunks; the {@link ForkJoinPool#commonPool() ForkJoin common
+     * pool} is used to execute any parallel tasks. The algorithm requires a
+     * working space no greater than the size of the specified range of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(int[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(int[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The algorithm requires a working space no greater than the size of
+     * the original array. Ranges shorter than a minimum length are sorted using
+     * the appropriate {@link Arrays#sort(long[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void radixSort(long[] a) {
+        RadixSort.sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The algorithm requires a working space no greater than the size of
+     * the specified range of the original array. Ranges shorter than a minimum
+     * length are sorted using the appropriate {@link Arrays#sort(long[])
+     * Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void radixSort(long[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The elements of each pass are counted, and then distributed, in
+     * parallel chunks; the {@link ForkJoinPool#commonPool() ForkJoin common
+     * pool} is used to execute any parallel tasks. The algorithm requires a
+     * working space no greater than the size of the original array. Ranges
+     * shorter than a minimum length are sorted using the appropriate {@link
+     * Arrays#sort(long[]) Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(long[] a) {
+        RadixSort.sort(a, 0, a.length, true);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The elements of each pass are counted, and then distributed, in
+     * parallel chunks; the {@link ForkJoinPool#commonPool() ForkJoin common
+     * pool} is used to execute any parallel tasks. The algorithm requires a
+     * working space no greater than the size of the specified range of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(long[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(long[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code float} values are sorted through {@code int} keys
+     * ordered as {@link Float#compare}, after moving any NaNs to the end. The
+     * algorithm requires a working space no greater than twice the size of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(float[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void radixSort(float[] a) {
+        RadixSort.sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code float} values are sorted through {@code int} keys
+     * ordered as {@link Float#compare}, after moving any NaNs to the end. The
+     * algorithm requires a working space no greater than twice the size of the
+     * specified range of the original array. Ranges shorter than a minimum
+     * length are sorted using the appropriate {@link Arrays#sort(float[])
+     * Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void radixSort(float[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code float} values are sorted through {@code int} keys
+     * ordered as {@link Float#compare}, after moving any NaNs to the end. The
+     * elements of each pass are counted, and then distributed, in parallel
+     * chunks; the {@link ForkJoinPool#commonPool() ForkJoin common pool} is
+     * used to execute any parallel tasks. The algorithm requires a working
+     * space no greater than twice the size of the original array. Ranges
+     * shorter than a minimum length are sorted using the appropriate {@link
+     * Arrays#sort(float[]) Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(float[] a) {
+        RadixSort.sort(a, 0, a.length, true);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code float} values are sorted through {@code int} keys
+     * ordered as {@link Float#compare}, after moving any NaNs to the end. The
+     * elements of each pass are counted, and then distributed, in parallel
+     * chunks; the {@link ForkJoinPool#commonPool() ForkJoin common pool} is
+     * used to execute any parallel tasks. The algorithm requires a working
+     * space no greater than twice the size of the specified range of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(float[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(float[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code double} values are sorted through {@code long} keys
+     * ordered as {@link Double#compare}, after moving any NaNs to the end. The
+     * algorithm requires a working space no greater than twice the size of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(double[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void radixSort(double[] a) {
+        RadixSort.sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code double} values are sorted through {@code long} keys
+     * ordered as {@link Double#compare}, after moving any NaNs to the end. The
+     * algorithm requires a working space no greater than twice the size of the
+     * specified range of the original array. Ranges shorter than a minimum
+     * length are sorted using the appropriate {@link Arrays#sort(double[])
+     * Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void radixSort(double[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code double} values are sorted through {@code long} keys
+     * ordered as {@link Double#compare}, after moving any NaNs to the end. The
+     * elements of each pass are counted, and then distributed, in parallel
+     * chunks; the {@link ForkJoinPool#commonPool() ForkJoin common pool} is
+     * used to execute any parallel tasks. The algorithm requires a working
+     * space no greater than twice the size of the original array. Ranges
+     * shorter than a minimum length are sorted using the appropriate {@link
+     * Arrays#sort(double[]) Arrays.sort} method, which is faster for them.
+     *
+     * @param a the array to be sorted
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(double[] a) {
+        RadixSort.sort(a, 0, a.length, true);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least-significant-digit radix sort,
+     * making one counting and distributing pass over the elements per eight
+     * bits of key, and skipping passes in which all elements have the same
+     * digit. The {@code double} values are sorted through {@code long} keys
+     * ordered as {@link Double#compare}, after moving any NaNs to the end. The
+     * elements of each pass are counted, and then distributed, in parallel
+     * chunks; the {@link ForkJoinPool#commonPool() ForkJoin common pool} is
+     * used to execute any parallel tasks. The algorithm requires a working
+     * space no greater than twice the size of the specified range of the
+     * original array. Ranges shorter than a minimum length are sorted using the
+     * appropriate {@link Arrays#sort(double[]) Arrays.sort} method, which is
+     * faster for them.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static void parallelRadixSort(double[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts the specified array of objects into the ascending numerical order
+     * of the {@code long} keys that the specified function extracts from its
+     * elements.  The function is applied exactly once to each element, so
+     * this is usually much faster than sorting with a comparator that
+     * extracts the keys of the elements it compares.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  elements with equal
+     * keys will not be reordered as a result of the sort.
+     *
+     * @implNote The key of each element is extracted once, into an array of
+     * keys paired with the indices of their elements, which is sorted by a
+     * least-significant-digit radix sort; the elements are then permuted into
+     * the order of their keys. The algorithm requires a working space of about
+     * five times the size of the original array. Ranges shorter than a minimum
+     * length are sorted using {@link #sort(Object[], int, int, Comparator)
+     * Arrays.sort} with a comparator of the keys, which is faster for them.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param key the function extracting the sort key of an element
+     * @throws NullPointerException if {@code key} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void sortByKey(T[] a, ToLongFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        RadixSort.sortByKey(a, 0, a.length, key, false);
+    }
+
+    /**
+     * Sorts the specified range of the specified array of objects into the
+     * ascending numerical order of the {@code long} keys that the specified
+     * function extracts from its elements.  The range to be sorted extends
+     * from index {@code fromIndex}, inclusive, to index {@code toIndex},
+     * exclusive.  (If {@code fromIndex==toIndex}, the range to be sorted is
+     * empty.)  The function is applied exactly once to each element of the
+     * range.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  elements with equal
+     * keys will not be reordered as a result of the sort.
+     *
+     * @implNote The key of each element is extracted once, into an array of
+     * keys paired with the indices of their elements, which is sorted by a
+     * least-significant-digit radix sort; the elements are then permuted into
+     * the order of their keys. The algorithm requires a working space of about
+     * five times the size of the specified range of the original array. Ranges
+     * shorter than a minimum length are sorted using {@link #sort(Object[],
+     * int, int, Comparator) Arrays.sort} with a comparator of the keys, which
+     * is faster for them.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element (inclusive) to be
+     *        sorted
+     * @param toIndex the index of the last element (exclusive) to be sorted
+     * @param key the function extracting the sort key of an element
+     * @throws NullPointerException if {@code key} is null
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static <T> void sortByKey(T[] a, int fromIndex, int toIndex,
+                                     ToLongFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sortByKey(a, fromIndex, toIndex, key, false);
+    }
+
+    /**
+     * Sorts the specified array of objects into the ascending numerical order
+     * of the {@code long} keys that the specified function extracts from its
+     * elements.  The function is applied exactly once to each element, so
+     * this is usually much faster than sorting with a comparator that
+     * extracts the keys of the elements it compares.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  elements with equal
+     * keys will not be reordered as a result of the sort.
+     *
+     * @implNote The key of each element is extracted once, into an array of
+     * keys paired with the indices of their elements, which is sorted by a
+     * least-significant-digit radix sort; the elements are then permuted into
+     * the order of their keys. The keys are extracted, and each pass counted
+     * and distributed, in parallel chunks; the {@link ForkJoinPool#commonPool()
+     * ForkJoin common pool} is used to execute any parallel tasks. The
+     * algorithm requires a working space of about five times the size of the
+     * original array. Ranges shorter than a minimum length are sorted using
+     * {@link #sort(Object[], int, int, Comparator) Arrays.sort} with a
+     * comparator of the keys, which is faster for them.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param key the function extracting the sort key of an element
+     * @throws NullPointerException if {@code key} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void parallelSortByKey(T[] a, ToLongFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        RadixSort.sortByKey(a, 0, a.length, key, true);
+    }
+
+    /**
+     * Sorts the specified range of the specified array of objects into the
+     * ascending numerical order of the {@code long} keys that the specified
+     * function extracts from its elements.  The range to be sorted extends
+     * from index {@code fromIndex}, inclusive, to index {@code toIndex},
+     * exclusive.  (If {@code fromIndex==toIndex}, the range to be sorted is
+     * empty.)  The function is applied exactly once to each element of the
+     * range.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  elements with equal
+     * keys will not be reordered as a result of the sort.
+     *
+     * @implNote The key of each element is extracted once, into an array of
+     * keys paired with the indices of their elements, which is sorted by a
+     * least-significant-digit radix sort; the elements are then permuted into
+     * the order of their keys. The keys are extracted, and each pass counted
+     * and distributed, in parallel chunks; the {@link ForkJoinPool#commonPool()
+     * ForkJoin common pool} is used to execute any parallel tasks. The
+     * algorithm requires a working space of about five times the size of the
+     * specified range of the original array. Ranges shorter than a minimum
+     * length are sorted using {@link #sort(Object[], int, int, Comparator)
+     * Arrays.sort} with a comparator of the keys, which is faster for them.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element (inclusive) to be
+     *        sorted
+     * @param toIndex the index of the last element (exclusive) to be sorted
+     * @param key the function extracting the sort key of an element
+     * @throws NullPointerException if {@code key} is null
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     *
+     * @since 1.8
+     */
+    public static <T> void parallelSortByKey(T[] a, int fromIndex, int toIndex,
+                                             ToLongFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sortByKey(a, fromIndex, toIndex, key, true);
+    }
+
     /*
      * Sorting of complex type arrays.
      */
@@ -3907,6 +4543,11 @@ public class Arrays {
         public void sort(Comparator<? super E> c) {
             Arrays.sort(a, c);
         }
+
+        @Override
+        public void parallelSort(Comparator<? super E> c) {
+            Arrays.parallelSort(a, c);
+        }
     }
 
     /**
@@ -0,0 +1,884 @@
+/*
+ * Copyright (c) 1997, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 20261016
+ * A. 以int为键、int为值的开放寻址哈希表。 键和值分别保存在两个平铺的int数组中, 不为每个映射创建任何节点对象, 因此相比
+ *    HashMap<Integer,Integer> 每个条目可节省约40~60字节, 也不会给GC带来额外的扫描压力。
+ * B. 采用线性探测, 删除时使用向后移位(backward shift)而不是墓碑, 因此探测链不会随删除而退化。 键0作为空槽标记, 单独存放。
+ * C. 该类同时实现了 Map<Integer,Integer>, 可以直接替换原有的装箱Map; 但装箱方法会为每次调用分配对象, 性能敏感的代码应使用原始类型方法。
+ * D. 通过 {@link #keyStream()}、{@link #valueStream()} 可直接接入 IntStream 流水线, 其Spliterator支持并行拆分。
+ * E. 该实现不是同步的; 迭代器是快速失败的。
+ */
+
+/**
+ * An open-addressed hash table mapping {@code int} keys to {@code int}
+ * values.  Keys and values are held in flat parallel arrays, so no
+ * per-mapping objects are allocated and the table adds nothing for the
+ * garbage collector to trace beyond the two arrays themselves.
+ *
+ * <p>The primitive methods ({@link #get(int, int)}, {@link #put(int, int)},
+ * {@link #remove(int)}, {@link #addAndGet(int, int)} and so on) never box.
+ * This class additionally implements {@code Map<Integer,Integer>} so that it
+ * may be passed wherever a {@code Map} is expected; those inherited methods
+ * box their arguments and results and should be avoided on hot paths.
+ *
+ * <p>Because a primitive value cannot be {@code null}, methods that would
+ * return {@code null} for an absent mapping in {@link HashMap} instead return
+ * a caller supplied default, or {@code 0}.  Use {@link #containsKey(int)} to
+ * distinguish an absent key from one mapped to {@code 0}.
+ *
+ * <p>Keys and values may be traversed, in parallel if desired, through
+ * {@link #keyStream()} and {@link #valueStream()}, whose spliterators report
+ * {@link Spliterator#SIZED} until split, like those of {@link HashMap}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators and spliterators of this class are <i>fail-fast</i> on a
+ * best-effort basis, in the same sense as those of {@link HashMap}.
+ *
+ * @see HashMap
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class IntIntMap extends AbstractMap<Integer,Integer> implements Cloneable {
+
+    /*
+     * Implementation notes.
+     *
+     * Slots hold key 0 to mean "free", so a real mapping for key 0 is
+     * kept out of line in zeroValue/hasZeroKey.  For traversal purposes
+     * that mapping occupies the virtual slot keys.length, one past the
+     * end of the table, which lets iterators and spliterators treat it
+     * like any other slot.
+     *
+     * Collisions are resolved by linear probing.  Removal uses backward
+     * shifting (Knuth 6.4, Algorithm R) rather than tombstones, so probe
+     * sequences never degrade under churn and no periodic cleanup
+     * rehash is needed.  Keys are scrambled with a multiplicative
+     * (Fibonacci) hash before masking, since integer keys are often
+     * dense or strided and Integer.hashCode is the identity.
+     */
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.  Linear
+     * probing degrades faster than chaining as the table fills, so this
+     * is lower than HashMap's.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The key slots, length always a power of two.  0 marks a free slot.
+     */
+    transient int[] keys;
+
+    /**
+     * The value slots, parallel to keys.
+     */
+    transient int[] vals;
+
+    /**
+     * Whether a mapping for key 0 is present.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The value for key 0, if hasZeroKey.
+     */
+    transient int zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The number of occupied table slots at which to resize.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code IntIntMap} with the default initial
+     * capacity (16) and the default load factor (0.5).
+     */
+    public IntIntMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntIntMap} able to hold the specified
+     * number of mappings without resizing, with the default load factor.
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntIntMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntIntMap} able to hold the specified
+     * number of mappings without resizing, with the specified load factor.
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @param  loadFactor      the load factor, in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public IntIntMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int n = tableSizeFor(initialCapacity, loadFactor);
+        keys = new int[n];
+        vals = new int[n];
+        threshold = thresholdFor(n, loadFactor);
+    }
+
+    /* ---------------- Static utilities -------------- */
+
+    /**
+     * Scrambles a key so that dense and strided key sets spread over
+     * the table.  The upper bits of the product are the best mixed, so
+     * they are folded down into the bits kept by the mask.
+     */
+    static int mix(int x) {
+        int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a power of two table size able to hold the given number of
+     * entries at the given load factor.
+     */
+    static int tableSizeFor(int expected, float loadFactor) {
+        long need = (long)Math.ceil(expected / (double)loadFactor) + 1L;
+        if (need >= MAXIMUM_CAPACITY)
+            return MAXIMUM_CAPACITY;
+        int n = -1 >>> Integer.numberOfLeadingZeros((int)need - 1);
+        return Math.max(n + 1, 2);
+    }
+
+    /**
+     * Returns the resize threshold for a table of length n, always
+     * leaving at least one free slot so that probing terminates.
+     */
+    static int thresholdFor(int n, float loadFactor) {
+        return Math.min((int)Math.ceil(n * (double)loadFactor), n - 1);
+    }
+
+    /* ---------------- Primitive operations -------------- */
+
+    /**
+     * Returns the slot holding the given non-zero key, or -1 if none.
+     */
+    final int slotOf(int key) {
+        int[] ks = keys;
+        int mask = ks.length - 1, i = mix(key) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence is to be tested
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(int key) {
+        return (key == 0) ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This takes time linear in the table capacity.
+     *
+     * @param value the value whose presence is to be tested
+     * @return {@code true} if some key maps to the value
+     */
+    public boolean containsValue(int value) {
+        if (hasZeroKey && zeroValue == value)
+            return true;
+        int[] ks = keys, vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != 0 && vs[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if the key is absent
+     * @return the mapped value, or {@code defaultValue}
+     */
+    public int get(int key, int defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = slotOf(key);
+        return (i < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map,
+     * replacing any previous value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or {@code 0}
+     *         if there was no mapping for {@code key}
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++modCount;
+                ++size;
+                return 0;
+            }
+            return old;
+        }
+        int[] ks = keys;
+        int mask = ks.length - 1, i = mix(key) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                int old = vals[i];
+                vals[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        ks[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+        return 0;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return {@code true} if the mapping was added
+     */
+    public boolean putIfAbsent(int key, int value) {
+        if (containsKey(key))
+            return false;
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * Adds {@code delta} to the value mapped to {@code key}, treating an
+     * absent key as mapped to {@code 0}, and returns the updated value.
+     * This is the unboxed equivalent of
+     * {@code map.merge(key, delta, Integer::sum)}, and costs a single probe.
+     *
+     * @param key the key whose value is to be adjusted
+     * @param delta the amount to add
+     * @return the updated value
+     */
+    public int addAndGet(int key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++modCount;
+                ++size;
+                return zeroValue = delta;
+            }
+            return zeroValue += delta;
+        }
+        int[] ks = keys;
+        int mask = ks.length - 1, i = mix(key) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return vals[i] += delta;
+            i = (i + 1) & mask;
+        }
+        ks[i] = key;
+        vals[i] = delta;
+        ++modCount;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+        return delta;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or {@code 0}
+     *         if there was no mapping for {@code key}
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey)
+                return 0;
+            int old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            ++modCount;
+            --size;
+            return old;
+        }
+        int i = slotOf(key);
+        if (i < 0)
+            return 0;
+        int old = vals[i];
+        ++modCount;
+        --size;
+        shiftKeys(i);
+        return old;
+    }
+
+    /**
+     * Empties slot pos and closes the resulting gap by moving back any
+     * later entries of the same probe run whose home slot does not lie
+     * cyclically in (pos, current].
+     */
+    final void shiftKeys(int pos) {
+        int[] ks = keys, vs = vals;
+        int mask = ks.length - 1;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            int k;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = 0;
+                    return;
+                }
+                int slot = mix(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table and reinserts all entries.
+     */
+    final void resize() {
+        int[] oldKeys = keys, oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size - (hasZeroKey ? 1 : 0) >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Capacity exceeded");
+            threshold = MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int newCap = oldCap << 1, mask = newCap - 1;
+        int[] ks = new int[newCap], vs = new int[newCap];
+        for (int j = 0; j < oldCap; ++j) {
+            int k;
+            if ((k = oldKeys[j]) != 0) {
+                int i = mix(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+        keys = ks;
+        vals = vs;
+        threshold = thresholdFor(newCap, loadFactor);
+    }
+
+    /**
+     * Performs the given action for each mapping in this map, without
+     * boxing, in no particular order.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws ConcurrentModificationException if the map is structurally
+     *         modified by the action
+     */
+    public void forEachEntry(IntIntConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        int[] ks = keys, vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                action.accept(k, vs[i]);
+        }
+        if (hasZeroKey)
+            action.accept(0, zeroValue);
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfInt} over the keys of this map.
+     *
+     * @return a spliterator over the keys
+     */
+    public Spliterator.OfInt keySpliterator() {
+        return new IntSlotSpliterator(this, 0, -1, 0, 0, true);
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfInt} over the values of this map,
+     * in the same order as {@link #keySpliterator()}.
+     *
+     * @return a spliterator over the values
+     */
+    public Spliterator.OfInt valueSpliterator() {
+        return new IntSlotSpliterator(this, 0, -1, 0, 0, false);
+    }
+
+    /**
+     * Returns an {@code IntStream} of the keys of this map.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the keys
+     */
+    public IntStream keyStream(boolean parallel) {
+        return StreamSupport.intStream(keySpliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the keys of this map.
+     *
+     * @return a stream of the keys
+     */
+    public IntStream keyStream() {
+        return keyStream(false);
+    }
+
+    /**
+     * Returns an {@code IntStream} of the values of this map.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the values
+     */
+    public IntStream valueStream(boolean parallel) {
+        return StreamSupport.intStream(valueSpliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the values of this map.
+     *
+     * @return a stream of the values
+     */
+    public IntStream valueStream() {
+        return valueStream(false);
+    }
+
+    /* ---------------- Map methods -------------- */
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0);
+            Arrays.fill(vals, 0);
+            hasZeroKey = false;
+            zeroValue = 0;
+            size = 0;
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Integer) && containsKey(((Integer)key).intValue());
+    }
+
+    public boolean containsValue(Object value) {
+        return (value instanceof Integer) && containsValue(((Integer)value).intValue());
+    }
+
+    public Integer get(Object key) {
+        if (!(key instanceof Integer))
+            return null;
+        int k = (Integer)key;
+        if (k == 0)
+            return hasZeroKey ? zeroValue : null;
+        int i = slotOf(k);
+        return (i < 0) ? null : vals[i];
+    }
+
+    public Integer put(Integer key, Integer value) {
+        int k = key, v = value;
+        boolean present = containsKey(k);
+        int old = put(k, v);
+        return present ? old : null;
+    }
+
+    public Integer remove(Object key) {
+        if (!(key instanceof Integer))
+            return null;
+        int k = (Integer)key;
+        return containsKey(k) ? remove(k) : null;
+    }
+
+    public void forEach(BiConsumer<? super Integer, ? super Integer> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachEntry(action::accept);
+    }
+
+    public int hashCode() {
+        int h = hasZeroKey ? zeroValue : 0;
+        int[] ks = keys, vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                h += k ^ vs[i];
+        }
+        return h;
+    }
+
+    /**
+     * Returns a shallow copy of this map.
+     *
+     * @return a copy of this map
+     */
+    public IntIntMap clone() {
+        IntIntMap result;
+        try {
+            result = (IntIntMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.entrySet = null;
+        return result;
+    }
+
+    /* ---------------- Views -------------- */
+
+    transient Set<Map.Entry<Integer,Integer>> entrySet;
+
+    public Set<Map.Entry<Integer,Integer>> entrySet() {
+        Set<Map.Entry<Integer,Integer>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Integer,Integer>> {
+        public final int size()                 { return size; }
+        public final void clear()               { IntIntMap.this.clear(); }
+        public final Iterator<Map.Entry<Integer,Integer>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object k = e.getKey(), v = e.getValue();
+            return (k instanceof Integer) && (v instanceof Integer) &&
+                containsKey(((Integer)k).intValue()) &&
+                get((Integer)k, 0) == (Integer)v;
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                IntIntMap.this.remove(((Integer)((Map.Entry<?,?>)o).getKey()).intValue());
+                return true;
+            }
+            return false;
+        }
+        public final void forEach(Consumer<? super Map.Entry<Integer,Integer>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            forEachEntry((k, v) -> action.accept(new Entry(k)));
+        }
+    }
+
+    /**
+     * A write-through entry.  It holds only the key and reads the value
+     * from the map, so it stays valid across table resizes.
+     */
+    final class Entry implements Map.Entry<Integer,Integer> {
+        final int key;
+        Entry(int key)                    { this.key = key; }
+        public final Integer getKey()     { return key; }
+        public final Integer getValue()   { return get(key, 0); }
+        public final Integer setValue(Integer value) {
+            return put(key, value.intValue());
+        }
+        public final int hashCode()       { return key ^ get(key, 0); }
+        public final String toString()    { return key + "=" + get(key, 0); }
+        public final boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Objects.equals(getKey(), e.getKey()) &&
+                Objects.equals(getValue(), e.getValue());
+        }
+    }
+
+    /**
+     * Iterates slots from the top of the table down, starting with the
+     * virtual zero-key slot.  Going downwards means that backward
+     * shifting on remove() only moves already-visited entries into the
+     * slot just vacated, except when a probe run wraps around the end of
+     * the table; entries so moved from the unvisited low end into the
+     * visited high end are saved in "wrapped" and returned at the end.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<Integer,Integer>> {
+        int next;           // next slot to examine, counting down
+        int last = -1;      // slot of last returned entry, -1 if none
+        int[] wrapped;      // keys moved past the cursor by remove()
+        int wrappedCount;
+        int wrappedIndex;   // next wrapped key to return
+        int lastKey;        // key of last returned entry
+        boolean lastWrapped;
+        int expectedModCount = modCount;
+
+        EntryIterator() {
+            next = keys.length;
+        }
+
+        /**
+         * Moves the cursor down to the next occupied slot, returning it,
+         * or -1 if the table is exhausted.  This is done lazily, since
+         * remove() may shift entries out of the slot below the cursor.
+         */
+        private int advance() {
+            int[] ks = keys;
+            int i = next;
+            if (i == ks.length) {
+                if (hasZeroKey)
+                    return i;
+                --i;
+            }
+            while (i >= 0 && ks[i] == 0)
+                --i;
+            return next = i;
+        }
+
+        public final boolean hasNext() {
+            return advance() >= 0 || wrappedIndex < wrappedCount;
+        }
+
+        public final Map.Entry<Integer,Integer> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i;
+            if ((i = advance()) >= 0) {
+                last = i;
+                lastWrapped = false;
+                lastKey = (i == keys.length) ? 0 : keys[i];
+                next = i - 1;
+            }
+            else if (wrappedIndex < wrappedCount) {
+                last = 0;
+                lastWrapped = true;
+                lastKey = wrapped[wrappedIndex++];
+            }
+            else
+                throw new NoSuchElementException();
+            return new Entry(lastKey);
+        }
+
+        public final void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastWrapped || lastKey == 0)
+                IntIntMap.this.remove(lastKey);
+            else {
+                ++modCount;
+                --size;
+                shiftAndTrack(last);
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * As shiftKeys, additionally recording entries that move from
+         * below the cursor to at or above it.
+         */
+        private void shiftAndTrack(int pos) {
+            int[] ks = keys, vs = vals;
+            int mask = ks.length - 1;
+            for (int gap;;) {
+                pos = ((gap = pos) + 1) & mask;
+                int k;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[gap] = 0;
+                        vs[gap] = 0;
+                        return;
+                    }
+                    int slot = mix(k) & mask;
+                    if (gap <= pos ? (gap >= slot || slot > pos)
+                                   : (gap >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < gap) {
+                    if (wrapped == null)
+                        wrapped = new int[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[gap] = k;
+                vs[gap] = vs[pos];
+            }
+        }
+    }
+
+    /**
+     * Spliterator over keys or values.  Covers slots [index, fence),
+     * where slot keys.length is the virtual slot of key 0.
+     */
+    static final class IntSlotSpliterator implements Spliterator.OfInt {
+        final IntIntMap map;
+        final boolean ofKeys;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        IntSlotSpliterator(IntIntMap m, int origin, int fence, int est,
+                           int expectedModCount, boolean ofKeys) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+            this.ofKeys = ofKeys;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntIntMap m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                hi = fence = m.keys.length + 1;
+            }
+            return hi;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public IntSlotSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new IntSlotSpliterator(map, lo, index = mid, est >>>= 1,
+                                       expectedModCount, ofKeys);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntIntMap m = map;
+            int hi = getFence(), i = index;
+            int[] ks = m.keys, vs = m.vals;
+            int n = ks.length;
+            index = hi;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            for (int end = Math.min(hi, n); i < end; ++i) {
+                if (ks[i] != 0)
+                    action.accept(ofKeys ? ks[i] : vs[i]);
+            }
+            if (hi == n + 1 && i <= n && m.hasZeroKey)
+                action.accept(ofKeys ? 0 : m.zeroValue);
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntIntMap m = map;
+            int hi = getFence();
+            int[] ks = m.keys;
+            int n = ks.length;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            while (index < hi) {
+                int i = index++;
+                if (i == n) {
+                    if (m.hasZeroKey) {
+                        action.accept(ofKeys ? 0 : m.zeroValue);
+                        if (m.modCount != expectedModCount)
+                            throw new ConcurrentModificationException();
+                        return true;
+                    }
+                }
+                else if (ks[i] != 0) {
+                    action.accept(ofKeys ? ks[i] : m.vals[i]);
+                    if (m.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                (ofKeys ? Spliterator.DISTINCT : 0);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 1997, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 20261016
+ * A. 基于开放寻址的int集合, 元素保存在一个平铺的int数组中, 不装箱、不创建节点, 用于替代 HashSet<Integer>。
+ * B. 探测与删除策略与 {@link IntIntMap} 相同; {@link #spliterator()} 返回 Spliterator.OfInt, 可通过 {@link #intStream()} 接入 IntStream。
+ */
+
+/**
+ * An open-addressed set of {@code int} values, held in a single flat array
+ * with no boxing and no per-element node.  The primitive methods
+ * {@link #add(int)}, {@link #contains(int)} and {@link #remove(int)} never
+ * box; the inherited {@code Set<Integer>} methods do.
+ *
+ * <p>{@link #spliterator()} returns a {@link Spliterator.OfInt}, and
+ * {@link #intStream()} exposes the elements as an {@link IntStream}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators and spliterators of this class are <i>fail-fast</i> on a
+ * best-effort basis, in the same sense as those of {@link HashSet}.
+ *
+ * @see HashSet
+ * @see IntIntMap
+ * @since 1.8
+ */
+public class IntSet extends AbstractSet<Integer> implements Cloneable {
+
+    /*
+     * Implementation notes.
+     *
+     * This is IntIntMap without the value array; see there for the
+     * table layout, the handling of 0, and the iterator bookkeeping.
+     */
+
+    /**
+     * The element slots, length always a power of two.  0 marks a free
+     * slot.
+     */
+    transient int[] keys;
+
+    /**
+     * Whether 0 is an element.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The number of elements contained in this set.
+     */
+    transient int size;
+
+    /**
+     * The number of times this set has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The number of occupied table slots at which to resize.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code IntSet} with the default initial
+     * capacity (16) and the default load factor (0.5).
+     */
+    public IntSet() {
+        this(IntIntMap.DEFAULT_INITIAL_CAPACITY, IntIntMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntSet} able to hold the specified number
+     * of elements without resizing, with the default load factor.
+     *
+     * @param  initialCapacity the expected number of elements
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntSet(int initialCapacity) {
+        this(initialCapacity, IntIntMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntSet} able to hold the specified number
+     * of elements without resizing, with the specified load factor.
+     *
+     * @param  initialCapacity the expected number of elements
+     * @param  loadFactor      the load factor, in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public IntSet(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int n = IntIntMap.tableSizeFor(initialCapacity, loadFactor);
+        keys = new int[n];
+        threshold = IntIntMap.thresholdFor(n, loadFactor);
+    }
+
+    /* ---------------- Primitive operations -------------- */
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(int e) {
+        if (e == 0)
+            return hasZeroKey;
+        int[] ks = keys;
+        int mask = ks.length - 1, i = IntIntMap.mix(e) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == e)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the element
+     */
+    public boolean add(int e) {
+        if (e == 0) {
+            if (hasZeroKey)
+                return false;
+            hasZeroKey = true;
+            ++modCount;
+            ++size;
+            return true;
+        }
+        int[] ks = keys;
+        int mask = ks.length - 1, i = IntIntMap.mix(e) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == e)
+                return false;
+            i = (i + 1) & mask;
+        }
+        ks[i] = e;
+        ++modCount;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return {@code true} if the set contained the specified element
+     */
+    public boolean remove(int e) {
+        if (e == 0) {
+            if (!hasZeroKey)
+                return false;
+            hasZeroKey = false;
+            ++modCount;
+            --size;
+            return true;
+        }
+        int[] ks = keys;
+        int mask = ks.length - 1, i = IntIntMap.mix(e) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == e) {
+                ++modCount;
+                --size;
+                shiftKeys(i);
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Empties slot pos and closes the resulting gap, as in
+     * IntIntMap.shiftKeys.
+     */
+    final void shiftKeys(int pos) {
+        int[] ks = keys;
+        int mask = ks.length - 1;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            int k;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    return;
+                }
+                int slot = IntIntMap.mix(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+        }
+    }
+
+    /**
+     * Doubles the table and reinserts all elements.
+     */
+    final void resize() {
+        int[] oldKeys = keys;
+        int oldCap = oldKeys.length;
+        if (oldCap >= IntIntMap.MAXIMUM_CAPACITY) {
+            if (size - (hasZeroKey ? 1 : 0) >= IntIntMap.MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Capacity exceeded");
+            threshold = IntIntMap.MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int newCap = oldCap << 1, mask = newCap - 1;
+        int[] ks = new int[newCap];
+        for (int j = 0; j < oldCap; ++j) {
+            int k;
+            if ((k = oldKeys[j]) != 0) {
+                int i = IntIntMap.mix(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+            }
+        }
+        keys = ks;
+        threshold = IntIntMap.thresholdFor(newCap, loadFactor);
+    }
+
+    /**
+     * Performs the given action for each element of this set, without
+     * boxing, in no particular order.
+     *
+     * @param action the action to be performed for each element
+     * @throws ConcurrentModificationException if the set is structurally
+     *         modified by the action
+     */
+    public void forEachInt(IntConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        int[] ks = keys;
+        for (int i = 0; i < ks.length; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                action.accept(k);
+        }
+        if (hasZeroKey)
+            action.accept(0);
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set.
+     *
+     * @return an array containing all the elements in this set
+     */
+    public int[] toIntArray() {
+        int[] a = new int[size];
+        int j = 0;
+        int[] ks = keys;
+        for (int i = 0; i < ks.length; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                a[j++] = k;
+        }
+        return a; // a zero element, if present, is already in place
+    }
+
+    /**
+     * Returns an {@code IntStream} of the elements of this set.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the elements
+     */
+    public IntStream intStream(boolean parallel) {
+        return StreamSupport.intStream(spliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the elements of this set.
+     *
+     * @return a stream of the elements
+     */
+    public IntStream intStream() {
+        return intStream(false);
+    }
+
+    /* ---------------- Set methods -------------- */
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0);
+            hasZeroKey = false;
+            size = 0;
+        }
+    }
+
+    public boolean contains(Object o) {
+        return (o instanceof Integer) && contains(((Integer)o).intValue());
+    }
+
+    public boolean add(Integer e) {
+        return add(e.intValue());
+    }
+
+    public boolean remove(Object o) {
+        return (o instanceof Integer) && remove(((Integer)o).intValue());
+    }
+
+    public void forEach(Consumer<? super Integer> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachInt(action::accept);
+    }
+
+    public int hashCode() {
+        int h = 0;
+        int[] ks = keys;
+        for (int i = 0; i < ks.length; ++i)
+            h += ks[i];
+        return h;
+    }
+
+    /**
+     * Returns a shallow copy of this set.
+     *
+     * @return a copy of this set
+     */
+    public IntSet clone() {
+        IntSet result;
+        try {
+            result = (IntSet)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        return result;
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator.OfInt} over the elements in
+     * this set.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}.
+     *
+     * @return a {@code Spliterator.OfInt} over the elements in this set
+     */
+    public Spliterator.OfInt spliterator() {
+        return new IntSetSpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Iterates slots from the top of the table down, as in
+     * IntIntMap.EntryIterator, which see.
+     */
+    final class Itr implements PrimitiveIterator.OfInt {
+        int next;           // next slot to examine, counting down
+        int last = -1;      // slot of last returned element, -1 if none
+        int[] wrapped;      // elements moved past the cursor by remove()
+        int wrappedCount;
+        int wrappedIndex;   // next wrapped element to return
+        int lastKey;        // last returned element
+        boolean lastWrapped;
+        int expectedModCount = modCount;
+
+        Itr() {
+            next = keys.length;
+        }
+
+        private int advance() {
+            int[] ks = keys;
+            int i = next;
+            if (i == ks.length) {
+                if (hasZeroKey)
+                    return i;
+                --i;
+            }
+            while (i >= 0 && ks[i] == 0)
+                --i;
+            return next = i;
+        }
+
+        public boolean hasNext() {
+            return advance() >= 0 || wrappedIndex < wrappedCount;
+        }
+
+        public int nextInt() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i;
+            if ((i = advance()) >= 0) {
+                last = i;
+                lastWrapped = false;
+                lastKey = (i == keys.length) ? 0 : keys[i];
+                next = i - 1;
+            }
+            else if (wrappedIndex < wrappedCount) {
+                last = 0;
+                lastWrapped = true;
+                lastKey = wrapped[wrappedIndex++];
+            }
+            else
+                throw new NoSuchElementException();
+            return lastKey;
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastWrapped || lastKey == 0)
+                IntSet.this.remove(lastKey);
+            else {
+                ++modCount;
+                --size;
+                shiftAndTrack(last);
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void shiftAndTrack(int pos) {
+            int[] ks = keys;
+            int mask = ks.length - 1;
+            for (int gap;;) {
+                pos = ((gap = pos) + 1) & mask;
+                int k;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[gap] = 0;
+                        return;
+                    }
+                    int slot = IntIntMap.mix(k) & mask;
+                    if (gap <= pos ? (gap >= slot || slot > pos)
+                                   : (gap >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < gap) {
+                    if (wrapped == null)
+                        wrapped = new int[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[gap] = k;
+            }
+        }
+    }
+
+    /**
+     * Spliterator over slots [index, fence), where slot keys.length is
+     * the virtual slot of element 0.
+     */
+    static final class IntSetSpliterator implements Spliterator.OfInt {
+        final IntSet set;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        IntSetSpliterator(IntSet s, int origin, int fence, int est,
+                          int expectedModCount) {
+            this.set = s;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntSet s = set;
+                est = s.size;
+                expectedModCount = s.modCount;
+                hi = fence = s.keys.length + 1;
+            }
+            return hi;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public IntSetSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new IntSetSpliterator(set, lo, index = mid, est >>>= 1,
+                                      expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntSet s = set;
+            int hi = getFence(), i = index;
+            int[] ks = s.keys;
+            int n = ks.length;
+            index = hi;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            for (int end = Math.min(hi, n); i < end; ++i) {
+                if (ks[i] != 0)
+                    action.accept(ks[i]);
+            }
+            if (hi == n + 1 && i <= n && s.hasZeroKey)
+                action.accept(0);
+            if (s.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntSet s = set;
+            int hi = getFence();
+            int[] ks = s.keys;
+            int n = ks.length;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            while (index < hi) {
+                int i = index++;
+                if ((i == n) ? s.hasZeroKey : ks[i] != 0) {
+                    action.accept((i == n) ? 0 : ks[i]);
+                    if (s.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == set.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+}
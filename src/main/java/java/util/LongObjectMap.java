@@ -0,0 +1,878 @@
+/*
+ * Copyright (c) 1997, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongObjConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 20261016
+ * A. 以long为键、对象为值的开放寻址哈希表。 键保存在平铺的long数组中, 值保存在平行的Object数组中, 不为每个映射创建Node对象,
+ *    也不需要装箱键, 适合数千万级别的 long -> Object 索引。
+ * B. 探测、删除、迭代策略与 {@link LongLongMap} 相同: 线性探测 + 向后移位删除, 键0单独存放。
+ * C. 允许null值; 因此 {@link #get(long)} 返回null时, 需要通过 {@link #containsKey(long)} 区分"不存在"与"映射到null"。
+ * D. 该实现不是同步的; 迭代器是快速失败的。
+ */
+
+/**
+ * An open-addressed hash table mapping {@code long} keys to object values.
+ * Keys are held in a flat {@code long} array and values in a parallel
+ * {@code Object} array, so no per-mapping node is allocated and keys are
+ * never boxed on the primitive access paths.
+ *
+ * <p>This class permits {@code null} values.  As with {@link HashMap}, a
+ * return value of {@code null} from {@link #get(long)} does not necessarily
+ * indicate that the map contains no mapping for the key; the
+ * {@link #containsKey(long) containsKey} operation may be used to
+ * distinguish the two cases.
+ *
+ * <p>This class additionally implements {@code Map<Long,V>}.  Those
+ * inherited methods box their keys and should be avoided on hot paths.
+ * Keys may be traversed as a {@link LongStream} through
+ * {@link #keyStream()}, and values as a {@link Stream} through
+ * {@link #valueStream()}; both support parallel splitting.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators and spliterators of this class are <i>fail-fast</i> on a
+ * best-effort basis, in the same sense as those of {@link HashMap}.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see HashMap
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class LongObjectMap<V> extends AbstractMap<Long,V> implements Cloneable {
+
+    /*
+     * Implementation notes.
+     *
+     * The table layout, probing, backward-shift removal and iterator
+     * bookkeeping are as in LongLongMap, which see.  Vacated value slots
+     * are nulled so that removed values can be collected.
+     */
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The key slots, length always a power of two.  0 marks a free slot.
+     */
+    transient long[] keys;
+
+    /**
+     * The value slots, parallel to keys.
+     */
+    transient Object[] vals;
+
+    /**
+     * Whether a mapping for key 0 is present.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The value for key 0, if hasZeroKey.
+     */
+    transient Object zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The number of occupied table slots at which to resize.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code LongObjectMap} with the default initial
+     * capacity (16) and the default load factor (0.5).
+     */
+    public LongObjectMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code LongObjectMap} able to hold the specified
+     * number of mappings without resizing, with the default load factor.
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongObjectMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code LongObjectMap} able to hold the specified
+     * number of mappings without resizing, with the specified load factor.
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @param  loadFactor      the load factor, in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public LongObjectMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int n = LongLongMap.tableSizeFor(initialCapacity, loadFactor);
+        keys = new long[n];
+        vals = new Object[n];
+        threshold = LongLongMap.thresholdFor(n, loadFactor);
+    }
+
+    /* ---------------- Primitive operations -------------- */
+
+    /**
+     * Returns the slot holding the given non-zero key, or -1 if none.
+     */
+    final int slotOf(long key) {
+        long[] ks = keys;
+        int mask = ks.length - 1, i = LongLongMap.mix(key) & mask;
+        long k;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence is to be tested
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return (key == 0) ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0)
+            return hasZeroKey ? (V)zeroValue : null;
+        int i = slotOf(key);
+        return (i < 0) ? null : (V)vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if the key is absent
+     * @return the mapped value, or {@code defaultValue}
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? (V)zeroValue : defaultValue;
+        int i = slotOf(key);
+        return (i < 0) ? defaultValue : (V)vals[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map,
+     * replacing any previous value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            Object old = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++modCount;
+                ++size;
+            }
+            return (V)old;
+        }
+        long[] ks = keys;
+        int mask = ks.length - 1, i = LongLongMap.mix(key) & mask;
+        long k;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                Object old = vals[i];
+                vals[i] = value;
+                return (V)old;
+            }
+            i = (i + 1) & mask;
+        }
+        ks[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+        return null;
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key, or {@code null}
+     */
+    public V putIfAbsent(long key, V value) {
+        V v = get(key);
+        if (v == null)
+            v = put(key, value);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the
+     * given mapping function and enters it into this map unless
+     * {@code null}.  The key is passed to the function unboxed.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public V computeIfAbsent(long key,
+                             LongFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v;
+        if ((v = get(key)) == null) {
+            int mc = modCount;
+            v = mappingFunction.apply(key);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+            if (v != null)
+                put(key, v);
+        }
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey)
+                return null;
+            Object old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            ++modCount;
+            --size;
+            return (V)old;
+        }
+        int i = slotOf(key);
+        if (i < 0)
+            return null;
+        Object old = vals[i];
+        ++modCount;
+        --size;
+        shiftKeys(i);
+        return (V)old;
+    }
+
+    /**
+     * Empties slot pos and closes the resulting gap, as in
+     * LongLongMap.shiftKeys.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys;
+        Object[] vs = vals;
+        int mask = ks.length - 1;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            long k;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = null;
+                    return;
+                }
+                int slot = LongLongMap.mix(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table and reinserts all entries.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= LongLongMap.MAXIMUM_CAPACITY) {
+            if (size - (hasZeroKey ? 1 : 0) >= LongLongMap.MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Capacity exceeded");
+            threshold = LongLongMap.MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int newCap = oldCap << 1, mask = newCap - 1;
+        long[] ks = new long[newCap];
+        Object[] vs = new Object[newCap];
+        for (int j = 0; j < oldCap; ++j) {
+            long k;
+            if ((k = oldKeys[j]) != 0) {
+                int i = LongLongMap.mix(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+        keys = ks;
+        vals = vs;
+        threshold = LongLongMap.thresholdFor(newCap, loadFactor);
+    }
+
+    /**
+     * Performs the given action for each mapping in this map, without
+     * boxing keys, in no particular order.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws ConcurrentModificationException if the map is structurally
+     *         modified by the action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(LongObjConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        long[] ks = keys;
+        Object[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            long k;
+            if ((k = ks[i]) != 0)
+                action.accept(k, (V)vs[i]);
+        }
+        if (hasZeroKey)
+            action.accept(0L, (V)zeroValue);
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfLong} over the keys of this map.
+     *
+     * @return a spliterator over the keys
+     */
+    public Spliterator.OfLong keySpliterator() {
+        return new KeySpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the values of this map, in the
+     * same order as {@link #keySpliterator()}.
+     *
+     * @return a spliterator over the values
+     */
+    public Spliterator<V> valueSpliterator() {
+        return new ValueSpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a {@code LongStream} of the keys of this map.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the keys
+     */
+    public LongStream keyStream(boolean parallel) {
+        return StreamSupport.longStream(keySpliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} of the keys of this map.
+     *
+     * @return a stream of the keys
+     */
+    public LongStream keyStream() {
+        return keyStream(false);
+    }
+
+    /**
+     * Returns a {@code Stream} of the values of this map.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the values
+     */
+    public Stream<V> valueStream(boolean parallel) {
+        return StreamSupport.stream(valueSpliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} of the values of this map.
+     *
+     * @return a stream of the values
+     */
+    public Stream<V> valueStream() {
+        return valueStream(false);
+    }
+
+    /* ---------------- Map methods -------------- */
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0L);
+            Arrays.fill(vals, null);
+            hasZeroKey = false;
+            zeroValue = null;
+            size = 0;
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Long) && containsKey(((Long)key).longValue());
+    }
+
+    public boolean containsValue(Object value) {
+        if (hasZeroKey && Objects.equals(zeroValue, value))
+            return true;
+        long[] ks = keys;
+        Object[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != 0 && Objects.equals(vs[i], value))
+                return true;
+        }
+        return false;
+    }
+
+    public V get(Object key) {
+        return (key instanceof Long) ? get(((Long)key).longValue()) : null;
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        return (key instanceof Long) ?
+            getOrDefault(((Long)key).longValue(), defaultValue) : defaultValue;
+    }
+
+    public V put(Long key, V value) {
+        return put(key.longValue(), value);
+    }
+
+    public V remove(Object key) {
+        return (key instanceof Long) ? remove(((Long)key).longValue()) : null;
+    }
+
+    public void forEach(BiConsumer<? super Long, ? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachEntry(action::accept);
+    }
+
+    /**
+     * Returns a shallow copy of this map: the keys and values themselves
+     * are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    public LongObjectMap<V> clone() {
+        LongObjectMap<V> result;
+        try {
+            result = (LongObjectMap<V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.entrySet = null;
+        return result;
+    }
+
+    /* ---------------- Views -------------- */
+
+    transient Set<Map.Entry<Long,V>> entrySet;
+
+    public Set<Map.Entry<Long,V>> entrySet() {
+        Set<Map.Entry<Long,V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Long,V>> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongObjectMap.this.clear(); }
+        public final Iterator<Map.Entry<Long,V>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object k = e.getKey();
+            if (!(k instanceof Long))
+                return false;
+            long key = (Long)k;
+            return containsKey(key) && Objects.equals(get(key), e.getValue());
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                LongObjectMap.this.remove(((Long)((Map.Entry<?,?>)o).getKey()).longValue());
+                return true;
+            }
+            return false;
+        }
+        public final void forEach(Consumer<? super Map.Entry<Long,V>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            forEachEntry((k, v) -> action.accept(new Entry(k)));
+        }
+    }
+
+    /**
+     * A write-through entry.  It holds only the key and reads the value
+     * from the map, so it stays valid across table resizes.
+     */
+    final class Entry implements Map.Entry<Long,V> {
+        final long key;
+        Entry(long key)                   { this.key = key; }
+        public final Long getKey()        { return key; }
+        public final V getValue()         { return get(key); }
+        public final V setValue(V value)  { return put(key, value); }
+        public final int hashCode() {
+            return Long.hashCode(key) ^ Objects.hashCode(get(key));
+        }
+        public final String toString()    { return key + "=" + get(key); }
+        public final boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Objects.equals(getKey(), e.getKey()) &&
+                Objects.equals(getValue(), e.getValue());
+        }
+    }
+
+    /**
+     * Iterates slots from the top of the table down, as in
+     * LongLongMap.EntryIterator, which see.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<Long,V>> {
+        int next;           // next slot to examine, counting down
+        int last = -1;      // slot of last returned entry, -1 if none
+        long[] wrapped;     // keys moved past the cursor by remove()
+        int wrappedCount;
+        int wrappedIndex;   // next wrapped key to return
+        long lastKey;       // key of last returned entry
+        boolean lastWrapped;
+        int expectedModCount = modCount;
+
+        EntryIterator() {
+            next = keys.length;
+        }
+
+        private int advance() {
+            long[] ks = keys;
+            int i = next;
+            if (i == ks.length) {
+                if (hasZeroKey)
+                    return i;
+                --i;
+            }
+            while (i >= 0 && ks[i] == 0)
+                --i;
+            return next = i;
+        }
+
+        public final boolean hasNext() {
+            return advance() >= 0 || wrappedIndex < wrappedCount;
+        }
+
+        public final Map.Entry<Long,V> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i;
+            if ((i = advance()) >= 0) {
+                last = i;
+                lastWrapped = false;
+                lastKey = (i == keys.length) ? 0 : keys[i];
+                next = i - 1;
+            }
+            else if (wrappedIndex < wrappedCount) {
+                last = 0;
+                lastWrapped = true;
+                lastKey = wrapped[wrappedIndex++];
+            }
+            else
+                throw new NoSuchElementException();
+            return new Entry(lastKey);
+        }
+
+        public final void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastWrapped || lastKey == 0)
+                LongObjectMap.this.remove(lastKey);
+            else {
+                ++modCount;
+                --size;
+                shiftAndTrack(last);
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void shiftAndTrack(int pos) {
+            long[] ks = keys;
+            Object[] vs = vals;
+            int mask = ks.length - 1;
+            for (int gap;;) {
+                pos = ((gap = pos) + 1) & mask;
+                long k;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[gap] = 0;
+                        vs[gap] = null;
+                        return;
+                    }
+                    int slot = LongLongMap.mix(k) & mask;
+                    if (gap <= pos ? (gap >= slot || slot > pos)
+                                   : (gap >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < gap) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[gap] = k;
+                vs[gap] = vs[pos];
+            }
+        }
+    }
+
+    /**
+     * Base of the key and value spliterators.  Covers slots
+     * [index, fence), where slot keys.length is the virtual slot of key 0.
+     */
+    static class SlotSpliterator<V> {
+        final LongObjectMap<V> map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        SlotSpliterator(LongObjectMap<V> m, int origin, int fence, int est,
+                        int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                LongObjectMap<V> m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                hi = fence = m.keys.length + 1;
+            }
+            return hi;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+    }
+
+    static final class KeySpliterator<V>
+        extends SlotSpliterator<V>
+        implements Spliterator.OfLong {
+        KeySpliterator(LongObjectMap<V> m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator<>(map, lo, index = mid, est >>>= 1,
+                                     expectedModCount);
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongObjectMap<V> m = map;
+            int hi = getFence(), i = index;
+            long[] ks = m.keys;
+            int n = ks.length;
+            index = hi;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            for (int end = Math.min(hi, n); i < end; ++i) {
+                if (ks[i] != 0)
+                    action.accept(ks[i]);
+            }
+            if (hi == n + 1 && i <= n && m.hasZeroKey)
+                action.accept(0L);
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongObjectMap<V> m = map;
+            int hi = getFence();
+            long[] ks = m.keys;
+            int n = ks.length;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            while (index < hi) {
+                int i = index++;
+                if ((i == n) ? m.hasZeroKey : ks[i] != 0) {
+                    action.accept((i == n) ? 0L : ks[i]);
+                    if (m.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+
+    static final class ValueSpliterator<V>
+        extends SlotSpliterator<V>
+        implements Spliterator<V> {
+        ValueSpliterator(LongObjectMap<V> m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator<>(map, lo, index = mid, est >>>= 1,
+                                       expectedModCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongObjectMap<V> m = map;
+            int hi = getFence(), i = index;
+            long[] ks = m.keys;
+            Object[] vs = m.vals;
+            int n = ks.length;
+            index = hi;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            for (int end = Math.min(hi, n); i < end; ++i) {
+                if (ks[i] != 0)
+                    action.accept((V)vs[i]);
+            }
+            if (hi == n + 1 && i <= n && m.hasZeroKey)
+                action.accept((V)m.zeroValue);
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongObjectMap<V> m = map;
+            int hi = getFence();
+            long[] ks = m.keys;
+            int n = ks.length;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            while (index < hi) {
+                int i = index++;
+                if ((i == n) ? m.hasZeroKey : ks[i] != 0) {
+                    action.accept((V)((i == n) ? m.zeroValue : m.vals[i]));
+                    if (m.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0);
+        }
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 1997, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 20261016
+ * A. 基于开放寻址的long集合, 元素保存在一个平铺的long数组中, 不装箱、不创建节点, 用于替代 HashSet<Long>。
+ * B. 探测与删除策略与 {@link LongLongMap} 相同; {@link #spliterator()} 返回 Spliterator.OfLong, 可通过 {@link #longStream()} 接入 LongStream。
+ */
+
+/**
+ * An open-addressed set of {@code long} values, held in a single flat array
+ * with no boxing and no per-element node.  The primitive methods
+ * {@link #add(long)}, {@link #contains(long)} and {@link #remove(long)} never
+ * box; the inherited {@code Set<Long>} methods do.
+ *
+ * <p>{@link #spliterator()} returns a {@link Spliterator.OfLong}, and
+ * {@link #longStream()} exposes the elements as an {@link LongStream}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators and spliterators of this class are <i>fail-fast</i> on a
+ * best-effort basis, in the same sense as those of {@link HashSet}.
+ *
+ * @see HashSet
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class LongSet extends AbstractSet<Long> implements Cloneable {
+
+    /*
+     * Implementation notes.
+     *
+     * This is LongLongMap without the value array; see there for the
+     * table layout, the handling of 0, and the iterator bookkeeping.
+     */
+
+    /**
+     * The element slots, length always a power of two.  0 marks a free
+     * slot.
+     */
+    transient long[] keys;
+
+    /**
+     * Whether 0 is an element.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The number of elements contained in this set.
+     */
+    transient int size;
+
+    /**
+     * The number of times this set has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The number of occupied table slots at which to resize.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code LongSet} with the default initial
+     * capacity (16) and the default load factor (0.5).
+     */
+    public LongSet() {
+        this(LongLongMap.DEFAULT_INITIAL_CAPACITY, LongLongMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code LongSet} able to hold the specified number
+     * of elements without resizing, with the default load factor.
+     *
+     * @param  initialCapacity the expected number of elements
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongSet(int initialCapacity) {
+        this(initialCapacity, LongLongMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code LongSet} able to hold the specified number
+     * of elements without resizing, with the specified load factor.
+     *
+     * @param  initialCapacity the expected number of elements
+     * @param  loadFactor      the load factor, in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public LongSet(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int n = LongLongMap.tableSizeFor(initialCapacity, loadFactor);
+        keys = new long[n];
+        threshold = LongLongMap.thresholdFor(n, loadFactor);
+    }
+
+    /* ---------------- Primitive operations -------------- */
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(long e) {
+        if (e == 0)
+            return hasZeroKey;
+        long[] ks = keys;
+        int mask = ks.length - 1, i = LongLongMap.mix(e) & mask;
+        long k;
+        while ((k = ks[i]) != 0) {
+            if (k == e)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the element
+     */
+    public boolean add(long e) {
+        if (e == 0) {
+            if (hasZeroKey)
+                return false;
+            hasZeroKey = true;
+            ++modCount;
+            ++size;
+            return true;
+        }
+        long[] ks = keys;
+        int mask = ks.length - 1, i = LongLongMap.mix(e) & mask;
+        long k;
+        while ((k = ks[i]) != 0) {
+            if (k == e)
+                return false;
+            i = (i + 1) & mask;
+        }
+        ks[i] = e;
+        ++modCount;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return {@code true} if the set contained the specified element
+     */
+    public boolean remove(long e) {
+        if (e == 0) {
+            if (!hasZeroKey)
+                return false;
+            hasZeroKey = false;
+            ++modCount;
+            --size;
+            return true;
+        }
+        long[] ks = keys;
+        int mask = ks.length - 1, i = LongLongMap.mix(e) & mask;
+        long k;
+        while ((k = ks[i]) != 0) {
+            if (k == e) {
+                ++modCount;
+                --size;
+                shiftKeys(i);
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Empties slot pos and closes the resulting gap, as in
+     * LongLongMap.shiftKeys.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            long k;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    return;
+                }
+                int slot = LongLongMap.mix(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+        }
+    }
+
+    /**
+     * Doubles the table and reinserts all elements.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        int oldCap = oldKeys.length;
+        if (oldCap >= LongLongMap.MAXIMUM_CAPACITY) {
+            if (size - (hasZeroKey ? 1 : 0) >= LongLongMap.MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Capacity exceeded");
+            threshold = LongLongMap.MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        int newCap = oldCap << 1, mask = newCap - 1;
+        long[] ks = new long[newCap];
+        for (int j = 0; j < oldCap; ++j) {
+            long k;
+            if ((k = oldKeys[j]) != 0) {
+                int i = LongLongMap.mix(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+            }
+        }
+        keys = ks;
+        threshold = LongLongMap.thresholdFor(newCap, loadFactor);
+    }
+
+    /**
+     * Performs the given action for each element of this set, without
+     * boxing, in no particular order.
+     *
+     * @param action the action to be performed for each element
+     * @throws ConcurrentModificationException if the set is structurally
+     *         modified by the action
+     */
+    public void forEachLong(LongConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; ++i) {
+            long k;
+            if ((k = ks[i]) != 0)
+                action.accept(k);
+        }
+        if (hasZeroKey)
+            action.accept(0);
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set.
+     *
+     * @return an array containing all the elements in this set
+     */
+    public long[] toLongArray() {
+        long[] a = new long[size];
+        int j = 0;
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; ++i) {
+            long k;
+            if ((k = ks[i]) != 0)
+                a[j++] = k;
+        }
+        return a; // a zero element, if present, is already in place
+    }
+
+    /**
+     * Returns an {@code LongStream} of the elements of this set.
+     *
+     * @param parallel if {@code true} the stream is parallel
+     * @return a stream of the elements
+     */
+    public LongStream longStream(boolean parallel) {
+        return StreamSupport.longStream(spliterator(), parallel);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} of the elements of this set.
+     *
+     * @return a stream of the elements
+     */
+    public LongStream longStream() {
+        return longStream(false);
+    }
+
+    /* ---------------- Set methods -------------- */
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0);
+            hasZeroKey = false;
+            size = 0;
+        }
+    }
+
+    public boolean contains(Object o) {
+        return (o instanceof Long) && contains(((Long)o).longValue());
+    }
+
+    public boolean add(Long e) {
+        return add(e.longValue());
+    }
+
+    public boolean remove(Object o) {
+        return (o instanceof Long) && remove(((Long)o).longValue());
+    }
+
+    public void forEach(Consumer<? super Long> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachLong(action::accept);
+    }
+
+    public int hashCode() {
+        int h = 0;
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; ++i)
+            h += Long.hashCode(ks[i]);
+        return h;
+    }
+
+    /**
+     * Returns a shallow copy of this set.
+     *
+     * @return a copy of this set
+     */
+    public LongSet clone() {
+        LongSet result;
+        try {
+            result = (LongSet)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        return result;
+    }
+
+    public PrimitiveIterator.OfLong iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator.OfLong} over the elements in
+     * this set.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}.
+     *
+     * @return a {@code Spliterator.OfLong} over the elements in this set
+     */
+    public Spliterator.OfLong spliterator() {
+        return new LongSetSpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Iterates slots from the top of the table down, as in
+     * LongLongMap.EntryIterator, which see.
+     */
+    final class Itr implements PrimitiveIterator.OfLong {
+        int next;           // next slot to examine, counting down
+        int last = -1;      // slot of last returned element, -1 if none
+        long[] wrapped;      // elements moved past the cursor by remove()
+        int wrappedCount;
+        int wrappedIndex;   // next wrapped element to return
+        long lastKey;        // last returned element
+        boolean lastWrapped;
+        int expectedModCount = modCount;
+
+        Itr() {
+            next = keys.length;
+        }
+
+        private int advance() {
+            long[] ks = keys;
+            int i = next;
+            if (i == ks.length) {
+                if (hasZeroKey)
+                    return i;
+                --i;
+            }
+            while (i >= 0 && ks[i] == 0)
+                --i;
+            return next = i;
+        }
+
+        public boolean hasNext() {
+            return advance() >= 0 || wrappedIndex < wrappedCount;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i;
+            if ((i = advance()) >= 0) {
+                last = i;
+                lastWrapped = false;
+                lastKey = (i == keys.length) ? 0 : keys[i];
+                next = i - 1;
+            }
+            else if (wrappedIndex < wrappedCount) {
+                last = 0;
+                lastWrapped = true;
+                lastKey = wrapped[wrappedIndex++];
+            }
+            else
+                throw new NoSuchElementException();
+            return lastKey;
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastWrapped || lastKey == 0)
+                LongSet.this.remove(lastKey);
+            else {
+                ++modCount;
+                --size;
+                shiftAndTrack(last);
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void shiftAndTrack(int pos) {
+            long[] ks = keys;
+            int mask = ks.length - 1;
+            for (int gap;;) {
+                pos = ((gap = pos) + 1) & mask;
+                long k;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[gap] = 0;
+                        return;
+                    }
+                    int slot = LongLongMap.mix(k) & mask;
+                    if (gap <= pos ? (gap >= slot || slot > pos)
+                                   : (gap >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < gap) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[gap] = k;
+            }
+        }
+    }
+
+    /**
+     * Spliterator over slots [index, fence), where slot keys.length is
+     * the virtual slot of element 0.
+     */
+    static final class LongSetSpliterator implements Spliterator.OfLong {
+        final LongSet set;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        LongSetSpliterator(LongSet s, int origin, int fence, int est,
+                           int expectedModCount) {
+            this.set = s;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                LongSet s = set;
+                est = s.size;
+                expectedModCount = s.modCount;
+                hi = fence = s.keys.length + 1;
+            }
+            return hi;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public LongSetSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new LongSetSpliterator(set, lo, index = mid, est >>>= 1,
+                                       expectedModCount);
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongSet s = set;
+            int hi = getFence(), i = index;
+            long[] ks = s.keys;
+            int n = ks.length;
+            index = hi;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            for (int end = Math.min(hi, n); i < end; ++i) {
+                if (ks[i] != 0)
+                    action.accept(ks[i]);
+            }
+            if (hi == n + 1 && i <= n && s.hasZeroKey)
+                action.accept(0);
+            if (s.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongSet s = set;
+            int hi = getFence();
+            long[] ks = s.keys;
+            int n = ks.length;
+            if (hi > n + 1)
+                throw new ConcurrentModificationException();
+            while (index < hi) {
+                int i = index++;
+                if ((i == n) ? s.hasZeroKey : ks[i] != 0) {
+                    action.accept((i == n) ? 0 : ks[i]);
+                    if (s.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == set.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+}
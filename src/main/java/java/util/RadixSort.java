@@ -0,0 +1,402 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 20261016
+ * A. 基本类型数组, 以及按 {@code long} 键排序的对象数组的最低位优先(LSD)基数排序, 每趟处理8位。 每趟先统计各数字值的元素个数,
+ *    再按数字顺序把元素分散到第二个数组, 因此每趟是稳定的, 代价是两次线性扫描; 所有元素该位数字都相同的一趟被跳过。
+ * B. 键按有符号值排序: 在最后(最高)一位上翻转符号位。 浮点数先像 {@code DualPivotQuicksort} 一样把 NaN 移到末尾,
+ *    再转换为与 {@code Float.compare}、{@code Double.compare} 同序的整数键排序。
+ * C. 并行排序把区间分块: 每趟并行统计各块; 由计数得出每个块每个数字的起始下标(排在前面各块同一数字的元素之后); 再并行分散各块。 结果与顺序排序相同。
+ * D. 短区间交给 {@code DualPivotQuicksort}(按键排序时交给 {@code TimSort}), 它们对短区间更快。 所有方法都是包私有的, 由 Arrays 的公共方法在检查边界后调用。
+ */
+/**
+ * This class implements least-significant-digit radix sorts of primitive
+ * arrays, and of object arrays by a {@code long} key, eight bits per pass.
+ * Each pass counts the elements having each value of its digit, and then
+ * scatters the elements to a second array in digit order, so a pass is
+ * stable and costs two linear sweeps; a pass whose digit is the same for
+ * all elements is skipped.  Keys are sorted as signed values by inverting
+ * the sign bit in the last, most significant, digit.  Floating-point values
+ * are sorted through integer keys that order as {@code Float.compare} and
+ * {@code Double.compare} do, after moving NaNs to the end, as
+ * {@code DualPivotQuicksort} does.
+ *
+ * <p>The parallel sorts divide the range into chunks.  In each pass the
+ * chunks are counted in parallel; the counts then give, for each chunk and
+ * digit, the index at which the chunk's elements with that digit go, after
+ * those of the same digit in earlier chunks; and the chunks are scattered
+ * in parallel.  The result is the same as that of the sequential sort.
+ *
+ * <p>Short ranges are sorted by {@code DualPivotQuicksort}, or for keyed
+ * sorts by {@code TimSort}, which are faster for them.
+ *
+ * All exposed methods are package-private, designed to be invoked
+ * from public methods (in class Arrays) after performing any
+ * necessary array bounds checks and expanding parameters into the
+ * required forms.
+ *
+ * @since 1.8
+ */
+final class RadixSort {
+
+    /**
+     * Prevents instantiation.
+     */
+    private RadixSort() {}
+
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /**
+     * Value inverting the sign bit of the most significant digit.
+     */
+    private static final int SIGN_FLIP = RADIX >>> 1;
+
+    /**
+     * The length below which ranges are sorted by comparison instead.
+     */
+    private static final int MIN_RADIX_SORT = 1 << 10;
+
+    /**
+     * The minimum number of elements of a chunk of a parallel sort; ranges
+     * shorter than twice this are sorted sequentially.
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    /**
+     * Returns the number of chunks to sort a range of the given length in.
+     */
+    private static int chunks(int n, boolean parallel) {
+        int p;
+        if (!parallel || (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            return 1;
+        return Math.max(1, Math.min(p << 1, n / MIN_CHUNK));
+    }
+
+    /**
+     * Runs the body for each chunk index, in parallel if there is more than
+     * one chunk.
+     */
+    private static void forEachChunk(int chunks, IntConsumer body) {
+        if (chunks == 1)
+            body.accept(0);
+        else
+            new ChunkTask(body, 0, chunks).invoke();
+    }
+
+    /**
+     * Task running the body for a range of chunk indices.
+     */
+    static final class ChunkTask extends RecursiveAction {
+        static final long serialVersionUID = -2915237617393453372L;
+        final IntConsumer body;
+        final int lo, hi;
+
+        ChunkTask(IntConsumer body, int lo, int hi) {
+            this.body = body; this.lo = lo; this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1)
+                body.accept(lo);
+            else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ChunkTask(body, lo, mid), new ChunkTask(body, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Turns the counts of each chunk's elements with each digit into the
+     * index at which the first of them goes.
+     *
+     * @param counts the counts, indexed by chunk and then digit
+     * @param n the total number of elements
+     * @return false if every element has the same digit, so that the pass
+     *         can be skipped
+     */
+    private static boolean offsets(int[][] counts, int n) {
+        int offset = 0;
+        for (int d = 0; d < RADIX; d++) {
+            int total = 0;
+            for (int[] count : counts)
+                total += count[d];
+            if (total == n)
+                return false;
+            for (int[] count : counts) {
+                int k = count[d];
+                count[d] = offset;
+                offset += k;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the specified range of the array.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param parallel whether to sort in parallel
+     */
+    static void sort(int[] a, int from, int to, boolean parallel) {
+        int n = to - from;
+        if (n < MIN_RADIX_SORT) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        int chunks = chunks(n, parallel);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][RADIX];
+        int[] src = a, dst = new int[n];
+        int srcBase = from, dstBase = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += DIGIT_BITS) {
+            final int s = shift;
+            final int flip = (shift == Integer.SIZE - DIGIT_BITS) ? SIGN_FLIP : 0;
+            final int[] in = src, out = dst;
+            final int inBase = srcBase, outBase = dstBase;
+            forEachChunk(chunks, c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                int lo = inBase + c * chunkSize, hi = Math.min(inBase + n, lo + chunkSize);
+                for (int i = lo; i < hi; i++)
+                    count[((in[i] >>> s) & DIGIT_MASK) ^ flip]++;
+            });
+            if (!offsets(counts, n))
+                continue;
+            forEachChunk(chunks, c -> {
+                int[] next = counts[c];
+                int lo = inBase + c * chunkSize, hi = Math.min(inBase + n, lo + chunkSize);
+                for (int i = lo; i < hi; i++) {
+                    int v = in[i];
+                    out[outBase + next[((v >>> s) & DIGIT_MASK) ^ flip]++] = v;
+                }
+            });
+            src = out; srcBase = outBase;
+            dst = in; dstBase = inBase;
+        }
+        if (src != a)
+            System.arraycopy(src, srcBase, a, from, n);
+    }
+
+    /**
+     * Sorts the specified range of the array.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param parallel whether to sort in parallel
+     */
+    static void sort(long[] a, int from, int to, boolean parallel) {
+        int n = to - from;
+        if (n < MIN_RADIX_SORT) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        int chunks = chunks(n, parallel);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][RADIX];
+        long[] src = a, dst = new long[n];
+        int srcBase = from, dstBase = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            final int s = shift;
+            final int flip = (shift == Long.SIZE - DIGIT_BITS) ? SIGN_FLIP : 0;
+            final long[] in = src, out = dst;
+            final int inBase = srcBase, outBase = dstBase;
+            forEachChunk(chunks, c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                int lo = inBase + c * chunkSize, hi = Math.min(inBase + n, lo + chunkSize);
+                for (int i = lo; i < hi; i++)
+                    count[((int) (in[i] >>> s) & DIGIT_MASK) ^ flip]++;
+            });
+            if (!offsets(counts, n))
+                continue;
+            forEachChunk(chunks, c -> {
+                int[] next = counts[c];
+                int lo = inBase + c * chunkSize, hi = Math.min(inBase + n, lo + chunkSize);
+                for (int i = lo; i < hi; i++) {
+                    long v = in[i];
+                    out[outBase + next[((int) (v >>> s) & DIGIT_MASK) ^ flip]++] = v;
+                }
+            });
+            src = out; srcBase = outBase;
+            dst = in; dstBase = inBase;
+        }
+        if (src != a)
+            System.arraycopy(src, srcBase, a, from, n);
+    }
+
+    /**
+     * Sorts the specified range of the array, in the order of
+     * {@link Float#compare}.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param parallel whether to sort in parallel
+     */
+    static void sort(float[] a, int from, int to, boolean parallel) {
+        if (to - from < MIN_RADIX_SORT) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        // Move NaNs to the end; they order after all other values
+        while (from < to && Float.isNaN(a[to - 1])) {
+            --to;
+        }
+        for (int k = to - 1; --k >= from; ) {
+            float ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[--to];
+                a[to] = ak;
+            }
+        }
+        // Inverting all but the sign bit of negative values makes their
+        // bits order as signed ints, with -0.0f before 0.0f; this mapping
+        // is its own inverse
+        int n = to - from, base = from;
+        int chunks = chunks(n, parallel);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[] keys = new int[n];
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                int bits = Float.floatToRawIntBits(a[base + i]);
+                keys[i] = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+            }
+        });
+        sort(keys, 0, n, parallel);
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                int bits = keys[i];
+                a[base + i] = Float.intBitsToFloat(bits ^ ((bits >> 31) & Integer.MAX_VALUE));
+            }
+        });
+    }
+
+    /**
+     * Sorts the specified range of the array, in the order of
+     * {@link Double#compare}.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param parallel whether to sort in parallel
+     */
+    static void sort(double[] a, int from, int to, boolean parallel) {
+        if (to - from < MIN_RADIX_SORT) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        // Move NaNs to the end; they order after all other values
+        while (from < to && Double.isNaN(a[to - 1])) {
+            --to;
+        }
+        for (int k = to - 1; --k >= from; ) {
+            double ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[--to];
+                a[to] = ak;
+            }
+        }
+        // As for float, with longs
+        int n = to - from, base = from;
+        int chunks = chunks(n, parallel);
+        int chunkSize = (n + chunks - 1) / chunks;
+        long[] keys = new long[n];
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                long bits = Double.doubleToRawLongBits(a[base + i]);
+                keys[i] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            }
+        });
+        sort(keys, 0, n, parallel);
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                long bits = keys[i];
+                a[base + i] = Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+            }
+        });
+    }
+
+    /**
+     * Sorts the specified range of the array by the signed order of the
+     * keys extracted from its elements.  The sort is stable.  The key of
+     * each element is extracted once; the keys, each paired with the index
+     * of its element, are radix sorted, and the elements are then permuted
+     * into the order of their keys.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param key the function extracting the key of an element
+     * @param parallel whether to sort in parallel
+     */
+    static <T> void sortByKey(T[] a, int from, int to,
+                              ToLongFunction<? super T> key, boolean parallel) {
+        int n = to - from;
+        if (n < MIN_RADIX_SORT) {
+            TimSort.sort(a, from, to, Comparator.comparingLong(key), null, 0, 0);
+            return;
+        }
+        int chunks = chunks(n, parallel);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][RADIX];
+        long[] keys = new long[n], keysDst = new long[n];
+        int[] index = new int[n], indexDst = new int[n];
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                keys[i] = key.applyAsLong(a[from + i]);
+                index[i] = i;
+            }
+        });
+        long[] srcKeys = keys, dstKeys = keysDst;
+        int[] srcIndex = index, dstIndex = indexDst;
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            final int s = shift;
+            final int flip = (shift == Long.SIZE - DIGIT_BITS) ? SIGN_FLIP : 0;
+            final long[] inKeys = srcKeys, outKeys = dstKeys;
+            final int[] inIndex = srcIndex, outIndex = dstIndex;
+            forEachChunk(chunks, c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++)
+                    count[((int) (inKeys[i] >>> s) & DIGIT_MASK) ^ flip]++;
+            });
+            if (!offsets(counts, n))
+                continue;
+            forEachChunk(chunks, c -> {
+                int[] next = counts[c];
+                for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                    long k = inKeys[i];
+                    int j = next[((int) (k >>> s) & DIGIT_MASK) ^ flip]++;
+                    outKeys[j] = k;
+                    outIndex[j] = inIndex[i];
+                }
+            });
+            srcKeys = outKeys; dstKeys = inKeys;
+            srcIndex = outIndex; dstIndex = inIndex;
+        }
+        // Permute through a copy of the range, since the elements move in cycles
+        Object[] elements = Arrays.copyOfRange(a, from, to, Object[].class);
+        int[] order = srcIndex;
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunkSize, hi = Math.min(n, i + chunkSize); i < hi; i++) {
+                @SuppressWarnings("unchecked") T t = (T) elements[order[i]];
+                a[from + i] = t;
+            }
+        });
+    }
+}
@@ -1322,6 +1322,17 @@ public class Vector<E> extends AbstractList<E> implements List<E>, RandomAccess,
         modCount++;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized void parallelSort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        Arrays.parallelSort((E[]) elementData, 0, elementCount, c);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
     /**
      * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
      * and <em>fail-fast</em> {@link Spliterator} over the elements in this
@@ -0,0 +1,1296 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 20261016
+ * A. 一个构建在 ConcurrentHashMap 之上的有界并发缓存。 读写操作只访问 ConcurrentHashMap, 淘汰策略的维护(访问顺序、频率统计、过期)
+ *    被记录到缓冲区中, 再由拿到 evictionLock 的线程批量回放, 因此不会像 LinkedHashMap.removeEldestEntry 那样在每次访问时争用全局锁。
+ * B. 淘汰策略为 W-TinyLFU: 新条目先进入容量约1%的窗口LRU, 被挤出窗口后, 只有当其(由 Count-Min Sketch 估计的)访问频率高于主区域的
+ *    淘汰候选者时才会被接纳, 主区域为分段LRU(试用区/保护区)。
+ * C. 支持按条目数或按权重(weigher)限界, 支持写后过期和访问后过期, 过期由分层时间轮驱动, 调度与取消均为O(1)。
+ * D. 支持通过 CompletableFuture 异步加载, 对同一个键的并发加载只会执行一次。
+ * E. 命中、未命中、加载、淘汰等统计使用 LongAdder 记录, 以便随CPU核数线性扩展。
+ */
+
+/**
+ * A bounded, concurrent cache built on {@link ConcurrentHashMap}.
+ * Retrievals and updates touch only the backing map; the bookkeeping
+ * needed by the eviction policy is recorded into buffers and replayed in
+ * batches by whichever thread next acquires the policy lock, so the cache
+ * scales with the number of cores rather than serializing on a global
+ * lock the way an access-ordered {@link java.util.LinkedHashMap} does.
+ *
+ * <p>When bounded, entries are evicted according to the <em>W-TinyLFU</em>
+ * policy: new entries are admitted into a small LRU <em>window</em>, and an
+ * entry leaving the window is admitted into the main segmented LRU space
+ * only if its estimated frequency of use, kept in a compact Count-Min
+ * sketch, exceeds that of the entry it would displace.  This retains
+ * popular entries in the face of scans and one-hit wonders.
+ *
+ * <p>Caches are created with a {@link Builder}:
+ * <pre> {@code
+ * ConcurrentCache<String, Graph> graphs = ConcurrentCache.<String, Graph>newBuilder()
+ *     .maximumWeight(1 << 30)
+ *     .weigher((key, graph) -> graph.vertices().size())
+ *     .expireAfterWrite(10, TimeUnit.MINUTES)
+ *     .build();
+ * Graph g = graphs.get(key, k -> createExpensiveGraph(k));
+ * CompletableFuture<Graph> f = graphs.getAsync(other, k -> createExpensiveGraph(k));
+ * }</pre>
+ *
+ * <p>An entry may be bounded by size (a count of entries) or by weight,
+ * and may expire a fixed duration after it was written, or last accessed.
+ * Expiration is driven by a hierarchical timer wheel, so that scheduling
+ * and cancelling an expiration are constant-time operations; expired
+ * entries are never returned, even before they have been cleaned up.
+ *
+ * <p>Values may be loaded on a miss, either synchronously by
+ * {@link #get(Object, Function)} or asynchronously, through a
+ * {@link CompletableFuture}, by {@link #getAsync(Object, Function)}.
+ * Concurrent loads of the same key are coalesced into a single call of
+ * the loading function.
+ *
+ * <p>Hit, miss, load and eviction counts are recorded in
+ * {@link LongAdder}s and are available from {@link #stats()}.
+ *
+ * <p>Like {@code ConcurrentHashMap}, this class does not allow {@code null}
+ * to be used as a key or value.  The size bound is enforced eventually:
+ * the cache may briefly exceed it while buffered work is pending.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of cached values
+ */
+public class ConcurrentCache<K,V> {
+
+    /*
+     * Overview:
+     *
+     * The entries live in a ConcurrentHashMap<K,Node>.  The policy
+     * structures -- the three access-ordered deques (window, probation,
+     * protected), the frequency sketch and the timer wheel -- are
+     * guarded by evictionLock and are never touched by readers.
+     *
+     * A read records its node into a striped, lossy ring buffer
+     * (ReadBuffer); when a stripe fills, the reader tries the lock and,
+     * if successful, drains all buffers and performs maintenance.
+     * Losing reads merely makes the recency order slightly stale.
+     *
+     * A write enqueues a task (add, update, remove) on writeBuffer and
+     * then tries the lock.  Write tasks must not be lost, so if the
+     * backlog grows beyond WRITE_BUFFER_MAX the writer blocks on the
+     * lock instead, which also provides back-pressure.
+     *
+     * Node life cycle: ALIVE while in the map, RETIRED once removed
+     * from the map but possibly still in the policy, DEAD once removed
+     * from the policy as well.  Writers synchronize on a node to change
+     * its value, so that an update cannot resurrect a removed node.
+     *
+     * Times are measured in nanoseconds relative to the cache's creation
+     * so that they are non-negative, as the timer wheel requires.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /** Number of CPUS, to place bounds on some sizings */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of pending write tasks before writers block. */
+    static final int WRITE_BUFFER_MAX = 128 * NCPU;
+
+    /** The percentage of the maximum weight given to the window. */
+    static final double PERCENT_WINDOW = 0.01d;
+
+    /** The percentage of the main space given to the protected segment. */
+    static final double PERCENT_MAIN_PROTECTED = 0.80d;
+
+    /** Indicates expiration of the given kind is disabled. */
+    static final long UNSET = -1L;
+
+    // Node states
+    static final int ALIVE   = 0;
+    static final int RETIRED = 1;
+    static final int DEAD    = 2;
+
+    // Policy queues
+    static final int NONE      = 0;
+    static final int WINDOW    = 1;
+    static final int PROBATION = 2;
+    static final int PROTECTED = 3;
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ConcurrentHashMap<K,CompletableFuture<V>> loading;
+    final ToIntBiFunction<? super K, ? super V> weigher;
+    final Executor executor;
+    final long maximum;             // maximum weight, or Long.MAX_VALUE
+    final long expireAfterWriteNanos;
+    final long expireAfterAccessNanos;
+    final long baseNanos;           // origin of relative times
+
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ReadBuffer<K,V> readBuffer;
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+    final AtomicLong pendingWrites = new AtomicLong();
+
+    // Guarded by evictionLock
+    final AccessOrderDeque<K,V> window = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> probation = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> protectedQueue = new AccessOrderDeque<K,V>();
+    final FrequencySketch sketch;
+    final TimerWheel<K,V> timerWheel;
+    final long windowMaximum;
+    final long protectedMaximum;
+    long weightedSize;
+    long windowWeight;
+    long protectedWeight;
+
+    // Statistics
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder loadSuccessCount = new LongAdder();
+    final LongAdder loadFailureCount = new LongAdder();
+    final LongAdder totalLoadTime = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder evictionWeight = new LongAdder();
+
+    ConcurrentCache(Builder<K,V> builder) {
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(builder.initialCapacity);
+        this.loading = new ConcurrentHashMap<K,CompletableFuture<V>>();
+        this.weigher = builder.weigher;
+        this.executor = (builder.executor != null) ? builder.executor :
+            ForkJoinPool.commonPool();
+        this.maximum = builder.maximum;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.baseNanos = System.nanoTime();
+        this.readBuffer = new ReadBuffer<K,V>();
+        this.windowMaximum = (maximum == Long.MAX_VALUE) ? Long.MAX_VALUE :
+            (long)(maximum * PERCENT_WINDOW);
+        this.protectedMaximum = (maximum == Long.MAX_VALUE) ? Long.MAX_VALUE :
+            (long)((maximum - windowMaximum) * PERCENT_MAIN_PROTECTED);
+        this.sketch = (maximum == Long.MAX_VALUE) ? null : new FrequencySketch();
+        if (sketch != null) {
+            sketch.ensureCapacity((weigher == null) ? maximum :
+                                  Math.min(maximum, builder.initialCapacity));
+        }
+        this.timerWheel = (expireAfterWriteNanos == UNSET &&
+                           expireAfterAccessNanos == UNSET) ? null :
+            new TimerWheel<K,V>(this, now());
+    }
+
+    /**
+     * Returns a new builder of caches.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a new builder
+     */
+    public static <K,V> Builder<K,V> newBuilder() {
+        return new Builder<K,V>();
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value associated with the key in this cache, or
+     * {@code null} if there is no cached value for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the cached value, or {@code null}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getIfPresent(Object key) {
+        V v = lookup(key);
+        (v == null ? missCount : hitCount).increment();
+        return v;
+    }
+
+    /**
+     * Returns the value associated with the key in this cache, obtaining
+     * it from the mapping function if necessary.  The function is called
+     * at most once per key at a time: threads that miss on a key whose
+     * value is already being loaded wait for that load.  A {@code null}
+     * result is returned but not cached.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value, or {@code null}
+     * @throws NullPointerException if the key or function is null
+     * @throws RuntimeException or Error if the mapping function does so
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v = lookup(key);
+        if (v != null) {
+            hitCount.increment();
+            return v;
+        }
+        missCount.increment();
+        CompletableFuture<V> f = new CompletableFuture<V>();
+        CompletableFuture<V> prior = loading.putIfAbsent(key, f);
+        if (prior == null)
+            load(key, mappingFunction, f);
+        else
+            f = prior;
+        try {
+            return f.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a future of the value associated with the key in this cache,
+     * asynchronously loading it with the mapping function, using this
+     * cache's executor, if necessary.  Concurrent calls for a key that is
+     * being loaded return the same future.  A {@code null} result
+     * completes the future with {@code null} and is not cached.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param mappingFunction the function to compute a value
+     * @return a future of the current (existing or computed) value
+     * @throws NullPointerException if the key or function is null
+     */
+    public CompletableFuture<V> getAsync(K key,
+                                         Function<? super K, ? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v = lookup(key);
+        if (v != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(v);
+        }
+        missCount.increment();
+        CompletableFuture<V> f = new CompletableFuture<V>();
+        CompletableFuture<V> prior = loading.putIfAbsent(key, f);
+        if (prior != null)
+            return prior;
+        try {
+            executor.execute(() -> load(key, mappingFunction, f));
+        } catch (Throwable ex) {
+            loading.remove(key, f);
+            loadFailureCount.increment();
+            f.completeExceptionally(ex);
+        }
+        return f;
+    }
+
+    /**
+     * Associates the value with the key in this cache, replacing any
+     * previously cached value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the weigher returns a
+     *         negative weight
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        long now = now();
+        for (Node<K,V> n = null;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                if (n == null)
+                    n = new Node<K,V>(key, value, weight, now);
+                if ((prior = data.putIfAbsent(key, n)) == null) {
+                    afterWrite(new AddTask<K,V>(this, n));
+                    return;
+                }
+            }
+            synchronized (prior) {
+                if (prior.state == ALIVE) {
+                    prior.value = value;
+                    prior.weight = weight;
+                    prior.writeTime = now;
+                    prior.accessTime = now;
+                }
+                else
+                    continue;   // removed; retry
+            }
+            afterWrite(new UpdateTask<K,V>(this, prior));
+            return;
+        }
+    }
+
+    /**
+     * Discards any cached value for the key.
+     *
+     * @param key the key whose mapping is to be removed
+     * @throws NullPointerException if the specified key is null
+     */
+    public void invalidate(Object key) {
+        Node<K,V> n = data.remove(key);
+        if (n != null) {
+            retire(n);
+            afterWrite(new RemovalTask<K,V>(this, n));
+        }
+    }
+
+    /**
+     * Discards all entries in this cache.
+     */
+    public void invalidateAll() {
+        for (K key : data.keySet())
+            invalidate(key);
+    }
+
+    /**
+     * Returns the approximate number of entries in this cache.
+     *
+     * @return the estimated number of mappings
+     */
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    /**
+     * Returns the total weight of the entries in this cache, as last
+     * seen by the eviction policy, or the number of entries if no weigher
+     * was configured.
+     *
+     * @return the weighted size
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Performs any pending maintenance: replays buffered reads and
+     * writes, expires entries and evicts entries above the bound.  This
+     * happens automatically as the cache is used, and need only be
+     * called by applications that want expired entries to be released
+     * promptly from an otherwise idle cache.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of this cache's cumulative statistics.
+     *
+     * @return the current statistics
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(),
+                         loadSuccessCount.sum(), loadFailureCount.sum(),
+                         totalLoadTime.sum(), evictionCount.sum(),
+                         evictionWeight.sum());
+    }
+
+    /* ---------------- Internals -------------- */
+
+    final long now() {
+        return System.nanoTime() - baseNanos;
+    }
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("negative weight");
+        return w;
+    }
+
+    final boolean hasExpired(Node<K,V> n, long now) {
+        return (expireAfterWriteNanos != UNSET &&
+                now - n.writeTime >= expireAfterWriteNanos) ||
+            (expireAfterAccessNanos != UNSET &&
+             now - n.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Returns the time at which n expires.
+     */
+    final long deadline(Node<K,V> n) {
+        long d = Long.MAX_VALUE;
+        if (expireAfterWriteNanos != UNSET)
+            d = n.writeTime + expireAfterWriteNanos;
+        if (expireAfterAccessNanos != UNSET)
+            d = Math.min(d, n.accessTime + expireAfterAccessNanos);
+        return d;
+    }
+
+    /**
+     * Returns the live value for key without recording statistics.
+     */
+    final V lookup(Object key) {
+        Node<K,V> n = data.get(key);
+        if (n == null)
+            return null;
+        V v = n.value;
+        long now = now();
+        if (timerWheel != null && hasExpired(n, now)) {
+            scheduleDrain();
+            return null;
+        }
+        if (expireAfterAccessNanos != UNSET)
+            n.accessTime = now;
+        if (readBuffer.offer(n))
+            scheduleDrain();
+        return v;
+    }
+
+    /**
+     * Runs the mapping function for key and completes f with its result,
+     * caching the value if non-null.
+     */
+    final void load(K key, Function<? super K, ? extends V> mappingFunction,
+                    CompletableFuture<V> f) {
+        try {
+            V v = lookup(key); // may have been loaded since our miss
+            if (v == null) {
+                long start = System.nanoTime();
+                try {
+                    v = mappingFunction.apply(key);
+                } finally {
+                    totalLoadTime.add(System.nanoTime() - start);
+                }
+                if (v == null)
+                    loadFailureCount.increment();
+                else {
+                    loadSuccessCount.increment();
+                    put(key, v);
+                }
+            }
+            f.complete(v);
+        } catch (Throwable ex) {
+            loadFailureCount.increment();
+            f.completeExceptionally(ex);
+        } finally {
+            loading.remove(key, f);
+        }
+    }
+
+    final void retire(Node<K,V> n) {
+        synchronized (n) {
+            if (n.state == ALIVE)
+                n.state = RETIRED;
+        }
+    }
+
+    /**
+     * Enqueues a write task and replays the buffers if the lock is
+     * free, or if the backlog is too large, in which case we wait.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX) {
+            evictionLock.lock();
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        else
+            scheduleDrain();
+    }
+
+    final void scheduleDrain() {
+        if (evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays buffered reads and writes, then expires and evicts.
+     * Called holding evictionLock.
+     */
+    final void maintenance() {
+        readBuffer.drainTo(this);
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        if (timerWheel != null)
+            timerWheel.advance(now());
+        evictEntries();
+    }
+
+    /**
+     * Updates the policy for a read of n.
+     */
+    final void onAccess(Node<K,V> n) {
+        if (sketch != null)
+            sketch.increment(n.key);
+        switch (n.queue) {
+        case WINDOW:
+            window.moveToBack(n);
+            break;
+        case PROBATION:
+            probation.remove(n);
+            protectedQueue.addLast(n);
+            n.queue = PROTECTED;
+            protectedWeight += n.policyWeight;
+            demoteFromProtected();
+            break;
+        case PROTECTED:
+            protectedQueue.moveToBack(n);
+            break;
+        default:
+            return;
+        }
+        if (timerWheel != null)
+            timerWheel.reschedule(n, deadline(n));
+    }
+
+    final void onAdd(Node<K,V> n) {
+        if (n.state == DEAD || n.queue != NONE)
+            return;
+        int w = n.weight;
+        n.policyWeight = w;
+        weightedSize += w;
+        windowWeight += w;
+        window.addLast(n);
+        n.queue = WINDOW;
+        if (sketch != null) {
+            long size = data.mappingCount();
+            if (weigher != null && size > sketch.capacity() && size <= maximum)
+                sketch.ensureCapacity(size << 1);
+            sketch.increment(n.key);
+        }
+        if (timerWheel != null)
+            timerWheel.schedule(n, deadline(n));
+    }
+
+    final void onUpdate(Node<K,V> n) {
+        if (n.queue == NONE)
+            return;     // add still pending, which will see the new weight
+        int w = n.weight, delta = w - n.policyWeight;
+        n.policyWeight = w;
+        weightedSize += delta;
+        if (n.queue == WINDOW)
+            windowWeight += delta;
+        else if (n.queue == PROTECTED)
+            protectedWeight += delta;
+        onAccess(n);
+    }
+
+    /**
+     * Unlinks n from the policy, marking it DEAD.
+     */
+    final void onRemove(Node<K,V> n) {
+        int q = n.queue;
+        if (q != NONE) {
+            int w = n.policyWeight;
+            weightedSize -= w;
+            if (q == WINDOW) {
+                window.remove(n);
+                windowWeight -= w;
+            }
+            else if (q == PROBATION)
+                probation.remove(n);
+            else {
+                protectedQueue.remove(n);
+                protectedWeight -= w;
+            }
+            n.queue = NONE;
+        }
+        if (timerWheel != null)
+            timerWheel.deschedule(n);
+        n.state = DEAD;
+    }
+
+    /**
+     * Removes n from the map and the policy, as expired or evicted.
+     */
+    final void evict(Node<K,V> n) {
+        if (data.remove(n.key, n)) {
+            retire(n);
+            evictionCount.increment();
+            evictionWeight.add(n.policyWeight);
+        }
+        onRemove(n);
+    }
+
+    /**
+     * Called by the timer wheel for a node whose bucket has come due.
+     * Returns false if the node has not actually expired yet, so must
+     * be rescheduled.
+     */
+    final boolean expire(Node<K,V> n, long now) {
+        if (n.state == DEAD)
+            return true;
+        if (!hasExpired(n, now))
+            return false;
+        evict(n);
+        return true;
+    }
+
+    final void demoteFromProtected() {
+        Node<K,V> n;
+        while (protectedWeight > protectedMaximum &&
+               (n = protectedQueue.first) != null) {
+            protectedQueue.remove(n);
+            protectedWeight -= n.policyWeight;
+            probation.addLast(n);
+            n.queue = PROBATION;
+        }
+    }
+
+    /**
+     * Moves entries overflowing the window into the main space, where
+     * each must win a frequency contest against the probation segment's
+     * least recently used entry to stay, and then evicts until within
+     * the maximum.
+     */
+    final void evictEntries() {
+        if (maximum == Long.MAX_VALUE)
+            return;
+        long mainMaximum = maximum - windowMaximum;
+        Node<K,V> candidate;
+        while (windowWeight > windowMaximum &&
+               (candidate = window.first) != null) {
+            window.remove(candidate);
+            windowWeight -= candidate.policyWeight;
+            candidate.queue = NONE;
+            boolean admitted = true;
+            while (weightedSize - windowWeight > mainMaximum) {
+                Node<K,V> victim = (probation.first != null) ?
+                    probation.first : protectedQueue.first;
+                if (victim == null)
+                    break;
+                if (admit(candidate, victim))
+                    evict(victim);
+                else {
+                    admitted = false;
+                    break;
+                }
+            }
+            if (admitted) {
+                probation.addLast(candidate);
+                candidate.queue = PROBATION;
+            }
+            else {
+                candidate.queue = PROBATION; // so onRemove adjusts weights
+                probation.addLast(candidate);
+                evict(candidate);
+            }
+        }
+        Node<K,V> n;
+        while (weightedSize > maximum) {
+            if ((n = probation.first) == null &&
+                (n = protectedQueue.first) == null &&
+                (n = window.first) == null)
+                break;
+            evict(n);
+        }
+    }
+
+    /**
+     * Returns whether the candidate should replace the victim, by
+     * comparing their estimated frequencies.  Ties go to the victim, to
+     * resist admission of one-hit wonders.
+     */
+    final boolean admit(Node<K,V> candidate, Node<K,V> victim) {
+        return sketch.frequency(candidate.key) > sketch.frequency(victim.key);
+    }
+
+    /* ---------------- Nodes and tasks -------------- */
+
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;
+        volatile long writeTime;
+        volatile long accessTime;
+        volatile int state;
+
+        // Guarded by evictionLock
+        int queue;
+        int policyWeight;
+        Node<K,V> prev, next;                   // access order
+        Node<K,V> prevInWheel, nextInWheel;     // timer wheel bucket
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    static final class AddTask<K,V> implements Runnable {
+        final ConcurrentCache<K,V> cache; final Node<K,V> node;
+        AddTask(ConcurrentCache<K,V> cache, Node<K,V> node) {
+            this.cache = cache; this.node = node;
+        }
+        public void run() { cache.onAdd(node); }
+    }
+
+    static final class UpdateTask<K,V> implements Runnable {
+        final ConcurrentCache<K,V> cache; final Node<K,V> node;
+        UpdateTask(ConcurrentCache<K,V> cache, Node<K,V> node) {
+            this.cache = cache; this.node = node;
+        }
+        public void run() {
+            if (node.state != DEAD)
+                cache.onUpdate(node);
+        }
+    }
+
+    static final class RemovalTask<K,V> implements Runnable {
+        final ConcurrentCache<K,V> cache; final Node<K,V> node;
+        RemovalTask(ConcurrentCache<K,V> cache, Node<K,V> node) {
+            this.cache = cache; this.node = node;
+        }
+        public void run() {
+            if (node.state != DEAD)
+                cache.onRemove(node);
+        }
+    }
+
+    /**
+     * An intrusive doubly linked list of nodes in access order.
+     */
+    static final class AccessOrderDeque<K,V> {
+        Node<K,V> first, last;
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            n.prev = l;
+            n.next = null;
+            if (l == null)
+                first = n;
+            else
+                l.next = n;
+            last = n;
+        }
+
+        void remove(Node<K,V> n) {
+            Node<K,V> p = n.prev, x = n.next;
+            if (p == null)
+                first = x;
+            else
+                p.next = x;
+            if (x == null)
+                last = p;
+            else
+                x.prev = p;
+            n.prev = n.next = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != last) {
+                remove(n);
+                addLast(n);
+            }
+        }
+    }
+
+    /**
+     * Striped, lossy ring buffers of recently read nodes.  Each stripe
+     * has a single consumer (the lock holder) and many producers that
+     * claim slots by CAS on the write counter; when a stripe is full,
+     * reads are simply not recorded.
+     */
+    static final class ReadBuffer<K,V> {
+        static final int BUFFER_SIZE = 16;
+        static final int MASK = BUFFER_SIZE - 1;
+
+        static final class Stripe<K,V> {
+            final AtomicLong writeCounter = new AtomicLong();
+            volatile long readCounter;
+            final AtomicReferenceArray<Node<K,V>> buffer =
+                new AtomicReferenceArray<Node<K,V>>(BUFFER_SIZE);
+        }
+
+        final Stripe<K,V>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        ReadBuffer() {
+            int n = 1;
+            while (n < NCPU)
+                n <<= 1;
+            stripes = (Stripe<K,V>[])new Stripe<?,?>[n];
+            for (int i = 0; i < n; ++i)
+                stripes[i] = new Stripe<K,V>();
+        }
+
+        /**
+         * Records a read, returning true if the stripe is now full and
+         * should be drained.
+         */
+        boolean offer(Node<K,V> n) {
+            int probe;
+            if ((probe = ThreadLocalRandom.getProbe()) == 0) {
+                ThreadLocalRandom.localInit();
+                probe = ThreadLocalRandom.getProbe();
+            }
+            Stripe<K,V> s = stripes[probe & (stripes.length - 1)];
+            long head = s.readCounter, tail = s.writeCounter.get();
+            long size = tail - head;
+            if (size >= BUFFER_SIZE)
+                return true;
+            if (s.writeCounter.compareAndSet(tail, tail + 1)) {
+                s.buffer.lazySet((int)(tail & MASK), n);
+                return size + 1 >= BUFFER_SIZE;
+            }
+            return false;
+        }
+
+        /**
+         * Replays recorded reads.  Called holding evictionLock.
+         */
+        void drainTo(ConcurrentCache<K,V> cache) {
+            for (Stripe<K,V> s : stripes) {
+                long head = s.readCounter, tail = s.writeCounter.get();
+                for (; head != tail; ++head) {
+                    int i = (int)(head & MASK);
+                    Node<K,V> n = s.buffer.get(i);
+                    if (n == null)
+                        break;  // slot claimed but not yet written
+                    s.buffer.lazySet(i, null);
+                    if (n.state != DEAD)
+                        cache.onAccess(n);
+                }
+                s.readCounter = head;
+            }
+        }
+    }
+
+    /**
+     * A Count-Min sketch of 4-bit counters, sixteen to a long, used to
+     * estimate the popularity of keys within a time window.  Counters
+     * are halved when the number of increments reaches ten times the
+     * sketch's width, so that old popularity fades.
+     */
+    static final class FrequencySketch {
+        static final long[] SEED = { // from FNV-1a, CityHash, and Murmur3
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+        static final int MAXIMUM_WIDTH = 1 << 26;
+
+        long[] table;
+        int tableMask;
+        int sampleSize;
+        int size;
+
+        int capacity() {
+            return table.length;
+        }
+
+        /**
+         * Resizes the sketch for the expected number of entries,
+         * discarding existing counts.
+         */
+        void ensureCapacity(long expected) {
+            int n = (int)Math.min(Math.max(expected, 16L), MAXIMUM_WIDTH);
+            int w = 1;
+            while (w < n)
+                w <<= 1;
+            if (table != null && table.length >= w)
+                return;
+            table = new long[w];
+            tableMask = w - 1;
+            sampleSize = 10 * w;
+            size = 0;
+        }
+
+        int frequency(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                int index = indexOf(hash, i);
+                int count = (int)((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i)
+                added |= incrementAt(indexOf(hash, i), start + i);
+            if (added && ++size >= sampleSize)
+                reset();
+        }
+
+        boolean incrementAt(int i, int j) {
+            int offset = j << 2;
+            long mask = (0xfL << offset);
+            if ((table[i] & mask) != mask) {
+                table[i] += (1L << offset);
+                return true;
+            }
+            return false;
+        }
+
+        void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; ++i) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size - (count >>> 2)) >>> 1;
+        }
+
+        int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int)hash) & tableMask;
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+
+    /**
+     * A hierarchical timer wheel.  Each level is an array of buckets
+     * (circular lists with a sentinel) covering a power-of-two span of
+     * time; a node is placed in the coarsest level whose span exceeds
+     * its remaining delay, and cascades to finer levels as the wheel
+     * turns.  Scheduling and descheduling are O(1).
+     */
+    static final class TimerWheel<K,V> {
+        static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+        static final long[] SPANS = {
+            1L << 30,   // 1.07s
+            1L << 36,   // 1.14m
+            1L << 42,   // 1.22h
+            1L << 46,   // 0.81d
+            1L << 50,   // 6.5d
+            1L << 50,   // 6.5d
+        };
+        static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+        };
+
+        final ConcurrentCache<K,V> cache;
+        final Node<K,V>[][] wheel;
+        long nanos;
+
+        @SuppressWarnings("unchecked")
+        TimerWheel(ConcurrentCache<K,V> cache, long now) {
+            this.cache = cache;
+            this.nanos = now;
+            wheel = (Node<K,V>[][])new Node<?,?>[BUCKETS.length][];
+            for (int i = 0; i < wheel.length; ++i) {
+                wheel[i] = (Node<K,V>[])new Node<?,?>[BUCKETS[i]];
+                for (int j = 0; j < wheel[i].length; ++j) {
+                    Node<K,V> sentinel = new Node<K,V>(null, null, 0, 0L);
+                    sentinel.prevInWheel = sentinel.nextInWheel = sentinel;
+                    wheel[i][j] = sentinel;
+                }
+            }
+        }
+
+        void schedule(Node<K,V> n, long time) {
+            Node<K,V> sentinel = findBucket(time);
+            Node<K,V> last = sentinel.prevInWheel;
+            n.prevInWheel = last;
+            n.nextInWheel = sentinel;
+            last.nextInWheel = n;
+            sentinel.prevInWheel = n;
+        }
+
+        void reschedule(Node<K,V> n, long time) {
+            if (n.nextInWheel != null) {
+                deschedule(n);
+                schedule(n, time);
+            }
+        }
+
+        void deschedule(Node<K,V> n) {
+            Node<K,V> next = n.nextInWheel;
+            if (next != null) {
+                Node<K,V> prev = n.prevInWheel;
+                next.prevInWheel = prev;
+                prev.nextInWheel = next;
+                n.nextInWheel = n.prevInWheel = null;
+            }
+        }
+
+        Node<K,V> findBucket(long time) {
+            long duration = time - nanos;
+            int length = wheel.length - 1;
+            for (int i = 0; i < length; ++i) {
+                if (duration < SPANS[i + 1]) {
+                    long ticks = time >>> SHIFT[i];
+                    int index = (int)(ticks & (wheel[i].length - 1));
+                    return wheel[i][index];
+                }
+            }
+            return wheel[length][0];
+        }
+
+        /**
+         * Turns the wheel to the given time, expiring or cascading the
+         * nodes in every bucket that has come due.
+         */
+        void advance(long now) {
+            long previous = nanos;
+            nanos = now;
+            for (int i = 0; i < SHIFT.length; ++i) {
+                long previousTicks = previous >>> SHIFT[i];
+                long currentTicks = now >>> SHIFT[i];
+                if (currentTicks - previousTicks <= 0L)
+                    break;
+                expire(i, previousTicks, currentTicks - previousTicks);
+            }
+        }
+
+        void expire(int index, long previousTicks, long delta) {
+            Node<K,V>[] timerWheel = wheel[index];
+            int mask = timerWheel.length - 1;
+            int steps = (int)Math.min(1L + delta, (long)timerWheel.length);
+            int start = (int)(previousTicks & mask);
+            int end = start + steps;
+            for (int i = start; i < end; ++i) {
+                Node<K,V> sentinel = timerWheel[i & mask];
+                Node<K,V> n = sentinel.nextInWheel;
+                sentinel.prevInWheel = sentinel.nextInWheel = sentinel;
+                while (n != sentinel) {
+                    Node<K,V> next = n.nextInWheel;
+                    n.prevInWheel = n.nextInWheel = null;
+                    if (!cache.expire(n, nanos))
+                        schedule(n, cache.deadline(n));
+                    n = next;
+                }
+            }
+        }
+    }
+
+    /* ---------------- Statistics -------------- */
+
+    /**
+     * An immutable snapshot of a cache's statistics.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long loadSuccessCount;
+        private final long loadFailureCount;
+        private final long totalLoadTime;
+        private final long evictionCount;
+        private final long evictionWeight;
+
+        Stats(long hitCount, long missCount, long loadSuccessCount,
+              long loadFailureCount, long totalLoadTime,
+              long evictionCount, long evictionWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTime = totalLoadTime;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+        }
+
+        /** @return the number of lookups that found a cached value */
+        public long hitCount()          { return hitCount; }
+        /** @return the number of lookups that did not */
+        public long missCount()         { return missCount; }
+        /** @return the number of loads that produced a value */
+        public long loadSuccessCount()  { return loadSuccessCount; }
+        /** @return the number of loads that threw or returned null */
+        public long loadFailureCount()  { return loadFailureCount; }
+        /** @return the total time spent loading, in nanoseconds */
+        public long totalLoadTime()     { return totalLoadTime; }
+        /** @return the number of entries evicted or expired */
+        public long evictionCount()     { return evictionCount; }
+        /** @return the total weight of entries evicted or expired */
+        public long evictionWeight()    { return evictionWeight; }
+
+        /**
+         * Returns the ratio of hits to lookups, or 1.0 if there have
+         * been no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0L) ? 1.0d : (double)hitCount / requests;
+        }
+
+        public String toString() {
+            return "Stats[hits=" + hitCount + ", misses=" + missCount +
+                ", loadSuccesses=" + loadSuccessCount +
+                ", loadFailures=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictions=" + evictionCount +
+                ", evictionWeight=" + evictionWeight + "]";
+        }
+    }
+
+    /* ---------------- Builder -------------- */
+
+    /**
+     * A builder of {@link ConcurrentCache} instances.  By default a cache
+     * is unbounded, never expires entries, and loads asynchronously in
+     * the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    public static final class Builder<K,V> {
+        int initialCapacity = 16;
+        long maximum = Long.MAX_VALUE;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos = UNSET;
+        long expireAfterAccessNanos = UNSET;
+        Executor executor;
+
+        Builder() {}
+
+        /**
+         * Sets the initial capacity of the backing map.
+         *
+         * @param initialCapacity the expected number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> initialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Bounds the cache to the given number of entries.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> maximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            this.maximum = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bounds the cache to the given total weight of entries, as
+         * computed by the {@linkplain #weigher weigher}.
+         *
+         * @param maximumWeight the maximum total weight
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> maximumWeight(long maximumWeight) {
+            return maximumSize(maximumWeight);
+        }
+
+        /**
+         * Sets the function computing the weight of each entry when it
+         * is written.  Weights must be non-negative.
+         *
+         * @param weigher the weigher
+         * @return this builder
+         */
+        public Builder<K,V> weigher(ToIntBiFunction<? super K, ? super V> weigher) {
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        /**
+         * Expires each entry the given duration after it was created or
+         * last replaced.
+         *
+         * @param duration the duration
+         * @param unit the unit of duration
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Expires each entry the given duration after it was last read
+         * or written.
+         *
+         * @param duration the duration
+         * @param unit the unit of duration
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> expireAfterAccess(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the executor used by {@link ConcurrentCache#getAsync}.
+         *
+         * @param executor the executor
+         * @return this builder
+         */
+        public Builder<K,V> executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Returns a new cache with this builder's settings.
+         *
+         * @return a new cache
+         * @throws IllegalStateException if a weigher was set without a
+         *         maximum weight
+         */
+        public ConcurrentCache<K,V> build() {
+            if (weigher != null && maximum == Long.MAX_VALUE)
+                throw new IllegalStateException("weigher requires maximumWeight");
+            return new ConcurrentCache<K,V>(this);
+        }
+    }
+}
@@ -131,6 +131,41 @@ public class Executors {
              null, true);
     }
 
+    /**
+     * 20261016
+     * 创建一个用于运行大量阻塞型任务的线程池, 任务在 java.util.concurrent 的同步器中阻塞时, 池会启用补偿线程以维持给定的并行度。
+     */
+    /**
+     * Creates a thread pool for running large numbers of tasks that may
+     * block.  When a task blocks in one of the synchronizers of this
+     * package, the pool activates or creates a spare thread so as to keep
+     * the given number of tasks running.
+     *
+     * @param parallelism the targeted number of running tasks
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code parallelism <= 0}
+     * @see FiberExecutor
+     * @since 1.8
+     */
+    // 指定并行度创建一个运行阻塞型任务的线程池, 阻塞的任务不会降低池的有效并行度
+    public static ExecutorService newFiberExecutor(int parallelism) {
+        return new FiberExecutor(parallelism);
+    }
+
+    // 使用所有可用处理器作为目标并行度创建一个运行阻塞型任务的线程池
+    /**
+     * Creates a thread pool for running large numbers of tasks that may
+     * block, using all {@link Runtime#availableProcessors available
+     * processors} as its target parallelism level.
+     *
+     * @return the newly created thread pool
+     * @see #newFiberExecutor(int)
+     * @since 1.8
+     */
+    public static ExecutorService newFiberExecutor() {
+        return new FiberExecutor();
+    }
+
     /**
      * 20210815
      * 创建一个线程池，该线程池重用固定数量的线程，这些线程在共享的无界队列中运行，并在需要时使用提供的 ThreadFactory 创建新线程。
@@ -357,6 +392,52 @@ public class Executors {
         return new ScheduledThreadPoolExecutor(corePoolSize, threadFactory);
     }
 
+    /**
+     * 20261016
+     * 创建一个基于分层时间轮的调度线程池, 调度与取消任务均为O(1)且无锁, 适合大量短期超时的场景, 时间精度为1毫秒。
+     */
+    /**
+     * Creates a scheduled executor backed by a hierarchical timing
+     * wheel, in which scheduling and cancelling a task take constant
+     * time without locking.  This is preferable to
+     * {@link #newScheduledThreadPool(int)} when very many short
+     * timeouts are scheduled and cancelled concurrently.  Tasks fire
+     * with a precision of one millisecond.
+     *
+     * @param nThreads the number of threads that run expired tasks
+     * @return a newly created scheduled executor
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see TimerWheelScheduledExecutor
+     * @since 1.8
+     */
+    // 指定工作线程数创建一个基于时间轮的调度线程池
+    public static ScheduledExecutorService newTimerWheelScheduledExecutor(int nThreads) {
+        return new TimerWheelScheduledExecutor(nThreads);
+    }
+
+    /**
+     * 20261016
+     * 使用指定的线程工厂创建一个基于分层时间轮的调度线程池, 线程工厂同时用于创建工作线程和推进时间轮的 ticker 线程。
+     */
+    /**
+     * Creates a scheduled executor backed by a hierarchical timing
+     * wheel, using the given factory to create both its worker threads
+     * and the thread that advances the wheel.
+     *
+     * @param nThreads the number of threads that run expired tasks
+     * @param threadFactory the factory to use when the executor
+     * creates a new thread
+     * @return a newly created scheduled executor
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @throws NullPointerException if threadFactory is null
+     * @see TimerWheelScheduledExecutor
+     * @since 1.8
+     */
+    // 指定工作线程数和线程工厂创建一个基于时间轮的调度线程池
+    public static ScheduledExecutorService newTimerWheelScheduledExecutor(int nThreads, ThreadFactory threadFactory) {
+        return new TimerWheelScheduledExecutor(nThreads, threadFactory);
+    }
+
     // 返回一个对象，该对象将所有已定义的 {@link ExecutorService} 方法委托给给定的执行程序，但不包括任何其他可以使用强制转换访问的方法。
     // 这提供了一种安全“冻结”配置并禁止调整给定具体实现的方法。
     /**
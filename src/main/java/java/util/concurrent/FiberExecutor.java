@@ -0,0 +1,137 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+
+/**
+ * 20261016
+ * A. 一个用于运行大量阻塞型任务(fiber)的 {@link ForkJoinPool}。 任务以FIFO方式调度, 不需要为每个请求创建专门的平台线程。
+ * B. 当运行在本池载体线程(carrier thread)上的任务在 java.util.concurrent 的同步器(ReentrantLock、Condition、BlockingQueue、
+ *    CompletableFuture.get 等)中阻塞时, 由于这些同步器最终都通过 {@link java.util.concurrent.locks.LockSupport#park} 阻塞,
+ *    LockSupport 会识别出当前线程是本池的载体线程, 并改为通过 {@link ForkJoinPool#managedBlock} 阻塞, 从而让池激活或创建补偿线程,
+ *    使可运行的任务数始终维持在并行度水平, 阻塞的任务不会使其他任务饿死。 补偿线程空闲一段时间后会自动退出。
+ * C. 真正的用户态续体(continuation)需要虚拟机支持捕获与恢复线程栈, 这在类库层面无法实现, 因此阻塞的任务仍然占据它的载体线程;
+ *    本类提供的是在这一限制下最接近的语义: 阻塞不会降低池的有效并行度。
+ */
+
+/**
+ * A {@link ForkJoinPool} for running large numbers of tasks that may
+ * block, such as request handlers performing blocking I/O.  Tasks, which
+ * this class calls <em>fibers</em>, are scheduled in first-in-first-out
+ * order over a small number of <em>carrier</em> threads, rather than each
+ * being given a platform thread of its own.
+ *
+ * <p>When a fiber blocks in one of the synchronizers of this package --
+ * acquiring a {@link java.util.concurrent.locks.ReentrantLock}, awaiting
+ * a {@link java.util.concurrent.locks.Condition}, taking from a
+ * {@link BlockingQueue}, or waiting in {@link CompletableFuture#get},
+ * among others -- it ultimately parks through
+ * {@link java.util.concurrent.locks.LockSupport}.  When the parking
+ * thread is a carrier of a {@code FiberExecutor}, {@code LockSupport}
+ * parks it through {@link ForkJoinPool#managedBlock}, so that the pool
+ * activates or creates a spare carrier to keep the target parallelism of
+ * runnable fibers.  Blocked fibers therefore never starve runnable ones,
+ * and spare carriers retire once they have been idle for a while.
+ *
+ * <p>Truly suspending a fiber, so that it releases its carrier while
+ * blocked, would require capturing and restoring its stack, which the
+ * virtual machine does not support.  A blocked fiber thus still occupies
+ * a thread, and the number of simultaneously blocked fibers is bounded
+ * by the implementation limit on the number of threads in a pool.  What
+ * this class provides is that blocking does not reduce the pool's
+ * throughput for the fibers that can run.
+ *
+ * <p>Fibers should block using the synchronizers of this package; blocking
+ * in {@link Object#wait}, {@link Thread#sleep} or native I/O is not
+ * detected, and reduces the pool's parallelism for its duration.
+ *
+ * @since 1.8
+ */
+public class FiberExecutor extends ForkJoinPool {
+
+    /**
+     * Creates a {@code FiberExecutor} with parallelism equal to {@link
+     * java.lang.Runtime#availableProcessors}, using the {@linkplain
+     * #defaultForkJoinWorkerThreadFactory default thread factory} and no
+     * UncaughtExceptionHandler.
+     *
+     * @throws SecurityException if a security manager exists and
+     *         the caller is not permitted to modify threads
+     *         because it does not hold {@link
+     *         java.lang.RuntimePermission}{@code ("modifyThread")}
+     */
+    public FiberExecutor() {
+        this(Math.min(MAX_CAP, Runtime.getRuntime().availableProcessors()),
+             defaultForkJoinWorkerThreadFactory, null);
+    }
+
+    /**
+     * Creates a {@code FiberExecutor} with the indicated parallelism
+     * level, that is, the number of fibers it aims to keep running, the
+     * {@linkplain #defaultForkJoinWorkerThreadFactory default thread
+     * factory} and no UncaughtExceptionHandler.
+     *
+     * @param parallelism the parallelism level
+     * @throws IllegalArgumentException if parallelism less than or
+     *         equal to zero, or greater than implementation limit
+     * @throws SecurityException if a security manager exists and
+     *         the caller is not permitted to modify threads
+     *         because it does not hold {@link
+     *         java.lang.RuntimePermission}{@code ("modifyThread")}
+     */
+    public FiberExecutor(int parallelism) {
+        this(parallelism, defaultForkJoinWorkerThreadFactory, null);
+    }
+
+    /**
+     * Creates a {@code FiberExecutor} with the given parameters.
+     *
+     * @param parallelism the parallelism level. For default value,
+     * use {@link java.lang.Runtime#availableProcessors}.
+     * @param factory the factory for creating carrier threads. For default
+     * value, use {@link #defaultForkJoinWorkerThreadFactory}.
+     * @param handler the handler for carrier threads that terminate due
+     * to unrecoverable errors encountered while executing tasks. For
+     * default value, use {@code null}.
+     * @throws IllegalArgumentException if parallelism less than or
+     *         equal to zero, or greater than implementation limit
+     * @throws NullPointerException if the factory is null
+     * @throws SecurityException if a security manager exists and
+     *         the caller is not permitted to modify threads
+     *         because it does not hold {@link
+     *         java.lang.RuntimePermission}{@code ("modifyThread")}
+     */
+    public FiberExecutor(int parallelism,
+                         ForkJoinWorkerThreadFactory factory,
+                         UncaughtExceptionHandler handler) {
+        super(parallelism, factory, handler, true);
+    }
+
+    /**
+     * Returns {@code true} if the given thread is a carrier thread of a
+     * {@code FiberExecutor}, in which case parking it compensates for
+     * the blocked carrier.
+     *
+     * @param thread the thread
+     * @return {@code true} if the thread is a carrier of a
+     * {@code FiberExecutor}
+     */
+    public static boolean isCarrierThread(Thread thread) {
+        return (thread instanceof ForkJoinWorkerThread) &&
+            ((ForkJoinWorkerThread)thread).pool instanceof FiberExecutor;
+    }
+
+    /**
+     * Returns {@code true} if the current thread is a carrier thread of
+     * a {@code FiberExecutor}, that is, if the caller is running as a
+     * fiber.
+     *
+     * @return {@code true} if the caller is running as a fiber
+     */
+    public static boolean inFiber() {
+        return isCarrierThread(Thread.currentThread());
+    }
+}
@@ -0,0 +1,1069 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 20261016
+ * A. 一个把键值以序列化形式存放在堆外直接内存中的并发哈希表。 堆上只保留一个 long[] 桶数组(每个桶8字节)和若干分段锁,
+ *    每个映射在直接内存中占用一块"条目", 因此即使缓存达到数GB, GC也几乎不需要扫描它们。
+ * B. 条目内存通过 Unsafe.allocateMemory 分配, 并通过 Bits.reserveMemory 计入 -XX:MaxDirectMemorySize 的额度,
+ *    在 BufferPoolMXBean 的 "direct" 池中可见。
+ * C. 与 ConcurrentHashMap 相同: 更新只锁住桶所在的分段, 扩容的发起与协助由 CAS 驱动(sizeCtl/transferIndex), 多个线程可以分段协助迁移;
+ *    不同的是, 由于条目可能被随时释放, 读操作也需要持有该桶所在分段的读锁, 以免读到已经被 free 的内存。
+ * D. 键的相等性由其序列化字节决定, 因此键的序列化形式必须是规范的(相等的键产生相同的字节), 并且与 hashCode 一致。
+ * E. 不允许 null 键或 null 值; 迭代器是弱一致的, 返回的条目是创建时的快照。
+ */
+
+/**
+ * A concurrent hash map that stores its keys and values, in serialized
+ * form, in native memory outside the Java heap.  The only per-map heap
+ * structures are a {@code long} bin table (eight bytes per bin) and a fixed
+ * array of stripe locks, so a map holding many gigabytes of data adds almost
+ * nothing for the garbage collector to trace.
+ *
+ * <p>Keys and values are converted to bytes by the {@link Serializer}s
+ * supplied at construction.  Two keys are considered equal if and only if
+ * their serialized forms are identical, so a key serializer must be
+ * <em>canonical</em> (equal keys produce equal bytes) and consistent with
+ * {@link Object#hashCode}, which is still used to select bins.  Values are
+ * compared by their serialized forms in {@link #remove(Object, Object)} and
+ * {@link #replace(Object, Object, Object)}.
+ *
+ * <p>Native memory for each mapping is reserved against the
+ * {@code -XX:MaxDirectMemorySize} limit in the same way as for direct
+ * buffers, and shows up in the {@code "direct"}
+ * {@link java.lang.management.BufferPoolMXBean}.  The memory is released when
+ * a mapping is removed or replaced, when the map is {@linkplain #clear
+ * cleared}, or, for mappings still present, after the map itself becomes
+ * unreachable.
+ *
+ * <p>Like {@link ConcurrentHashMap}, updates lock only the affected bin's
+ * stripe, and table resizing is claimed through CAS on {@code sizeCtl} and
+ * carried out in strides that other updating threads may help with.  Unlike {@code ConcurrentHashMap},
+ * retrievals take a (shared) stripe lock, since a bin's native entries may be
+ * freed by a concurrent removal.  Like {@code ConcurrentHashMap}, this class
+ * does not allow {@code null} to be used as a key or value, and its
+ * iterators are weakly consistent.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /**
+     * Converts objects to and from the bytes held in native memory.
+     *
+     * @param <T> the type of object serialized
+     */
+    public interface Serializer<T> {
+        /**
+         * Returns the serialized form of the given object.
+         *
+         * @param t a non-null object
+         * @return its serialized form
+         */
+        byte[] serialize(T t);
+
+        /**
+         * Reconstructs an object from its serialized form.
+         *
+         * @param bytes bytes previously returned by {@link #serialize}
+         * @return the object
+         */
+        T deserialize(byte[] bytes);
+    }
+
+    /*
+     * Overview:
+     *
+     * The table is a long[] of native entry addresses, 0 for an empty
+     * bin.  Each entry is one native block laid out as
+     *
+     *   [next:8][hash:4][keyLength:4][valueLength:4][key bytes][value bytes]
+     *
+     * and bins are singly linked lists through the next field.
+     *
+     * Unlike ConcurrentHashMap we cannot let readers traverse bins
+     * without locking: a removed node is simply left for the GC there,
+     * but here it is freed, and a racing reader would read freed memory.
+     * So every bin is guarded by a StampedLock stripe, read-locked for
+     * retrievals and write-locked for updates.  The stripe of a bin is
+     * hash & (locks.length - 1); the table is never smaller than the
+     * number of stripes, so all entries of a bin, and all the bins a
+     * bin splits into on resize, share one stripe.
+     *
+     * Resizing follows ConcurrentHashMap.transfer: a thread CASes
+     * sizeCtl to a negative resize stamp, allocates nextTable, and
+     * claims strides of bins through transferIndex; other updaters
+     * join by incrementing sizeCtl.  Each bin is split under its
+     * stripe's write lock by relinking (not copying) its entries into
+     * the two destination bins, after which the source bin is set to
+     * MOVED.  As native entries are relinked in place, nothing is
+     * allocated or freed during a resize.  A thread that finds MOVED in
+     * the bin it needs re-reads table and nextTable (see tableFor).
+     *
+     * Native memory is allocated before acquiring a stripe lock and
+     * freed after releasing it, so that neither malloc nor any
+     * reservation slow path in Bits runs while a lock is held.
+     *
+     * The table references live in a separate Store object, which is
+     * what the Cleaner frees from if the map becomes unreachable while
+     * still holding mappings.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The largest possible table capacity.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The default initial table capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Minimum number of rebinnings per transfer step, as in
+     * ConcurrentHashMap.
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    /**
+     * The number of bits used for generation stamp in sizeCtl.
+     */
+    private static final int RESIZE_STAMP_BITS = 16;
+
+    /**
+     * The maximum number of threads that can help resize.
+     */
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    /**
+     * The bit shift for recording size stamp in sizeCtl.
+     */
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+    /**
+     * The maximum number of lock stripes.
+     */
+    private static final int MAX_STRIPES = 1 << 16;
+
+    /**
+     * Bin marker for a bin whose entries have been transferred to
+     * nextTable.  Never a valid native address.
+     */
+    static final long MOVED = -1L;
+
+    static final int HASH_BITS = 0x7fffffff; // usable bits of normal node hash
+
+    /** Number of CPUS, to place bounds on some sizings */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    // Native entry layout
+    static final int NEXT   = 0;
+    static final int HASH   = 8;
+    static final int KLEN   = 12;
+    static final int VLEN   = 16;
+    static final int HEADER = 20;
+
+    /* ---------------- Fields -------------- */
+
+    final Serializer<K> keySerializer;
+    final Serializer<V> valueSerializer;
+
+    /**
+     * Holder of the bin tables.
+     */
+    final Store store;
+
+    /**
+     * Bin lock stripes, length a power of two no larger than the table.
+     */
+    final StampedLock[] locks;
+
+    /**
+     * Table initialization and resizing control, as in ConcurrentHashMap:
+     * when negative, the table is being resized; otherwise the element
+     * count at which to resize.
+     */
+    private transient volatile int sizeCtl;
+
+    /**
+     * The next table index (plus one) to split while resizing.
+     */
+    private transient volatile int transferIndex;
+
+    /**
+     * The number of mappings.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Releases native entries of an unreachable map.
+     */
+    private final sun.misc.Cleaner cleaner;
+
+    // views
+    private transient EntrySetView<K,V> entrySet;
+
+    /**
+     * The bin tables.  Kept apart from the map so that the Cleaner can
+     * reach them without reaching the map.
+     */
+    static final class Store {
+        volatile long[] table;
+        volatile long[] nextTable;
+        Store(long[] table) { this.table = table; }
+    }
+
+    /**
+     * Frees every entry in a store.  Runs only once the map is
+     * unreachable, so needs no locking.
+     */
+    static final class Deallocator implements Runnable {
+        private final Store store;
+        Deallocator(Store store) { this.store = store; }
+        public void run() {
+            long[] t = store.table, nt = store.nextTable;
+            freeAll(t);
+            if (nt != null)
+                freeAll(nt);
+        }
+        private static void freeAll(long[] tab) {
+            if (tab == null)
+                return;
+            for (int i = 0; i < tab.length; ++i) {
+                for (long e = tab[i], next; e != 0L && e != MOVED; e = next) {
+                    next = U.getLong(e + NEXT);
+                    freeEntry(e);
+                }
+            }
+        }
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size (16).
+     *
+     * @param keySerializer the serializer for keys, which must be canonical
+     * @param valueSerializer the serializer for values
+     * @throws NullPointerException if either serializer is null
+     */
+    public OffHeapConcurrentHashMap(Serializer<K> keySerializer,
+                                    Serializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size accommodating
+     * the specified number of elements without the need to dynamically
+     * resize.
+     *
+     * @param keySerializer the serializer for keys, which must be canonical
+     * @param valueSerializer the serializer for values
+     * @param initialCapacity The implementation performs internal
+     * sizing to accommodate this many elements.
+     * @throws IllegalArgumentException if the initial capacity of
+     * elements is negative
+     * @throws NullPointerException if either serializer is null
+     */
+    public OffHeapConcurrentHashMap(Serializer<K> keySerializer,
+                                    Serializer<V> valueSerializer,
+                                    int initialCapacity) {
+        if (keySerializer == null || valueSerializer == null)
+            throw new NullPointerException();
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException();
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        int ns = tableSizeFor(Math.min(NCPU << 2, MAX_STRIPES));
+        StampedLock[] ls = new StampedLock[ns];
+        for (int i = 0; i < ns; ++i)
+            ls[i] = new StampedLock();
+        this.locks = ls;
+        int cap = ((initialCapacity >= (MAXIMUM_CAPACITY >>> 1)) ?
+                   MAXIMUM_CAPACITY :
+                   tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1));
+        int n = Math.max(cap, ns);
+        this.store = new Store(new long[n]);
+        this.sizeCtl = n - (n >>> 2);
+        this.cleaner = sun.misc.Cleaner.create(this, new Deallocator(store));
+    }
+
+    public int size() {
+        long n = count.sum();
+        return ((n < 0L) ? 0 :
+                (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                (int)n);
+    }
+
+    /**
+     * Returns the number of mappings.  This method should be used
+     * instead of {@link #size} because a map may contain more mappings
+     * than can be represented as an int.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = count.sum();
+        return (n < 0L) ? 0L : n; // ignore transient negative values
+    }
+
+    public boolean isEmpty() {
+        return count.sum() <= 0L; // ignore transient negative values
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key is not of the map's key type
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int h = spread(key.hashCode());
+        byte[] kb = keySerializer.serialize((K)key);
+        byte[] vb = null;
+        StampedLock lock = lockFor(h);
+        long stamp = lock.readLock();
+        try {
+            long e = find(tableFor(h), h, kb);
+            if (e != 0L)
+                vb = valueBytes(e);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return (vb == null) ? null : valueSerializer.deserialize(vb);
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key is not of the map's key type
+     */
+    @SuppressWarnings("unchecked")
+    public boolean containsKey(Object key) {
+        int h = spread(key.hashCode());
+        byte[] kb = keySerializer.serialize((K)key);
+        StampedLock lock = lockFor(h);
+        long stamp = lock.readLock();
+        try {
+            return find(tableFor(h), h, kb) != 0L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     * Neither the key nor the value can be null.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /** Implementation for put and putIfAbsent */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        byte[] vb = valueSerializer.serialize(value);
+        int h = spread(key.hashCode());
+        long node = allocateEntry(h, kb, vb);
+        long garbage = 0L;
+        byte[] oldBytes = null;
+        boolean moved;
+        StampedLock lock = lockFor(h);
+        long stamp = lock.writeLock();
+        try {
+            long[] tab = tableFor(h);
+            moved = (tab != store.table);
+            int i = (tab.length - 1) & h;
+            long pred = 0L, e = tabAt(tab, i);
+            while (e != 0L && !keyEquals(e, h, kb)) {
+                pred = e;
+                e = U.getLong(e + NEXT);
+            }
+            if (e == 0L) {
+                U.putLong(node + NEXT, tabAt(tab, i));
+                setTabAt(tab, i, node);
+                node = 0L;
+            }
+            else {
+                oldBytes = valueBytes(e);
+                if (!onlyIfAbsent) {
+                    U.putLong(node + NEXT, U.getLong(e + NEXT));
+                    if (pred == 0L)
+                        setTabAt(tab, i, node);
+                    else
+                        U.putLong(pred + NEXT, node);
+                    garbage = e;
+                    node = 0L;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (node != 0L)
+            freeEntry(node);        // unused: key was present
+        if (garbage != 0L)
+            freeEntry(garbage);
+        if (oldBytes != null)
+            return valueSerializer.deserialize(oldBytes);
+        addCount(1L);
+        if (moved)
+            helpTransfer();
+        return null;
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param  key the key that needs to be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        byte[] vb = removeNode((K)key, null, null);
+        return (vb == null) ? null : valueSerializer.deserialize(vb);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null &&
+            removeNode((K)key, null,
+                       valueSerializer.serialize((V)value)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return removeNode(key, newValue,
+                          valueSerializer.serialize(oldValue)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] vb = removeNode(key, value, null);
+        return (vb == null) ? null : valueSerializer.deserialize(vb);
+    }
+
+    /**
+     * Implementation for the four public remove/replace methods:
+     * Replaces node value with v, conditional upon match of cv if
+     * non-null.  If resulting value is null, delete.  Returns the
+     * serialized old value, or null if nothing was changed.
+     */
+    final byte[] removeNode(K key, V value, byte[] cv) {
+        byte[] kb = keySerializer.serialize(key);
+        int h = spread(key.hashCode());
+        long node = (value == null) ? 0L :
+            allocateEntry(h, kb, valueSerializer.serialize(value));
+        long garbage = 0L;
+        byte[] oldBytes = null;
+        StampedLock lock = lockFor(h);
+        long stamp = lock.writeLock();
+        try {
+            long[] tab = tableFor(h);
+            int i = (tab.length - 1) & h;
+            long pred = 0L, e = tabAt(tab, i);
+            while (e != 0L && !keyEquals(e, h, kb)) {
+                pred = e;
+                e = U.getLong(e + NEXT);
+            }
+            if (e != 0L && (cv == null || valueEquals(e, cv))) {
+                oldBytes = valueBytes(e);
+                long next = U.getLong(e + NEXT);
+                if (node != 0L) {
+                    U.putLong(node + NEXT, next);
+                    next = node;
+                    node = 0L;
+                }
+                if (pred == 0L)
+                    setTabAt(tab, i, next);
+                else
+                    U.putLong(pred + NEXT, next);
+                garbage = e;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (node != 0L)
+            freeEntry(node);
+        if (garbage != 0L) {
+            freeEntry(garbage);
+            if (value == null)
+                addCount(-1L);
+        }
+        return oldBytes;
+    }
+
+    /**
+     * Removes all of the mappings from this map, releasing their native
+     * memory.
+     */
+    public void clear() {
+        long[] tab = store.table;
+        int n = tab.length;
+        ArrayList<Long> garbage = new ArrayList<Long>();
+        for (int i = 0; i < n; ++i) {
+            StampedLock lock = locks[i & (locks.length - 1)];
+            long stamp = lock.writeLock();
+            try {
+                visitClass(tab, i, n, garbage, true);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            if (!garbage.isEmpty()) {
+                for (Long e : garbage)
+                    freeEntry(e);
+                addCount(-garbage.size());
+                garbage.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The view's iterators are weakly consistent: each bin is copied
+     * out, under its stripe lock, when the iterator reaches it, so
+     * entries reflect the state of the map at that moment.  The view's
+     * {@code setValue} and {@code remove} operations write through to
+     * the map.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySetView<K,V> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySetView<K,V>(this));
+    }
+
+    /* ---------------- Table access -------------- */
+
+    /**
+     * Returns a power of two table size for the given desired capacity.
+     */
+    private static final int tableSizeFor(int c) {
+        int n = c - 1;
+        n |= n >>> 1;
+        n |= n >>> 2;
+        n |= n >>> 4;
+        n |= n >>> 8;
+        n |= n >>> 16;
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    static final int spread(int h) {
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    static final long tabAt(long[] tab, int i) {
+        return U.getLongVolatile(tab, ((long)i << ASHIFT) + ABASE);
+    }
+
+    static final void setTabAt(long[] tab, int i, long v) {
+        U.putLongVolatile(tab, ((long)i << ASHIFT) + ABASE, v);
+    }
+
+    final StampedLock lockFor(int h) {
+        StampedLock[] ls = locks;
+        return ls[h & (ls.length - 1)];
+    }
+
+    /**
+     * Returns the table whose bin for hash h holds the entries for h.
+     * Must be called holding h's stripe lock, which keeps that bin from
+     * being transferred until the lock is released.
+     */
+    final long[] tableFor(int h) {
+        Store s = store;
+        for (long[] tab = s.table;;) {
+            if (tabAt(tab, (tab.length - 1) & h) != MOVED)
+                return tab;
+            long[] nt = s.nextTable, t = s.table;
+            tab = (t != tab || nt == null) ? t : nt;
+        }
+    }
+
+    /**
+     * Walks all bins of the current table that are congruent to i
+     * modulo n, following MOVED bins into the next table.  Collects
+     * the entries found into out, and unlinks them if clear is true.
+     * Must be called holding the stripe lock of bin i, where n is no
+     * smaller than the number of stripes.
+     */
+    final void visitClass(long[] tab, int i, int n,
+                          ArrayList<Long> out, boolean clear) {
+        Store s = store;
+        for (int j = i; j < tab.length; j += n) {
+            long f = tabAt(tab, j);
+            if (f == MOVED) {
+                long[] nt = s.nextTable, t = s.table;
+                long[] next = (t != tab || nt == null) ? t : nt;
+                if (next == tab) { // table switched under us; retry
+                    j -= n;
+                    continue;
+                }
+                visitClass(next, j, tab.length, out, clear);
+            }
+            else if (f != 0L) {
+                for (long e = f; e != 0L; e = U.getLong(e + NEXT))
+                    out.add(e);
+                if (clear)
+                    setTabAt(tab, j, 0L);
+            }
+        }
+    }
+
+    /**
+     * Returns the entry for the key with hash h and serialized form kb
+     * in tab, or 0 if none.  Caller holds the stripe lock.
+     */
+    static long find(long[] tab, int h, byte[] kb) {
+        for (long e = tabAt(tab, (tab.length - 1) & h); e != 0L;
+             e = U.getLong(e + NEXT)) {
+            if (keyEquals(e, h, kb))
+                return e;
+        }
+        return 0L;
+    }
+
+    /* ---------------- Native entries -------------- */
+
+    /**
+     * Allocates and fills an unlinked entry, reserving its memory.
+     */
+    static long allocateEntry(int h, byte[] kb, byte[] vb) {
+        long size = (long)HEADER + kb.length + vb.length;
+        if (size > Integer.MAX_VALUE)
+            throw new OutOfMemoryError("Entry too large");
+        NIO_ACCESS.reserveMemory(size, (int)size);
+        long a;
+        try {
+            a = U.allocateMemory(size);
+        } catch (OutOfMemoryError x) {
+            NIO_ACCESS.unreserveMemory(size, (int)size);
+            throw x;
+        }
+        U.putLong(a + NEXT, 0L);
+        U.putInt(a + HASH, h);
+        U.putInt(a + KLEN, kb.length);
+        U.putInt(a + VLEN, vb.length);
+        U.copyMemory(kb, BYTE_ARRAY_BASE, null, a + HEADER, kb.length);
+        U.copyMemory(vb, BYTE_ARRAY_BASE, null, a + HEADER + kb.length,
+                     vb.length);
+        return a;
+    }
+
+    /**
+     * Frees an unlinked entry and releases its reservation.
+     */
+    static void freeEntry(long a) {
+        long size = (long)HEADER + U.getInt(a + KLEN) + U.getInt(a + VLEN);
+        U.freeMemory(a);
+        NIO_ACCESS.unreserveMemory(size, (int)size);
+    }
+
+    static boolean keyEquals(long e, int h, byte[] kb) {
+        return U.getInt(e + HASH) == h && U.getInt(e + KLEN) == kb.length &&
+            bytesEqual(e + HEADER, kb);
+    }
+
+    static boolean valueEquals(long e, byte[] vb) {
+        return U.getInt(e + VLEN) == vb.length &&
+            bytesEqual(e + HEADER + U.getInt(e + KLEN), vb);
+    }
+
+    /**
+     * Compares len(b) native bytes at address a with b, a word at a time.
+     */
+    static boolean bytesEqual(long a, byte[] b) {
+        int len = b.length, j = 0;
+        for (; j + 8 <= len; j += 8) {
+            if (U.getLong(a + j) != U.getLong(b, BYTE_ARRAY_BASE + j))
+                return false;
+        }
+        for (; j < len; ++j) {
+            if (U.getByte(a + j) != b[j])
+                return false;
+        }
+        return true;
+    }
+
+    static byte[] keyBytes(long e) {
+        byte[] b = new byte[U.getInt(e + KLEN)];
+        U.copyMemory(null, e + HEADER, b, BYTE_ARRAY_BASE, b.length);
+        return b;
+    }
+
+    static byte[] valueBytes(long e) {
+        byte[] b = new byte[U.getInt(e + VLEN)];
+        U.copyMemory(null, e + HEADER + U.getInt(e + KLEN),
+                     b, BYTE_ARRAY_BASE, b.length);
+        return b;
+    }
+
+    /* ---------------- Resizing -------------- */
+
+    /**
+     * Returns the stamp bits for resizing a table of size n.
+     * Must be negative when shifted left by RESIZE_STAMP_SHIFT.
+     */
+    static final int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    /**
+     * Adds to count, and if table is too small and not already
+     * resizing, initiates transfer.  If already resizing, helps
+     * perform transfer if work is available.
+     */
+    private final void addCount(long x) {
+        count.add(x);
+        if (x <= 0L)
+            return;
+        long s = count.sum();
+        long[] tab, nt; int n, sc;
+        while (s >= (long)(sc = sizeCtl) &&
+               (n = (tab = store.table).length) < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+            if (sc < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 ||
+                    (sc & ~((1 << RESIZE_STAMP_SHIFT) - 1)) != rs ||
+                    (nt = store.nextTable) == null || transferIndex <= 0)
+                    break;
+                if (U.compareAndSwapInt(this, SIZECTL, sc, sc + 1))
+                    transfer(tab, nt);
+            }
+            else if (U.compareAndSwapInt(this, SIZECTL, sc, rs + 2))
+                transfer(tab, null);
+            s = count.sum();
+        }
+    }
+
+    /**
+     * Helps transfer if a resize is in progress.
+     */
+    final void helpTransfer() {
+        long[] tab, nt; int sc;
+        while ((nt = store.nextTable) != null && (sc = sizeCtl) < 0) {
+            int rs = resizeStamp((tab = store.table).length) << RESIZE_STAMP_SHIFT;
+            if (sc == rs + MAX_RESIZERS || sc == rs + 1 ||
+                (sc & ~((1 << RESIZE_STAMP_SHIFT) - 1)) != rs ||
+                transferIndex <= 0)
+                break;
+            if (U.compareAndSwapInt(this, SIZECTL, sc, sc + 1)) {
+                transfer(tab, nt);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Moves the entries in each bin to the new table, as in
+     * ConcurrentHashMap.transfer.
+     */
+    private final void transfer(long[] tab, long[] nextTab) {
+        int n = tab.length, stride;
+        if ((stride = (NCPU > 1) ? (n >>> 3) / NCPU : n) < MIN_TRANSFER_STRIDE)
+            stride = MIN_TRANSFER_STRIDE; // subdivide range
+        if (nextTab == null) {            // initiating
+            try {
+                nextTab = new long[n << 1];
+            } catch (Throwable ex) {      // try to cope with OOME
+                sizeCtl = Integer.MAX_VALUE;
+                return;
+            }
+            store.nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextn = nextTab.length;
+        boolean advance = true;
+        boolean finishing = false; // to ensure sweep before committing nextTab
+        for (int i = 0, bound = 0;;) {
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing)
+                    advance = false;
+                else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                }
+                else if (U.compareAndSwapInt
+                         (this, TRANSFERINDEX, nextIndex,
+                          nextBound = (nextIndex > stride ?
+                                       nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextn) {
+                int sc;
+                if (finishing) {
+                    store.table = nextTab;
+                    store.nextTable = null;
+                    sizeCtl = (n << 1) - (n >>> 1);
+                    return;
+                }
+                if (U.compareAndSwapInt(this, SIZECTL, sc = sizeCtl, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT)
+                        return;
+                    finishing = advance = true;
+                    i = n; // recheck before commit
+                }
+            }
+            else {
+                if (tabAt(tab, i) != MOVED)
+                    splitBin(tab, nextTab, i, n);
+                advance = true;
+            }
+        }
+    }
+
+    /**
+     * Relinks the entries of bin i of tab into bins i and i + n of
+     * nextTab, then marks bin i MOVED, all under the bin's stripe lock.
+     */
+    private void splitBin(long[] tab, long[] nextTab, int i, int n) {
+        StampedLock lock = locks[i & (locks.length - 1)];
+        long stamp = lock.writeLock();
+        try {
+            long f = tabAt(tab, i);
+            if (f == MOVED)
+                return;
+            long ln = 0L, hn = 0L;
+            for (long e = f, next; e != 0L; e = next) {
+                next = U.getLong(e + NEXT);
+                if ((U.getInt(e + HASH) & n) == 0) {
+                    U.putLong(e + NEXT, ln);
+                    ln = e;
+                }
+                else {
+                    U.putLong(e + NEXT, hn);
+                    hn = e;
+                }
+            }
+            setTabAt(nextTab, i, ln);
+            setTabAt(nextTab, i + n, hn);
+            setTabAt(tab, i, MOVED);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* ---------------- Views -------------- */
+
+    /**
+     * A snapshot entry whose setValue writes through to the map.
+     */
+    static final class MapEntry<K,V> implements Map.Entry<K,V> {
+        final K key;
+        V val;
+        final OffHeapConcurrentHashMap<K,V> map;
+        MapEntry(K key, V val, OffHeapConcurrentHashMap<K,V> map) {
+            this.key = key;
+            this.val = val;
+            this.map = map;
+        }
+        public K getKey()        { return key; }
+        public V getValue()      { return val; }
+        public int hashCode()    { return key.hashCode() ^ val.hashCode(); }
+        public String toString() { return key + "=" + val; }
+
+        public boolean equals(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == val || v.equals(val)));
+        }
+
+        /**
+         * Sets our entry's value and writes through to the map.  The
+         * value to return is somewhat arbitrary here, as in
+         * ConcurrentHashMap.MapEntry.
+         */
+        public V setValue(V value) {
+            if (value == null) throw new NullPointerException();
+            V v = val;
+            val = value;
+            map.put(key, value);
+            return v;
+        }
+    }
+
+    /**
+     * Iterates the bins of the table current at construction; when a
+     * bin has since been moved, its successors in later tables are
+     * visited instead.  Each bin's entries are copied out under its
+     * stripe's read lock.
+     */
+    static final class EntryIterator<K,V> implements Iterator<Map.Entry<K,V>> {
+        final OffHeapConcurrentHashMap<K,V> map;
+        final long[] tab;
+        final ArrayList<Long> addrs = new ArrayList<Long>();
+        final ArrayList<byte[]> pending = new ArrayList<byte[]>();
+        int index;          // next bin of tab to copy
+        int cursor;         // next key/value pair in pending
+        MapEntry<K,V> lastReturned;
+
+        EntryIterator(OffHeapConcurrentHashMap<K,V> map) {
+            this.map = map;
+            this.tab = map.store.table;
+        }
+
+        public boolean hasNext() {
+            while (cursor >= pending.size() && index < tab.length) {
+                pending.clear();
+                cursor = 0;
+                int i = index++, n = tab.length;
+                StampedLock lock = map.locks[i & (map.locks.length - 1)];
+                long stamp = lock.readLock();
+                try {
+                    map.visitClass(tab, i, n, addrs, false);
+                    for (Long e : addrs) {
+                        pending.add(keyBytes(e));
+                        pending.add(valueBytes(e));
+                    }
+                } finally {
+                    lock.unlockRead(stamp);
+                    addrs.clear();
+                }
+            }
+            return cursor < pending.size();
+        }
+
+        public Map.Entry<K,V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            K k = map.keySerializer.deserialize(pending.get(cursor++));
+            V v = map.valueSerializer.deserialize(pending.get(cursor++));
+            return lastReturned = new MapEntry<K,V>(k, v, map);
+        }
+
+        public void remove() {
+            MapEntry<K,V> p;
+            if ((p = lastReturned) == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            map.remove(p.key);
+        }
+    }
+
+    static final class EntrySetView<K,V> extends AbstractSet<Map.Entry<K,V>> {
+        final OffHeapConcurrentHashMap<K,V> map;
+        EntrySetView(OffHeapConcurrentHashMap<K,V> map) { this.map = map; }
+
+        public int size()     { return map.size(); }
+        public void clear()   { map.clear(); }
+        public boolean isEmpty() { return map.isEmpty(); }
+
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator<K,V>(map);
+        }
+
+        public boolean contains(Object o) {
+            Object k, v, r; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (r = map.get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    map.remove(k, v));
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final sun.misc.JavaNioAccess NIO_ACCESS;
+    private static final long SIZECTL;
+    private static final long TRANSFERINDEX;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    private static final long BYTE_ARRAY_BASE;
+
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = OffHeapConcurrentHashMap.class;
+            SIZECTL = U.objectFieldOffset
+                (k.getDeclaredField("sizeCtl"));
+            TRANSFERINDEX = U.objectFieldOffset
+                (k.getDeclaredField("transferIndex"));
+            Class<?> ak = long[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            BYTE_ARRAY_BASE = U.arrayBaseOffset(byte[].class);
+            NIO_ACCESS = sun.misc.SharedSecrets.getJavaNioAccess();
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
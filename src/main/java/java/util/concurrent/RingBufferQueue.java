@@ -0,0 +1,715 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 20261016
+ * A. 基于数组的有界无锁环形缓冲队列, 入队时不分配任何对象, 适合日志、指标等高吞吐管道。 {@link ConcurrentLinkedQueue} 每个元素都要分配一个节点,
+ *    {@link ArrayBlockingQueue} 则需要获取锁, 而本类的入队与出队只需要有序写(Unsafe.putOrdered*)和至多一次CAS。
+ * B. 提供三种实现, 通过静态工厂方法创建:
+ *      a. SPSC(单生产者单消费者): 以槽位是否为 null 判断满/空, 生产者和消费者之间没有任何CAS;
+ *      b. MPSC(多生产者单消费者): 生产者CAS生产者下标认领槽位, 并缓存消费者下标以减少对消费者缓存行的读取;
+ *      c. MPMC(多生产者多消费者): Vyukov 有界队列, 每个槽位带一个序号。
+ * C. 生产者下标与消费者下标使用 @sun.misc.Contended 分组填充, 避免伪共享。
+ * D. 支持批量入队 {@link #fill} 与批量出队 {@link #drain}, 单生产者/多生产者队列在一次批量入队中只需要发布(或认领)一次下标。
+ * E. 阻塞方法(put/take 及其超时版本)在队列满/空时按构造时选择的等待策略等待: 自旋、让出CPU(Thread.yield)或 LockSupport.parkNanos 退避。
+ *    由于等待方自行轮询, 生产者与消费者在快速路径上不需要唤醒对方。
+ */
+
+/**
+ * A bounded, lock-free queue backed by a circular array, which allocates
+ * nothing when an element is inserted.  Where {@link ConcurrentLinkedQueue}
+ * allocates a node per element and {@link ArrayBlockingQueue} takes a lock,
+ * an insertion or removal here costs an ordered store and at most one
+ * compare-and-set, which suits high-rate pipelines such as logging and
+ * metrics collection.
+ *
+ * <p>Instances are created by factory methods selecting how many threads
+ * may use each end of the queue:
+ * <ul>
+ * <li>{@link #newSpscQueue} for a single producer and a single consumer;
+ * <li>{@link #newMpscQueue} for any number of producers and a single
+ * consumer;
+ * <li>{@link #newMpmcQueue} for any number of producers and consumers.
+ * </ul>
+ * Using a single-producer or single-consumer queue from several producing
+ * or consuming threads at a time results in lost or duplicated elements.
+ * The producer and consumer indices are padded onto separate cache lines.
+ *
+ * <p>Besides the {@link java.util.Queue} methods, elements may be inserted
+ * in batches by {@link #fill} and removed in batches by {@link #drain},
+ * which publish or claim the indices of a whole batch at once where the
+ * kind of queue allows.  The blocking methods of {@link BlockingQueue}
+ * wait according to the {@link WaitStrategy} given at construction; since
+ * waiting threads poll, neither end ever needs to wake up the other.
+ *
+ * <p>The capacity is rounded up to a power of two.  The iterator is weakly
+ * consistent, and does not support removal; nor does
+ * {@link #remove(Object)}.  Like most concurrent collection
+ * implementations, this class does not permit the use of {@code null}
+ * elements.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public abstract class RingBufferQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /**
+     * How a thread waits in a blocking method for the queue to become
+     * non-full or non-empty.
+     */
+    public enum WaitStrategy {
+        /** Busy-spins: the lowest latency, at the cost of a core. */
+        SPIN {
+            int idle(int idleCount) {
+                return idleCount + 1;
+            }
+        },
+        /** Yields the processor between attempts. */
+        YIELD {
+            int idle(int idleCount) {
+                Thread.yield();
+                return idleCount + 1;
+            }
+        },
+        /**
+         * Parks between attempts with {@link LockSupport#parkNanos(long)},
+         * for exponentially increasing durations up to one millisecond.
+         */
+        PARK {
+            int idle(int idleCount) {
+                LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << Math.min(idleCount, 10),
+                                               MAX_PARK_NANOS));
+                return idleCount + 1;
+            }
+        };
+
+        /**
+         * Waits once, given the number of unsuccessful attempts so far.
+         *
+         * @return the incremented count
+         */
+        abstract int idle(int idleCount);
+    }
+
+    /** Shortest and longest parking durations of the PARK strategy. */
+    static final long MIN_PARK_NANOS = 1000L;
+    static final long MAX_PARK_NANOS = 1000L * 1000L;
+
+    /** The largest possible capacity. */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** The elements; a slot is null when free. */
+    final Object[] buffer;
+
+    /** buffer.length - 1 */
+    final int mask;
+
+    final WaitStrategy waitStrategy;
+
+    /** Index of the next slot to insert into. */
+    @sun.misc.Contended("producer") volatile long producerIndex;
+
+    /**
+     * Producers may claim indices below this without reading
+     * consumerIndex (multi-producer queues only).
+     */
+    @sun.misc.Contended("producer") volatile long producerLimit;
+
+    /** Index of the next slot to remove from. */
+    @sun.misc.Contended("consumer") volatile long consumerIndex;
+
+    RingBufferQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        if (waitStrategy == null)
+            throw new NullPointerException();
+        int n = (capacity >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY :
+            (capacity <= 2) ? 2 :
+            (-1 >>> Integer.numberOfLeadingZeros(capacity - 1)) + 1;
+        this.buffer = new Object[n];
+        this.mask = n - 1;
+        this.producerLimit = n;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Creates a queue for a single producer and a single consumer.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     * @param waitStrategy how blocking methods wait
+     * @param <E> the type of elements held in the queue
+     * @return the new queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater
+     *         than zero
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public static <E> RingBufferQueue<E> newSpscQueue(int capacity,
+                                                      WaitStrategy waitStrategy) {
+        return new Spsc<E>(capacity, waitStrategy);
+    }
+
+    /**
+     * Creates a queue for any number of producers and a single consumer.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     * @param waitStrategy how blocking methods wait
+     * @param <E> the type of elements held in the queue
+     * @return the new queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater
+     *         than zero
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public static <E> RingBufferQueue<E> newMpscQueue(int capacity,
+                                                      WaitStrategy waitStrategy) {
+        return new Mpsc<E>(capacity, waitStrategy);
+    }
+
+    /**
+     * Creates a queue for any number of producers and consumers.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     * @param waitStrategy how blocking methods wait
+     * @param <E> the type of elements held in the queue
+     * @return the new queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater
+     *         than zero
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public static <E> RingBufferQueue<E> newMpmcQueue(int capacity,
+                                                      WaitStrategy waitStrategy) {
+        return new Mpmc<E>(capacity, waitStrategy);
+    }
+
+    /* ---------------- Batch operations -------------- */
+
+    /**
+     * Inserts as many as possible of the given elements, in order,
+     * without waiting.
+     *
+     * @param a the array holding the elements
+     * @param off the index of the first element to insert
+     * @param len the number of elements to insert
+     * @return the number of elements inserted, which form a prefix of
+     *         the given range
+     * @throws NullPointerException if the array or any element of the
+     *         range is null
+     * @throws IndexOutOfBoundsException if the range is not within the
+     *         array
+     */
+    public int fill(E[] a, int off, int len) {
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IndexOutOfBoundsException();
+        for (int i = off, end = off + len; i < end; ++i) {
+            if (a[i] == null)
+                throw new NullPointerException();
+        }
+        return fill0(a, off, len);
+    }
+
+    /**
+     * Inserts a checked range of non-null elements.
+     */
+    abstract int fill0(E[] a, int off, int len);
+
+    /**
+     * Removes at most the given number of available elements, passing
+     * each to the given action in order, without waiting.  If the action
+     * throws an exception, the element it was given has already been
+     * removed.
+     *
+     * @param action the action to perform on each element
+     * @param limit the maximum number of elements to remove
+     * @return the number of elements removed
+     * @throws NullPointerException if the action is null
+     */
+    public abstract int drain(Consumer<? super E> action, int limit);
+
+    /**
+     * Removes all available elements, passing each to the given action
+     * in order, without waiting.
+     *
+     * @param action the action to perform on each element
+     * @return the number of elements removed
+     * @throws NullPointerException if the action is null
+     */
+    public int drain(Consumer<? super E> action) {
+        return drain(action, Integer.MAX_VALUE);
+    }
+
+    /* ---------------- BlockingQueue -------------- */
+
+    /**
+     * Inserts the specified element, waiting according to the wait
+     * strategy for space to become available if necessary.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        for (int idle = 0; !offer(e); ) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            idle = waitStrategy.idle(idle);
+        }
+    }
+
+    /**
+     * Inserts the specified element, waiting according to the wait
+     * strategy up to the specified wait time for space to become
+     * available if necessary.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int idle = 0; !offer(e); ) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (deadline - System.nanoTime() <= 0L)
+                return false;
+            idle = waitStrategy.idle(idle);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E x;
+        for (int idle = 0; (x = poll()) == null; ) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            idle = waitStrategy.idle(idle);
+        }
+        return x;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E x;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int idle = 0; (x = poll()) == null; ) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (deadline - System.nanoTime() <= 0L)
+                return null;
+            idle = waitStrategy.idle(idle);
+        }
+        return x;
+    }
+
+    /**
+     * Returns the capacity of this queue, a power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of elements in this queue.  The result is only
+     * an estimate while elements are being inserted or removed; elements
+     * whose insertion is in progress are counted.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long after = consumerIndex;
+        for (;;) {
+            long before = after;
+            long p = producerIndex;
+            after = consumerIndex;
+            if (before == after) {
+                long n = p - after;
+                return (n <= 0L) ? 0 : (n > mask + 1) ? mask + 1 : (int)n;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex >= producerIndex;
+    }
+
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        return (maxElements <= 0) ? 0 : drain(c::add, maxElements);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements in this
+     * queue, in order.  The iterator may return elements that have been
+     * removed since it was created, and does not support removal.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<E>();
+        long c = consumerIndex, p = producerIndex;
+        if (p - c > mask + 1)
+            c = p - (mask + 1);
+        for (long i = c; i < p; ++i) {
+            E x = lvElement(offset(i));
+            if (x != null)
+                snapshot.add(x);
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>() {
+            public boolean hasNext() { return it.hasNext(); }
+            public E next() { return it.next(); }
+        };
+    }
+
+    /* ---------------- Element and index access -------------- */
+
+    /** Returns the offset of the slot for the given index. */
+    final long offset(long index) {
+        return ((long)((int)index & mask) << ASHIFT) + ABASE;
+    }
+
+    final E lvElement(long offset) {
+        return elementOf(U.getObjectVolatile(buffer, offset));
+    }
+
+    /** Casts a slot value read from the untyped buffer. */
+    @SuppressWarnings("unchecked")
+    static <E> E elementOf(Object x) {
+        return (E) x;
+    }
+
+    final void soElement(long offset, Object e) {
+        U.putOrderedObject(buffer, offset, e);
+    }
+
+    final void soProducerIndex(long v) {
+        U.putOrderedLong(this, PINDEX, v);
+    }
+
+    final void soConsumerIndex(long v) {
+        U.putOrderedLong(this, CINDEX, v);
+    }
+
+    final boolean casProducerIndex(long expect, long v) {
+        return U.compareAndSwapLong(this, PINDEX, expect, v);
+    }
+
+    final boolean casConsumerIndex(long expect, long v) {
+        return U.compareAndSwapLong(this, CINDEX, expect, v);
+    }
+
+    /* ---------------- Implementations -------------- */
+
+    /**
+     * Single producer, single consumer.  A slot is free iff it is null,
+     * so the producer need never read consumerIndex, nor the consumer
+     * producerIndex (Lamport's queue as refined in FastFlow).  The
+     * indices are maintained with ordered stores for size().
+     */
+    static final class Spsc<E> extends RingBufferQueue<E> {
+        Spsc(int capacity, WaitStrategy waitStrategy) {
+            super(capacity, waitStrategy);
+        }
+
+        public boolean offer(E e) {
+            if (e == null) throw new NullPointerException();
+            long p = producerIndex, off = offset(p);
+            if (lvElement(off) != null)
+                return false;
+            soElement(off, e);
+            soProducerIndex(p + 1);
+            return true;
+        }
+
+        int fill0(E[] a, int off, int len) {
+            long p = producerIndex;
+            int n = Math.min(len, mask + 1);
+            if (n == 0)
+                return 0;
+            // Slots are freed in order, so if the last slot of the batch
+            // is free, so are the others
+            if (lvElement(offset(p + n - 1)) != null) {
+                int k = 0;
+                while (k < n && lvElement(offset(p + k)) == null)
+                    ++k;
+                n = k;
+            }
+            for (int i = 0; i < n; ++i)
+                soElement(offset(p + i), a[off + i]);
+            soProducerIndex(p + n);
+            return n;
+        }
+
+        public E poll() {
+            long c = consumerIndex, off = offset(c);
+            E e = lvElement(off);
+            if (e == null)
+                return null;
+            soElement(off, null);
+            soConsumerIndex(c + 1);
+            return e;
+        }
+
+        public E peek() {
+            return lvElement(offset(consumerIndex));
+        }
+
+        public int drain(Consumer<? super E> action, int limit) {
+            if (action == null) throw new NullPointerException();
+            long c = consumerIndex;
+            int n = 0;
+            for (E e; n < limit && (e = lvElement(offset(c))) != null; ++n) {
+                soElement(offset(c), null);
+                soConsumerIndex(++c);
+                action.accept(e);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Multiple producers, single consumer.  Producers claim a slot by
+     * CASing producerIndex, after checking it against producerLimit, a
+     * cached bound refreshed from consumerIndex only when reached, and
+     * then store the element.  A null slot below producerIndex means a
+     * producer has claimed but not yet filled it, in which case poll
+     * spins, as the element is bound to appear.
+     */
+    static final class Mpsc<E> extends RingBufferQueue<E> {
+        Mpsc(int capacity, WaitStrategy waitStrategy) {
+            super(capacity, waitStrategy);
+        }
+
+        /**
+         * Claims up to n consecutive slots.
+         *
+         * @return the first claimed index, with the number claimed in
+         *         claimed[0], or -1 if the queue is full
+         */
+        private long claim(int n, int[] claimed) {
+            long p, limit;
+            int k;
+            do {
+                p = producerIndex;
+                limit = producerLimit;
+                if (p + n > limit) {
+                    limit = consumerIndex + mask + 1;
+                    if (p >= limit)
+                        return -1L;
+                    producerLimit = limit;
+                }
+                k = (int)Math.min((long)n, limit - p);
+            } while (!casProducerIndex(p, p + k));
+            if (claimed != null)
+                claimed[0] = k;
+            return p;
+        }
+
+        public boolean offer(E e) {
+            if (e == null) throw new NullPointerException();
+            long p = claim(1, null);
+            if (p < 0L)
+                return false;
+            soElement(offset(p), e);
+            return true;
+        }
+
+        int fill0(E[] a, int off, int len) {
+            if (len == 0)
+                return 0;
+            int[] claimed = new int[1];
+            long p = claim(Math.min(len, mask + 1), claimed);
+            if (p < 0L)
+                return 0;
+            int n = claimed[0];
+            for (int i = 0; i < n; ++i)
+                soElement(offset(p + i), a[off + i]);
+            return n;
+        }
+
+        public E poll() {
+            long c = consumerIndex, off = offset(c);
+            E e = lvElement(off);
+            if (e == null) {
+                if (c == producerIndex)
+                    return null;
+                do {} while ((e = lvElement(off)) == null);
+            }
+            soElement(off, null);
+            soConsumerIndex(c + 1);
+            return e;
+        }
+
+        public E peek() {
+            long c = consumerIndex, off = offset(c);
+            E e = lvElement(off);
+            if (e == null && c != producerIndex) {
+                do {} while ((e = lvElement(off)) == null);
+            }
+            return e;
+        }
+
+        /**
+         * Removes elements until the first slot not yet filled, without
+         * spinning for it.
+         */
+        public int drain(Consumer<? super E> action, int limit) {
+            if (action == null) throw new NullPointerException();
+            long c = consumerIndex;
+            int n = 0;
+            for (E e; n < limit && (e = lvElement(offset(c))) != null; ++n) {
+                soElement(offset(c), null);
+                soConsumerIndex(++c);
+                action.accept(e);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Multiple producers and consumers, after Dmitry Vyukov's bounded
+     * MPMC queue.  Each slot carries a sequence number: a slot with
+     * sequence i may be claimed by the producer of index i, and then,
+     * once filled and given sequence i + 1, by the consumer of index i,
+     * which releases it with sequence i + capacity for the next round.
+     * Claims are CASes of producerIndex or consumerIndex.
+     */
+    static final class Mpmc<E> extends RingBufferQueue<E> {
+        final long[] sequences;
+
+        Mpmc(int capacity, WaitStrategy waitStrategy) {
+            super(capacity, waitStrategy);
+            long[] seqs = new long[mask + 1];
+            for (int i = 0; i < seqs.length; ++i)
+                seqs[i] = i;
+            sequences = seqs;
+        }
+
+        private long seqOffset(long index) {
+            return ((long)((int)index & mask) << LSHIFT) + LBASE;
+        }
+
+        public boolean offer(E e) {
+            if (e == null) throw new NullPointerException();
+            long[] seqs = sequences;
+            for (;;) {
+                long p = producerIndex, so = seqOffset(p);
+                long seq = U.getLongVolatile(seqs, so);
+                if (seq == p) {
+                    if (casProducerIndex(p, p + 1)) {
+                        soElement(offset(p), e);
+                        U.putOrderedLong(seqs, so, p + 1);
+                        return true;
+                    }
+                }
+                else if (seq < p && p - (mask + 1) >= consumerIndex)
+                    return false;                   // full
+            }
+        }
+
+        int fill0(E[] a, int off, int len) {
+            int n = 0;
+            while (n < len && offer(a[off + n]))
+                ++n;
+            return n;
+        }
+
+        public E poll() {
+            long[] seqs = sequences;
+            for (;;) {
+                long c = consumerIndex, so = seqOffset(c);
+                long seq = U.getLongVolatile(seqs, so);
+                if (seq == c + 1) {
+                    if (casConsumerIndex(c, c + 1)) {
+                        long off = offset(c);
+                        E e = lvElement(off);
+                        soElement(off, null);
+                        U.putOrderedLong(seqs, so, c + mask + 1);
+                        return e;
+                    }
+                }
+                else if (seq < c + 1 && c >= producerIndex)
+                    return null;                    // empty
+            }
+        }
+
+        public E peek() {
+            long[] seqs = sequences;
+            for (;;) {
+                long c = consumerIndex, so = seqOffset(c);
+                long seq = U.getLongVolatile(seqs, so);
+                if (seq == c + 1) {
+                    E e = lvElement(offset(c));
+                    if (e != null && c == consumerIndex)
+                        return e;
+                }
+                else if (seq < c + 1 && c >= producerIndex)
+                    return null;
+            }
+        }
+
+        public int drain(Consumer<? super E> action, int limit) {
+            if (action == null) throw new NullPointerException();
+            int n = 0;
+            for (E e; n < limit && (e = poll()) != null; ++n)
+                action.accept(e);
+            return n;
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long PINDEX;// producerIndex
+    private static final long CINDEX;// consumerIndex
+    private static final long ABASE;// Object[].class
+    private static final int ASHIFT;
+    private static final long LBASE;// long[].class
+    private static final int LSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = RingBufferQueue.class;
+            PINDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            CINDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            ABASE = U.arrayBaseOffset(Object[].class);
+            int scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            LBASE = U.arrayBaseOffset(long[].class);
+            int lscale = U.arrayIndexScale(long[].class);
+            if ((lscale & (lscale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(lscale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
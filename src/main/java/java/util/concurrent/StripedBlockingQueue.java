@@ -0,0 +1,701 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 20261016
+ * A. 一个为多生产者汇聚(fan-in)设计的阻塞队列。 {@link LinkedBlockingQueue} 的 putLock 与 {@link ArrayBlockingQueue} 的单个锁在大量生产者
+ *    同时入队时会成为瓶颈, 本类把生产者按线程分散到多个子队列(stripe)中, 每个子队列是一个无锁的多生产者单消费者链表, 入队只需要一次 getAndSet。
+ * B. 每个线程总是使用同一个子队列, 因此同一个生产者放入的元素保持FIFO顺序; 不同生产者之间的元素没有顺序保证, 消费者轮流从各子队列中取元素。
+ * C. 子队列使用 @sun.misc.Contended 填充, 以避免不同子队列的尾指针与计数之间的伪共享。
+ * D. 消费者之间通过 takeLock 互斥, {@link #drainTo(Collection, int)} 在一次加锁中批量取出多个元素, 适合消费者批量处理的场景。
+ * E. 可以指定容量, 容量被平均分配到每个子队列, 当生产者所在的子队列已满时 put 阻塞、offer 返回 false。
+ */
+
+/**
+ * An optionally-bounded {@linkplain BlockingQueue blocking queue} designed
+ * for many producers feeding few consumers.  Where the put lock of
+ * {@link LinkedBlockingQueue}, or the single lock of
+ * {@link ArrayBlockingQueue}, serializes all producers, this queue spreads
+ * producers over several <em>stripes</em>, each a lock-free linked queue
+ * into which an element is inserted with a single atomic exchange.
+ * Stripes are padded so that the producers of one stripe do not contend
+ * for the cache lines of another.
+ *
+ * <p>A thread always inserts into the same stripe, so the elements
+ * inserted by any one producer are taken in first-in-first-out order.
+ * There is no ordering among elements inserted by different producers;
+ * consumers take from the stripes in turn.  Consumers are serialized by a
+ * lock, and {@link #drainTo(Collection, int) drainTo} removes a batch of
+ * elements while acquiring it once, which makes draining in batches the
+ * most efficient way to consume.
+ *
+ * <p>The optional capacity bound constructor argument serves as a way to
+ * prevent excessive queue expansion.  The capacity is divided evenly among
+ * the stripes, so a producer may find its stripe full, and block in
+ * {@code put}, while other stripes still have room.
+ *
+ * <p>This class and its iterator implement all of the <em>optional</em>
+ * methods of the {@link Collection} and {@link Iterator} interfaces.  The
+ * iterator is weakly consistent, and returns the elements of each stripe
+ * in turn.  Like most concurrent collection implementations, this class
+ * does not permit the use of {@code null} elements.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class StripedBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /*
+     * Each stripe is an intrusive multi-producer single-consumer linked
+     * queue: a producer swaps its node into tail and then links the
+     * previous tail to it, and the consumer, holding takeLock, advances
+     * head along the next links.  Between the exchange and the link the
+     * new node (and any node appended after it) is not yet reachable,
+     * so a consumer may transiently see a stripe as empty although its
+     * count is positive; the producer then signals as usual once it has
+     * linked, so a waiting consumer is not stranded.
+     *
+     * Consumers waiting on notEmpty advertise themselves in waiters,
+     * which is written under takeLock before the final recheck of the
+     * stripes, while a producer reads it after linking its node.
+     * Either the consumer sees the node or the producer sees the
+     * waiter, and producers take takeLock only when a consumer waits.
+     *
+     * Removal of interior elements (remove(Object), iterator.remove)
+     * merely nulls the node's item; consumers skip such nodes.
+     */
+
+    /** Number of CPUS, to place bounds on some sizings */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of stripes. */
+    static final int MAX_STRIPES = 1 << 16;
+
+    /**
+     * Linked list node class.
+     */
+    static final class Node<E> {
+        E item;
+        volatile Node<E> next;
+        Node(E x) { item = x; }
+    }
+
+    /**
+     * A sub-queue, padded to avoid false sharing between the tails and
+     * counts of different stripes.
+     */
+    @sun.misc.Contended static final class Stripe<E> {
+        /** Last node, exchanged by producers. */
+        volatile Node<E> tail;
+
+        /** First node, a dummy whose item is null; guarded by takeLock. */
+        Node<E> head;
+
+        /** Number of live elements. */
+        volatile int count;
+
+        /** Lock and condition used only by producers waiting for room. */
+        final ReentrantLock putLock = new ReentrantLock();
+        final Condition notFull = putLock.newCondition();
+
+        Stripe() {
+            head = tail = new Node<E>(null);
+        }
+
+        /** Appends a node; callable by any thread. */
+        final void enqueue(Node<E> node) {
+            @SuppressWarnings("unchecked")
+            Node<E> prev = (Node<E>)TAIL.getAndSet(this, node);
+            prev.next = node;
+        }
+
+        /**
+         * Removes and returns the first live element, or null if none is
+         * reachable.  Called only while holding takeLock.
+         */
+        final E poll() {
+            for (Node<E> h = head, p; (p = h.next) != null; h = p) {
+                head = p;
+                h.next = h; // help GC
+                E x = p.item;
+                if (x != null) {
+                    p.item = null;
+                    return x;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<Stripe,Node> TAIL =
+            AtomicReferenceFieldUpdater.newUpdater(Stripe.class, Node.class,
+                                                   "tail");
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<Stripe> COUNT =
+            AtomicIntegerFieldUpdater.newUpdater(Stripe.class, "count");
+    }
+
+    /** The stripes, a power of two in number. */
+    private final Stripe<E>[] stripes;
+
+    /** The capacity of each stripe, or Integer.MAX_VALUE if none */
+    private final int stripeCapacity;
+
+    /** Lock held by take, poll, drainTo, etc */
+    private final ReentrantLock takeLock = new ReentrantLock();
+
+    /** Wait queue for waiting takes */
+    private final Condition notEmpty = takeLock.newCondition();
+
+    /** Number of consumers waiting on notEmpty; written under takeLock */
+    private volatile int waiters;
+
+    /** Index of the stripe to take from next; guarded by takeLock */
+    private int takeIndex;
+
+    /**
+     * Creates a {@code StripedBlockingQueue} with a capacity of
+     * {@link Integer#MAX_VALUE} and two stripes for each available
+     * processor.
+     */
+    public StripedBlockingQueue() {
+        this(Integer.MAX_VALUE, NCPU << 1);
+    }
+
+    /**
+     * Creates a {@code StripedBlockingQueue} with the given (fixed)
+     * capacity and two stripes for each available processor.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater
+     *         than zero
+     */
+    public StripedBlockingQueue(int capacity) {
+        this(capacity, NCPU << 1);
+    }
+
+    /**
+     * Creates a {@code StripedBlockingQueue} with the given (fixed)
+     * capacity and at least the given number of stripes.
+     *
+     * @param capacity the capacity of this queue, divided evenly among
+     *        the stripes
+     * @param stripes the minimum number of stripes; rounded up to a
+     *        power of two
+     * @throws IllegalArgumentException if {@code capacity} or
+     *         {@code stripes} is not greater than zero
+     */
+    @SuppressWarnings("unchecked")
+    public StripedBlockingQueue(int capacity, int stripes) {
+        if (capacity <= 0 || stripes <= 0)
+            throw new IllegalArgumentException();
+        int n = 1;
+        while (n < stripes && n < MAX_STRIPES)
+            n <<= 1;
+        if (capacity == Integer.MAX_VALUE)
+            stripeCapacity = Integer.MAX_VALUE;
+        else {
+            if (n > capacity) { // at least one slot per stripe
+                while (n > 1 && n > capacity)
+                    n >>>= 1;
+            }
+            stripeCapacity = (capacity + n - 1) / n;
+        }
+        Stripe<E>[] ss = (Stripe<E>[])new Stripe<?>[n];
+        for (int i = 0; i < n; ++i)
+            ss[i] = new Stripe<E>();
+        this.stripes = ss;
+    }
+
+    /**
+     * Returns the stripe of the current thread.  It depends only on the
+     * thread's identity, so that each producer's elements stay in FIFO
+     * order.
+     */
+    private Stripe<E> stripe() {
+        long id = Thread.currentThread().getId();
+        int h = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Reserves room for one element in the given stripe.
+     *
+     * @return false if the stripe is full
+     */
+    private boolean tryReserve(Stripe<E> s) {
+        if (stripeCapacity == Integer.MAX_VALUE) {
+            Stripe.COUNT.getAndIncrement(s);
+            return true;
+        }
+        for (int c;;) {
+            if ((c = s.count) >= stripeCapacity)
+                return false;
+            if (Stripe.COUNT.compareAndSet(s, c, c + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Links a node whose room has been reserved, and wakes up a consumer
+     * if any is waiting.
+     */
+    private void enqueue(Stripe<E> s, E e) {
+        s.enqueue(new Node<E>(e));
+        if (waiters != 0)
+            signalNotEmpty();
+    }
+
+    /**
+     * Signals a waiting take.  Called only from put/offer.
+     */
+    private void signalNotEmpty() {
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Signals a waiting put on a stripe that was full.  Called only from
+     * take/poll.
+     */
+    private static void signalNotFull(Stripe<?> s) {
+        final ReentrantLock putLock = s.putLock;
+        putLock.lock();
+        try {
+            s.notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns an element, taking from the stripes in turn.
+     * Called only while holding takeLock.
+     *
+     * @return the element, or null if none is reachable
+     */
+    private E dequeue() {
+        Stripe<E>[] ss = stripes;
+        int m = ss.length - 1;
+        for (int i = 0; i <= m; ++i) {
+            int k = (takeIndex + i) & m;
+            Stripe<E> s = ss[k];
+            E x;
+            if (s.count != 0 && (x = s.poll()) != null) {
+                takeIndex = k + 1;
+                if (Stripe.COUNT.getAndDecrement(s) == stripeCapacity)
+                    signalNotFull(s);
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserts the specified element at the tail of the current thread's
+     * stripe, waiting if necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        Stripe<E> s = stripe();
+        if (!tryReserve(s)) {
+            final ReentrantLock putLock = s.putLock;
+            putLock.lockInterruptibly();
+            try {
+                while (!tryReserve(s))
+                    s.notFull.await();
+                if (s.count < stripeCapacity)
+                    s.notFull.signal();
+            } finally {
+                putLock.unlock();
+            }
+        }
+        enqueue(s, e);
+    }
+
+    /**
+     * Inserts the specified element at the tail of the current thread's
+     * stripe, waiting if necessary up to the specified wait time for
+     * space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        long nanos = unit.toNanos(timeout);
+        Stripe<E> s = stripe();
+        if (!tryReserve(s)) {
+            final ReentrantLock putLock = s.putLock;
+            putLock.lockInterruptibly();
+            try {
+                while (!tryReserve(s)) {
+                    if (nanos <= 0)
+                        return false;
+                    nanos = s.notFull.awaitNanos(nanos);
+                }
+                if (s.count < stripeCapacity)
+                    s.notFull.signal();
+            } finally {
+                putLock.unlock();
+            }
+        }
+        enqueue(s, e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the tail of the current thread's
+     * stripe if it is possible to do so immediately without exceeding
+     * the stripe's capacity, returning {@code true} upon success and
+     * {@code false} if the stripe is full.  When using a
+     * capacity-restricted queue, this method is generally preferable to
+     * method {@link BlockingQueue#add add}, which can fail to insert an
+     * element only by throwing an exception.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        Stripe<E> s = stripe();
+        if (!tryReserve(s))
+            return false;
+        enqueue(s, e);
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E x;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lockInterruptibly();
+        try {
+            while ((x = dequeue()) == null) {
+                waiters++;
+                try {
+                    if ((x = dequeue()) != null)
+                        break;
+                    notEmpty.await();
+                } finally {
+                    waiters--;
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        return x;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E x;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lockInterruptibly();
+        try {
+            while ((x = dequeue()) == null) {
+                if (nanos <= 0)
+                    return null;
+                waiters++;
+                try {
+                    if ((x = dequeue()) != null)
+                        break;
+                    nanos = notEmpty.awaitNanos(nanos);
+                } finally {
+                    waiters--;
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        return x;
+    }
+
+    public E poll() {
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            return dequeue();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    public E peek() {
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            Stripe<E>[] ss = stripes;
+            int m = ss.length - 1;
+            for (int i = 0; i <= m; ++i) {
+                for (Node<E> p = ss[(takeIndex + i) & m].head.next;
+                     p != null; p = p.next) {
+                    E x = p.item;
+                    if (x != null)
+                        return x;
+                }
+            }
+            return null;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of elements in this queue, the sum of the
+     * counts of its stripes.  The result is only an estimate while
+     * elements are being inserted or removed.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long n = 0L;
+        for (Stripe<E> s : stripes)
+            n += s.count;
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    public boolean isEmpty() {
+        for (Stripe<E> s : stripes) {
+            if (s.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally (in the absence of memory or resource constraints) accept
+     * without blocking, summed over all stripes.  Note that a particular
+     * producer may nevertheless block, since it may insert only into its
+     * own stripe.
+     */
+    public int remainingCapacity() {
+        if (stripeCapacity == Integer.MAX_VALUE)
+            return Integer.MAX_VALUE;
+        long n = 0L;
+        for (Stripe<E> s : stripes)
+            n += Math.max(0, stripeCapacity - s.count);
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * if it is present.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null) return false;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            for (Stripe<E> s : stripes) {
+                for (Node<E> p = s.head.next; p != null; p = p.next) {
+                    if (o.equals(p.item)) {
+                        unlink(s, p);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Logically removes the element of node p.  Called only while
+     * holding takeLock.
+     */
+    void unlink(Stripe<E> s, Node<E> p) {
+        p.item = null;
+        if (Stripe.COUNT.getAndDecrement(s) == stripeCapacity)
+            signalNotFull(s);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most the given number of available elements from this
+     * queue and adds them to the given collection, acquiring the consumer
+     * lock only once.  Elements are taken from each stripe in turn, a
+     * run of consecutive elements at a time.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        int n = 0;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            Stripe<E>[] ss = stripes;
+            int m = ss.length - 1;
+            for (int i = 0; i <= m && n < maxElements; ++i) {
+                int k = (takeIndex + i) & m;
+                Stripe<E> s = ss[k];
+                int taken = 0;
+                try {
+                    for (E x; n < maxElements && (x = s.poll()) != null; ) {
+                        ++taken;
+                        ++n;
+                        c.add(x);
+                    }
+                } finally {
+                    // Restore invariants even if c.add() threw
+                    if (taken > 0 &&
+                        Stripe.COUNT.getAndAdd(s, -taken) >= stripeCapacity)
+                        signalNotFull(s);
+                }
+                if (n >= maxElements)
+                    takeIndex = k + 1;
+            }
+            return n;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Atomically removes all of the elements from this queue, with
+     * respect to consumers.  The queue will be empty after this call
+     * returns, unless producers insert concurrently.
+     */
+    public void clear() {
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            while (dequeue() != null)
+                ;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, returning the
+     * elements of each stripe in turn.
+     *
+     * <p>The returned iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Iterates over a snapshot of the stripes' nodes, taken under
+     * takeLock; an element removed since the snapshot is skipped.
+     */
+    private class Itr implements Iterator<E> {
+        final List<Node<E>> nodes = new ArrayList<Node<E>>();
+        final List<Stripe<E>> owners = new ArrayList<Stripe<E>>();
+        int cursor;
+        E nextItem;
+        int lastRet = -1;
+
+        Itr() {
+            final ReentrantLock takeLock = StripedBlockingQueue.this.takeLock;
+            takeLock.lock();
+            try {
+                for (Stripe<E> s : stripes) {
+                    for (Node<E> p = s.head.next; p != null; p = p.next) {
+                        if (p.item != null) {
+                            nodes.add(p);
+                            owners.add(s);
+                        }
+                    }
+                }
+                advance();
+            } finally {
+                takeLock.unlock();
+            }
+        }
+
+        /** Skips removed nodes.  Called only while holding takeLock. */
+        private void advance() {
+            nextItem = null;
+            while (cursor < nodes.size() &&
+                   (nextItem = nodes.get(cursor).item) == null)
+                ++cursor;
+        }
+
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        public E next() {
+            E x = nextItem;
+            if (x == null)
+                throw new NoSuchElementException();
+            lastRet = cursor++;
+            final ReentrantLock takeLock = StripedBlockingQueue.this.takeLock;
+            takeLock.lock();
+            try {
+                advance();
+            } finally {
+                takeLock.unlock();
+            }
+            return x;
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            final ReentrantLock takeLock = StripedBlockingQueue.this.takeLock;
+            takeLock.lock();
+            try {
+                Node<E> p = nodes.get(lastRet);
+                if (p.item != null)
+                    unlink(owners.get(lastRet), p);
+            } finally {
+                takeLock.unlock();
+            }
+            lastRet = -1;
+        }
+    }
+}
@@ -0,0 +1,731 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 20261016
+ * A. 一个基于分层时间轮的 {@link ScheduledExecutorService}。 与 {@link ScheduledThreadPoolExecutor} 的 DelayedWorkQueue(由单个 ReentrantLock
+ *    保护的二叉堆, 调度与取消为O(log n))不同, 本类调度与取消任务均为O(1), 适合大量短期超时(请求截止时间、keep-alive 定时器等)的场景。
+ * B. 时间被划分为固定长度的tick(默认1毫秒), 时间轮共11层, 每层64个桶, 第n层的每个桶覆盖64^n个tick, 因此可以表示任意 long 范围的延迟。
+ *    每个桶是一个无锁的 Treiber 栈, 提交任务的线程通过CAS直接把任务压入目标桶, 不需要获取任何锁。
+ * C. 一个专门的 ticker 线程每个tick推进一次时间轮, 取出到期的桶, 把到期的任务交给内部的固定大小线程池执行, 把未到期的任务降级(cascade)到更低的层。
+ * D. 取消任务只是CAS修改任务状态, 被取消的任务会在其所在的桶被轮转到时丢弃, 因此不需要像 removeOnCancel 那样扫描队列。
+ * E. 任务最多会比其截止时间晚一个tick执行, 但永远不会提前执行。 与 {@link ScheduledThreadPoolExecutor} 默认策略一致, 关闭后已提交的延迟任务
+ *    仍会执行, 而周期任务会被取消。
+ */
+
+/**
+ * A {@link ScheduledExecutorService} that keeps its delayed tasks in a
+ * hierarchical timing wheel rather than in a priority queue.  Whereas
+ * {@link ScheduledThreadPoolExecutor} orders tasks in a binary heap guarded
+ * by a single lock, so that scheduling and cancelling cost O(log n) under
+ * contention, this class schedules and cancels tasks in constant time and
+ * without locking.  This makes it preferable when very many short timeouts,
+ * most of which are cancelled before they fire, are scheduled concurrently;
+ * request deadlines and keep-alive timers are typical examples.
+ *
+ * <p>Time is divided into <em>ticks</em> of a fixed duration, one millisecond
+ * by default.  The wheel has several levels of 64 buckets each; a bucket on
+ * level <em>n</em> spans 64<sup><em>n</em></sup> ticks, so that any delay
+ * representable as a {@code long} can be held.  Each bucket is a lock-free
+ * stack onto which submitting threads push directly.  A dedicated ticker
+ * thread advances the wheel once per tick, hands expired tasks to a
+ * fixed-size pool of worker threads, and cascades tasks from the buckets of
+ * higher levels into lower ones as their deadlines approach.
+ *
+ * <p>Tasks are never run before their scheduled time, but may run up to one
+ * tick after it, so the tick duration bounds the timer's precision.
+ * Cancelling a task merely marks it; the cancelled task is discarded when its
+ * bucket is next visited, so there is no need for the removal scan that
+ * {@link ScheduledThreadPoolExecutor#setRemoveOnCancelPolicy} enables.
+ *
+ * <p>Successive executions of a periodic task do not overlap.  After
+ * {@link #shutdown}, delayed tasks that were already scheduled still run,
+ * whereas periodic tasks are cancelled, matching the default policies of
+ * {@code ScheduledThreadPoolExecutor}.  Unlike that class, tasks
+ * submitted through {@link #execute} or {@code submit} are handed to the
+ * workers immediately, rather than being scheduled with a zero delay.
+ *
+ * @since 1.8
+ */
+public class TimerWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /*
+     * Overview:
+     *
+     * Ticks are counted from the executor's creation, and a task due at
+     * nanoTime t is assigned to tick ceil((t - startNanos) / tickNanos),
+     * so that it cannot fire early.  Level l of the wheel is indexed by
+     * bits [6l, 6l+6) of the tick number.  A task with target tick T,
+     * inserted when the wheel is at tick N < T, is placed on the level of
+     * the most significant group of bits in which T and N differ, in the
+     * bucket selected by T's bits in that group.  That bucket is next
+     * visited at tick D = T with its lower 6l bits cleared, and D > N.
+     * When the wheel reaches a tick whose lower 6l bits are zero, the
+     * corresponding bucket of level l (and of every level below) is
+     * drained, higher levels first, and its tasks are either fired or
+     * reinserted relative to the current tick, which places them on a
+     * lower level.
+     *
+     * Buckets are Treiber stacks of Cells.  Only the ticker pops, by
+     * swapping out a whole bucket, so pushes need no ABA protection.
+     * The ticker publishes currentTick before draining the buckets of
+     * that tick.  A submitting thread that pushes into a bucket visited
+     * at tick D and afterwards reads currentTick >= D cannot tell
+     * whether the ticker saw its push, so it additionally pushes a fresh
+     * Cell onto the OVERDUE stack, which the ticker drains after every
+     * tick.  A task may therefore be referenced from two cells; its
+     * Timeout's state is claimed by CAS so that it fires at most once,
+     * and stale cells are discarded when visited.
+     *
+     * Each (re)scheduling of a task creates a new Timeout, so that a
+     * stale cell left over from a previous period of a periodic task can
+     * never fire it again.  The pending count tracks unclaimed Timeouts;
+     * it is incremented before the run state is checked, so that the
+     * ticker, which exits after shutdown once pending reaches zero,
+     * cannot miss a concurrently scheduled task.
+     */
+
+    /** The number of bits of the tick number that index one level. */
+    static final int WHEEL_BITS = 6;
+
+    /** The number of buckets on each level. */
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** The number of levels needed to cover all long tick numbers. */
+    static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    /** Index of the stack of cells whose bucket may have been missed. */
+    static final int OVERDUE = LEVELS * WHEEL_SIZE;
+
+    // Run states
+    static final int RUNNING  = 0;
+    static final int SHUTDOWN = 1;
+    static final int STOP     = 2;
+
+    // Timeout states
+    static final int WAITING   = 0;
+    static final int FIRED     = 1;
+    static final int CANCELLED = 2;
+
+    /** Sequence number to break scheduling ties, and in turn to
+     * guarantee FIFO order among tied entries. */
+    private static final AtomicLong sequencer = new AtomicLong();
+
+    /** The tick duration, in nanoseconds. */
+    final long tickNanos;
+
+    /** The nanoTime origin of tick zero. */
+    final long startNanos;
+
+    /** The buckets of all levels, followed by the OVERDUE stack. */
+    final AtomicReferenceArray<Cell> buckets =
+        new AtomicReferenceArray<Cell>(OVERDUE + 1);
+
+    /** The number of scheduled tasks neither fired nor cancelled. */
+    final AtomicLong pending = new AtomicLong();
+
+    final AtomicInteger runState = new AtomicInteger(RUNNING);
+
+    /** The tick most recently reached by the ticker. */
+    volatile long currentTick;
+
+    /** The pool that runs expired tasks. */
+    final ThreadPoolExecutor workers;
+
+    /** The thread advancing the wheel. */
+    final Thread ticker;
+
+    /** Released when the ticker exits. */
+    final CountDownLatch tickerDone = new CountDownLatch(1);
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads and a tick duration of one millisecond.
+     *
+     * @param nThreads the number of threads that run expired tasks
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     */
+    public TimerWheelScheduledExecutor(int nThreads) {
+        this(nThreads, 1L, TimeUnit.MILLISECONDS,
+             Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads, a tick duration of one millisecond, and
+     * the given thread factory.
+     *
+     * @param nThreads the number of threads that run expired tasks
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @throws NullPointerException if {@code threadFactory} is null
+     */
+    public TimerWheelScheduledExecutor(int nThreads,
+                                       ThreadFactory threadFactory) {
+        this(nThreads, 1L, TimeUnit.MILLISECONDS, threadFactory);
+    }
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads, tick duration and thread factory.  The
+     * factory is used to create the worker threads as well as the
+     * ticker thread, which is started by this constructor.
+     *
+     * @param nThreads the number of threads that run expired tasks
+     * @param tickDuration the duration of one tick of the wheel
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @throws IllegalArgumentException if {@code nThreads <= 0} or
+     *         {@code tickDuration <= 0}
+     * @throws NullPointerException if {@code unit} or
+     *         {@code threadFactory} is null, or if the factory fails to
+     *         create the ticker thread
+     */
+    public TimerWheelScheduledExecutor(int nThreads,
+                                       long tickDuration,
+                                       TimeUnit unit,
+                                       ThreadFactory threadFactory) {
+        if (nThreads <= 0 || tickDuration <= 0L)
+            throw new IllegalArgumentException();
+        if (unit == null || threadFactory == null)
+            throw new NullPointerException();
+        this.tickNanos = Math.max(1L, unit.toNanos(tickDuration));
+        this.workers = new ThreadPoolExecutor(nThreads, nThreads,
+                                              0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<Runnable>(),
+                                              threadFactory);
+        this.startNanos = System.nanoTime();
+        Thread t = threadFactory.newThread(new Ticker());
+        if (t == null)
+            throw new NullPointerException();
+        this.ticker = t;
+        t.start();
+    }
+
+    /* ---------------- Tasks -------------- */
+
+    /**
+     * A single scheduling of a task: the tick at which it is due, and
+     * whether it has been fired or cancelled.
+     */
+    static final class Timeout {
+        final long target;
+        volatile WheelTask<?> task;
+        volatile int state;
+
+        Timeout(WheelTask<?> task, long target) {
+            this.task = task;
+            this.target = target;
+        }
+
+        /** Moves this timeout from WAITING to the given state. */
+        boolean claim(int newState) {
+            return STATE.compareAndSet(this, WAITING, newState);
+        }
+
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+    }
+
+    /** A link in a bucket's stack. */
+    static final class Cell {
+        final Timeout timeout;
+        Cell next;
+        Cell(Timeout timeout) { this.timeout = timeout; }
+    }
+
+    private class WheelTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** Sequence number to break ties FIFO */
+        private final long sequenceNumber;
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /** The current scheduling of this task in the wheel. */
+        volatile Timeout timeout;
+
+        WheelTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        WheelTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            if (other instanceof WheelTask) {
+                WheelTask<?> x = (WheelTask<?>)other;
+                long diff = time - x.time;
+                if (diff < 0)
+                    return -1;
+                else if (diff > 0)
+                    return 1;
+                else if (sequenceNumber < x.sequenceNumber)
+                    return -1;
+                else
+                    return 1;
+            }
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Timeout t;
+            if (cancelled && (t = timeout) != null && t.claim(CANCELLED)) {
+                pending.decrementAndGet();
+                t.task = null; // let the stale cell release the task
+            }
+            return cancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reschedule if periodic.
+         */
+        public void run() {
+            if (!isPeriodic())
+                super.run();
+            else if (super.runAndReset()) {
+                long p = period;
+                time = (p > 0) ? time + p : triggerTime(-p);
+                reschedule(this);
+            }
+        }
+    }
+
+    /* ---------------- Scheduling -------------- */
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     */
+    private long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action,
+     * clamping the delay so that tick arithmetic cannot overflow.
+     */
+    long triggerTime(long delay) {
+        return System.nanoTime() +
+            ((delay < (Long.MAX_VALUE >> 1)) ? delay : (Long.MAX_VALUE >> 1));
+    }
+
+    /** Returns the first tick not earlier than the given nanoTime. */
+    final long tickOf(long time) {
+        long rel = time - startNanos;
+        return (rel <= 0L) ? 0L : (rel - 1L) / tickNanos + 1L;
+    }
+
+    /**
+     * Schedules a newly submitted task, or rejects it if the executor
+     * has been shut down.
+     */
+    private void delayedExecute(WheelTask<?> task) {
+        pending.incrementAndGet();
+        if (runState.get() != RUNNING) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("Task " + task.toString() +
+                                                 " rejected from " +
+                                                 toString());
+        }
+        enqueue(task);
+    }
+
+    /**
+     * Schedules the next run of a periodic task, or cancels it if the
+     * executor has been shut down.
+     */
+    void reschedule(WheelTask<?> task) {
+        pending.incrementAndGet();
+        if (runState.get() != RUNNING) {
+            pending.decrementAndGet();
+            task.cancel(false);
+        }
+        else
+            enqueue(task);
+    }
+
+    /**
+     * Inserts a task, already counted as pending, into the wheel.
+     */
+    private void enqueue(WheelTask<?> task) {
+        Timeout t = new Timeout(task, tickOf(task.time));
+        task.timeout = t;
+        if (task.isCancelled()) { // lost race with cancel
+            if (t.claim(CANCELLED))
+                pending.decrementAndGet();
+            return;
+        }
+        long now = currentTick;
+        if (t.target <= now)
+            fire(t);
+        else if (currentTick >= push(new Cell(t), now))
+            pushCell(OVERDUE, new Cell(t));
+    }
+
+    /**
+     * Pushes a cell into the bucket for its target tick relative to the
+     * given current tick, which must be less than the target.
+     *
+     * @return the tick at which that bucket is next visited
+     */
+    final long push(Cell c, long now) {
+        long target = c.timeout.target;
+        int level = (63 - Long.numberOfLeadingZeros(target ^ now)) / WHEEL_BITS;
+        int shift = level * WHEEL_BITS;
+        pushCell((level << WHEEL_BITS) | (int)((target >>> shift) & WHEEL_MASK), c);
+        return target & (-1L << shift);
+    }
+
+    final void pushCell(int i, Cell c) {
+        for (Cell h;;) {
+            c.next = h = buckets.get(i);
+            if (buckets.compareAndSet(i, h, c))
+                break;
+        }
+    }
+
+    /**
+     * Claims the given timeout and hands its task to the workers.
+     */
+    final void fire(Timeout t) {
+        if (t.claim(FIRED)) {
+            pending.decrementAndGet();
+            WheelTask<?> task = t.task;
+            try {
+                workers.execute(task);
+            } catch (RejectedExecutionException ex) { // after shutdownNow
+                task.cancel(false);
+            }
+        }
+    }
+
+    /* ---------------- Ticker -------------- */
+
+    /**
+     * Fires or reinserts the unclaimed timeouts of a drained stack.
+     * If dropPeriodic, periodic tasks are cancelled instead.
+     */
+    final void process(Cell c, long now, boolean dropPeriodic) {
+        while (c != null) {
+            Cell next = c.next;
+            Timeout t = c.timeout;
+            WheelTask<?> task;
+            if (t.state == WAITING && (task = t.task) != null) {
+                if (dropPeriodic && task.isPeriodic())
+                    task.cancel(false);
+                else if (t.target <= now)
+                    fire(t);
+                else {
+                    c.next = null;
+                    push(c, now);
+                }
+            }
+            c = next;
+        }
+    }
+
+    /**
+     * Drains the buckets visited at the given tick, highest level first,
+     * so that cascaded tasks due at this tick are fired directly.
+     */
+    final void expire(long tick) {
+        int top = 0;
+        while (top < LEVELS - 1 &&
+               (tick & ((1L << ((top + 1) * WHEEL_BITS)) - 1L)) == 0L)
+            ++top;
+        for (int l = top; l >= 0; --l) {
+            int i = (l << WHEEL_BITS) |
+                (int)((tick >>> (l * WHEEL_BITS)) & WHEEL_MASK);
+            if (buckets.get(i) != null)
+                process(buckets.getAndSet(i, null), tick, false);
+        }
+    }
+
+    /**
+     * Claims every timeout still in the wheel as cancelled, adding its
+     * task to the given list if non-null and cancelling it otherwise.
+     */
+    final void drainAll(List<Runnable> tasks) {
+        for (int i = 0; i <= OVERDUE; ++i) {
+            for (Cell c = buckets.getAndSet(i, null); c != null; c = c.next) {
+                Timeout t = c.timeout;
+                WheelTask<?> task = t.task;
+                if (task != null && t.claim(CANCELLED)) {
+                    pending.decrementAndGet();
+                    if (tasks != null)
+                        tasks.add(task);
+                    else
+                        task.cancel(false);
+                }
+            }
+        }
+    }
+
+    final class Ticker implements Runnable {
+        public void run() {
+            try {
+                long tick = 0L;
+                boolean swept = false;
+                for (;;) {
+                    int rs = runState.get();
+                    if (rs >= STOP)
+                        break;
+                    if (rs == SHUTDOWN) {
+                        if (!swept) { // cancel periodic tasks once
+                            swept = true;
+                            for (int i = 0; i <= OVERDUE; ++i)
+                                process(buckets.getAndSet(i, null), tick, true);
+                        }
+                        if (pending.get() == 0L)
+                            break;
+                    }
+                    long delay = startNanos + (tick + 1L) * tickNanos -
+                        System.nanoTime();
+                    if (delay > 0L) {
+                        LockSupport.parkNanos(this, delay);
+                        Thread.interrupted(); // the ticker ignores interrupts
+                        continue;
+                    }
+                    long last = (System.nanoTime() - startNanos) / tickNanos;
+                    while (tick < last) {
+                        currentTick = ++tick;
+                        expire(tick);
+                    }
+                    if (buckets.get(OVERDUE) != null)
+                        process(buckets.getAndSet(OVERDUE, null), tick, false);
+                }
+            } finally {
+                if (runState.get() >= STOP)
+                    drainAll(null);
+                workers.shutdown();
+                tickerDone.countDown();
+            }
+        }
+    }
+
+    /* ---------------- ScheduledExecutorService -------------- */
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null, triggerTime(delay, unit), 0L);
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<V> t = new WheelTask<V>(callable, triggerTime(delay, unit));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(-delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} on a worker thread as soon as one is
+     * available.
+     *
+     * @throws RejectedExecutionException if the executor has been shut
+     *         down
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        if (command == null)
+            throw new NullPointerException();
+        if (runState.get() != RUNNING)
+            throw new RejectedExecutionException("Task " + command.toString() +
+                                                 " rejected from " +
+                                                 toString());
+        workers.execute(command);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks are executed, but no new tasks will be accepted.
+     * Delayed tasks still run when their delays elapse, whereas
+     * periodic tasks are cancelled.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution.  Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     */
+    public void shutdown() {
+        if (runState.compareAndSet(RUNNING, SHUTDOWN))
+            LockSupport.unpark(ticker);
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution, including delayed tasks that had
+     * not yet fired.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    public List<Runnable> shutdownNow() {
+        for (int rs; (rs = runState.get()) < STOP; ) {
+            if (runState.compareAndSet(rs, STOP))
+                break;
+        }
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        drainAll(tasks);
+        LockSupport.unpark(ticker);
+        tasks.addAll(workers.shutdownNow());
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return runState.get() != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return tickerDone.getCount() == 0L && workers.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        return tickerDone.await(nanos, NANOSECONDS) &&
+            workers.awaitTermination(deadline - System.nanoTime(), NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of scheduled tasks that have neither fired nor
+     * been cancelled.  This value is only an estimate if tasks are being
+     * scheduled concurrently.
+     *
+     * @return the number of pending scheduled tasks
+     */
+    public long getPendingTaskCount() {
+        return pending.get();
+    }
+
+    /**
+     * Returns the duration of one tick of the wheel.
+     *
+     * @param unit the time unit of the result
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+
+    /**
+     * Returns a string identifying this executor, as well as its state,
+     * including indications of run state and estimated pending and
+     * worker counts.
+     *
+     * @return a string identifying this executor, as well as its state
+     */
+    public String toString() {
+        int rs = runState.get();
+        String rsName = (rs == RUNNING) ? "Running" :
+            isTerminated() ? "Terminated" : "Shutting down";
+        return super.toString() +
+            "[" + rsName +
+            ", tick = " + tickNanos + "ns" +
+            ", pending tasks = " + pending.get() +
+            ", pool size = " + workers.getPoolSize() +
+            ", active threads = " + workers.getActiveCount() + "]";
+    }
+}
@@ -0,0 +1,668 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 20261016
+ * A. 一个与 {@link ThreadPoolExecutor} 完全兼容的线程池(核心/最大线程数、keepAlive、线程工厂、拒绝策略、beforeExecute/afterExecute 钩子均不变),
+ *    区别仅在于任务队列: 不再使用由锁保护的单个 BlockingQueue, 而是使用按线程探针值(probe)分段的一组无锁工作队列, 类似 ForkJoinPool.WorkQueue。
+ * B. 提交任务的线程把任务放入自己的探针值所对应的队列, 工作线程优先从"自己的"队列中取任务, 没有任务时再从其他队列中窃取, 因此 execute() 和
+ *    getTask() 在大部分情况下不会与其他线程争用同一个队列。
+ * C. 空闲的工作线程挂在一个无锁的等待栈中, 只有当存在等待者时, 提交任务的线程才需要唤醒其中一个。
+ * D. 可以指定队列容量, 当队列(估计)已满时 offer 返回 false, 从而像有界队列一样触发非核心线程的创建与拒绝策略。
+ */
+
+/**
+ * A {@link ThreadPoolExecutor} whose tasks are held in a set of lock-free
+ * work-stealing queues rather than in a single {@link BlockingQueue}.
+ * Pool sizing, keep-alive, thread factories, {@link RejectedExecutionHandler
+ * rejection handlers} and the {@link #beforeExecute beforeExecute} and
+ * {@link #afterExecute afterExecute} hooks behave exactly as in
+ * {@code ThreadPoolExecutor}; only the queue differs.
+ *
+ * <p>With an ordinary {@code ThreadPoolExecutor} every call to
+ * {@code execute} and every worker fetching its next task contend for the
+ * same queue, which limits throughput on machines with many cores.  Here the
+ * queue is striped, much like the submission queues of a
+ * {@link ForkJoinPool}: a submitting thread pushes onto the stripe selected
+ * by a per-thread hash, and a worker takes tasks from its own stripe first,
+ * stealing from the others only when that stripe is empty.  Idle workers
+ * wait on a lock-free stack, so that a submitter need only wake one when
+ * any are waiting.  Existing callers of {@code execute} and {@code submit}
+ * therefore obtain most of the scalability of a {@code ForkJoinPool}
+ * without rewriting their tasks as {@link ForkJoinTask}s.
+ *
+ * <p>Tasks are taken from each stripe in FIFO order, but there is no
+ * ordering among stripes, so tasks submitted by different threads may run
+ * in any order.  The queue may be bounded; as with a bounded queue passed to
+ * {@code ThreadPoolExecutor}, threads beyond the core pool size are created
+ * only when the queue is full.  Since the size of the queue is the sum of
+ * the sizes of its stripes, the bound is enforced approximately when tasks
+ * are submitted concurrently.
+ *
+ * @since 1.8
+ */
+public class WorkStealingThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters, an unbounded queue, the default thread factory
+     * and the default rejected execution handler.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+             Integer.MAX_VALUE, Executors.defaultThreadFactory(),
+             new AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters, an unbounded queue and the default rejected
+     * execution handler.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}
+     * @throws NullPointerException if {@code threadFactory} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          ThreadFactory threadFactory) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+             Integer.MAX_VALUE, threadFactory, new AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters, an unbounded queue and the default thread
+     * factory.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}
+     * @throws NullPointerException if {@code handler} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          RejectedExecutionHandler handler) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+             Integer.MAX_VALUE, Executors.defaultThreadFactory(), handler);
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param queueCapacity the approximate number of tasks the queue may
+     *        hold before further tasks cause additional threads to be
+     *        created or are rejected, or {@code Integer.MAX_VALUE} for an
+     *        unbounded queue
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}<br>
+     *         {@code queueCapacity <= 0}
+     * @throws NullPointerException if {@code threadFactory} or
+     *         {@code handler} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          int queueCapacity,
+                                          ThreadFactory threadFactory,
+                                          RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+              new WorkStealingQueue(queueCapacity), threadFactory, handler);
+    }
+
+    /**
+     * A striped, lock-free {@code BlockingQueue} of tasks.  Each stripe
+     * is a {@link WorkQueue}; producers push onto the stripe selected by
+     * their {@link ThreadLocalRandom} probe, moving to another stripe if
+     * that one is momentarily locked, and consumers poll their own stripe
+     * first and then scan the others.  Consumers that find nothing push a
+     * Waiter onto a Treiber stack and park.  A producer, after pushing a
+     * task, pops waiters until it claims one that has not given up, and
+     * unparks it.  Since the producer publishes its task before reading
+     * the stack, and a consumer pushes its Waiter before rescanning, a
+     * task cannot be left behind while every consumer sleeps.  A consumer
+     * that was claimed but leaves without a task, because it was
+     * interrupted or timed out, passes the signal on.  Producers blocked
+     * in put or a timed offer on a full queue wait in the same way on a
+     * second stack, which consumers signal after taking a task.
+     */
+    static final class WorkStealingQueue extends AbstractQueue<Runnable>
+            implements BlockingQueue<Runnable> {
+
+        /** Number of CPUS, to place bounds on some sizings */
+        static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+        /** The maximum number of stripes. */
+        static final int MAX_STRIPES = 1 << 16;
+
+        final WorkQueue[] queues;
+        final int capacity;
+        final AtomicReference<Waiter> waiters = new AtomicReference<Waiter>();
+        final AtomicReference<Waiter> producers = new AtomicReference<Waiter>();
+
+        WorkStealingQueue(int capacity) {
+            if (capacity <= 0)
+                throw new IllegalArgumentException();
+            this.capacity = capacity;
+            int n = 1;
+            while (n < (NCPU << 1) && n < MAX_STRIPES)
+                n <<= 1;
+            WorkQueue[] qs = new WorkQueue[n];
+            for (int i = 0; i < n; ++i)
+                qs[i] = new WorkQueue();
+            this.queues = qs;
+        }
+
+        /** Returns the calling thread's probe, initializing it if needed. */
+        static int probe() {
+            int h;
+            if ((h = ThreadLocalRandom.getProbe()) == 0) {
+                ThreadLocalRandom.localInit();
+                h = ThreadLocalRandom.getProbe();
+            }
+            return h;
+        }
+
+        public boolean offer(Runnable e) {
+            if (e == null)
+                throw new NullPointerException();
+            if (capacity != Integer.MAX_VALUE && size() >= capacity)
+                return false;
+            WorkQueue[] qs = queues;
+            int m = qs.length - 1;
+            for (int h = probe(); !qs[h & m].tryPush(e); )
+                h = ThreadLocalRandom.advanceProbe(h);
+            if (waiters.get() != null)
+                signalWork();
+            return true;
+        }
+
+        public boolean offer(Runnable e, long timeout, TimeUnit unit)
+            throws InterruptedException {
+            return awaitSpace(e, true, unit.toNanos(timeout));
+        }
+
+        public void put(Runnable e) throws InterruptedException {
+            awaitSpace(e, false, 0L);
+        }
+
+        /**
+         * Polls each stripe once, starting with the caller's own.
+         */
+        public Runnable poll() {
+            WorkQueue[] qs = queues;
+            int m = qs.length - 1, h = probe();
+            for (int i = 0; i <= m; ++i) {
+                Runnable x = qs[(h + i) & m].poll();
+                if (x != null) {
+                    if (producers.get() != null)
+                        signal(producers);
+                    return x;
+                }
+            }
+            return null;
+        }
+
+        public Runnable take() throws InterruptedException {
+            return awaitWork(false, 0L);
+        }
+
+        public Runnable poll(long timeout, TimeUnit unit)
+            throws InterruptedException {
+            return awaitWork(true, unit.toNanos(timeout));
+        }
+
+        /**
+         * Waits for a task, for at most the given time if timed.
+         *
+         * @return the task, or null if timed out
+         */
+        private Runnable awaitWork(boolean timed, long nanos)
+            throws InterruptedException {
+            long deadline = timed ? System.nanoTime() + nanos : 0L;
+            for (;;) {
+                Runnable x;
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if ((x = poll()) != null)
+                    return x;
+                if (timed && deadline - System.nanoTime() <= 0L)
+                    return null;
+                Waiter w = push(waiters);
+                if ((x = poll()) != null) {
+                    w.cancel();
+                    return x;
+                }
+                if (!awaitSignal(w, waiters, timed, deadline))
+                    return null;
+            }
+        }
+
+        /**
+         * Waits until the task can be queued, for at most the given time
+         * if timed.
+         *
+         * @return true if queued, or false if timed out
+         */
+        private boolean awaitSpace(Runnable e, boolean timed, long nanos)
+            throws InterruptedException {
+            long deadline = timed ? System.nanoTime() + nanos : 0L;
+            for (;;) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if (offer(e))
+                    return true;
+                if (timed && deadline - System.nanoTime() <= 0L)
+                    return false;
+                Waiter w = push(producers);
+                if (offer(e)) {
+                    w.cancel();
+                    return true;
+                }
+                if (!awaitSignal(w, producers, timed, deadline))
+                    return false;
+            }
+        }
+
+        /**
+         * Pushes a Waiter for the current thread onto the given stack.
+         */
+        private static Waiter push(AtomicReference<Waiter> stack) {
+            Waiter w = new Waiter(Thread.currentThread());
+            for (Waiter h;;) {
+                w.next = h = stack.get();
+                if (stack.compareAndSet(h, w))
+                    return w;
+            }
+        }
+
+        /**
+         * Parks until the given Waiter is claimed.  A Waiter that gives
+         * up after being claimed passes the signal on.
+         *
+         * @return true if claimed, or false if timed out
+         */
+        private boolean awaitSignal(Waiter w, AtomicReference<Waiter> stack,
+                                    boolean timed, long deadline)
+            throws InterruptedException {
+            while (w.thread != null) {
+                if (Thread.interrupted()) {
+                    if (!w.cancel())
+                        signal(stack);
+                    throw new InterruptedException();
+                }
+                if (timed) {
+                    long ns = deadline - System.nanoTime();
+                    if (ns <= 0L) {
+                        if (!w.cancel())
+                            signal(stack);
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, ns);
+                }
+                else
+                    LockSupport.park(this);
+            }
+            return true;
+        }
+
+        /**
+         * Wakes up one waiting consumer, if any, discarding waiters that
+         * have given up.
+         */
+        final void signalWork() {
+            signal(waiters);
+        }
+
+        /**
+         * Wakes up one waiter of the given stack, if any, discarding
+         * waiters that have given up.
+         */
+        static void signal(AtomicReference<Waiter> stack) {
+            for (Waiter w; (w = stack.get()) != null; ) {
+                if (stack.compareAndSet(w, w.next)) {
+                    Thread t = w.thread;
+                    if (t != null && Waiter.THREAD.compareAndSet(w, t, null)) {
+                        LockSupport.unpark(t);
+                        break;
+                    }
+                }
+            }
+        }
+
+        public Runnable peek() {
+            for (WorkQueue q : queues) {
+                Runnable x = q.peek();
+                if (x != null)
+                    return x;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the sum of the sizes of all stripes, which is only an
+         * estimate while tasks are being submitted or taken.
+         */
+        public int size() {
+            long n = 0L;
+            for (WorkQueue q : queues)
+                n += q.size();
+            return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+        }
+
+        public boolean isEmpty() {
+            for (WorkQueue q : queues) {
+                if (q.size() > 0)
+                    return false;
+            }
+            return true;
+        }
+
+        public int remainingCapacity() {
+            return (capacity == Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                Math.max(0, capacity - size());
+        }
+
+        public boolean remove(Object o) {
+            if (o != null) {
+                for (WorkQueue q : queues) {
+                    if (q.remove(o)) {
+                        if (producers.get() != null)
+                            signal(producers);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == null)
+                throw new NullPointerException();
+            if (c == this)
+                throw new IllegalArgumentException();
+            int n = 0;
+            for (Runnable x; n < maxElements && (x = poll()) != null; ++n)
+                c.add(x);
+            return n;
+        }
+
+        /**
+         * Returns an iterator over a snapshot of the tasks in the queue.
+         * Its {@code remove} method removes the last returned task from
+         * the queue, if still present.
+         */
+        public Iterator<Runnable> iterator() {
+            final List<Runnable> snapshot = new ArrayList<Runnable>();
+            for (WorkQueue q : queues)
+                q.addTo(snapshot);
+            return new Iterator<Runnable>() {
+                int cursor;
+                Runnable lastRet;
+                public boolean hasNext() {
+                    return cursor < snapshot.size();
+                }
+                public Runnable next() {
+                    if (cursor >= snapshot.size())
+                        throw new NoSuchElementException();
+                    return lastRet = snapshot.get(cursor++);
+                }
+                public void remove() {
+                    if (lastRet == null)
+                        throw new IllegalStateException();
+                    WorkStealingQueue.this.remove(lastRet);
+                    lastRet = null;
+                }
+            };
+        }
+    }
+
+    /** A consumer waiting for a task; thread is nulled when claimed. */
+    static final class Waiter {
+        volatile Thread thread;
+        Waiter next;
+        Waiter(Thread thread) { this.thread = thread; }
+
+        /** Gives up waiting; returns false if already claimed. */
+        boolean cancel() {
+            Thread t = thread;
+            return t != null && THREAD.compareAndSet(this, t, null);
+        }
+
+        static final AtomicReferenceFieldUpdater<Waiter,Thread> THREAD =
+            AtomicReferenceFieldUpdater.newUpdater(Waiter.class, Thread.class,
+                                                   "thread");
+    }
+
+    /**
+     * One stripe of a WorkStealingQueue, along the lines of the
+     * submission queues of ForkJoinPool: a circular array in which
+     * producers push at top while holding a spin lock (which they do
+     * not wait for, moving to another stripe instead), and consumers
+     * take from base by CASing the slot to null and then advancing
+     * base.  A null slot below top means that a take or a resize is in
+     * progress, so consumers retry.  Unlike ForkJoinTasks, the same
+     * Runnable may be queued many times, so each push stores a fresh
+     * Node, which makes a slot's CAS immune to ABA when the array wraps
+     * around.  Removal of an interior element replaces its node by a
+     * fresh marker node with a null task, which consumers skip; a shared
+     * marker would reintroduce ABA, as a slot could then hold the same
+     * marker before and after a wrap.
+     */
+    static final class WorkQueue {
+
+        /** Initial capacity of the array; must be a power of two. */
+        static final int INITIAL_QUEUE_CAPACITY = 1 << 5;
+
+        /** Maximum capacity of the array; must be a power of two. */
+        static final int MAXIMUM_QUEUE_CAPACITY = 1 << 26; // 64M
+
+        static final class Node {
+            final Runnable task;
+            Node(Runnable task) { this.task = task; }
+        }
+
+        volatile int base;         // index of next slot for poll
+        volatile int top;          // index of next slot for push
+        volatile int qlock;        // 1: locked, else 0
+        volatile AtomicReferenceArray<Node> array;
+
+        WorkQueue() {
+            array = new AtomicReferenceArray<Node>(INITIAL_QUEUE_CAPACITY);
+        }
+
+        final int size() {
+            int n = top - base;
+            return (n < 0) ? 0 : n;
+        }
+
+        /**
+         * Pushes a task unless the queue is locked by another producer.
+         *
+         * @throws RejectedExecutionException if array cannot be resized
+         */
+        final boolean tryPush(Runnable x) {
+            Node node = new Node(x);
+            if (!QLOCK.compareAndSet(this, 0, 1))
+                return false;
+            try {
+                AtomicReferenceArray<Node> a = array;
+                int t = top;
+                if (t - base >= a.length() - 1)
+                    a = growArray();
+                a.set(t & (a.length() - 1), node);
+                top = t + 1;
+            } finally {
+                qlock = 0;
+            }
+            return true;
+        }
+
+        /**
+         * Doubles the capacity of the array, moving its elements.  Called
+         * only by the lock holder.
+         */
+        private AtomicReferenceArray<Node> growArray() {
+            AtomicReferenceArray<Node> oldA = array;
+            int oldN = oldA.length(), size = oldN << 1;
+            if (size > MAXIMUM_QUEUE_CAPACITY)
+                throw new RejectedExecutionException("Queue capacity exceeded");
+            AtomicReferenceArray<Node> a = new AtomicReferenceArray<Node>(size);
+            array = a;
+            int oldMask = oldN - 1, mask = size - 1;
+            for (int j = base, t = top; j != t; ++j) {
+                int i = j & oldMask;
+                Node x = oldA.get(i);
+                if (x != null && oldA.compareAndSet(i, x, null))
+                    a.set(j & mask, x);
+            }
+            return a;
+        }
+
+        /**
+         * Takes the task at base, if any.
+         */
+        final Runnable poll() {
+            for (;;) {
+                int b = base, t = top;
+                AtomicReferenceArray<Node> a = array;
+                if (b - t >= 0)
+                    return null;
+                int i = b & (a.length() - 1);
+                Node x = a.get(i);
+                if (base != b || x == null)
+                    continue;                  // stale, or take in progress
+                if (a.compareAndSet(i, x, null)) {
+                    base = b + 1;
+                    if (x.task != null)
+                        return x.task;
+                }
+            }
+        }
+
+        final Runnable peek() {
+            AtomicReferenceArray<Node> a = array;
+            int mask = a.length() - 1;
+            for (int j = base, t = top; j - t < 0; ++j) {
+                Node x = a.get(j & mask);
+                if (x != null && x.task != null)
+                    return x.task;
+            }
+            return null;
+        }
+
+        /**
+         * Replaces the given task, if present, by a marker node with a
+         * null task, rescanning if the array was resized meanwhile.
+         */
+        final boolean remove(Object o) {
+            AtomicReferenceArray<Node> a;
+            do {
+                a = array;
+                int mask = a.length() - 1;
+                for (int j = base, t = top; j - t < 0; ++j) {
+                    int i = j & mask;
+                    Node x = a.get(i);
+                    if (x != null && x.task != null && o.equals(x.task) &&
+                        a.compareAndSet(i, x, new Node(null)))
+                        return true;
+                }
+            } while (a != array);
+            return false;
+        }
+
+        final void addTo(List<Runnable> list) {
+            AtomicReferenceArray<Node> a = array;
+            int mask = a.length() - 1;
+            for (int j = base, t = top; j - t < 0; ++j) {
+                Node x = a.get(j & mask);
+                if (x != null && x.task != null)
+                    list.add(x.task);
+            }
+        }
+
+        static final AtomicIntegerFieldUpdater<WorkQueue> QLOCK =
+            AtomicIntegerFieldUpdater.newUpdater(WorkQueue.class, "qlock");
+    }
+}
@@ -767,6 +767,13 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     // AQS同步器状态, 其语义看具体的实现
     private volatile int state;
 
+    /**
+     * Contention counters, created on the first contended acquire when
+     * instrumentation is enabled.
+     */
+    // 竞争统计, 仅在开启竞争统计时于第一次竞争获取时惰性创建
+    private transient volatile SynchronizerStatistics statistics;
+
     /**
      * 20210722
      * 返回同步状态的当前值。此操作具有 {@code volatile} 读取的内存语义。
@@ -1259,6 +1266,55 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
         Thread.currentThread().interrupt();
     }
 
+    /**
+     * Returns the contention counters of this synchronizer, creating
+     * them if necessary.  Called only when instrumentation is enabled.
+     */
+    // 获取本同步器的竞争统计, 如果还没有则CAS创建并登记, 仅在开启竞争统计时调用
+    final SynchronizerStatistics statistics() {
+        SynchronizerStatistics s = statistics;
+        if (s == null) {
+            s = new SynchronizerStatistics(this);
+            if (unsafe.compareAndSwapObject(this, statisticsOffset, null, s))
+                SynchronizerStatistics.register(s);
+            else
+                s = statistics;
+        }
+        return s;
+    }
+
+    /**
+     * Records that the current thread has been enqueued to acquire.  It
+     * is called inside the try block that cancels the node on failure,
+     * so that a node is not left in the queue if creating the statistics
+     * fails.  The finally block then ends the record only if this
+     * returned, as shown by a nonzero time.
+     *
+     * @return the time of enqueuing
+     */
+    // 记录当前线程排队获取, 返回排队时间; 在失败时取消结点的try块内调用, 以免创建统计失败时结点滞留在队列中
+    private long beginAcquire() {
+        statistics().enqueued();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records that the current thread has acquired, or given up, after
+     * being enqueued at the given time.
+     */
+    // 记录当前线程获取成功或放弃, 累加从排队开始的等待时间
+    private void endAcquire(long enqueued) {
+        statistics().dequeued(System.nanoTime() - enqueued);
+    }
+
+    /**
+     * Records a condition wait that released the lock at the given time.
+     */
+    // 记录一次条件等待, 累加从释放锁到被通知(或超时、中断)的等待时间
+    final void endAwait(long released) {
+        statistics().awaited(System.nanoTime() - released);
+    }
+
     /**
      * Convenience method to park and then check if interrupted
      *
@@ -1266,6 +1322,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      */
     // park阻塞当前线程, 然后检查当前线程是否中断(当前线程被中断, 会解除线程阻塞状态)
     private final boolean parkAndCheckInterrupt() {
+        if (INSTRUMENTED)
+            statistics().parks.increment();
         LockSupport.park(this);
         return Thread.interrupted();
     }
@@ -1298,8 +1356,27 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      */
     // 独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回; 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理; 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
     final boolean acquireQueued(final Node node, int arg) {
+        return acquireQueued(node, arg, false);
+    }
+
+    /**
+     * Acquires in exclusive uninterruptible mode for thread already in
+     * queue, recording the acquire in the contention statistics if so
+     * requested.  Only {@link #acquire} records, as the reacquire after
+     * a condition wait is not a contended acquire.
+     *
+     * @param node the node
+     * @param arg the acquire argument
+     * @param record whether to record the acquire
+     * @return {@code true} if interrupted while waiting
+     */
+    // 同上, record为true时记录竞争统计; 只有acquire传入true, 条件等待后的重新获取不计为一次竞争获取
+    private boolean acquireQueued(final Node node, int arg, boolean record) {
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (record)
+                enqueued = beginAcquire();
             boolean interrupted = false;
 
             // 开始自旋
@@ -1330,6 +1407,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (record && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1346,8 +1425,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private void doAcquireInterruptibly(int arg) throws InterruptedException {
         // 使用当前线程构建独占Node结点, 并CAS+自旋直至入队成功
         final Node node = addWaiter(Node.EXCLUSIVE);
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (INSTRUMENTED)
+                enqueued = beginAcquire();
             // 开始自旋
             for (;;) {
                 // volatile方式获取前驱p
@@ -1376,6 +1458,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (INSTRUMENTED && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1401,8 +1485,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
         // 使用当前线程构建独占Node结点, 并CAS+自旋直至入队成功
         final Node node = addWaiter(Node.EXCLUSIVE);
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (INSTRUMENTED)
+                enqueued = beginAcquire();
             // 开始自旋
             for (;;) {
                 // volatile方式获取前驱p
@@ -1427,8 +1514,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                 // 如果过期总时间大于0, 说明仍有效, 则放置node结点并阻塞其排队线程是否合理, 如果返回true代表确定了前驱为通知结点, 此时node的排队线程需要阻塞; 如果返回false代表还没能确定前驱为通知结点, 需要返回继续自旋判断, 此时node的排队线程不能被阻塞
                 if (shouldParkAfterFailedAcquire(p, node)
                         // 如果过期总时间仍大于1s钟, 说明仍然需要阻塞线程, 则调用LockSupport的定时阻塞方法阻塞当前线程
-                        && nanosTimeout > spinForTimeoutThreshold)
+                        && nanosTimeout > spinForTimeoutThreshold) {
+                    if (INSTRUMENTED)
+                        statistics().parks.increment();
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
 
                 // 如果当前线程被中断或者退出阻塞, 则判断获取中断标志位, 如果为true则抛出中断异常
                 if (Thread.interrupted())
@@ -1439,6 +1529,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (INSTRUMENTED && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1455,8 +1547,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private void doAcquireShared(int arg) {
         // 使用当前线程构建共享模式的Node结点, 并CAS+自旋直至入队成功
         final Node node = addWaiter(Node.SHARED);
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (INSTRUMENTED)
+                enqueued = beginAcquire();
             boolean interrupted = false;
 
             // 开始自旋
@@ -1494,6 +1589,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (INSTRUMENTED && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1510,8 +1607,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private void doAcquireSharedInterruptibly(int arg) throws InterruptedException {
         // 使用当前线程构建共享Node结点, 并CAS+自旋直至入队成功
         final Node node = addWaiter(Node.SHARED);
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (INSTRUMENTED)
+                enqueued = beginAcquire();
             // 开始自旋
             for (;;) {
                 // volatile方式获取前驱p
@@ -1543,6 +1643,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (INSTRUMENTED && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1568,8 +1670,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
         // 使用当前线程构建共享Node结点, 并CAS+自旋直至入队成功
         final Node node = addWaiter(Node.SHARED);
+        long enqueued = 0L;
         boolean failed = true;
         try {
+            if (INSTRUMENTED)
+                enqueued = beginAcquire();
             // 开始自旋
             for (;;) {
                 // volatile方式获取前驱p
@@ -1597,8 +1702,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                 // 如果过期总时间大于0, 说明仍有效, 则放置node结点并阻塞其排队线程是否合理, 如果返回true代表确定了前驱为通知结点, 此时node的排队线程需要阻塞; 如果返回false代表还没能确定前驱为通知结点, 需要返回继续自旋判断, 此时node的排队线程不能被阻塞
                 if (shouldParkAfterFailedAcquire(p, node) &&
                         // 如果过期总时间仍大于1s钟, 说明仍然需要阻塞线程, 则调用LockSupport的定时阻塞方法阻塞当前线程
-                        nanosTimeout > spinForTimeoutThreshold)
+                        nanosTimeout > spinForTimeoutThreshold) {
+                    if (INSTRUMENTED)
+                        statistics().parks.increment();
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
 
                 // 如果当前线程被中断或者退出阻塞, 则判断获取中断标志位, 如果为true则抛出中断异常
                 if (Thread.interrupted())
@@ -1609,6 +1717,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             if (failed)
                 // 则取消node结点(前驱不为头结点且需要传播时), 或者唤醒node结点的排队线程(前驱为头结点时)
                 cancelAcquire(node);
+            if (INSTRUMENTED && enqueued != 0L)
+                endAcquire(enqueued);
         }
     }
 
@@ -1837,7 +1947,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                 // 独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回; 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理; 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
                 acquireQueued(
                     // 使用当前线程构建独占模式的Node结点, 并CAS+自旋直至入队成功
-                    addWaiter(Node.EXCLUSIVE), arg
+                    addWaiter(Node.EXCLUSIVE), arg, INSTRUMENTED
                 )
             )
             // 中断当前线程
@@ -3006,6 +3116,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
             // volatile方式获取同步状态并尝试释放独占模式的同步器, 如果释放成功, 则返回刚刚获取到的同步状态; 如果失败则抛出异常后更改结点为取消结点
             int savedState = fullyRelease(node);
+            final long released = INSTRUMENTED ? System.nanoTime() : 0L;
 
             // 判断node结点的是不是在公平队列中排队, 如果不是则阻塞当前线程
             boolean interrupted = false;
@@ -3020,6 +3131,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             // 如果在同步队列中, 则独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回;
             // 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理;
             // 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
+            if (INSTRUMENTED)
+                AbstractQueuedSynchronizer.this.endAwait(released);
+
             if (acquireQueued(node, savedState) || interrupted)
                 // 中断该线程, 如果从Thread其他实例方法调用该方法, 则会清除中断状态, 然后会收到一个{@link InterruptedException}
                 selfInterrupt();
@@ -3105,6 +3219,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
             // volatile方式获取同步状态并尝试释放独占模式的同步器, 如果释放成功, 则返回刚刚获取到的同步状态; 如果失败则抛出异常后更改结点为取消结点
             int savedState = fullyRelease(node);
+            final long released = INSTRUMENTED ? System.nanoTime() : 0L;
 
             // 判断node结点的是不是在公平队列中排队, 如果不是则阻塞当前线程
             int interruptMode = 0;
@@ -3120,6 +3235,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             // 如果在同步队列中, 则独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回;
             // 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理;
             // 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
+            if (INSTRUMENTED)
+                AbstractQueuedSynchronizer.this.endAwait(released);
+
             if (acquireQueued(node, savedState) && interruptMode != THROW_IE)
                 interruptMode = REINTERRUPT;
 
@@ -3166,6 +3284,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
             // volatile方式获取同步状态并尝试释放独占模式的同步器, 如果释放成功, 则返回刚刚获取到的同步状态; 如果失败则抛出异常后更改结点为取消结点
             int savedState = fullyRelease(node);
+            final long released = INSTRUMENTED ? System.nanoTime() : 0L;
 
             // 判断node结点的是不是在公平队列中排队, 如果不是则阻塞当前线程
             final long deadline = System.nanoTime() + nanosTimeout;
@@ -3191,6 +3310,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             // 如果在同步队列中, 则独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回;
             // 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理;
             // 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
+            if (INSTRUMENTED)
+                AbstractQueuedSynchronizer.this.endAwait(released);
+
             if (acquireQueued(node, savedState) && interruptMode != THROW_IE)
                 interruptMode = REINTERRUPT;
 
@@ -3245,6 +3367,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
             // volatile方式获取同步状态并尝试释放独占模式的同步器, 如果释放成功, 则返回刚刚获取到的同步状态; 如果失败则抛出异常后更改结点为取消结点
             int savedState = fullyRelease(node);
+            final long released = INSTRUMENTED ? System.nanoTime() : 0L;
 
             // 判断node结点的是不是在公平队列中排队, 如果不是则阻塞当前线程
             boolean timedout = false;
@@ -3267,6 +3390,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             // 如果在同步队列中, 则独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回;
             // 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理;
             // 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
+            if (INSTRUMENTED)
+                AbstractQueuedSynchronizer.this.endAwait(released);
+
             if (acquireQueued(node, savedState) && interruptMode != THROW_IE)
                 interruptMode = REINTERRUPT;
 
@@ -3321,6 +3447,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
 
             // volatile方式获取同步状态并尝试释放独占模式的同步器, 如果释放成功, 则返回刚刚获取到的同步状态; 如果失败则抛出异常后更改结点为取消结点
             int savedState = fullyRelease(node);
+            final long released = INSTRUMENTED ? System.nanoTime() : 0L;
 
             // 判断node结点的是不是在公平队列中排队, 如果不是则阻塞当前线程
             final long deadline = System.nanoTime() + nanosTimeout;
@@ -3347,6 +3474,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             // 如果在同步队列中, 则独占式自旋入队的核心逻辑, 如果node前驱刚释放, 则更新node为头结点且不用阻塞直接返回;
             // 否则放置node结点并阻塞其排队线程, 如果当前线程有被中断过, 则还需要继续自旋, 直到获取到同步器, 返回true代表有被中断过让上层API处理;
             // 另外如果调用tryAcquire方法时发生了异常, 则还需要则取消node结点
+            if (INSTRUMENTED)
+                AbstractQueuedSynchronizer.this.endAwait(released);
+
             if (acquireQueued(node, savedState) && interruptMode != THROW_IE)
                 interruptMode = REINTERRUPT;
 
@@ -3476,6 +3606,15 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private static final long tailOffset;// tail
     private static final long waitStatusOffset;// waitStatus
     private static final long nextOffset;// next
+    private static final long statisticsOffset;// statistics
+
+    /**
+     * Whether contention is recorded, as set by the
+     * java.util.concurrent.locks.instrumentContention system property.
+     * When false, the compiler removes all recording code.
+     */
+    // 是否开启竞争统计(系统属性java.util.concurrent.locks.instrumentContention), 为false时JIT会消除所有统计代码
+    static final boolean INSTRUMENTED = SynchronizerStatistics.ENABLED;
 
     static {
         try {
@@ -3489,6 +3628,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                 (Node.class.getDeclaredField("waitStatus"));
             nextOffset = unsafe.objectFieldOffset
                 (Node.class.getDeclaredField("next"));
+            statisticsOffset = unsafe.objectFieldOffset
+                (AbstractQueuedSynchronizer.class.getDeclaredField("statistics"));
 
         } catch (Exception ex) { throw new Error(ex); }
     }
@@ -9,6 +9,10 @@
  */
 
 package java.util.concurrent.locks;
+import java.util.concurrent.FiberExecutor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import sun.misc.Unsafe;
 
 /**
@@ -228,7 +232,7 @@ public class LockSupport {
         setBlocker(t, blocker);
 
         // 阻塞当前线程, 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
-        UNSAFE.park(false, 0L);
+        park0(t, blocker, false, 0L);
 
         // 唤醒后清空负责指定线程阻塞的同步对象(通常使用this), 该对象会在线程被阻塞时被记录, 以允许监控和诊断工具识别线程被阻塞的原因, 强烈建议这种形式而不是没有此参数的原始形式
         setBlocker(t, null);
@@ -291,7 +295,7 @@ public class LockSupport {
             setBlocker(t, blocker);
 
             // 阻塞当前线程, 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
-            UNSAFE.park(false, nanos);
+            park0(t, blocker, false, nanos);
 
             // 唤醒后清空负责指定线程阻塞的同步对象(通常使用this), 该对象会在线程被阻塞时被记录, 以允许监控和诊断工具识别线程被阻塞的原因, 强烈建议这种形式而不是没有此参数的原始形式
             setBlocker(t, null);
@@ -354,7 +358,7 @@ public class LockSupport {
         setBlocker(t, blocker);
 
         // 阻塞当前线程, 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
-        UNSAFE.park(true, deadline);
+        park0(t, blocker, true, deadline);
 
         // 唤醒后清空负责指定线程阻塞的同步对象(通常使用this), 该对象会在线程被阻塞时被记录, 以允许监控和诊断工具识别线程被阻塞的原因, 强烈建议这种形式而不是没有此参数的原始形式
         setBlocker(t, null);
@@ -423,7 +427,7 @@ public class LockSupport {
      */
     // 无同步对象记录方式地无限阻塞当前线程(不建议使用), 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
     public static void park() {
-        UNSAFE.park(false, 0L);
+        park0(Thread.currentThread(), null, false, 0L);
     }
 
     /**
@@ -471,7 +475,7 @@ public class LockSupport {
     // 无同步对象记录方式地在指定的等待时间内阻塞当前线程(不建议使用), 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
     public static void parkNanos(long nanos) {
         if (nanos > 0)
-            UNSAFE.park(false, nanos);
+            park0(Thread.currentThread(), null, false, nanos);
     }
 
     /**
@@ -519,7 +523,80 @@ public class LockSupport {
      */
     // 无同步对象记录方式地在绝对时间前阻塞当前线程阻塞当前线程(不建议使用), 直到当前线程unpark被调用、被中断、time时间过去(非绝对时为纳秒, 绝对时为毫秒, 为0时代表无限阻塞)
     public static void parkUntil(long deadline) {
-        UNSAFE.park(true, deadline);
+        park0(Thread.currentThread(), null, true, deadline);
+    }
+
+    /**
+     * 20261016
+     * 阻塞给定的当前线程。 如果它是 {@link FiberExecutor} 的载体线程, 则通过 {@link ForkJoinPool#managedBlock} 阻塞, 使池可以激活或创建补偿线程;
+     * 若阻塞者本身就是 ManagedBlocker(例如 CompletableFuture 与 Phaser 的等待节点), 说明调用方已经处于受管阻塞中, 不再重复补偿。
+     *    池正在终止或补偿多次失败时, managedBlock 在线程阻塞前就返回, 线程改为直接阻塞; isReleasable 本身从不阻塞。
+     */
+    /**
+     * Parks the given current thread.  If it is a carrier thread of a
+     * {@link FiberExecutor}, it is parked through {@link
+     * ForkJoinPool#managedBlock} so that the pool may compensate for it,
+     * unless the blocker is itself a {@code ManagedBlocker}, in which
+     * case the caller is already being compensated for.  If the pool
+     * is terminating, or keeps failing to compensate, managedBlock
+     * returns without the thread having parked, and the thread then
+     * simply parks.
+     */
+    private static void park0(Thread t, Object blocker,
+                              boolean absolute, long time) {
+        // Test the thread's class first, so that parking an ordinary
+        // thread never initializes ForkJoinPool
+        if (t instanceof ForkJoinWorkerThread &&
+            ((ForkJoinWorkerThread)t).getPool() instanceof FiberExecutor &&
+            !(blocker instanceof ForkJoinPool.ManagedBlocker)) {
+            Parker p = new Parker(((ForkJoinWorkerThread)t).getPool(),
+                                  absolute, time);
+            try {
+                ForkJoinPool.managedBlock(p);
+            } catch (InterruptedException | RejectedExecutionException ex) {
+            }
+            if (p.parked)
+                return;
+        }
+        UNSAFE.park(absolute, time);
+    }
+
+    /**
+     * A ManagedBlocker performing a single park.  managedBlock checks
+     * isReleasable before each attempt to compensate, and retries as
+     * long as compensation fails, which it may do transiently, for
+     * example on a lost CAS of the pool's control word, or for good if
+     * the worker or pool is terminating.  isReleasable must not block,
+     * so it only reports whether block has parked, or gives up after
+     * MAX_COMPENSATE_ATTEMPTS checks or once the pool is terminating,
+     * leaving park0 to park without compensation.
+     */
+    static final class Parker implements ForkJoinPool.ManagedBlocker {
+        /** Checks after which compensation is abandoned. */
+        static final int MAX_COMPENSATE_ATTEMPTS = 1 << 10;
+
+        final ForkJoinPool pool;
+        final boolean absolute;
+        final long time;
+        int checks;
+        boolean parked;
+
+        Parker(ForkJoinPool pool, boolean absolute, long time) {
+            this.pool = pool;
+            this.absolute = absolute;
+            this.time = time;
+        }
+
+        public boolean block() {
+            UNSAFE.park(absolute, time);
+            parked = true;
+            return true;
+        }
+
+        public boolean isReleasable() {
+            return parked || ++checks > MAX_COMPENSATE_ATTEMPTS ||
+                pool.isTerminating();
+        }
     }
 
     /**
@@ -0,0 +1,570 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 20261016
+ * A. 偏向读者的读写锁, 用于读多写少的数据。 {@link ReentrantReadWriteLock} 把读者计数保存在AQS的同一个state字中, {@link StampedLock}
+ *    的悲观读也一样, 因此每次加读锁都要CAS同一个缓存行, 读密集的场景在核数增多时无法扩展。
+ * B. 本类的读者计数是一个按线程id分段的计数槽数组, 各槽之间间隔一个缓存行: 不同核上的读者只会增减各自的槽, 读者之间不再共享
+ *    任何被写的字。 读者加锁 = 在自己的槽上加1, 再检查是否有写者; 解锁 = 在同一个槽上减1。 同一线程的加1和减1总是落在同一个槽上,
+ *    因此每个槽的值都不小于正在锁内的读者数, 写者看到的和为0即说明没有读者 (LongAdder 做不到这一点: 减1可能落在另一个 cell 上)。
+ * C. 写者先获取内部的互斥锁 {@link ReentrantLock}, 再发布自己(writer字段), 然后阻塞等待所有槽之和归零, 即已进入的读者全部离开。
+ *    读者解锁时如果发现有写者, 则唤醒它。 读者加锁时如果发现有写者, 则撤销自己的计数并在互斥锁上排队等待写者释放, 然后重试。
+ * D. 写锁可重入, 持有写锁的线程可以获取读锁(锁降级); 读锁不可重入: 持有读锁的线程在有写者等待时再次获取读锁会死锁。 写锁不支持 Condition。
+ */
+
+/**
+ * A reader-biased {@link ReadWriteLock} for read-mostly data, in which
+ * readers never write a shared memory location.
+ *
+ * <p>{@link ReentrantReadWriteLock} keeps the count of readers in a single
+ * word, as does {@link StampedLock} for pessimistic reads, so every read
+ * acquisition updates the same cache line and read-heavy code stops
+ * scaling as the number of processors grows.  This lock instead counts
+ * readers in an array of counters striped by thread, each on its own
+ * cache line, so that readers on different processors update counters
+ * of their own.  Acquiring the read lock costs an atomic increment of the
+ * current thread's counter and a read of a field that changes only when
+ * writers come and go; releasing it decrements the same counter, so the
+ * read lock must be released by the thread that acquired it.
+ *
+ * <p>A writer first acquires an internal {@link ReentrantLock}, which
+ * orders writers, then announces itself and waits until the readers that
+ * were already inside have left.  Readers that arrive while a writer is
+ * announced withdraw and wait for it to finish, so writers are not
+ * starved by a continuous stream of readers.  Writes are correspondingly
+ * more expensive than with {@link ReentrantReadWriteLock}, as they scan
+ * every counter; this lock suits data that is read far more often than it is
+ * written.
+ *
+ * <p>The write lock is reentrant, and a thread holding it may acquire the
+ * read lock, which allows downgrading as with
+ * {@link ReentrantReadWriteLock}.  The read lock is <em>not</em>
+ * reentrant: a thread holding the read lock must not acquire it again,
+ * or it may deadlock with a waiting writer.  The write lock does not
+ * support {@link Condition}s.  The {@code fair} constructor parameter
+ * applies to the ordering of writers.
+ *
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock {
+
+    /**
+     * The number of reader counters, a power of two, and the spacing of
+     * their slots in the readers array, to keep them on separate cache
+     * lines.
+     */
+    static final int STRIPES;
+    static final int STRIDE = 8;
+    static {
+        int n = 1;
+        while (n < 2 * Runtime.getRuntime().availableProcessors() && n < 64)
+            n <<= 1;
+        STRIPES = n;
+    }
+
+    /**
+     * Readers inside the lock, counted in the slot of their thread.  A
+     * reader increments and decrements the same slot, so each slot is at
+     * least the number of readers inside that counted in it, and a zero
+     * sum seen by an announced writer means there are none.
+     */
+    final AtomicLongArray readers = new AtomicLongArray(STRIPES * STRIDE);
+
+    /** Orders writers, and is where readers wait for a writer. */
+    final ReentrantLock mutex;
+
+    /** The writer draining or holding the lock, else null. */
+    volatile Thread writer;
+
+    private final ReadLock readerLock;
+    private final WriteLock writerLock;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with non-fair ordering
+     * of writers.
+     */
+    public StripedReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with the given ordering
+     * of writers.
+     *
+     * @param fair {@code true} if writers should be granted the lock in
+     *        arrival order
+     */
+    public StripedReadWriteLock(boolean fair) {
+        mutex = new ReentrantLock(fair);
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    /* ---------------- Reader protocol -------------- */
+
+    /**
+     * Enters as a reader unless a writer other than the current thread
+     * is announced, in which case withdraws, waking the writer in case it
+     * saw the withdrawn entry.
+     */
+    final boolean tryEnter() {
+        int i = slot();
+        readers.getAndIncrement(i);
+        Thread w = writer;
+        if (w == null || w == Thread.currentThread())
+            return true;
+        readers.getAndDecrement(i);
+        LockSupport.unpark(w);
+        return false;
+    }
+
+    /**
+     * Leaves as a reader, waking an announced writer.  A slot at zero has
+     * no reader inside, so the current thread cannot be one; an unlock by
+     * a thread sharing its slot with a reader goes undetected.
+     *
+     * @throws IllegalMonitorStateException if the slot of the current
+     *         thread counts no reader
+     */
+    final void exit() {
+        int i = slot();
+        for (long c;;) {
+            if ((c = readers.get(i)) <= 0L)
+                throw new IllegalMonitorStateException();
+            if (readers.compareAndSet(i, c, c - 1L))
+                break;
+        }
+        Thread w = writer;
+        if (w != null)
+            LockSupport.unpark(w);
+    }
+
+    /** Returns the index of the current thread's reader counter. */
+    static int slot() {
+        return ((int)Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+    }
+
+    /**
+     * Sums the reader counters.  Only exact once a writer is announced,
+     * as readers that enter after it withdraw.
+     */
+    final long readerCount() {
+        long n = 0L;
+        for (int i = 0; i < STRIPES; i++)
+            n += readers.get(i * STRIDE);
+        return n;
+    }
+
+    /* ---------------- Writer protocol -------------- */
+
+    /**
+     * Announces the current thread, which holds the mutex, as the writer
+     * and waits for readers to leave.  Does nothing on reentry.
+     *
+     * @param interruptible whether to give up on interrupt
+     * @param timed whether to give up at the deadline
+     * @return true if readers have left, false if given up, in which case
+     *         the writer is withdrawn but the mutex is still held
+     */
+    final boolean drain(boolean interruptible, boolean timed, long deadline) {
+        if (mutex.getHoldCount() > 1)
+            return true;
+        writer = Thread.currentThread();
+        boolean interrupted = false;
+        while (readerCount() != 0L) {
+            if (timed) {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    withdraw();
+                    return false;
+                }
+                LockSupport.parkNanos(this, nanos);
+            }
+            else
+                LockSupport.park(this);
+            if (Thread.interrupted()) {
+                if (interruptible) {
+                    withdraw();
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return true;
+    }
+
+    private void withdraw() {
+        writer = null;
+    }
+
+    final void release() {
+        if (mutex.getHoldCount() == 1)
+            writer = null;
+        mutex.unlock();
+    }
+
+    /* ---------------- Instrumentation and status -------------- */
+
+    /**
+     * Returns {@code true} if writers are granted the lock in arrival
+     * order.
+     *
+     * @return {@code true} if this lock has fair ordering of writers
+     */
+    public final boolean isFair() {
+        return mutex.isFair();
+    }
+
+    /**
+     * Queries the number of read locks held for this lock.  This method
+     * sums the reader counters without synchronization, so the result is
+     * only an estimate while readers come and go; it is designed for use
+     * in monitoring system state, not for synchronization control.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        long n = readerCount();
+        return (n <= 0L) ? 0 : (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Queries if the write lock is held, or being acquired while readers
+     * leave, by any thread.
+     *
+     * @return {@code true} if any thread holds or is acquiring the write
+     *         lock
+     */
+    public boolean isWriteLocked() {
+        return writer != null;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return writer == Thread.currentThread() && mutex.isHeldByCurrentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return isWriteLockedByCurrentThread() ? mutex.getHoldCount() : 0;
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of held read
+     * locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        Thread o = writer;
+        int w = (o == null) ? 0 : Math.max(1, getWriteHoldCount());
+        return super.toString() +
+            "[Write locks = " + w + ", Read locks = " + getReadLockCount() + "]";
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock {
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is not held or being
+         * acquired by another thread and returns immediately.  Otherwise
+         * the current thread waits for the writer to release the write
+         * lock.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            while (!l.tryEnter()) {
+                l.mutex.lock();
+                l.mutex.unlock();
+            }
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            while (!l.tryEnter()) {
+                l.mutex.lockInterruptibly();
+                l.mutex.unlock();
+            }
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held or
+         * being acquired by another thread at the time of invocation.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return lock.tryEnter();
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held or being
+         * acquired by another thread within the given waiting time and
+         * the current thread has not been {@linkplain Thread#interrupt
+         * interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            long nanos = unit.toNanos(timeout);
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            final long deadline = System.nanoTime() + nanos;
+            while (!l.tryEnter()) {
+                if (!l.mutex.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                    return false;
+                l.mutex.unlock();
+            }
+            return true;
+        }
+
+        /**
+         * Releases the read lock.  The lock must have been acquired by
+         * the current thread.
+         *
+         * @throws IllegalMonitorStateException if no thread counted in the
+         *         same stripe as the current thread holds the read lock
+         */
+        public void unlock() {
+            lock.exit();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + lock.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock {
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock once no other thread holds the write
+         * lock and all readers have left, and returns.  Readers arriving
+         * in the meantime wait.  If the current thread already holds the
+         * write lock then the hold count is incremented by one.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            l.mutex.lock();
+            l.drain(false, false, 0L);
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            l.mutex.lockInterruptibly();
+            if (!l.drain(true, false, 0L)) {
+                l.mutex.unlock();
+                Thread.interrupted();
+                throw new InterruptedException();
+            }
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another thread
+         * and there are no readers at the time of invocation.
+         *
+         * @return {@code true} if the lock was free and was acquired by the
+         *         current thread, or the write lock was already held by the
+         *         current thread; and {@code false} otherwise
+         */
+        public boolean tryLock() {
+            StripedReadWriteLock l = lock;
+            if (!l.mutex.tryLock())
+                return false;
+            if (l.mutex.getHoldCount() > 1)
+                return true;
+            l.writer = Thread.currentThread();
+            if (l.readerCount() == 0L)
+                return true;
+            l.writer = null;
+            l.mutex.unlock();
+            return false;
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread and
+         * all readers leave within the given waiting time, and the current
+         * thread has not been {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the lock was free and was acquired by the
+         *         current thread, or the write lock was already held by the
+         *         current thread; and {@code false} if the waiting time
+         *         elapsed before the lock could be acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            long nanos = unit.toNanos(timeout);
+            final long deadline = System.nanoTime() + nanos;
+            if (!l.mutex.tryLock(nanos, TimeUnit.NANOSECONDS))
+                return false;
+            if (!l.drain(true, true, deadline)) {
+                l.mutex.unlock();
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Attempts to release this lock.  If the current thread is the
+         * holder of this lock then the hold count is decremented.  If the
+         * hold count is now zero then the lock is released.
+         *
+         * @throws IllegalMonitorStateException if the current thread does
+         *         not hold this lock
+         */
+        public void unlock() {
+            lock.release();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because waiting on
+         * a condition would release writers but not readers.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets, includes either the String
+         * {@code "[Unlocked]"} or the String {@code "[Locked by thread"}
+         * followed by the {@linkplain Thread#getName name} of the owning
+         * thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = lock.writer;
+            return super.toString() + ((o == null) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock
+         */
+        public boolean isHeldByCurrentThread() {
+            return lock.isWriteLockedByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return lock.getWriteHoldCount();
+        }
+    }
+}
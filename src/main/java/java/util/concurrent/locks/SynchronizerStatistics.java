@@ -0,0 +1,212 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package java.util.concurrent.locks;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import sun.misc.JavaUtilConcurrentLocksAccess;
+import sun.misc.SharedSecrets;
+
+/**
+ * 20261016
+ * A. AbstractQueuedSynchronizer 的竞争统计: 每个发生过竞争的同步器在第一次竞争时惰性创建一个本类实例, 记录排队获取次数、等待时间、
+ *    park 次数、当前与峰值队列长度以及条件等待次数与时间。 计数器使用 {@link LongAdder} 分段累加, 避免统计本身成为新的竞争点。
+ * B. 只有以 -Djava.util.concurrent.locks.instrumentContention=true 启动时才会记录, 开关是 static final 常量, 关闭时 JIT 会消除所有记录代码。
+ * C. 所有实例登记在一个全局队列中, 通过 {@link SharedSecrets} 提供给 SynchronizerContentionMXBean 与 JFR 事件读取;
+ *    同步器被回收后, 其计数在下一次读取时被并入全局累计值, 然后从队列中移除; 并发的读取者通过CAS认领, 保证每个实例只被并入一次。
+ */
+
+/**
+ * Contention counters of an {@link AbstractQueuedSynchronizer}, created on
+ * the first contended acquire of the synchronizer when instrumentation is
+ * enabled with {@code -Djava.util.concurrent.locks.instrumentContention=true}.
+ *
+ * <p>Only acquires that queue are recorded: an acquire that succeeds on its
+ * first {@code tryAcquire} never reaches the synchronizer's queue, and so
+ * is not seen.  The wait time of an acquire runs from enqueuing to
+ * acquiring (or giving up); that of a condition wait from releasing the
+ * lock to being signalled (or timing out), excluding the reacquire, which
+ * is not recorded as an acquire, although its parks are counted.  Additive counters are {@link LongAdder}s so
+ * that recording does not itself become a point of contention.
+ *
+ * <p>All instances are kept in a registry read through
+ * {@link SharedSecrets} by the platform MXBean and by JFR.  Once its
+ * synchronizer has been garbage collected, an instance's counters are
+ * folded into the retired totals when the registry is next read.
+ */
+final class SynchronizerStatistics
+        implements JavaUtilConcurrentLocksAccess.ContentionStatistics {
+
+    /** Whether contention is recorded; constant, so disabled recording is free. */
+    static final boolean ENABLED = Boolean.parseBoolean(
+        java.security.AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction(
+                "java.util.concurrent.locks.instrumentContention")));
+
+    /** Statistics of all contended synchronizers, live or not yet pruned. */
+    private static final ConcurrentLinkedQueue<SynchronizerStatistics> registry =
+        new ConcurrentLinkedQueue<SynchronizerStatistics>();
+
+    /** Counters of synchronizers that have been garbage collected. */
+    private static final SynchronizerStatistics retired =
+        new SynchronizerStatistics(null);
+
+    final WeakReference<AbstractQueuedSynchronizer> owner;
+    final String className;
+    final int identityHashCode;
+
+    final LongAdder acquires = new LongAdder();
+    final LongAdder acquireWaitNanos = new LongAdder();
+    final LongAdder parks = new LongAdder();
+    final LongAdder awaits = new LongAdder();
+    final LongAdder awaitNanos = new LongAdder();
+    volatile int queueLength;
+    volatile int peakQueueLength;
+
+    /** Set by the reader that folds these counters into the retired totals. */
+    volatile int retiring;
+
+    SynchronizerStatistics(AbstractQueuedSynchronizer sync) {
+        if (sync == null) {
+            this.owner = null;
+            this.className = null;
+            this.identityHashCode = 0;
+        } else {
+            this.owner = new WeakReference<AbstractQueuedSynchronizer>(sync);
+            this.className = sync.getClass().getName();
+            this.identityHashCode = System.identityHashCode(sync);
+        }
+    }
+
+    /**
+     * Registers statistics once installed in their synchronizer.
+     */
+    static void register(SynchronizerStatistics s) {
+        registry.add(s);
+    }
+
+    /**
+     * Records that a thread has been enqueued to acquire.
+     */
+    void enqueued() {
+        int n = QUEUE_LENGTH.incrementAndGet(this), p;
+        while (n > (p = peakQueueLength) &&
+               !PEAK_QUEUE_LENGTH.compareAndSet(this, p, n))
+            ;
+    }
+
+    /**
+     * Records that a thread has left the queue, after waiting for the
+     * given time.
+     */
+    void dequeued(long waitNanos) {
+        QUEUE_LENGTH.decrementAndGet(this);
+        acquires.increment();
+        acquireWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Records a condition wait of the given time.
+     */
+    void awaited(long waitNanos) {
+        awaits.increment();
+        awaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Returns the statistics of reachable synchronizers, first moving
+     * those of collected ones into the retired totals.
+     */
+    static List<JavaUtilConcurrentLocksAccess.ContentionStatistics> live() {
+        List<JavaUtilConcurrentLocksAccess.ContentionStatistics> list =
+            new ArrayList<JavaUtilConcurrentLocksAccess.ContentionStatistics>();
+        for (Iterator<SynchronizerStatistics> it = registry.iterator(); it.hasNext(); ) {
+            SynchronizerStatistics s = it.next();
+            if (s.owner.get() != null)
+                list.add(s);
+            else {
+                it.remove();
+                // concurrent readers may both see the entry collected, and
+                // remove does not tell which of them removed it
+                if (!RETIRING.compareAndSet(s, 0, 1))
+                    continue;
+                retired.acquires.add(s.acquires.sum());
+                retired.acquireWaitNanos.add(s.acquireWaitNanos.sum());
+                retired.parks.add(s.parks.sum());
+                retired.awaits.add(s.awaits.sum());
+                retired.awaitNanos.add(s.awaitNanos.sum());
+                int p;
+                while (s.peakQueueLength > (p = retired.peakQueueLength) &&
+                       !PEAK_QUEUE_LENGTH.compareAndSet(retired, p, s.peakQueueLength))
+                    ;
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns a snapshot of the totals over all synchronizers.
+     */
+    static SynchronizerStatistics total() {
+        List<JavaUtilConcurrentLocksAccess.ContentionStatistics> list = live();
+        SynchronizerStatistics t = new SynchronizerStatistics(null);
+        t.acquires.add(retired.acquires.sum());
+        t.acquireWaitNanos.add(retired.acquireWaitNanos.sum());
+        t.parks.add(retired.parks.sum());
+        t.awaits.add(retired.awaits.sum());
+        t.awaitNanos.add(retired.awaitNanos.sum());
+        int length = 0, peak = retired.peakQueueLength;
+        for (JavaUtilConcurrentLocksAccess.ContentionStatistics c : list) {
+            SynchronizerStatistics s = (SynchronizerStatistics)c;
+            t.acquires.add(s.acquires.sum());
+            t.acquireWaitNanos.add(s.acquireWaitNanos.sum());
+            t.parks.add(s.parks.sum());
+            t.awaits.add(s.awaits.sum());
+            t.awaitNanos.add(s.awaitNanos.sum());
+            length += s.queueLength;
+            peak = Math.max(peak, s.peakQueueLength);
+        }
+        t.queueLength = length;
+        t.peakQueueLength = peak;
+        return t;
+    }
+
+    public String getClassName()            { return className; }
+    public int getIdentityHashCode()        { return identityHashCode; }
+    public long getContendedAcquireCount()  { return acquires.sum(); }
+    public long getAcquireWaitTime()        { return acquireWaitNanos.sum(); }
+    public long getParkCount()              { return parks.sum(); }
+    public int getQueueLength()             { return Math.max(queueLength, 0); }
+    public int getPeakQueueLength()         { return peakQueueLength; }
+    public long getConditionAwaitCount()    { return awaits.sum(); }
+    public long getConditionWaitTime()      { return awaitNanos.sum(); }
+
+    private static final AtomicIntegerFieldUpdater<SynchronizerStatistics> QUEUE_LENGTH =
+        AtomicIntegerFieldUpdater.newUpdater(SynchronizerStatistics.class, "queueLength");
+    private static final AtomicIntegerFieldUpdater<SynchronizerStatistics> PEAK_QUEUE_LENGTH =
+        AtomicIntegerFieldUpdater.newUpdater(SynchronizerStatistics.class, "peakQueueLength");
+    private static final AtomicIntegerFieldUpdater<SynchronizerStatistics> RETIRING =
+        AtomicIntegerFieldUpdater.newUpdater(SynchronizerStatistics.class, "retiring");
+
+    static {
+        SharedSecrets.setJavaUtilConcurrentLocksAccess(
+            new JavaUtilConcurrentLocksAccess() {
+                public boolean isContentionInstrumentationEnabled() {
+                    return ENABLED;
+                }
+                public List<ContentionStatistics> getContentionStatistics() {
+                    return live();
+                }
+                public ContentionStatistics getTotalContentionStatistics() {
+                    return total();
+                }
+            });
+    }
+}
@@ -26,6 +26,9 @@ package java.util.stream;
 
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -148,6 +151,18 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The pool in which to evaluate a parallel pipeline, or null for the
+     * common pool; only valid for the source stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The split policy of a parallel pipeline, or null for the default
+     * decomposition; only valid for the source stage.
+     */
+    private SplitPolicy splitPolicy;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -230,7 +245,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         linkedOrConsumed = true;
 
         return isParallel()
-               ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
+               ? evaluateInPool(() -> terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags())))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
     }
 
@@ -254,13 +269,52 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            return evaluateInPool(() -> opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator));
+        }
+        else if (isParallel()) {
+            return evaluateInPool(() -> evaluate(sourceSpliterator(0), true, generator));
         }
         else {
             return evaluate(sourceSpliterator(0), true, generator);
         }
     }
 
+    /**
+     * Runs the evaluation of a parallel pipeline in the pool given to
+     * {@link #parallel(ForkJoinPool)}, unless there is none or the caller
+     * is already running in it.  Evaluation includes slicing the pipeline
+     * at stateful operations, which evaluates the upstream slices, so that
+     * those also run in the pool.
+     *
+     * @param evaluation the evaluation
+     * @return the result of the evaluation
+     */
+    private <R> R evaluateInPool(Supplier<R> evaluation) {
+        ForkJoinPool p = sourceStage.pool;
+        if (p == null || ForkJoinTask.getPool() == p)
+            return evaluation.get();
+        return p.invoke(new EvaluationTask<>(evaluation));
+    }
+
+    /**
+     * Task evaluating a pipeline in a given pool.  Not a
+     * {@code ForkJoinTask.adapt} of a {@code Callable}, which would wrap
+     * unchecked exceptions thrown by the pipeline.
+     */
+    @SuppressWarnings("serial")
+    private static final class EvaluationTask<R> extends RecursiveTask<R> {
+        private final Supplier<R> evaluation;
+
+        EvaluationTask(Supplier<R> evaluation) {
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        protected R compute() {
+            return evaluation.get();
+        }
+    }
+
     /**
      * Gets the source stage spliterator if this pipeline stage is the source
      * stage.  The pipeline is consumed after this method is called and
@@ -302,6 +356,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S sequential() {
         sourceStage.parallel = false;
+        sourceStage.pool = null;
         return (S) this;
     }
 
@@ -309,6 +364,23 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S parallel() {
         sourceStage.parallel = true;
+        sourceStage.pool = null;
+        return (S) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        sourceStage.parallel = true;
+        sourceStage.pool = pool;
+        return (S) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S splitPolicy(SplitPolicy policy) {
+        sourceStage.splitPolicy = policy;
         return (S) this;
     }
 
@@ -361,7 +433,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             }
         }
         else {
-            return wrap(this, () -> sourceSpliterator(0), isParallel());
+            return wrap(this, () -> sourceSpliterator(0, true), isParallel());
         }
     }
 
@@ -390,8 +462,19 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      * of all computations up to and including the most recent stateful
      * operation.
      */
-    @SuppressWarnings("unchecked")
     private Spliterator<?> sourceSpliterator(int terminalFlags) {
+        return sourceSpliterator(terminalFlags, false);
+    }
+
+    /**
+     * Get the source spliterator for this pipeline stage, as above, except
+     * that if {@code wrapped} is true, the spliterator is to be wrapped for
+     * traversal by the caller, and the stateful operations of a sequential
+     * pipeline that can {@link #opEvaluateSequentialLazy evaluate lazily} do
+     * so, as do those of a parallel one.
+     */
+    @SuppressWarnings("unchecked")
+    private Spliterator<?> sourceSpliterator(int terminalFlags, boolean wrapped) {
         // Get the source spliterator of the pipeline
         Spliterator<?> spliterator = null;
         if (sourceStage.sourceSpliterator != null) {
@@ -406,9 +489,11 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_CONSUMED);
         }
 
-        if (isParallel() && sourceStage.sourceAnyStateful) {
+        boolean parallel = isParallel();
+        if ((parallel || wrapped) && sourceStage.sourceAnyStateful) {
             // Adapt the source spliterator, evaluating each stateful op
-            // in the pipeline up to and including this pipeline stage.
+            // in the pipeline up to and including this pipeline stage,
+            // or, if sequential, each one that can evaluate lazily.
             // The depth and flags of each pipeline stage are adjusted accordingly.
             int depth = 1;
             for (@SuppressWarnings("rawtypes") AbstractPipeline u = sourceStage, p = sourceStage.nextStage, e = this;
@@ -416,7 +501,10 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
                  u = p, p = p.nextStage) {
 
                 int thisOpFlags = p.sourceOrOpFlags;
-                if (p.opIsStateful()) {
+                Spliterator<?> lazy = !p.opIsStateful() ? null
+                                      : parallel ? p.opEvaluateParallelLazy(u, spliterator)
+                                      : p.opEvaluateSequentialLazy(u, spliterator);
+                if (lazy != null) {
                     depth = 0;
 
                     if (StreamOpFlag.SHORT_CIRCUIT.isKnown(thisOpFlags)) {
@@ -428,7 +516,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
                         thisOpFlags = thisOpFlags & ~StreamOpFlag.IS_SHORT_CIRCUIT;
                     }
 
-                    spliterator = p.opEvaluateParallelLazy(u, spliterator);
+                    spliterator = lazy;
 
                     // Inject or clear SIZED on the source pipeline stage
                     // based on the stage's spliterator
@@ -478,7 +566,14 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
 
         if (!StreamOpFlag.SHORT_CIRCUIT.isKnown(getStreamAndOpFlags())) {
             wrappedSink.begin(spliterator.getExactSizeIfKnown());
-            spliterator.forEachRemaining(wrappedSink);
+            // A primitive source may push whole chunks to a primitive
+            // pipeline; a reference pipeline over a primitive spliterator
+            // receives boxed elements as usual
+            if (spliterator instanceof ChunkedSpliterator
+                && sourceStage.getOutputShape() != StreamShape.REFERENCE)
+                ((ChunkedSpliterator) spliterator).forEachRemainingChunk(wrappedSink);
+            else
+                spliterator.forEachRemaining(wrappedSink);
             wrappedSink.end();
         }
         else {
@@ -504,6 +599,11 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return combinedFlags;
     }
 
+    @Override
+    final SplitPolicy getSplitPolicy() {
+        return sourceStage.splitPolicy;
+    }
+
     final boolean isOrdered() {
         return StreamOpFlag.ORDERED.isKnown(combinedFlags);
     }
@@ -703,4 +803,27 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
                                                      Spliterator<P_IN> spliterator) {
         return opEvaluateParallel(helper, spliterator, i -> (E_OUT[]) new Object[i]).spliterator();
     }
+
+    /**
+     * Returns a {@code Spliterator} describing a sequential evaluation of the
+     * operation, using the specified {@code PipelineHelper} which describes the
+     * upstream intermediate operations, or {@code null} if the operation is
+     * to be evaluated by pushing elements through the sink returned by
+     * {@link #opWrapSink}.  Only called on stateful operations, and only when
+     * the spliterator of a sequential pipeline is obtained, so that an
+     * operation that buffers its input, and can release its output lazily,
+     * does not push all of its output into the buffer of the wrapping
+     * spliterator.
+     *
+     * @implSpec The default implementation returns {@code null}.
+     *
+     * @param helper the pipeline helper
+     * @param spliterator the source {@code Spliterator}
+     * @return a {@code Spliterator} describing the result of the evaluation,
+     *         or {@code null}
+     */
+    <P_IN> Spliterator<E_OUT> opEvaluateSequentialLazy(PipelineHelper<E_OUT> helper,
+                                                       Spliterator<P_IN> spliterator) {
+        return null;
+    }
 }
@@ -112,7 +112,14 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 break;
             }
             if (sizeEstimate <= sizeThreshold || (ls = rs.trySplit()) == null) {
-                result = task.doLeaf();
+                SplitPolicy policy = helper.getSplitPolicy();
+                if (policy == null)
+                    result = task.doLeaf();
+                else {
+                    long start = System.nanoTime();
+                    result = task.doLeaf();
+                    policy.leafCompleted(sizeEstimate, System.nanoTime() - start);
+                }
                 break;
             }
             K leftChild, rightChild, taskToFork;
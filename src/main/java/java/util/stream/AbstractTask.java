@@ -27,6 +27,7 @@ package java.util.stream;
 import java.util.Spliterator;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Abstract base class for most fork-join tasks used to implement stream ops.
@@ -185,6 +186,27 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         return est > 0L ? est : 1L;
     }
 
+    /**
+     * Returns a suggested target leaf size for a computation of the given
+     * pipeline, based on the initial size estimate, the pipeline's split
+     * policy, if any, and the parallelism of the pool the caller runs in.
+     *
+     * @return suggested target leaf size
+     */
+    static long suggestTargetSize(PipelineHelper<?> helper, long sizeEstimate) {
+        SplitPolicy policy = helper.getSplitPolicy();
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        if (policy == null) {
+            if (pool == null || pool == ForkJoinPool.commonPool())
+                return suggestTargetSize(sizeEstimate);
+            policy = SplitPolicy.defaultPolicy();
+        }
+        long est = policy.targetSize(sizeEstimate, (pool != null)
+                                     ? pool.getParallelism()
+                                     : ForkJoinPool.getCommonPoolParallelism());
+        return est > 0L ? est : 1L;
+    }
+
     /**
      * Returns the targetSize, initializing it via the supplied
      * size estimate if not already initialized.
@@ -192,7 +214,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     protected final long getTargetSize(long sizeEstimate) {
         long s;
         return ((s = targetSize) != 0 ? s :
-                (targetSize = suggestTargetSize(sizeEstimate)));
+                (targetSize = suggestTargetSize(helper, sizeEstimate)));
     }
 
     /**
@@ -313,7 +335,14 @@ abstract class AbstractTask<P_IN, P_OUT, R,
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
-        task.setLocalResult(task.doLeaf());
+        SplitPolicy policy = helper.getSplitPolicy();
+        if (policy == null)
+            task.setLocalResult(task.doLeaf());
+        else {
+            long start = System.nanoTime();
+            task.setLocalResult(task.doLeaf());
+            policy.leafCompleted(sizeEstimate, System.nanoTime() - start);
+        }
         task.tryComplete();
     }
 
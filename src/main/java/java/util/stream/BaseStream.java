@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -116,6 +118,56 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose terminal
+     * operation runs in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}.  The leaf tasks of the
+     * computation are sized for the parallelism of the given pool.  Only the
+     * last call of {@code parallel} or {@link #sequential} on a pipeline
+     * takes effect, so a later call of {@link #parallel()} reverts to the
+     * common pool.  Traversal through {@link #iterator} or
+     * {@link #spliterator} is not run in the pool.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation checks that {@code pool} is not
+     * {@code null} and returns {@link #parallel()}, so the terminal
+     * operation runs in the common pool.
+     *
+     * @param pool the pool in which to run the terminal operation
+     * @return a parallel stream
+     * @since 1.8
+     */
+    default S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return parallel();
+    }
+
+    /**
+     * Returns an equivalent stream that splits its source, when executed
+     * in parallel, according to the given policy, or according to the
+     * default policy if {@code policy} is {@code null}.  The policy applies
+     * to the whole pipeline; only the last call on a pipeline takes effect.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation ignores the policy and returns this
+     * stream.
+     *
+     * @param policy the split policy, or {@code null}
+     * @return a stream with the given split policy
+     * @see SplitPolicy
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    default S splitPolicy(SplitPolicy policy) {
+        return (S) this;
+    }
+
     /**
      * Returns an equivalent stream that is
      * <a href="package-summary.html#Ordering">unordered</a>.  May return
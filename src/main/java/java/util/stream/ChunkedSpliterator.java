@@ -0,0 +1,41 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+/**
+ * 20261016
+ * A. 可以把剩余元素按块推给 {@link Sink} 的基本类型 {@code Spliterator}: 通过 {@link Sink#accept(int[], int, int)} 及其 long、double 版本,
+ *    而不是逐个元素。 当管道的源是这种 spliterator 且管道不短路时, {@link AbstractPipeline#copyInto} 用 {@link #forEachRemainingChunk} 遍历它,
+ *    重写了块方法的阶段就可以在一个循环里处理整块。
+ * B. 块要么是数据源自身的底层数组, 要么是最多 {@link Sink#CHUNK_SIZE} 个元素、在块之间重新填充的临时数组; sink 不得修改或保留传给它的数组。
+ */
+/**
+ * A primitive {@code Spliterator} that can push its remaining elements to a
+ * {@link Sink} a chunk at a time, through {@link Sink#accept(int[], int, int)}
+ * and its {@code long} and {@code double} counterparts, rather than one
+ * element at a time.  When the source of a pipeline is such a spliterator,
+ * and the pipeline does not short-circuit, {@link AbstractPipeline#copyInto}
+ * traverses it with {@link #forEachRemainingChunk}, so that the stages which
+ * override the chunk methods of {@code Sink} can process each chunk in a
+ * single loop.
+ *
+ * <p>The chunks are either the backing arrays of the source itself, or a
+ * scratch array of at most {@link Sink#CHUNK_SIZE} elements that is refilled
+ * between chunks; in either case the sink must not modify, or retain a
+ * reference to, the array it is passed.
+ *
+ * @since 1.8
+ */
+interface ChunkedSpliterator {
+
+    /**
+     * Pushes each remaining element to the sink, in encounter order, in one or
+     * more chunks, calling the chunk method of {@code Sink} for the shape of
+     * this spliterator.  After this call the spliterator is fully traversed,
+     * as after {@code forEachRemaining}.
+     *
+     * @param sink the sink to push the elements to
+     */
+    void forEachRemainingChunk(Sink<?> sink);
+}
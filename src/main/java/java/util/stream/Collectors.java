@@ -1537,7 +1537,7 @@ public final class Collectors {
     /**
      * Implementation class used by partitioningBy.
      */
-    private static final class Partition<T>
+    static final class Partition<T>
             extends AbstractMap<Boolean, T>
             implements Map<Boolean, T> {
         final T forTrue;
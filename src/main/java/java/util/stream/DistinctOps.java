@@ -24,13 +24,15 @@
  */
 package java.util.stream;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.IntFunction;
 
 /**
@@ -76,26 +78,7 @@ final class DistinctOps {
                     return reduce(helper, spliterator);
                 }
                 else {
-                    // Holder of null state since ConcurrentHashMap does not support null values
-                    AtomicBoolean seenNull = new AtomicBoolean(false);
-                    ConcurrentHashMap<T, Boolean> map = new ConcurrentHashMap<>();
-                    TerminalOp<T, Void> forEachOp = ForEachOps.makeRef(t -> {
-                        if (t == null)
-                            seenNull.set(true);
-                        else
-                            map.putIfAbsent(t, Boolean.TRUE);
-                    }, false);
-                    forEachOp.evaluateParallel(helper, spliterator);
-
-                    // If null has been seen then copy the key set into a HashSet that supports null values
-                    // and add null
-                    Set<T> keys = map.keySet();
-                    if (seenNull.get()) {
-                        // TODO Implement a more efficient set-union view, rather than copying
-                        keys = new HashSet<>(keys);
-                        keys.add(null);
-                    }
-                    return Nodes.node(keys);
+                    return partitionedDistinct(helper, spliterator, generator);
                 }
             }
 
@@ -180,4 +163,225 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * Appends an approximate "distinct" operation to the provided stream, and
+     * returns the new stream.  The elements seen are recorded in a
+     * {@link BloomFilter}, so an element is dropped if it equals an element
+     * already seen, or, with about the given probability, if it is new but
+     * the filter mistakes it for one already seen.  The filter is shared by
+     * all the threads of a parallel evaluation, and is never resized.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param expectedDistinct the expected number of distinct elements
+     * @param falsePositiveRate the intended probability of dropping a new element
+     * @return the new stream
+     */
+    static <T> ReferencePipeline<T, T> makeApproximateRef(AbstractPipeline<?, T, ?> upstream,
+                                                          long expectedDistinct,
+                                                          double falsePositiveRate) {
+        if (expectedDistinct <= 0)
+            throw new IllegalArgumentException(Long.toString(expectedDistinct));
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0))
+            throw new IllegalArgumentException(Double.toString(falsePositiveRate));
+        return new ReferencePipeline.StatelessOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                       StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            // The filter of the single evaluation of this pipeline, created
+            // by the first sink that needs it
+            BloomFilter filter;
+
+            private synchronized BloomFilter filter() {
+                if (filter == null)
+                    filter = new BloomFilter(expectedDistinct, falsePositiveRate);
+                return filter;
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags))
+                    return sink;
+                BloomFilter seen = filter();
+                return new Sink.ChainedReference<T, T>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        if (seen.add(t))
+                            downstream.accept(t);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Number of hash partitions of a parallel unordered distinct.
+     */
+    private static final int PARTITIONS
+            = Math.min(64, Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism()) << 2));
+
+    /**
+     * Evaluates an unordered distinct in parallel.  Each leaf task adds its
+     * elements to sets of its own, one per hash partition, so that no set is
+     * shared while elements are added; the sets of each partition are then
+     * merged, partitions in parallel, and their elements copied to an array.
+     * This avoids the contention, and the resizing, of a single concurrent
+     * set shared by all tasks.
+     */
+    private static <T, P_IN> Node<T> partitionedDistinct(PipelineHelper<T> helper,
+                                                         Spliterator<P_IN> spliterator,
+                                                         IntFunction<T[]> generator) {
+        TerminalOp<T, HashPartitions<T>> reduceOp
+                = ReduceOps.<T, HashPartitions<T>>makeRef(HashPartitions::new, HashPartitions::add,
+                                                          HashPartitions::addAll);
+        return reduceOp.evaluateParallel(helper, spliterator).toNode(generator);
+    }
+
+    /**
+     * The elements seen by one or more leaf tasks of a parallel unordered
+     * distinct, as sets partitioned by hash.
+     */
+    private static final class HashPartitions<T> {
+        // Partitions are chosen by the high bits of the scrambled hash,
+        // which are independent of the low bits that HashSet buckets by
+        private static final int SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(PARTITIONS);
+
+        // The partition sets of each leaf task combined into this one;
+        // the first are those of the leaf task that created this one
+        private final List<HashSet<T>[]> leaves = new ArrayList<>(1);
+        private final HashSet<T>[] sets;
+        private boolean seenNull;
+
+        @SuppressWarnings("unchecked")
+        HashPartitions() {
+            sets = (HashSet<T>[]) new HashSet<?>[PARTITIONS];
+            leaves.add(sets);
+        }
+
+        void add(T t) {
+            if (t == null) {
+                seenNull = true;
+            }
+            else {
+                int p = (SHIFT == Integer.SIZE) ? 0 : (t.hashCode() * 0x9E3779B9) >>> SHIFT;
+                HashSet<T> set = sets[p];
+                if (set == null)
+                    set = sets[p] = new HashSet<>();
+                set.add(t);
+            }
+        }
+
+        void addAll(HashPartitions<T> other) {
+            leaves.addAll(other.leaves);
+            seenNull |= other.seenNull;
+        }
+
+        Node<T> toNode(IntFunction<T[]> generator) {
+            // Merge the sets of each partition into the largest of them
+            @SuppressWarnings("unchecked")
+            HashSet<T>[] merged = (HashSet<T>[]) new HashSet<?>[PARTITIONS];
+            IntStream.range(0, PARTITIONS).parallel().forEach(p -> {
+                HashSet<T> largest = null;
+                for (HashSet<T>[] leaf : leaves) {
+                    HashSet<T> set = leaf[p];
+                    if (set != null && (largest == null || set.size() > largest.size()))
+                        largest = set;
+                }
+                if (largest != null) {
+                    for (HashSet<T>[] leaf : leaves) {
+                        HashSet<T> set = leaf[p];
+                        if (set != null && set != largest)
+                            largest.addAll(set);
+                    }
+                }
+                merged[p] = largest;
+            });
+
+            int[] offsets = new int[PARTITIONS + 1];
+            long size = seenNull ? 1 : 0;
+            for (int p = 0; p < PARTITIONS; p++) {
+                offsets[p] = (int) size;
+                size += (merged[p] != null) ? merged[p].size() : 0;
+                if (size >= Nodes.MAX_ARRAY_SIZE)
+                    throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            }
+            T[] array = generator.apply((int) size);
+            // If null was seen, slot 0 is left holding it
+            IntStream.range(0, PARTITIONS).parallel().forEach(p -> {
+                if (merged[p] != null) {
+                    int i = offsets[p];
+                    for (T t : merged[p])
+                        array[i++] = t;
+                }
+            });
+            return Nodes.node(array);
+        }
+    }
+
+    /**
+     * A fixed-size, thread-safe Bloom filter recording the elements of a
+     * stream by {@link Object#hashCode()}.  The bits of an element all lie in
+     * one word of the filter, so an element is tested and recorded by a single
+     * compare-and-set, and two threads adding equal elements at once cannot
+     * both see them as new.  Confining the bits to a word raises the false
+     * positive rate for a given size, which the sizing allows for; below a
+     * rate of about 0.001, the rate achieved exceeds the one intended.
+     * Unequal elements with equal hash codes are indistinguishable to the
+     * filter, so however large it is, the rate is at least about
+     * {@code n / 2^32} once n distinct elements have been recorded.
+     */
+    static final class BloomFilter {
+        private static final int MAX_HASHES = 10;
+
+        private final AtomicLongArray words;
+        private final int hashes;
+
+        BloomFilter(long expectedElements, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            double hashesOptimal = -Math.log(falsePositiveRate) / ln2;
+            // The optimal number of bits for an unblocked filter, plus 8% for
+            // each hash, which measurement shows brings the false positive
+            // rate of a word-blocked filter back to the intended one, for
+            // rates down to about 0.001
+            double bits = (1.0 + 0.08 * hashesOptimal)
+                          * expectedElements * hashesOptimal / ln2;
+            words = new AtomicLongArray((int) Math.max(1, Math.min(Math.ceil(bits / Long.SIZE),
+                                                                    Nodes.MAX_ARRAY_SIZE)));
+            hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(hashesOptimal)));
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+
+        /**
+         * Records an element.
+         *
+         * @param t the element, which may be null
+         * @return true if the element was not, as far as the filter can tell,
+         *         recorded before
+         */
+        boolean add(Object t) {
+            long h = mix(Objects.hashCode(t) + 0x9E3779B97F4A7C15L);
+            int index = (int) ((h >>> 1) % words.length());
+            long bitsHash = mix(h);
+            long mask = 0;
+            // Six bits of the second hash select each bit of the word
+            for (int i = 0; i < hashes; i++)
+                mask |= 1L << (bitsHash >>> (6 * i));
+            for (long w; ((w = words.get(index)) & mask) != mask; ) {
+                if (words.compareAndSet(index, w, w | mask))
+                    return true;
+            }
+            return false;
+        }
+    }
 }
@@ -192,10 +192,24 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsDouble(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -226,10 +240,24 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedDouble<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int fromIndex, int toIndex) {
+                        int[] out = buffer = Sink.intBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsInt(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -243,10 +271,24 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedDouble<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int fromIndex, int toIndex) {
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsLong(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -297,6 +339,8 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -307,6 +351,24 @@ abstract class DoublePipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        int n = 0;
+                        for (int i = fromIndex; i < toIndex; i++) {
+                            double t = chunk[i];
+                            if (predicate.test(t)) {
+                                out[n++] = t;
+                                if (n == out.length) {
+                                    downstream.accept(out, 0, n);
+                                    n = 0;
+                                }
+                            }
+                        }
+                        if (n > 0)
+                            downstream.accept(out, 0, n);
+                    }
                 };
             }
         };
@@ -356,6 +418,26 @@ abstract class DoublePipeline<E_IN>
         return SortedOps.makeDouble(this);
     }
 
+    @Override
+    public final Stream<double[]> chunked(int size) {
+        return WindowOps.makeChunkedDouble(this, size);
+    }
+
+    @Override
+    public final Stream<double[]> windowed(int size) {
+        return WindowOps.makeWindowedDouble(this, size);
+    }
+
+    @Override
+    public final Stream<double[]> groupAdjacent(DoubleFunction<?> classifier) {
+        return WindowOps.makeGroupAdjacentDouble(this, classifier);
+    }
+
+    @Override
+    public final DoubleStream scan(DoubleBinaryOperator operator) {
+        return ScanOps.makeDouble(this, operator);
+    }
+
     @Override
     public final DoubleStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -476,6 +558,17 @@ abstract class DoublePipeline<E_IN>
         return evaluate(ReduceOps.makeDouble(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(PrimitiveCollector.OfDouble<A, R> collector) {
+        A container = evaluate(ReduceOps.makeDouble(collector.supplier(),
+                                                   collector.accumulator(),
+                                                   collector.combiner()));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(DoublePredicate predicate) {
         return evaluate(MatchOps.makeDouble(predicate, MatchOps.MatchKind.ANY));
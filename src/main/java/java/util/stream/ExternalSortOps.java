@@ -0,0 +1,861 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 20261016
+ * A. 外部排序/去重的工厂方法, 状态可以超过堆的大小: 在内存中对有界的段(run)排序, 满的段溢写(spill)到临时文件, 最后惰性地归并各段。
+ * B. 每个缓冲的元素都配上它在流的遭遇顺序中的位置。 段先按比较器、再按位置排序, 因此归并是稳定的; 位置随元素一起溢写,
+ *    因此 {@code distinct} 可以恢复所保留元素的遭遇顺序。
+ * C. 溢写文件创建在系统属性 {@code java.util.stream.spillDirectory} 指定的目录中, 未设置时使用默认临时文件目录。
+ */
+/**
+ * Factory methods for transforming streams into sorted or duplicate-free
+ * streams whose state may exceed the heap, by sorting bounded runs of
+ * elements in memory, spilling full runs to temporary files, and lazily
+ * merging the runs.
+ *
+ * <p>Every buffered element is paired with its position in the encounter
+ * order of the stream.  Runs are ordered by the comparator and then by
+ * position, so the merge is stable, and positions survive spilling, so
+ * that {@code distinct} can restore the encounter order of the elements it
+ * keeps.  Spill files are created in the directory named by the system
+ * property {@code java.util.stream.spillDirectory}, or in the default
+ * temporary-file directory if that is not set.
+ *
+ * @since 1.8
+ */
+final class ExternalSortOps {
+
+    private ExternalSortOps() { }
+
+    /**
+     * Maximum number of runs merged at once.  If there are more, groups of
+     * this many runs are first merged into longer runs, bounding the
+     * number of files open at a time.
+     */
+    static final int MAX_FAN_IN = 64;
+
+    /**
+     * Number of elements after which a spill file's object stream is reset,
+     * so that neither end retains the elements already transferred.
+     */
+    private static final int RESET_INTERVAL = 1024;
+
+    /** Size of the I/O buffer of each open spill file. */
+    private static final int IO_BUFFER_SIZE = 1 << 13;
+
+    /**
+     * Appends an external "sorted" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param comparator the comparator to order elements by
+     * @param maxBuffered the maximum number of elements buffered in memory
+     * @param serializer the serializer of spilled elements
+     */
+    static <T> Stream<T> makeSortedRef(AbstractPipeline<?, T, ?> upstream,
+                                       Comparator<? super T> comparator,
+                                       int maxBuffered,
+                                       SpillSerializer<T> serializer) {
+        return new OfRef<>(upstream, comparator, maxBuffered, serializer, false);
+    }
+
+    /**
+     * Appends an external "distinct" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param comparator the comparator deciding which elements are equal
+     * @param maxBuffered the maximum number of elements buffered in memory
+     * @param serializer the serializer of spilled elements
+     */
+    static <T> Stream<T> makeDistinctRef(AbstractPipeline<?, T, ?> upstream,
+                                         Comparator<? super T> comparator,
+                                         int maxBuffered,
+                                         SpillSerializer<T> serializer) {
+        return new OfRef<>(upstream, comparator, maxBuffered, serializer, true);
+    }
+
+    /**
+     * Returns the directory to create spill files in, or {@code null} for
+     * the default temporary-file directory.
+     */
+    private static Path spillDirectory() {
+        String dir = AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction("java.util.stream.spillDirectory"));
+        return (dir == null) ? null : Paths.get(dir);
+    }
+
+    /**
+     * Specialized subtype for externally sorting, or removing duplicates
+     * from, reference streams.
+     */
+    private static final class OfRef<T> extends ReferencePipeline.StatefulOp<T, T> {
+        private final Comparator<? super T> comparator;
+        private final int maxBuffered;
+        private final SpillSerializer<T> serializer;
+        private final boolean distinct;
+
+        OfRef(AbstractPipeline<?, T, ?> upstream,
+              Comparator<? super T> comparator,
+              int maxBuffered,
+              SpillSerializer<T> serializer,
+              boolean distinct) {
+            super(upstream, StreamShape.REFERENCE,
+                  distinct ? StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED
+                           : StreamOpFlag.IS_ORDERED | StreamOpFlag.NOT_SORTED);
+            if (maxBuffered <= 0)
+                throw new IllegalArgumentException(Integer.toString(maxBuffered));
+            this.comparator = Objects.requireNonNull(comparator);
+            this.maxBuffered = maxBuffered;
+            this.serializer = Objects.requireNonNull(serializer);
+            this.distinct = distinct;
+        }
+
+        RunBuffer<T> newBuffer() {
+            return new RunBuffer<>(comparator, maxBuffered, serializer);
+        }
+
+        /**
+         * Returns a cursor over the result of this operation on the
+         * elements accepted by the given buffer, taking ownership of the
+         * buffer's runs.
+         */
+        Cursor<T> result(RunBuffer<T> buffer, boolean ordered) {
+            Cursor<T> sorted = buffer.cursor();
+            if (!distinct)
+                return sorted;
+            Cursor<T> unique = new DistinctCursor<>(sorted, comparator);
+            if (!ordered)
+                return unique;
+            // Re-sort the kept elements by position to restore encounter order
+            RunBuffer<T> byPosition = new RunBuffer<>((a, b) -> 0, maxBuffered, serializer);
+            try {
+                while (unique.advance())
+                    byPosition.add(unique.position, unique.element);
+            }
+            catch (RuntimeException | Error e) {
+                byPosition.close();
+                throw e;
+            }
+            finally {
+                unique.close();
+            }
+            return byPosition.cursor();
+        }
+
+        @Override
+        public Sink<T> opWrapSink(int flags, Sink<T> sink) {
+            Objects.requireNonNull(sink);
+
+            if (distinct && StreamOpFlag.DISTINCT.isKnown(flags))
+                return sink;
+            else
+                return new SpillingSink<>(sink, this, StreamOpFlag.ORDERED.isKnown(flags));
+        }
+
+        @Override
+        public <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper,
+                                                            Spliterator<P_IN> spliterator) {
+            if (distinct && StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags()))
+                return helper.wrapSpliterator(spliterator);
+
+            RunBuffer<T> buffer = ReduceOps.<T, RunBuffer<T>>makeRef(this::newBuffer,
+                                                                     RunBuffer::accept,
+                                                                     RunBuffer::combine)
+                    .evaluateParallel(helper, spliterator);
+            return lazyResult(helper, buffer);
+        }
+
+        @Override
+        <P_IN> Spliterator<T> opEvaluateSequentialLazy(PipelineHelper<T> helper,
+                                                       Spliterator<P_IN> spliterator) {
+            if (distinct && StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags()))
+                return null;
+
+            RunBuffer<T> buffer = ReduceOps.<T, RunBuffer<T>>makeRef(this::newBuffer,
+                                                                     RunBuffer::accept,
+                                                                     RunBuffer::combine)
+                    .evaluateSequential(helper, spliterator);
+            return lazyResult(helper, buffer);
+        }
+
+        /**
+         * Returns a spliterator that merges the runs of the given buffer as
+         * it is traversed.
+         */
+        private Spliterator<T> lazyResult(PipelineHelper<T> helper, RunBuffer<T> buffer) {
+            boolean ordered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+            long count = buffer.count;
+            Cursor<T> cursor;
+            try {
+                cursor = result(buffer, ordered);
+            }
+            catch (RuntimeException | Error e) {
+                buffer.close();
+                throw e;
+            }
+            // Release the spill files if the stream is closed before the
+            // spliterator is exhausted
+            onClose(cursor::close);
+            return distinct
+                   ? new CursorSpliterator<>(cursor, count, ordered ? Spliterator.ORDERED : 0)
+                   : new CursorSpliterator<>(cursor, count,
+                                             Spliterator.ORDERED | Spliterator.SIZED);
+        }
+
+        @Override
+        public <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<T[]> generator) {
+            Spliterator<T> s = opEvaluateParallelLazy(helper, spliterator);
+            Node.Builder<T> builder = Nodes.builder(s.getExactSizeIfKnown(), generator);
+            builder.begin(s.getExactSizeIfKnown());
+            s.forEachRemaining(builder);
+            builder.end();
+            return builder.build();
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing the operation on sequential streams,
+     * other than those whose spliterator or iterator is obtained.
+     * Like the sorting sinks of {@link SortedOps}, it records whether
+     * cancellation is requested, and if so, stops pushing, and merging,
+     * elements as soon as the downstream sink is satisfied.
+     */
+    private static final class SpillingSink<T> extends Sink.ChainedReference<T, T> {
+        private final OfRef<T> op;
+        private final boolean ordered;
+        private RunBuffer<T> buffer;
+        private boolean cancellationWasRequested;
+
+        SpillingSink(Sink<? super T> downstream, OfRef<T> op, boolean ordered) {
+            super(downstream);
+            this.op = op;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public void begin(long size) {
+            RunBuffer<T> b = buffer = op.newBuffer();
+            // Release the spill files if evaluation fails before end()
+            op.onClose(b::close);
+        }
+
+        @Override
+        public void end() {
+            RunBuffer<T> b = buffer;
+            buffer = null;
+            Cursor<T> cursor = null;
+            try {
+                cursor = op.result(b, ordered);
+                downstream.begin(op.distinct ? -1 : b.count);
+                if (!cancellationWasRequested) {
+                    while (cursor.advance())
+                        downstream.accept(cursor.element);
+                }
+                else {
+                    while (!downstream.cancellationRequested() && cursor.advance())
+                        downstream.accept(cursor.element);
+                }
+                downstream.end();
+            }
+            finally {
+                if (cursor != null)
+                    cursor.close();
+                b.close();
+            }
+        }
+
+        @Override
+        public void accept(T t) {
+            buffer.accept(t);
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            cancellationWasRequested = true;
+            return false;
+        }
+    }
+
+    /**
+     * A mutable container accumulating elements into sorted runs.  Elements
+     * are buffered, together with their positions, until the buffer holds
+     * {@code capacity} elements, and then sorted and spilled as a run.
+     * When accumulation ends, the partially filled buffer is kept in
+     * memory as a final run, unless that would hold more than
+     * {@code capacity} elements in memory in all.
+     *
+     * <p>Containers accumulated over adjacent portions of a parallel
+     * stream are combined by appending the runs of the right container,
+     * shifting their positions by the count of the left one.
+     */
+    static final class RunBuffer<T> {
+        private final Comparator<? super T> comparator;
+        private final Comparator<Cursor<T>> cursorOrder;
+        private final int capacity;
+        private final SpillSerializer<T> serializer;
+
+        /** The number of elements accepted, the next position */
+        long count;
+
+        private Object[] elements;
+        private long[] positions;
+        private int size;
+
+        /** The runs, in no particular order */
+        private ArrayList<Run<T>> runs = new ArrayList<>();
+
+        /** The number of elements held by in-memory runs */
+        private long inMemory;
+
+        RunBuffer(Comparator<? super T> comparator, int capacity, SpillSerializer<T> serializer) {
+            this.comparator = comparator;
+            this.cursorOrder = (a, b) -> {
+                int c = comparator.compare(a.element, b.element);
+                return (c != 0) ? c : Long.compare(a.position, b.position);
+            };
+            this.capacity = capacity;
+            this.serializer = serializer;
+        }
+
+        void accept(T t) {
+            add(count++, t);
+        }
+
+        void add(long position, T t) {
+            if (size == capacity)
+                spillBuffer();
+            if (elements == null || size == elements.length) {
+                int n = (elements == null) ? Math.min(capacity, 16)
+                                           : (int) Math.min(capacity, 2L * size);
+                elements = (elements == null) ? new Object[n] : Arrays.copyOf(elements, n);
+                positions = (positions == null) ? new long[n] : Arrays.copyOf(positions, n);
+            }
+            elements[size] = t;
+            positions[size++] = position;
+        }
+
+        void combine(RunBuffer<T> right) {
+            finishBuffer();
+            right.finishBuffer();
+            for (Run<T> r : right.runs) {
+                r.shift += count;
+                runs.add(r);
+            }
+            right.runs.clear();
+            count += right.count;
+            inMemory += right.inMemory;
+            if (inMemory > capacity)
+                spillMemoryRuns();
+        }
+
+        /**
+         * Returns a cursor over all elements in order, to which ownership of
+         * the runs passes.  Runs are first merged in groups of at most
+         * {@link #MAX_FAN_IN} until at most that many remain.
+         */
+        Cursor<T> cursor() {
+            finishBuffer();
+            ArrayList<Run<T>> rs = runs;
+            runs = new ArrayList<>();
+            try {
+                while (rs.size() > MAX_FAN_IN) {
+                    ArrayList<Run<T>> merged = new ArrayList<>();
+                    for (int i = 0; i < rs.size(); i += MAX_FAN_IN) {
+                        List<Run<T>> group = rs.subList(i, Math.min(i + MAX_FAN_IN, rs.size()));
+                        if (group.size() == 1) {
+                            merged.add(group.get(0));
+                            continue;
+                        }
+                        // Closing the merge deletes the runs of the group
+                        Cursor<T> c = new MergingCursor<>(group, cursorOrder);
+                        try {
+                            merged.add(writeRun(c));
+                        }
+                        catch (RuntimeException | Error e) {
+                            for (Run<T> r : merged)
+                                r.delete();
+                            throw e;
+                        }
+                        finally {
+                            c.close();
+                        }
+                    }
+                    rs = merged;
+                }
+            }
+            catch (RuntimeException | Error e) {
+                for (Run<T> r : rs)
+                    r.delete();
+                throw e;
+            }
+            return new MergingCursor<>(rs, cursorOrder);
+        }
+
+        /**
+         * Deletes the spill files of the runs still owned by this buffer.
+         */
+        void close() {
+            for (Run<T> r : runs)
+                r.delete();
+            runs.clear();
+            elements = null;
+            positions = null;
+            size = 0;
+        }
+
+        /**
+         * Sorts the buffer by comparator and then by position.
+         */
+        private void sortBuffer() {
+            Object[] ea = elements;
+            long[] pa = positions;
+            mergeSort(ea, pa, Arrays.copyOf(ea, size), Arrays.copyOf(pa, size), 0, size);
+        }
+
+        /**
+         * Sorts the range [lo, hi) of {@code ea} and {@code pa}, whose
+         * contents {@code ta} and {@code tp} duplicate on entry.
+         */
+        @SuppressWarnings("unchecked")
+        private void mergeSort(Object[] ea, long[] pa, Object[] ta, long[] tp, int lo, int hi) {
+            if (hi - lo < 8) {
+                for (int i = lo + 1; i < hi; ++i) {
+                    Object e = ea[i];
+                    long p = pa[i];
+                    int j = i - 1;
+                    for (; j >= lo && compare((T) ea[j], pa[j], (T) e, p) > 0; --j) {
+                        ea[j + 1] = ea[j];
+                        pa[j + 1] = pa[j];
+                    }
+                    ea[j + 1] = e;
+                    pa[j + 1] = p;
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // Sort both halves into the scratch arrays, then merge back
+            mergeSort(ta, tp, ea, pa, lo, mid);
+            mergeSort(ta, tp, ea, pa, mid, hi);
+            for (int i = lo, l = lo, r = mid; i < hi; ++i) {
+                if (r >= hi || (l < mid && compare((T) ta[l], tp[l], (T) ta[r], tp[r]) <= 0)) {
+                    ea[i] = ta[l];
+                    pa[i] = tp[l++];
+                }
+                else {
+                    ea[i] = ta[r];
+                    pa[i] = tp[r++];
+                }
+            }
+        }
+
+        private int compare(T a, long pa, T b, long pb) {
+            int c = comparator.compare(a, b);
+            return (c != 0) ? c : Long.compare(pa, pb);
+        }
+
+        /**
+         * Sorts the full buffer and spills it as a run.
+         */
+        private void spillBuffer() {
+            sortBuffer();
+            runs.add(writeRun(new ArrayCursor<>(elements, positions, size, 0L)));
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * Turns the buffered elements into a final run, in memory if
+         * possible.
+         */
+        private void finishBuffer() {
+            if (size == 0)
+                return;
+            if (inMemory + size > capacity) {
+                spillBuffer();
+                return;
+            }
+            sortBuffer();
+            runs.add(new MemoryRun<>(Arrays.copyOf(elements, size), Arrays.copyOf(positions, size)));
+            inMemory += size;
+            elements = null;
+            positions = null;
+            size = 0;
+        }
+
+        /**
+         * Spills all in-memory runs.
+         */
+        private void spillMemoryRuns() {
+            for (int i = 0; i < runs.size(); ++i) {
+                Run<T> r = runs.get(i);
+                if (r instanceof MemoryRun) {
+                    Cursor<T> c = r.open();
+                    runs.set(i, writeRun(c));
+                    c.close();
+                }
+            }
+            inMemory = 0;
+        }
+
+        /**
+         * Writes the elements of a cursor to a new spill file.
+         */
+        private Run<T> writeRun(Cursor<T> c) {
+            Path file = null;
+            try {
+                Path dir = spillDirectory();
+                file = (dir == null) ? Files.createTempFile("stream-spill", ".tmp")
+                                     : Files.createTempFile(dir, "stream-spill", ".tmp");
+                long n = 0;
+                try (ObjectOutputStream out = new ObjectOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_SIZE))) {
+                    while (c.advance()) {
+                        out.writeLong(c.position);
+                        serializer.write(c.element, out);
+                        if (++n % RESET_INTERVAL == 0)
+                            out.reset();
+                    }
+                }
+                return new FileRun<>(file, n, serializer);
+            }
+            catch (IOException e) {
+                deleteQuietly(file);
+                throw new UncheckedIOException(e);
+            }
+            catch (RuntimeException | Error e) {
+                deleteQuietly(file);
+                throw e;
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException ignore) { }
+        }
+    }
+
+    /**
+     * A sorted run of elements with their positions.  The positions read
+     * from a run are offset by its {@code shift}.
+     */
+    abstract static class Run<T> {
+        long shift;
+
+        /** Returns a cursor over the elements of this run */
+        abstract Cursor<T> open();
+
+        /** Releases the storage of this run */
+        void delete() { }
+    }
+
+    static final class MemoryRun<T> extends Run<T> {
+        private final Object[] elements;
+        private final long[] positions;
+
+        MemoryRun(Object[] elements, long[] positions) {
+            this.elements = elements;
+            this.positions = positions;
+        }
+
+        @Override
+        Cursor<T> open() {
+            return new ArrayCursor<>(elements, positions, elements.length, shift);
+        }
+    }
+
+    static final class FileRun<T> extends Run<T> {
+        private final Path file;
+        private final long size;
+        private final SpillSerializer<T> serializer;
+
+        FileRun(Path file, long size, SpillSerializer<T> serializer) {
+            this.file = file;
+            this.size = size;
+            this.serializer = serializer;
+        }
+
+        @Override
+        Cursor<T> open() {
+            try {
+                return new FileCursor<>(new ObjectInputStream(
+                        new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_SIZE)),
+                                        size, shift, serializer);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void delete() {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * A forward-only traversal of elements and their positions.  After
+     * {@link #advance} returns {@code true}, {@code element} and
+     * {@code position} describe the current element.
+     */
+    abstract static class Cursor<T> {
+        T element;
+        long position;
+
+        /**
+         * Moves to the next element, if any.
+         *
+         * @return {@code false} if there are no more elements
+         * @throws UncheckedIOException if an I/O error occurs
+         */
+        abstract boolean advance();
+
+        /** Releases any resources held; idempotent */
+        void close() { }
+    }
+
+    static final class ArrayCursor<T> extends Cursor<T> {
+        private final Object[] elements;
+        private final long[] positions;
+        private final int size;
+        private final long shift;
+        private int index;
+
+        ArrayCursor(Object[] elements, long[] positions, int size, long shift) {
+            this.elements = elements;
+            this.positions = positions;
+            this.size = size;
+            this.shift = shift;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean advance() {
+            if (index >= size)
+                return false;
+            element = (T) elements[index];
+            position = positions[index++] + shift;
+            return true;
+        }
+    }
+
+    static final class FileCursor<T> extends Cursor<T> {
+        private ObjectInputStream in;
+        private final SpillSerializer<T> serializer;
+        private final long shift;
+        private long remaining;
+
+        FileCursor(ObjectInputStream in, long size, long shift, SpillSerializer<T> serializer) {
+            this.in = in;
+            this.remaining = size;
+            this.shift = shift;
+            this.serializer = serializer;
+        }
+
+        @Override
+        boolean advance() {
+            if (remaining == 0) {
+                close();
+                return false;
+            }
+            try {
+                position = in.readLong() + shift;
+                element = serializer.read(in);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            --remaining;
+            return true;
+        }
+
+        @Override
+        void close() {
+            ObjectInputStream s = in;
+            if (s != null) {
+                in = null;
+                try {
+                    s.close();
+                }
+                catch (IOException ignore) { }
+            }
+        }
+    }
+
+    /**
+     * A k-way merge of runs, which it owns: closing it deletes the runs.
+     */
+    static final class MergingCursor<T> extends Cursor<T> {
+        private final List<Run<T>> runs;
+        private final ArrayList<Cursor<T>> cursors = new ArrayList<>();
+        private final PriorityQueue<Cursor<T>> queue;
+        private Cursor<T> current;
+        private boolean started;
+
+        MergingCursor(List<Run<T>> runs, Comparator<Cursor<T>> order) {
+            this.runs = new ArrayList<>(runs);
+            this.queue = new PriorityQueue<>(Math.max(1, runs.size()), order);
+        }
+
+        @Override
+        boolean advance() {
+            if (!started) {
+                started = true;
+                for (Run<T> r : runs) {
+                    Cursor<T> c = r.open();
+                    cursors.add(c);
+                    if (c.advance())
+                        queue.add(c);
+                }
+            }
+            else if (current != null && current.advance()) {
+                queue.add(current);
+            }
+            if ((current = queue.poll()) == null)
+                return false;
+            element = current.element;
+            position = current.position;
+            return true;
+        }
+
+        @Override
+        void close() {
+            for (Cursor<T> c : cursors)
+                c.close();
+            cursors.clear();
+            queue.clear();
+            current = null;
+            for (Run<T> r : runs)
+                r.delete();
+            runs.clear();
+        }
+    }
+
+    /**
+     * Drops each element comparing equal to its predecessor in a sorted
+     * cursor.  As the merge is stable, the first of each group of equal
+     * elements in encounter order is kept.
+     */
+    static final class DistinctCursor<T> extends Cursor<T> {
+        private final Cursor<T> source;
+        private final Comparator<? super T> comparator;
+        private boolean started;
+
+        DistinctCursor(Cursor<T> source, Comparator<? super T> comparator) {
+            this.source = source;
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean advance() {
+            while (source.advance()) {
+                if (!started || comparator.compare(element, source.element) != 0) {
+                    started = true;
+                    element = source.element;
+                    position = source.position;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void close() {
+            source.close();
+        }
+    }
+
+    /**
+     * A non-splitting spliterator draining a cursor, which it closes when
+     * exhausted.
+     */
+    static final class CursorSpliterator<T> implements Spliterator<T> {
+        private Cursor<T> cursor;
+        private long est;
+        private final int characteristics;
+
+        CursorSpliterator(Cursor<T> cursor, long est, int characteristics) {
+            this.cursor = cursor;
+            this.est = est;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            Cursor<T> c = cursor;
+            if (c == null)
+                return false;
+            if (!c.advance()) {
+                cursor = null;
+                est = 0;
+                c.close();
+                return false;
+            }
+            --est;
+            action.accept(c.element);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            Cursor<T> c = cursor;
+            if (c == null)
+                return;
+            cursor = null;
+            est = 0;
+            try {
+                while (c.advance())
+                    action.accept(c.element);
+            }
+            finally {
+                c.close();
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+}
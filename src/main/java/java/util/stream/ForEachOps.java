@@ -280,7 +280,7 @@ final class ForEachOps {
             Spliterator<S> rightSplit = spliterator, leftSplit;
             long sizeEstimate = rightSplit.estimateSize(), sizeThreshold;
             if ((sizeThreshold = targetSize) == 0L)
-                targetSize = sizeThreshold = AbstractTask.suggestTargetSize(sizeEstimate);
+                targetSize = sizeThreshold = AbstractTask.suggestTargetSize(helper, sizeEstimate);
             boolean isShortCircuit = StreamOpFlag.SHORT_CIRCUIT.isKnown(helper.getStreamAndOpFlags());
             boolean forkRight = false;
             Sink<S> taskSink = sink;
@@ -288,7 +288,14 @@ final class ForEachOps {
             while (!isShortCircuit || !taskSink.cancellationRequested()) {
                 if (sizeEstimate <= sizeThreshold ||
                     (leftSplit = rightSplit.trySplit()) == null) {
-                    task.helper.copyInto(taskSink, rightSplit);
+                    SplitPolicy policy = task.helper.getSplitPolicy();
+                    if (policy == null)
+                        task.helper.copyInto(taskSink, rightSplit);
+                    else {
+                        long start = System.nanoTime();
+                        task.helper.copyInto(taskSink, rightSplit);
+                        policy.leafCompleted(sizeEstimate, System.nanoTime() - start);
+                    }
                     break;
                 }
                 ForEachTask<S, T> leftTask = new ForEachTask<>(task, leftSplit);
@@ -376,7 +383,7 @@ final class ForEachOps {
             super(null);
             this.helper = helper;
             this.spliterator = spliterator;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = AbstractTask.suggestTargetSize(helper, spliterator.estimateSize());
             // Size map to avoid concurrent re-sizes
             this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.LEAF_TARGET << 1));
             this.action = action;
@@ -190,10 +190,24 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((long) t);
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = chunk[i + j];
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -206,10 +220,24 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = chunk[i + j];
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -228,10 +256,24 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        int[] out = buffer = Sink.intBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsInt(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -262,10 +304,24 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsLong(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -279,10 +335,24 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsDouble(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -333,6 +403,8 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -343,6 +415,24 @@ abstract class IntPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        int[] out = buffer = Sink.intBuffer(buffer, toIndex - fromIndex);
+                        int n = 0;
+                        for (int i = fromIndex; i < toIndex; i++) {
+                            int t = chunk[i];
+                            if (predicate.test(t)) {
+                                out[n++] = t;
+                                if (n == out.length) {
+                                    downstream.accept(out, 0, n);
+                                    n = 0;
+                                }
+                            }
+                        }
+                        if (n > 0)
+                            downstream.accept(out, 0, n);
+                    }
                 };
             }
         };
@@ -390,6 +480,26 @@ abstract class IntPipeline<E_IN>
         return SortedOps.makeInt(this);
     }
 
+    @Override
+    public final Stream<int[]> chunked(int size) {
+        return WindowOps.makeChunkedInt(this, size);
+    }
+
+    @Override
+    public final Stream<int[]> windowed(int size) {
+        return WindowOps.makeWindowedInt(this, size);
+    }
+
+    @Override
+    public final Stream<int[]> groupAdjacent(IntFunction<?> classifier) {
+        return WindowOps.makeGroupAdjacentInt(this, classifier);
+    }
+
+    @Override
+    public final IntStream scan(IntBinaryOperator operator) {
+        return ScanOps.makeInt(this, operator);
+    }
+
     @Override
     public final IntStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -472,6 +582,17 @@ abstract class IntPipeline<E_IN>
         return evaluate(ReduceOps.makeInt(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(PrimitiveCollector.OfInt<A, R> collector) {
+        A container = evaluate(ReduceOps.makeInt(collector.supplier(),
+                                                collector.accumulator(),
+                                                collector.combiner()));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(IntPredicate predicate) {
         return evaluate(MatchOps.makeInt(predicate, MatchOps.MatchKind.ANY));
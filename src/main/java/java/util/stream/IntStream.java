@@ -24,7 +24,6 @@
  */
 package java.util.stream;
 
-import java.util.Arrays;
 import java.util.IntSummaryStatistics;
 import java.util.Objects;
 import java.util.OptionalDouble;
@@ -185,6 +184,130 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      */
     IntStream sorted();
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive, non-overlapping arrays of {@code size} elements, in
+     * encounter order.  If the number of elements is not a multiple of
+     * {@code size}, the last array holds the remaining elements.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * A sequential pipeline holds only the array being filled in memory.
+     * A parallel pipeline first collects the elements of this stream, and
+     * then splits the resulting stream on array boundaries.
+     *
+     * @implSpec
+     * The default implementation applies {@link Stream#chunked(int) Stream.chunked} to the
+     * {@link #boxed() boxed} elements of this stream, and copies each
+     * resulting list into an array.
+     *
+     * @param size the number of elements in each array
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<int[]> chunked(int size) {
+        return boxed().chunked(size).map(WindowOps::toIntArray);
+    }
+
+    /**
+     * Returns a stream consisting of a sliding window of {@code size}
+     * consecutive elements of this stream, as an array, for each element
+     * that has at least {@code size - 1} elements following it, in encounter
+     * order.  If this stream has fewer than {@code size} elements, the
+     * resulting stream is empty.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * Each array is a separate copy of its elements.  A sequential pipeline
+     * holds at most {@code 2 * size} elements in memory.  A parallel pipeline
+     * first collects the elements of this stream, and then splits the
+     * resulting stream on window boundaries.
+     *
+     * @implSpec
+     * The default implementation applies {@link Stream#windowed(int) Stream.windowed} to the
+     * {@link #boxed() boxed} elements of this stream, and copies each
+     * resulting list into an array.
+     *
+     * @param size the number of elements in each window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<int[]> windowed(int size) {
+        return boxed().windowed(size).map(WindowOps::toIntArray);
+    }
+
+    /**
+     * Returns a stream consisting of the maximal runs of adjacent elements of
+     * this stream whose keys, as computed by the classifier, are
+     * {@linkplain Objects#equals equal}, each as an array, in encounter
+     * order.  Unlike a grouping collector, elements with equal keys that are
+     * not adjacent are placed in different arrays.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * A sequential pipeline holds only the run being collected in memory.
+     * A parallel pipeline first collects the elements of this stream, and
+     * then splits the resulting stream on run boundaries.
+     *
+     * @implSpec
+     * The default implementation applies {@link Stream#groupAdjacent(Function) Stream.groupAdjacent} to the
+     * {@link #boxed() boxed} elements of this stream, and copies each
+     * resulting list into an array.
+     *
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   function computing the key of an element
+     * @return the new stream
+     * @since 1.8
+     */
+    default Stream<int[]> groupAdjacent(IntFunction<?> classifier) {
+        Objects.requireNonNull(classifier);
+        return boxed().groupAdjacent(classifier::apply).map(WindowOps::toIntArray);
+    }
+
+    /**
+     * Returns a stream consisting of the running reductions of the elements
+     * of this stream: the first element of the new stream is the first
+     * element of this stream, and each later element is the result of
+     * applying the operator to the previous element of the new stream and
+     * the corresponding element of this stream.  For example, the scan of
+     * {@code 1, 2, 3, 4} with addition is {@code 1, 3, 6, 10}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * A sequential pipeline holds only the running reduction, and is as lazy
+     * as a stateless operation.  A parallel pipeline collects the elements of
+     * this stream into an array and scans it in place with
+     * {@link java.util.Arrays#parallelPrefix(int[], IntBinaryOperator) Arrays.parallelPrefix},
+     * so the operator must be associative for the result to be the same as
+     * sequentially.
+     *
+     * @implSpec
+     * The default implementation returns a sequential stream that computes
+     * the running reduction from the {@link #iterator() iterator} of this
+     * stream.
+     *
+     * @param operator an <a href="package-summary.html#Associativity">associative</a>,
+     *                 <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                 <a href="package-summary.html#Statelessness">stateless</a>
+     *                 function for combining two values
+     * @return the new stream
+     * @since 1.8
+     */
+    default IntStream scan(IntBinaryOperator operator) {
+        return ScanOps.makeIteratorInt(this, operator);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, additionally
      * performing the provided action on each element as elements are consumed
@@ -446,6 +569,45 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
                   ObjIntConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using a
+     * {@code PrimitiveCollector}.  This is the unboxed counterpart of
+     * {@link Stream#collect(Collector)}: elements are passed to the
+     * collector's accumulator as {@code int} values, and partial results
+     * are merged with its combiner, which may return a new container.
+     * Collectors for common reductions, such as grouping by a primitive key,
+     * are provided by {@link PrimitiveCollectors}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation accumulates every element of this stream,
+     * in encounter order, into a single container obtained from the
+     * collector's supplier, and then applies the collector's finisher
+     * unless it has the {@link Collector.Characteristics#IDENTITY_FINISH}
+     * characteristic.  The combiner is not used, so the default
+     * implementation does not reduce in parallel.
+     *
+     * @param <R> the type of the result
+     * @param <A> the intermediate accumulation type of the collector
+     * @param collector the {@code PrimitiveCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjIntConsumer, BiConsumer)
+     * @see PrimitiveCollectors
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    default <R, A> R collect(PrimitiveCollector.OfInt<A, R> collector) {
+        A container = collector.supplier().get();
+        ObjIntConsumer<A> accumulator = collector.accumulator();
+        forEachOrdered(t -> accumulator.accept(container, t));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     /**
      * Returns the sum of elements in this stream.  This is a special case
      * of a <a href="package-summary.html#Reduction">reduction</a>
@@ -719,7 +881,7 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      * @return the new stream
      */
     public static IntStream of(int... values) {
-        return Arrays.stream(values);
+        return StreamSupport.intStream(new Streams.IntArraySpliterator(values, 0, values.length), false);
     }
 
     /**
@@ -187,10 +187,24 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = chunk[i + j];
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -209,10 +223,24 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsLong(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -243,10 +271,24 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedLong<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        int[] out = buffer = Sink.intBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsInt(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -260,10 +302,24 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        for (int i = fromIndex; i < toIndex; ) {
+                            int n = Math.min(toIndex - i, out.length);
+                            for (int j = 0; j < n; j++)
+                                out[j] = mapper.applyAsDouble(chunk[i + j]);
+                            downstream.accept(out, 0, n);
+                            i += n;
+                        }
+                    }
                 };
             }
         };
@@ -314,6 +370,8 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -324,6 +382,24 @@ abstract class LongPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        int n = 0;
+                        for (int i = fromIndex; i < toIndex; i++) {
+                            long t = chunk[i];
+                            if (predicate.test(t)) {
+                                out[n++] = t;
+                                if (n == out.length) {
+                                    downstream.accept(out, 0, n);
+                                    n = 0;
+                                }
+                            }
+                        }
+                        if (n > 0)
+                            downstream.accept(out, 0, n);
+                    }
                 };
             }
         };
@@ -371,6 +447,26 @@ abstract class LongPipeline<E_IN>
         return SortedOps.makeLong(this);
     }
 
+    @Override
+    public final Stream<long[]> chunked(int size) {
+        return WindowOps.makeChunkedLong(this, size);
+    }
+
+    @Override
+    public final Stream<long[]> windowed(int size) {
+        return WindowOps.makeWindowedLong(this, size);
+    }
+
+    @Override
+    public final Stream<long[]> groupAdjacent(LongFunction<?> classifier) {
+        return WindowOps.makeGroupAdjacentLong(this, classifier);
+    }
+
+    @Override
+    public final LongStream scan(LongBinaryOperator operator) {
+        return ScanOps.makeLong(this, operator);
+    }
+
     @Override
     public final LongStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -454,6 +550,17 @@ abstract class LongPipeline<E_IN>
         return evaluate(ReduceOps.makeLong(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(PrimitiveCollector.OfLong<A, R> collector) {
+        A container = evaluate(ReduceOps.makeLong(collector.supplier(),
+                                                 collector.accumulator(),
+                                                 collector.combiner()));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(LongPredicate predicate) {
         return evaluate(MatchOps.makeLong(predicate, MatchOps.MatchKind.ANY));
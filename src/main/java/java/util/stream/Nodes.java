@@ -1329,7 +1329,7 @@ final class Nodes {
 
         @Override
         public Spliterator.OfInt spliterator() {
-            return Arrays.spliterator(array, 0, curSize);
+            return new Streams.IntArraySpliterator(array, 0, curSize);
         }
 
         @Override
@@ -1383,7 +1383,7 @@ final class Nodes {
 
         @Override
         public Spliterator.OfLong spliterator() {
-            return Arrays.spliterator(array, 0, curSize);
+            return new Streams.LongArraySpliterator(array, 0, curSize);
         }
 
         @Override
@@ -1437,7 +1437,7 @@ final class Nodes {
 
         @Override
         public Spliterator.OfDouble spliterator() {
-            return Arrays.spliterator(array, 0, curSize);
+            return new Streams.DoubleArraySpliterator(array, 0, curSize);
         }
 
         @Override
@@ -1837,7 +1837,7 @@ final class Nodes {
             assert spliterator.hasCharacteristics(Spliterator.SUBSIZED);
             this.spliterator = spliterator;
             this.helper = helper;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = AbstractTask.suggestTargetSize(helper, spliterator.estimateSize());
             this.offset = 0;
             this.length = arrayLength;
         }
@@ -200,4 +200,12 @@ abstract class PipelineHelper<P_OUT> {
     abstract<P_IN> Node<P_OUT> evaluate(Spliterator<P_IN> spliterator,
                                         boolean flatten,
                                         IntFunction<P_OUT[]> generator);
+
+    /**
+     * Returns the split policy of the pipeline, or {@code null} if the
+     * default decomposition is to be used.
+     *
+     * @return the split policy, or {@code null}
+     */
+    abstract SplitPolicy getSplitPolicy();
 }
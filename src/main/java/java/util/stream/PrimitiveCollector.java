@@ -0,0 +1,137 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 20261016
+ * A. 基本类型流上的可变归约操作, 把元素累积到可变的结果容器中而不装箱。 是 {@link Collector} 的基本类型版本: 同样由 supplier、
+ *    accumulator、combiner、finisher 四个函数描述, 只是 accumulator 接收基本类型元素, 由 {@link OfInt}、{@link OfLong}、{@link OfDouble} 特化给出。
+ * B. 传给 {@link IntStream#collect(OfInt)} 等方法, 约束与 {@link Stream#collect(Collector)} 的收集器相同, 保证顺序与并行执行结果等价。
+ *    目前只有 {@link Collector.Characteristics#IDENTITY_FINISH IDENTITY_FINISH} 特性会被使用。
+ * C. 常用的归约(例如按基本类型键分组计数或求和)由 {@link PrimitiveCollectors} 提供。
+ */
+/**
+ * A <a href="package-summary.html#Reduction">mutable reduction operation</a>
+ * over the elements of a primitive stream, accumulating them into a mutable
+ * result container without boxing them.  This is the primitive counterpart
+ * of {@link Collector}: it is specified by the same four functions, a
+ * supplier, an accumulator, a combiner and a finisher, except that the
+ * accumulator, specified by the {@link OfInt}, {@link OfLong} and
+ * {@link OfDouble} specializations, takes a primitive element.
+ *
+ * <p>Primitive collectors are passed to {@link IntStream#collect(OfInt)},
+ * {@link LongStream#collect(OfLong)} and
+ * {@link DoubleStream#collect(OfDouble)}, and obey the same constraints as
+ * collectors passed to {@link Stream#collect(Collector)}, so that sequential
+ * and parallel executions produce equivalent results.  Of the
+ * {@linkplain #characteristics characteristics} of a primitive collector,
+ * only {@link Collector.Characteristics#IDENTITY_FINISH IDENTITY_FINISH} is
+ * currently acted upon.
+ *
+ * <p>Implementations of common reductions, such as grouping by a primitive
+ * key into primitive counts or sums, are provided by
+ * {@link PrimitiveCollectors}.
+ *
+ * @param <A> the mutable accumulation type of the reduction operation
+ *        (often hidden as an implementation detail)
+ * @param <R> the result type of the reduction operation
+ * @see Collector
+ * @see PrimitiveCollectors
+ * @since 1.8
+ */
+public interface PrimitiveCollector<A, R> {
+
+    /**
+     * A function that creates and returns a new mutable result container.
+     *
+     * @return a function which returns a new, mutable result container
+     */
+    Supplier<A> supplier();
+
+    /**
+     * A function that accepts two partial results and merges them.  The
+     * combiner function may fold state from one argument into the other and
+     * return that, or may return a new result container.
+     *
+     * @return a function which combines two partial results into a combined
+     *         result
+     */
+    BinaryOperator<A> combiner();
+
+    /**
+     * Perform the final transformation from the intermediate accumulation
+     * type {@code A} to the final result type {@code R}.
+     *
+     * @return a function which transforms the intermediate result to the
+     *         final result
+     */
+    Function<A, R> finisher();
+
+    /**
+     * Returns a {@code Set} of {@code Collector.Characteristics} indicating
+     * the characteristics of this collector.  This set should be immutable.
+     *
+     * @return an immutable set of collector characteristics
+     */
+    Set<Collector.Characteristics> characteristics();
+
+    /**
+     * A primitive collector of {@code int} elements.
+     *
+     * @param <A> the mutable accumulation type of the reduction operation
+     * @param <R> the result type of the reduction operation
+     */
+    interface OfInt<A, R> extends PrimitiveCollector<A, R> {
+        /**
+         * A function that folds an {@code int} element into a mutable
+         * result container.
+         *
+         * @return a function which folds an element into a mutable result
+         *         container
+         */
+        ObjIntConsumer<A> accumulator();
+    }
+
+    /**
+     * A primitive collector of {@code long} elements.
+     *
+     * @param <A> the mutable accumulation type of the reduction operation
+     * @param <R> the result type of the reduction operation
+     */
+    interface OfLong<A, R> extends PrimitiveCollector<A, R> {
+        /**
+         * A function that folds a {@code long} element into a mutable
+         * result container.
+         *
+         * @return a function which folds an element into a mutable result
+         *         container
+         */
+        ObjLongConsumer<A> accumulator();
+    }
+
+    /**
+     * A primitive collector of {@code double} elements.
+     *
+     * @param <A> the mutable accumulation type of the reduction operation
+     * @param <R> the result type of the reduction operation
+     */
+    interface OfDouble<A, R> extends PrimitiveCollector<A, R> {
+        /**
+         * A function that folds a {@code double} element into a mutable
+         * result container.
+         *
+         * @return a function which folds an element into a mutable result
+         *         container
+         */
+        ObjDoubleConsumer<A> accumulator();
+    }
+}
@@ -0,0 +1,871 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntIntMap;
+import java.util.IntSummaryStatistics;
+import java.util.LongLongMap;
+import java.util.LongObjectMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.CH_ID;
+import static java.util.stream.Collectors.CH_NOID;
+
+/**
+ * 20261016
+ * A. {@link PrimitiveCollector} 的常用实现: 对 {@link IntStream}、{@link LongStream}、{@link DoubleStream} 按基本类型键分组、分区、汇总等。
+ * B. 与 {@link Collectors} 的对应方法不同, 累积和并行合并时从不装箱元素或键: 键保存在开放寻址的 {@link IntIntMap}、{@link LongLongMap}、
+ *    {@link LongObjectMap} 中, 每个键的计数与和保存在其基本类型的值数组里。 每个不同的键最多分配一个结果容器; 若 finisher 不是恒等的,
+ *    归约结束时每个键再分配一个结果对象。
+ */
+/**
+ * Implementations of {@link PrimitiveCollector} that implement various
+ * useful reduction operations over {@link IntStream}, {@link LongStream}
+ * and {@link DoubleStream}, such as grouping elements by a primitive key,
+ * partitioning them, or summarizing them.
+ *
+ * <p>Unlike the corresponding methods of {@link Collectors}, these
+ * collectors never box stream elements or keys during accumulation or
+ * while merging partial results in parallel: keys are held in the
+ * open-addressed {@link IntIntMap}, {@link LongLongMap} and
+ * {@link LongObjectMap}, and per-key counts and sums are kept in their
+ * primitive value arrays.  At most one result container is allocated per
+ * distinct key, and, for collectors with a non-identity finisher, one
+ * result object per key when the reduction completes.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Count the occurrences of each value
+ *     IntIntMap histogram
+ *         = ints.collect(PrimitiveCollectors.groupingByInt(i -> i));
+ *
+ *     // Sum the amounts of each account, packed as (account << 32 | amount)
+ *     LongLongMap totals
+ *         = packed.collect(PrimitiveCollectors.summingByLong(p -> p >>> 32,
+ *                                                            p -> (int) p));
+ *
+ *     // Compute the average of each bucket of width 10
+ *     LongObjectMap<Double> averages
+ *         = doubles.collect(PrimitiveCollectors.groupingByDouble(
+ *               d -> (long) Math.floor(d / 10),
+ *               PrimitiveCollectors.averagingDouble()));
+ * }</pre>
+ *
+ * @see PrimitiveCollector
+ * @see Collectors
+ * @since 1.8
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() { }
+
+    /**
+     * Returns a merge function for {@code toIntMap} which always throws
+     * {@code IllegalStateException}.
+     */
+    private static IntBinaryOperator throwingIntMerger() {
+        return (u, v) -> { throw new IllegalStateException("Duplicate key"); };
+    }
+
+    /**
+     * Returns a merge function for {@code toLongMap} which always throws
+     * {@code IllegalStateException}.
+     */
+    private static LongBinaryOperator throwingLongMerger() {
+        return (u, v) -> { throw new IllegalStateException("Duplicate key"); };
+    }
+
+    /**
+     * Simple base implementation class for {@code PrimitiveCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the type of the result
+     */
+    static class PrimitiveCollectorImpl<A, R> implements PrimitiveCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        PrimitiveCollectorImpl(Supplier<A> supplier,
+                               BinaryOperator<A> combiner,
+                               Function<A, R> finisher,
+                               Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /** Implementation class for {@code PrimitiveCollector.OfInt}. */
+    static final class OfIntImpl<A, R> extends PrimitiveCollectorImpl<A, R>
+            implements PrimitiveCollector.OfInt<A, R> {
+        private final ObjIntConsumer<A> accumulator;
+
+        OfIntImpl(Supplier<A> supplier,
+                  ObjIntConsumer<A> accumulator,
+                  BinaryOperator<A> combiner,
+                  Function<A, R> finisher,
+                  Set<Collector.Characteristics> characteristics) {
+            super(supplier, combiner, finisher, characteristics);
+            this.accumulator = accumulator;
+        }
+
+        @SuppressWarnings("unchecked")
+        OfIntImpl(Supplier<A> supplier,
+                  ObjIntConsumer<A> accumulator,
+                  BinaryOperator<A> combiner,
+                  Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, a -> (R) a, characteristics);
+        }
+
+        @Override
+        public ObjIntConsumer<A> accumulator() {
+            return accumulator;
+        }
+    }
+
+    /** Implementation class for {@code PrimitiveCollector.OfLong}. */
+    static final class OfLongImpl<A, R> extends PrimitiveCollectorImpl<A, R>
+            implements PrimitiveCollector.OfLong<A, R> {
+        private final ObjLongConsumer<A> accumulator;
+
+        OfLongImpl(Supplier<A> supplier,
+                   ObjLongConsumer<A> accumulator,
+                   BinaryOperator<A> combiner,
+                   Function<A, R> finisher,
+                   Set<Collector.Characteristics> characteristics) {
+            super(supplier, combiner, finisher, characteristics);
+            this.accumulator = accumulator;
+        }
+
+        @SuppressWarnings("unchecked")
+        OfLongImpl(Supplier<A> supplier,
+                   ObjLongConsumer<A> accumulator,
+                   BinaryOperator<A> combiner,
+                   Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, a -> (R) a, characteristics);
+        }
+
+        @Override
+        public ObjLongConsumer<A> accumulator() {
+            return accumulator;
+        }
+    }
+
+    /** Implementation class for {@code PrimitiveCollector.OfDouble}. */
+    static final class OfDoubleImpl<A, R> extends PrimitiveCollectorImpl<A, R>
+            implements PrimitiveCollector.OfDouble<A, R> {
+        private final ObjDoubleConsumer<A> accumulator;
+
+        OfDoubleImpl(Supplier<A> supplier,
+                     ObjDoubleConsumer<A> accumulator,
+                     BinaryOperator<A> combiner,
+                     Function<A, R> finisher,
+                     Set<Collector.Characteristics> characteristics) {
+            super(supplier, combiner, finisher, characteristics);
+            this.accumulator = accumulator;
+        }
+
+        @SuppressWarnings("unchecked")
+        OfDoubleImpl(Supplier<A> supplier,
+                     ObjDoubleConsumer<A> accumulator,
+                     BinaryOperator<A> combiner,
+                     Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, a -> (R) a, characteristics);
+        }
+
+        @Override
+        public ObjDoubleConsumer<A> accumulator() {
+            return accumulator;
+        }
+    }
+
+    // Summarizing collectors, mainly for use as downstream collectors
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that counts the number of
+     * input elements.  If no elements are present, the result is 0.
+     *
+     * @return a collector that counts the input elements
+     */
+    public static PrimitiveCollector.OfInt<?, Long> countingInt() {
+        return new OfIntImpl<>(
+                () -> new long[1],
+                (a, i) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that counts the number of
+     * input elements.  If no elements are present, the result is 0.
+     *
+     * @return a collector that counts the input elements
+     */
+    public static PrimitiveCollector.OfLong<?, Long> countingLong() {
+        return new OfLongImpl<>(
+                () -> new long[1],
+                (a, l) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that counts the number
+     * of input elements.  If no elements are present, the result is 0.
+     *
+     * @return a collector that counts the input elements
+     */
+    public static PrimitiveCollector.OfDouble<?, Long> countingDouble() {
+        return new OfDoubleImpl<>(
+                () -> new long[1],
+                (a, d) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that produces the sum of
+     * the input elements.  If no elements are present, the result is 0.
+     * As with {@link Collectors#summingInt}, the sum overflows silently.
+     *
+     * @return a collector that produces the sum of the input elements
+     */
+    public static PrimitiveCollector.OfInt<?, Integer> summingInt() {
+        return new OfIntImpl<>(
+                () -> new int[1],
+                (a, i) -> { a[0] += i; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that produces the sum of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * @return a collector that produces the sum of the input elements
+     */
+    public static PrimitiveCollector.OfLong<?, Long> summingLong() {
+        return new OfLongImpl<>(
+                () -> new long[1],
+                (a, l) -> { a[0] += l; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that produces the sum of
+     * the input elements.  If no elements are present, the result is 0.
+     * The sum is computed with compensated summation, as by
+     * {@link Collectors#summingDouble}, and is subject to the same
+     * caveats about ordering and non-finite values.
+     *
+     * @return a collector that produces the sum of the input elements
+     */
+    public static PrimitiveCollector.OfDouble<?, Double> summingDouble() {
+        // The array layout is as in Collectors.summingDouble
+        return new OfDoubleImpl<>(
+                () -> new double[3],
+                (a, d) -> { Collectors.sumWithCompensation(a, d); a[2] += d; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]);
+                            a[2] += b[2];
+                            return Collectors.sumWithCompensation(a, b[1]); },
+                a -> Collectors.computeFinalSum(a), CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that produces the
+     * arithmetic mean of the input elements.  If no elements are present,
+     * the result is 0.
+     *
+     * @return a collector that produces the mean of the input elements
+     */
+    public static PrimitiveCollector.OfInt<?, Double> averagingInt() {
+        return new OfIntImpl<>(
+                () -> new long[2],
+                (a, i) -> { a[0] += i; a[1]++; },
+                (a, b) -> { a[0] += b[0]; a[1] += b[1]; return a; },
+                a -> (a[1] == 0) ? 0.0d : (double) a[0] / a[1], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that produces the
+     * arithmetic mean of the input elements.  If no elements are present,
+     * the result is 0.
+     *
+     * @return a collector that produces the mean of the input elements
+     */
+    public static PrimitiveCollector.OfLong<?, Double> averagingLong() {
+        return new OfLongImpl<>(
+                () -> new long[2],
+                (a, l) -> { a[0] += l; a[1]++; },
+                (a, b) -> { a[0] += b[0]; a[1] += b[1]; return a; },
+                a -> (a[1] == 0) ? 0.0d : (double) a[0] / a[1], CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that produces the
+     * arithmetic mean of the input elements.  If no elements are present,
+     * the result is 0.  The mean is computed as by
+     * {@link Collectors#averagingDouble}.
+     *
+     * @return a collector that produces the mean of the input elements
+     */
+    public static PrimitiveCollector.OfDouble<?, Double> averagingDouble() {
+        // The array layout is as in Collectors.averagingDouble
+        return new OfDoubleImpl<>(
+                () -> new double[4],
+                (a, d) -> { Collectors.sumWithCompensation(a, d); a[2]++; a[3] += d; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]);
+                            Collectors.sumWithCompensation(a, b[1]);
+                            a[2] += b[2]; a[3] += b[3]; return a; },
+                a -> (a[2] == 0) ? 0.0d : (Collectors.computeFinalSum(a) / a[2]),
+                CH_NOID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that produces summary
+     * statistics of the input elements.
+     *
+     * @return a collector that produces the summary statistics
+     */
+    public static PrimitiveCollector.OfInt<?, IntSummaryStatistics> summarizingInt() {
+        return new OfIntImpl<IntSummaryStatistics, IntSummaryStatistics>(
+                IntSummaryStatistics::new,
+                IntSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that produces summary
+     * statistics of the input elements.
+     *
+     * @return a collector that produces the summary statistics
+     */
+    public static PrimitiveCollector.OfLong<?, LongSummaryStatistics> summarizingLong() {
+        return new OfLongImpl<LongSummaryStatistics, LongSummaryStatistics>(
+                LongSummaryStatistics::new,
+                LongSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that produces summary
+     * statistics of the input elements.
+     *
+     * @return a collector that produces the summary statistics
+     */
+    public static PrimitiveCollector.OfDouble<?, DoubleSummaryStatistics> summarizingDouble() {
+        return new OfDoubleImpl<DoubleSummaryStatistics, DoubleSummaryStatistics>(
+                DoubleSummaryStatistics::new,
+                DoubleSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, CH_ID);
+    }
+
+    // Grouping collectors
+
+    /**
+     * Merges the smaller of two count or sum maps into the larger.
+     */
+    private static IntIntMap addAll(IntIntMap l, IntIntMap r) {
+        if (l.size() < r.size()) {
+            IntIntMap t = l; l = r; r = t;
+        }
+        r.forEachEntry(l::addAndGet);
+        return l;
+    }
+
+    /**
+     * Merges the smaller of two count or sum maps into the larger.
+     */
+    private static LongLongMap addAll(LongLongMap l, LongLongMap r) {
+        if (l.size() < r.size()) {
+            LongLongMap t = l; l = r; r = t;
+        }
+        r.forEachEntry(l::addAndGet);
+        return l;
+    }
+
+    /**
+     * {@code BinaryOperator<LongObjectMap>} that merges the contents of its
+     * right argument into its left argument, using the provided merge
+     * function to merge the containers of keys present in both.
+     */
+    private static <A> BinaryOperator<LongObjectMap<A>> mapMerger(BinaryOperator<A> mergeFunction) {
+        return (m1, m2) -> {
+            m2.forEachEntry((k, v) -> {
+                A u = m1.get(k);
+                m1.put(k, (u == null) ? v : mergeFunction.apply(u, v));
+            });
+            return m1;
+        };
+    }
+
+    /**
+     * Returns a finisher applying the downstream finisher, if any, to each
+     * container of a grouping map in place.  Replacing the value of an
+     * existing key is not a structural modification of the map.
+     */
+    @SuppressWarnings("unchecked")
+    private static <A, D> Function<LongObjectMap<A>, LongObjectMap<D>>
+    groupingFinisher(Function<A, D> downstreamFinisher) {
+        Function<A, A> finisher = (Function<A, A>) downstreamFinisher;
+        return intermediate -> {
+            intermediate.forEachEntry((k, v) -> intermediate.put(k, finisher.apply(v)));
+            return (LongObjectMap<D>) intermediate;
+        };
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that groups the input
+     * elements by an {@code int} key computed by a classification function
+     * and counts the elements of each group, in an {@link IntIntMap} from
+     * key to count.  This is the unboxed equivalent of
+     * {@code groupingBy(classifier, counting())}; counts are held as
+     * {@code int}.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a collector implementing the group-by-and-count operation
+     */
+    public static PrimitiveCollector.OfInt<?, IntIntMap>
+    groupingByInt(IntUnaryOperator classifier) {
+        return new OfIntImpl<IntIntMap, IntIntMap>(
+                IntIntMap::new,
+                (m, i) -> m.addAndGet(classifier.applyAsInt(i), 1),
+                PrimitiveCollectors::addAll,
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that groups the input
+     * elements by an {@code int} key computed by a classification function
+     * and sums an {@code int} value computed from each element of a group,
+     * in an {@link IntIntMap} from key to sum.  This is the unboxed
+     * equivalent of {@code groupingBy(classifier, summingInt(mapper))};
+     * as there, sums overflow silently.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the value to be summed
+     * @return a collector implementing the group-by-and-sum operation
+     */
+    public static PrimitiveCollector.OfInt<?, IntIntMap>
+    summingByInt(IntUnaryOperator classifier, IntUnaryOperator mapper) {
+        return new OfIntImpl<IntIntMap, IntIntMap>(
+                IntIntMap::new,
+                (m, i) -> m.addAndGet(classifier.applyAsInt(i), mapper.applyAsInt(i)),
+                PrimitiveCollectors::addAll,
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that groups the input
+     * elements by an {@code int} key computed by a classification function
+     * and performs a reduction on the elements of each group using the
+     * specified downstream collector.  Keys are held, widened to
+     * {@code long}, in a {@link LongObjectMap}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded group-by operation
+     */
+    public static <A, D> PrimitiveCollector.OfInt<?, LongObjectMap<D>>
+    groupingByInt(IntUnaryOperator classifier,
+                  PrimitiveCollector.OfInt<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjIntConsumer<LongObjectMap<A>> accumulator = (m, i) -> {
+            int key = classifier.applyAsInt(i);
+            A container = m.get(key);
+            if (container == null)
+                m.put(key, container = downstreamSupplier.get());
+            downstreamAccumulator.accept(container, i);
+        };
+        BinaryOperator<LongObjectMap<A>> merger = mapMerger(downstream.combiner());
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfIntImpl<>(LongObjectMap::new, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfIntImpl<>(LongObjectMap::new, accumulator, merger,
+                                   groupingFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that groups the input
+     * elements by a {@code long} key computed by a classification function
+     * and counts the elements of each group, in a {@link LongLongMap} from
+     * key to count.  This is the unboxed equivalent of
+     * {@code groupingBy(classifier, counting())}.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a collector implementing the group-by-and-count operation
+     */
+    public static PrimitiveCollector.OfLong<?, LongLongMap>
+    groupingByLong(LongUnaryOperator classifier) {
+        return new OfLongImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, l) -> m.addAndGet(classifier.applyAsLong(l), 1L),
+                PrimitiveCollectors::addAll,
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that groups the input
+     * elements by a {@code long} key computed by a classification function
+     * and sums a {@code long} value computed from each element of a group,
+     * in a {@link LongLongMap} from key to sum.  This is the unboxed
+     * equivalent of {@code groupingBy(classifier, summingLong(mapper))}.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the value to be summed
+     * @return a collector implementing the group-by-and-sum operation
+     */
+    public static PrimitiveCollector.OfLong<?, LongLongMap>
+    summingByLong(LongUnaryOperator classifier, LongUnaryOperator mapper) {
+        return new OfLongImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, l) -> m.addAndGet(classifier.applyAsLong(l), mapper.applyAsLong(l)),
+                PrimitiveCollectors::addAll,
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that groups the input
+     * elements by a {@code long} key computed by a classification function
+     * and performs a reduction on the elements of each group using the
+     * specified downstream collector, in a {@link LongObjectMap}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded group-by operation
+     */
+    public static <A, D> PrimitiveCollector.OfLong<?, LongObjectMap<D>>
+    groupingByLong(LongUnaryOperator classifier,
+                   PrimitiveCollector.OfLong<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjLongConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjLongConsumer<LongObjectMap<A>> accumulator = (m, l) -> {
+            long key = classifier.applyAsLong(l);
+            A container = m.get(key);
+            if (container == null)
+                m.put(key, container = downstreamSupplier.get());
+            downstreamAccumulator.accept(container, l);
+        };
+        BinaryOperator<LongObjectMap<A>> merger = mapMerger(downstream.combiner());
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfLongImpl<>(LongObjectMap::new, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfLongImpl<>(LongObjectMap::new, accumulator, merger,
+                                    groupingFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that groups the input
+     * elements by a {@code long} key computed by a classification function,
+     * such as a bucket index, and counts the elements of each group, in a
+     * {@link LongLongMap} from key to count.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a collector implementing the group-by-and-count operation
+     */
+    public static PrimitiveCollector.OfDouble<?, LongLongMap>
+    groupingByDouble(DoubleToLongFunction classifier) {
+        return new OfDoubleImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, d) -> m.addAndGet(classifier.applyAsLong(d), 1L),
+                PrimitiveCollectors::addAll,
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} that groups the input
+     * elements by a {@code long} key computed by a classification function
+     * and performs a reduction on the elements of each group using the
+     * specified downstream collector, in a {@link LongObjectMap}.  For
+     * example, per-group sums and means are computed with
+     * {@link #summingDouble()} and {@link #averagingDouble()}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded group-by operation
+     */
+    public static <A, D> PrimitiveCollector.OfDouble<?, LongObjectMap<D>>
+    groupingByDouble(DoubleToLongFunction classifier,
+                     PrimitiveCollector.OfDouble<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjDoubleConsumer<LongObjectMap<A>> accumulator = (m, d) -> {
+            long key = classifier.applyAsLong(d);
+            A container = m.get(key);
+            if (container == null)
+                m.put(key, container = downstreamSupplier.get());
+            downstreamAccumulator.accept(container, d);
+        };
+        BinaryOperator<LongObjectMap<A>> merger = mapMerger(downstream.combiner());
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfDoubleImpl<>(LongObjectMap::new, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfDoubleImpl<>(LongObjectMap::new, accumulator, merger,
+                                      groupingFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    // Partitioning collectors
+
+    private static <A> Supplier<Collectors.Partition<A>>
+    partitionSupplier(Supplier<A> downstreamSupplier) {
+        return () -> new Collectors.Partition<>(downstreamSupplier.get(),
+                                                downstreamSupplier.get());
+    }
+
+    private static <A> BinaryOperator<Collectors.Partition<A>>
+    partitionMerger(BinaryOperator<A> op) {
+        return (left, right) ->
+                new Collectors.Partition<>(op.apply(left.forTrue, right.forTrue),
+                                           op.apply(left.forFalse, right.forFalse));
+    }
+
+    private static <A, D> Function<Collectors.Partition<A>, Map<Boolean, D>>
+    partitionFinisher(Function<A, D> downstreamFinisher) {
+        return par -> new Collectors.Partition<>(downstreamFinisher.apply(par.forTrue),
+                                                 downstreamFinisher.apply(par.forFalse));
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} which partitions the input
+     * elements according to a predicate, reduces the values in each
+     * partition according to the downstream collector, and organizes them
+     * into a {@code Map<Boolean, D>}, as by
+     * {@link Collectors#partitioningBy(java.util.function.Predicate, Collector)}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded partitioning operation
+     */
+    public static <A, D> PrimitiveCollector.OfInt<?, Map<Boolean, D>>
+    partitioningByInt(IntPredicate predicate,
+                      PrimitiveCollector.OfInt<A, D> downstream) {
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjIntConsumer<Collectors.Partition<A>> accumulator = (result, i) ->
+                downstreamAccumulator.accept(predicate.test(i) ? result.forTrue : result.forFalse, i);
+        Supplier<Collectors.Partition<A>> supplier = partitionSupplier(downstream.supplier());
+        BinaryOperator<Collectors.Partition<A>> merger = partitionMerger(downstream.combiner());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfIntImpl<>(supplier, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfIntImpl<>(supplier, accumulator, merger,
+                                   partitionFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} which partitions the input
+     * elements according to a predicate, reduces the values in each
+     * partition according to the downstream collector, and organizes them
+     * into a {@code Map<Boolean, D>}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded partitioning operation
+     */
+    public static <A, D> PrimitiveCollector.OfLong<?, Map<Boolean, D>>
+    partitioningByLong(LongPredicate predicate,
+                       PrimitiveCollector.OfLong<A, D> downstream) {
+        ObjLongConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjLongConsumer<Collectors.Partition<A>> accumulator = (result, l) ->
+                downstreamAccumulator.accept(predicate.test(l) ? result.forTrue : result.forFalse, l);
+        Supplier<Collectors.Partition<A>> supplier = partitionSupplier(downstream.supplier());
+        BinaryOperator<Collectors.Partition<A>> merger = partitionMerger(downstream.combiner());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfLongImpl<>(supplier, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfLongImpl<>(supplier, accumulator, merger,
+                                    partitionFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfDouble} which partitions the
+     * input elements according to a predicate, reduces the values in each
+     * partition according to the downstream collector, and organizes them
+     * into a {@code Map<Boolean, D>}.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream a collector implementing the downstream reduction
+     * @return a collector implementing the cascaded partitioning operation
+     */
+    public static <A, D> PrimitiveCollector.OfDouble<?, Map<Boolean, D>>
+    partitioningByDouble(DoublePredicate predicate,
+                         PrimitiveCollector.OfDouble<A, D> downstream) {
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjDoubleConsumer<Collectors.Partition<A>> accumulator = (result, d) ->
+                downstreamAccumulator.accept(predicate.test(d) ? result.forTrue : result.forFalse, d);
+        Supplier<Collectors.Partition<A>> supplier = partitionSupplier(downstream.supplier());
+        BinaryOperator<Collectors.Partition<A>> merger = partitionMerger(downstream.combiner());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new OfDoubleImpl<>(supplier, accumulator, merger, CH_ID);
+        }
+        else {
+            return new OfDoubleImpl<>(supplier, accumulator, merger,
+                                      partitionFinisher(downstream.finisher()), CH_NOID);
+        }
+    }
+
+    // Map-building collectors
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that accumulates elements
+     * into an {@link IntIntMap} whose keys and values are the result of
+     * applying the provided mapping functions to the input elements.  If
+     * the mapped keys contain duplicates, an {@code IllegalStateException}
+     * is thrown when the collection operation is performed.
+     *
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a collector which collects elements into an {@code IntIntMap}
+     * @see #toIntMap(IntUnaryOperator, IntUnaryOperator, IntBinaryOperator)
+     */
+    public static PrimitiveCollector.OfInt<?, IntIntMap>
+    toIntMap(IntUnaryOperator keyMapper, IntUnaryOperator valueMapper) {
+        return toIntMap(keyMapper, valueMapper, throwingIntMerger());
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfInt} that accumulates elements
+     * into an {@link IntIntMap} whose keys and values are the result of
+     * applying the provided mapping functions to the input elements.  If
+     * the mapped keys contain duplicates, the value mapping function is
+     * applied to each equal element, and the results are merged using the
+     * provided merging function.
+     *
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @param mergeFunction a merge function, used to resolve collisions
+     *                      between values associated with the same key
+     * @return a collector which collects elements into an {@code IntIntMap}
+     */
+    public static PrimitiveCollector.OfInt<?, IntIntMap>
+    toIntMap(IntUnaryOperator keyMapper, IntUnaryOperator valueMapper,
+             IntBinaryOperator mergeFunction) {
+        return new OfIntImpl<IntIntMap, IntIntMap>(
+                IntIntMap::new,
+                (m, i) -> {
+                    int k = keyMapper.applyAsInt(i), v = valueMapper.applyAsInt(i);
+                    m.put(k, m.containsKey(k) ? mergeFunction.applyAsInt(m.get(k, 0), v) : v);
+                },
+                (m1, m2) -> {
+                    m2.forEachEntry((k, v) ->
+                        m1.put(k, m1.containsKey(k) ? mergeFunction.applyAsInt(m1.get(k, 0), v) : v));
+                    return m1;
+                },
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that accumulates elements
+     * into a {@link LongLongMap} whose keys and values are the result of
+     * applying the provided mapping functions to the input elements.  If
+     * the mapped keys contain duplicates, an {@code IllegalStateException}
+     * is thrown when the collection operation is performed.
+     *
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a collector which collects elements into a {@code LongLongMap}
+     * @see #toLongMap(LongUnaryOperator, LongUnaryOperator, LongBinaryOperator)
+     */
+    public static PrimitiveCollector.OfLong<?, LongLongMap>
+    toLongMap(LongUnaryOperator keyMapper, LongUnaryOperator valueMapper) {
+        return toLongMap(keyMapper, valueMapper, throwingLongMerger());
+    }
+
+    /**
+     * Returns a {@code PrimitiveCollector.OfLong} that accumulates elements
+     * into a {@link LongLongMap} whose keys and values are the result of
+     * applying the provided mapping functions to the input elements.  If
+     * the mapped keys contain duplicates, the value mapping function is
+     * applied to each equal element, and the results are merged using the
+     * provided merging function.
+     *
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @param mergeFunction a merge function, used to resolve collisions
+     *                      between values associated with the same key
+     * @return a collector which collects elements into a {@code LongLongMap}
+     */
+    public static PrimitiveCollector.OfLong<?, LongLongMap>
+    toLongMap(LongUnaryOperator keyMapper, LongUnaryOperator valueMapper,
+              LongBinaryOperator mergeFunction) {
+        return new OfLongImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, l) -> {
+                    long k = keyMapper.applyAsLong(l), v = valueMapper.applyAsLong(l);
+                    m.put(k, m.containsKey(k) ? mergeFunction.applyAsLong(m.get(k, 0L), v) : v);
+                },
+                (m1, m2) -> {
+                    m2.forEachEntry((k, v) ->
+                        m1.put(k, m1.containsKey(k) ? mergeFunction.applyAsLong(m1.get(k, 0L), v) : v));
+                    return m1;
+                },
+                CH_ID);
+    }
+}
@@ -258,6 +258,14 @@ final class ReduceOps {
                 state = operator.applyAsInt(state, t);
             }
 
+            @Override
+            public void accept(int[] chunk, int fromIndex, int toIndex) {
+                int s = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    s = operator.applyAsInt(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Integer get() {
                 return state;
@@ -307,6 +315,23 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(int[] chunk, int fromIndex, int toIndex) {
+                if (fromIndex < toIndex) {
+                    int s;
+                    if (empty) {
+                        empty = false;
+                        s = chunk[fromIndex++];
+                    }
+                    else {
+                        s = state;
+                    }
+                    for (int i = fromIndex; i < toIndex; i++)
+                        s = operator.applyAsInt(s, chunk[i]);
+                    state = s;
+                }
+            }
+
             @Override
             public OptionalInt get() {
                 return empty ? OptionalInt.empty() : OptionalInt.of(state);
@@ -356,6 +381,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(int[] chunk, int fromIndex, int toIndex) {
+                R r = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    accumulator.accept(r, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -394,6 +426,14 @@ final class ReduceOps {
                 state = operator.applyAsLong(state, t);
             }
 
+            @Override
+            public void accept(long[] chunk, int fromIndex, int toIndex) {
+                long s = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    s = operator.applyAsLong(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Long get() {
                 return state;
@@ -443,6 +483,23 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(long[] chunk, int fromIndex, int toIndex) {
+                if (fromIndex < toIndex) {
+                    long s;
+                    if (empty) {
+                        empty = false;
+                        s = chunk[fromIndex++];
+                    }
+                    else {
+                        s = state;
+                    }
+                    for (int i = fromIndex; i < toIndex; i++)
+                        s = operator.applyAsLong(s, chunk[i]);
+                    state = s;
+                }
+            }
+
             @Override
             public OptionalLong get() {
                 return empty ? OptionalLong.empty() : OptionalLong.of(state);
@@ -492,6 +549,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(long[] chunk, int fromIndex, int toIndex) {
+                R r = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    accumulator.accept(r, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -530,6 +594,14 @@ final class ReduceOps {
                 state = operator.applyAsDouble(state, t);
             }
 
+            @Override
+            public void accept(double[] chunk, int fromIndex, int toIndex) {
+                double s = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    s = operator.applyAsDouble(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Double get() {
                 return state;
@@ -579,6 +651,23 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(double[] chunk, int fromIndex, int toIndex) {
+                if (fromIndex < toIndex) {
+                    double s;
+                    if (empty) {
+                        empty = false;
+                        s = chunk[fromIndex++];
+                    }
+                    else {
+                        s = state;
+                    }
+                    for (int i = fromIndex; i < toIndex; i++)
+                        s = operator.applyAsDouble(s, chunk[i]);
+                    state = s;
+                }
+            }
+
             @Override
             public OptionalDouble get() {
                 return empty ? OptionalDouble.empty() : OptionalDouble.of(state);
@@ -628,6 +717,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(double[] chunk, int fromIndex, int toIndex) {
+                R r = state;
+                for (int i = fromIndex; i < toIndex; i++)
+                    accumulator.accept(r, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -384,6 +385,17 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return DistinctOps.makeRef(this);
     }
 
+    @Override
+    public final Stream<P_OUT> distinct(Comparator<? super P_OUT> comparator, int maxBuffered,
+                                        SpillSerializer<P_OUT> serializer) {
+        return ExternalSortOps.makeDistinctRef(this, comparator, maxBuffered, serializer);
+    }
+
+    @Override
+    public final Stream<P_OUT> approximateDistinct(long expectedDistinct, double falsePositiveRate) {
+        return DistinctOps.makeApproximateRef(this, expectedDistinct, falsePositiveRate);
+    }
+
     @Override
     public final Stream<P_OUT> sorted() {
         return SortedOps.makeRef(this);
@@ -394,6 +406,32 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return SortedOps.makeRef(this, comparator);
     }
 
+    @Override
+    public final Stream<P_OUT> sorted(Comparator<? super P_OUT> comparator, int maxBuffered,
+                                      SpillSerializer<P_OUT> serializer) {
+        return ExternalSortOps.makeSortedRef(this, comparator, maxBuffered, serializer);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> chunked(int size) {
+        return WindowOps.makeChunkedRef(this, size);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowed(int size) {
+        return WindowOps.makeWindowedRef(this, size);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> groupAdjacent(Function<? super P_OUT, ?> classifier) {
+        return WindowOps.makeGroupAdjacentRef(this, classifier);
+    }
+
+    @Override
+    public final Stream<P_OUT> scan(BinaryOperator<P_OUT> operator) {
+        return ScanOps.makeRef(this, operator);
+    }
+
     @Override
     public final Stream<P_OUT> limit(long maxSize) {
         if (maxSize < 0)
@@ -0,0 +1,489 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * 20261016
+ * A. 把流转换为其前缀归约(inclusive scan)流的工厂方法: 第 n 个输出元素是前 n 个输入元素的归约。
+ * B. 顺序执行时只保存当前的归约值, 每来一个输入元素就发出一个输出元素。 并行执行时把上游元素收集到数组, 用 {@link Arrays#parallelPrefix}
+ *    原地扫描: 先并行归约数组的各段, 再并行地把每段与它之前各段的归约合并。 因此运算符必须满足结合律, 与 {@link Stream#reduce(BinaryOperator)} 相同。
+ */
+/**
+ * Factory methods for transforming streams into streams of their inclusive
+ * prefix reductions, where the n-th output element is the reduction of the
+ * first n input elements.
+ *
+ * <p>Sequentially, a scan keeps only the running reduction, and emits each
+ * output element as its input element arrives.  In parallel, the upstream
+ * elements are collected into an array that is scanned in place by
+ * {@link Arrays#parallelPrefix}, which reduces the segments of the array in
+ * parallel, and then combines each segment with the reduction of the
+ * segments before it, again in parallel.  This requires the operator to be
+ * associative, as for {@link Stream#reduce(BinaryOperator)}.
+ *
+ * @since 1.8
+ */
+final class ScanOps {
+
+    private ScanOps() { }
+
+    /**
+     * Operation flags of a scan: the output has an element for each input
+     * element, in the same order, but need not be sorted or distinct.
+     */
+    private static final int OP_FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT;
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param operator an associative function for combining two elements
+     */
+    static <T> Stream<T> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                 BinaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE, OP_FLAGS) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                Objects.requireNonNull(sink);
+                return new Sink.ChainedReference<T, T>(sink) {
+                    private boolean started;
+                    private T state;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void end() {
+                        state = null;
+                        downstream.end();
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        if (started) {
+                            state = operator.apply(state, t);
+                        }
+                        else {
+                            started = true;
+                            state = t;
+                        }
+                        downstream.accept(state);
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<T[]> generator) {
+                // The node is built by this evaluation, so is scanned in place
+                T[] content = helper.evaluate(spliterator, true, generator).asArray(generator);
+                Arrays.parallelPrefix(content, operator);
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream an {@code int} stream
+     * @param operator an associative function for combining two values
+     */
+    static IntStream makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                             IntBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE, OP_FLAGS) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+                return new Sink.ChainedInt<Integer>(sink) {
+                    private boolean started;
+                    private int state;
+                    private int[] buffer;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        if (started) {
+                            state = operator.applyAsInt(state, t);
+                        }
+                        else {
+                            started = true;
+                            state = t;
+                        }
+                        downstream.accept(state);
+                    }
+
+                    @Override
+                    public void accept(int[] chunk, int fromIndex, int toIndex) {
+                        if (fromIndex >= toIndex)
+                            return;
+                        int[] out = buffer = Sink.intBuffer(buffer, toIndex - fromIndex);
+                        int s = state;
+                        int i = fromIndex;
+                        if (!started) {
+                            started = true;
+                            s = chunk[i];
+                        }
+                        else {
+                            s = operator.applyAsInt(s, chunk[i]);
+                        }
+                        out[0] = s;
+                        int n = 1;
+                        while (++i < toIndex) {
+                            if (n == out.length) {
+                                downstream.accept(out, 0, n);
+                                n = 0;
+                            }
+                            out[n++] = s = operator.applyAsInt(s, chunk[i]);
+                        }
+                        state = s;
+                        downstream.accept(out, 0, n);
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                // The node is built by this evaluation, so is scanned in place
+                Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
+                int[] content = n.asPrimitiveArray();
+                Arrays.parallelPrefix(content, operator);
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream a {@code long} stream
+     * @param operator an associative function for combining two values
+     */
+    static LongStream makeLong(AbstractPipeline<?, Long, ?> upstream,
+                               LongBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE, OP_FLAGS) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+                return new Sink.ChainedLong<Long>(sink) {
+                    private boolean started;
+                    private long state;
+                    private long[] buffer;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        if (started) {
+                            state = operator.applyAsLong(state, t);
+                        }
+                        else {
+                            started = true;
+                            state = t;
+                        }
+                        downstream.accept(state);
+                    }
+
+                    @Override
+                    public void accept(long[] chunk, int fromIndex, int toIndex) {
+                        if (fromIndex >= toIndex)
+                            return;
+                        long[] out = buffer = Sink.longBuffer(buffer, toIndex - fromIndex);
+                        long s = state;
+                        int i = fromIndex;
+                        if (!started) {
+                            started = true;
+                            s = chunk[i];
+                        }
+                        else {
+                            s = operator.applyAsLong(s, chunk[i]);
+                        }
+                        out[0] = s;
+                        int n = 1;
+                        while (++i < toIndex) {
+                            if (n == out.length) {
+                                downstream.accept(out, 0, n);
+                                n = 0;
+                            }
+                            out[n++] = s = operator.applyAsLong(s, chunk[i]);
+                        }
+                        state = s;
+                        downstream.accept(out, 0, n);
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                // The node is built by this evaluation, so is scanned in place
+                Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
+                long[] content = n.asPrimitiveArray();
+                Arrays.parallelPrefix(content, operator);
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream a {@code double} stream
+     * @param operator an associative function for combining two values
+     */
+    static DoubleStream makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                   DoubleBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE, OP_FLAGS) {
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                Objects.requireNonNull(sink);
+                return new Sink.ChainedDouble<Double>(sink) {
+                    private boolean started;
+                    private double state;
+                    private double[] buffer;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        if (started) {
+                            state = operator.applyAsDouble(state, t);
+                        }
+                        else {
+                            started = true;
+                            state = t;
+                        }
+                        downstream.accept(state);
+                    }
+
+                    @Override
+                    public void accept(double[] chunk, int fromIndex, int toIndex) {
+                        if (fromIndex >= toIndex)
+                            return;
+                        double[] out = buffer = Sink.doubleBuffer(buffer, toIndex - fromIndex);
+                        double s = state;
+                        int i = fromIndex;
+                        if (!started) {
+                            started = true;
+                            s = chunk[i];
+                        }
+                        else {
+                            s = operator.applyAsDouble(s, chunk[i]);
+                        }
+                        out[0] = s;
+                        int n = 1;
+                        while (++i < toIndex) {
+                            if (n == out.length) {
+                                downstream.accept(out, 0, n);
+                                n = 0;
+                            }
+                            out[n++] = s = operator.applyAsDouble(s, chunk[i]);
+                        }
+                        state = s;
+                        downstream.accept(out, 0, n);
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                // The node is built by this evaluation, so is scanned in place
+                Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
+                double[] content = n.asPrimitiveArray();
+                Arrays.parallelPrefix(content, operator);
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Flags of the sequential streams returned by the iterator-based scans,
+     * which implement the default methods of the stream interfaces.
+     */
+    private static final int ITERATOR_FLAGS = Spliterator.ORDERED;
+
+    /**
+     * Returns a sequential stream of the prefix reductions of the given
+     * stream, computed by an iterator over its elements.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream
+     * @param operator an associative function for combining two elements
+     */
+    static <T> Stream<T> makeIteratorRef(Stream<T> upstream, BinaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        return StreamSupport.stream(() -> {
+            Iterator<T> it = upstream.iterator();
+            return Spliterators.spliteratorUnknownSize(new Iterator<T>() {
+                private boolean started;
+                private T state;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    T t = it.next();
+                    if (started) {
+                        state = operator.apply(state, t);
+                    }
+                    else {
+                        started = true;
+                        state = t;
+                    }
+                    return state;
+                }
+            }, ITERATOR_FLAGS);
+        }, ITERATOR_FLAGS, false).onClose(upstream::close);
+    }
+
+    /**
+     * Returns a sequential stream of the prefix reductions of the given
+     * stream, computed by an iterator over its elements.
+     *
+     * @param upstream an {@code int} stream
+     * @param operator an associative function for combining two values
+     */
+    static IntStream makeIteratorInt(IntStream upstream, IntBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return StreamSupport.intStream(() -> {
+            PrimitiveIterator.OfInt it = upstream.iterator();
+            return Spliterators.spliteratorUnknownSize(new PrimitiveIterator.OfInt() {
+                private boolean started;
+                private int state;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public int nextInt() {
+                    int t = it.nextInt();
+                    if (started) {
+                        state = operator.applyAsInt(state, t);
+                    }
+                    else {
+                        started = true;
+                        state = t;
+                    }
+                    return state;
+                }
+            }, ITERATOR_FLAGS);
+        }, ITERATOR_FLAGS, false).onClose(upstream::close);
+    }
+
+    /**
+     * Returns a sequential stream of the prefix reductions of the given
+     * stream, computed by an iterator over its elements.
+     *
+     * @param upstream a {@code long} stream
+     * @param operator an associative function for combining two values
+     */
+    static LongStream makeIteratorLong(LongStream upstream, LongBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return StreamSupport.longStream(() -> {
+            PrimitiveIterator.OfLong it = upstream.iterator();
+            return Spliterators.spliteratorUnknownSize(new PrimitiveIterator.OfLong() {
+                private boolean started;
+                private long state;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public long nextLong() {
+                    long t = it.nextLong();
+                    if (started) {
+                        state = operator.applyAsLong(state, t);
+                    }
+                    else {
+                        started = true;
+                        state = t;
+                    }
+                    return state;
+                }
+            }, ITERATOR_FLAGS);
+        }, ITERATOR_FLAGS, false).onClose(upstream::close);
+    }
+
+    /**
+     * Returns a sequential stream of the prefix reductions of the given
+     * stream, computed by an iterator over its elements.
+     *
+     * @param upstream a {@code double} stream
+     * @param operator an associative function for combining two values
+     */
+    static DoubleStream makeIteratorDouble(DoubleStream upstream, DoubleBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return StreamSupport.doubleStream(() -> {
+            PrimitiveIterator.OfDouble it = upstream.iterator();
+            return Spliterators.spliteratorUnknownSize(new PrimitiveIterator.OfDouble() {
+                private boolean started;
+                private double state;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public double nextDouble() {
+                    double t = it.nextDouble();
+                    if (started) {
+                        state = operator.applyAsDouble(state, t);
+                    }
+                    else {
+                        started = true;
+                        state = t;
+                    }
+                    return state;
+                }
+            }, ITERATOR_FLAGS);
+        }, ITERATOR_FLAGS, false).onClose(upstream::close);
+    }
+}
@@ -181,6 +181,110 @@ interface Sink<T> extends Consumer<T> {
         throw new IllegalStateException("called wrong accept method");
     }
 
+    /**
+     * Accepts a chunk of int values, {@code chunk[fromIndex]} through
+     * {@code chunk[toIndex - 1]}, in that order.  A sink may override this
+     * to process the whole chunk in one loop, rather than one call at a time;
+     * it must not modify, or retain a reference to, the array.
+     *
+     * @implSpec The default implementation calls {@link #accept(int)} for
+     * each value of the chunk.
+     *
+     * @param chunk the array holding the values
+     * @param fromIndex the index of the first value, inclusive
+     * @param toIndex the index of the last value, exclusive
+     * @throws IllegalStateException if this sink does not accept int values
+     */
+    default void accept(int[] chunk, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++)
+            accept(chunk[i]);
+    }
+
+    /**
+     * Accepts a chunk of long values, {@code chunk[fromIndex]} through
+     * {@code chunk[toIndex - 1]}, in that order.  A sink may override this
+     * to process the whole chunk in one loop, rather than one call at a time;
+     * it must not modify, or retain a reference to, the array.
+     *
+     * @implSpec The default implementation calls {@link #accept(long)} for
+     * each value of the chunk.
+     *
+     * @param chunk the array holding the values
+     * @param fromIndex the index of the first value, inclusive
+     * @param toIndex the index of the last value, exclusive
+     * @throws IllegalStateException if this sink does not accept long values
+     */
+    default void accept(long[] chunk, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++)
+            accept(chunk[i]);
+    }
+
+    /**
+     * Accepts a chunk of double values, {@code chunk[fromIndex]} through
+     * {@code chunk[toIndex - 1]}, in that order.  A sink may override this
+     * to process the whole chunk in one loop, rather than one call at a time;
+     * it must not modify, or retain a reference to, the array.
+     *
+     * @implSpec The default implementation calls {@link #accept(double)} for
+     * each value of the chunk.
+     *
+     * @param chunk the array holding the values
+     * @param fromIndex the index of the first value, inclusive
+     * @param toIndex the index of the last value, exclusive
+     * @throws IllegalStateException if this sink does not accept double values
+     */
+    default void accept(double[] chunk, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++)
+            accept(chunk[i]);
+    }
+
+    /**
+     * The largest number of values a chunked stage buffers before passing
+     * them on to its downstream sink as one chunk.
+     */
+    int CHUNK_SIZE = 1 << 10;
+
+    /**
+     * Returns a scratch array into which a stage may gather up to
+     * {@code size} values of a chunk, reusing {@code buffer} if it is large
+     * enough.  The array returned is no longer than {@link #CHUNK_SIZE}, so a
+     * stage handling a larger chunk passes it on in several pieces.
+     *
+     * @param buffer the scratch array used so far, or {@code null}
+     * @param size the number of values to be gathered
+     * @return a scratch array of length at least {@code min(size, CHUNK_SIZE)}
+     */
+    static int[] intBuffer(int[] buffer, int size) {
+        int length = Math.min(size, CHUNK_SIZE);
+        return (buffer != null && buffer.length >= length) ? buffer : new int[length];
+    }
+
+    /**
+     * Returns a scratch array into which a stage may gather up to
+     * {@code size} values of a chunk, as for {@link #intBuffer}.
+     *
+     * @param buffer the scratch array used so far, or {@code null}
+     * @param size the number of values to be gathered
+     * @return a scratch array of length at least {@code min(size, CHUNK_SIZE)}
+     */
+    static long[] longBuffer(long[] buffer, int size) {
+        int length = Math.min(size, CHUNK_SIZE);
+        return (buffer != null && buffer.length >= length) ? buffer : new long[length];
+    }
+
+    /**
+     * Returns a scratch array into which a stage may gather up to
+     * {@code size} values of a chunk, as for {@link #intBuffer}.
+     *
+     * @param buffer the scratch array used so far, or {@code null}
+     * @param size the number of values to be gathered
+     * @return a scratch array of length at least {@code min(size, CHUNK_SIZE)}
+     */
+    static double[] doubleBuffer(double[] buffer, int size) {
+        int length = Math.min(size, CHUNK_SIZE);
+        return (buffer != null && buffer.length >= length) ? buffer : new double[length];
+    }
+
     /**
      * {@code Sink} that implements {@code Sink<Integer>}, re-abstracts
      * {@code accept(int)}, and wires {@code accept(Integer)} to bridge to
@@ -93,6 +93,32 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * Records on a sort stage, to which a slice of the given skip and limit
+     * has just been appended, that only the first {@code skip + limit}
+     * sorted elements will be consumed.  The stage then retains just those
+     * elements in a bounded heap, rather than buffering and sorting all
+     * elements.  Has no effect unless {@code upstream} is a sort stage and
+     * {@code limit} is non-negative.
+     *
+     * @param upstream the stage the slice was appended to
+     * @param skip the number of elements the slice skips
+     * @param limit the maximum number of elements the slice passes, or -1
+     */
+    static void limitSorted(AbstractPipeline<?, ?, ?> upstream, long skip, long limit) {
+        long bound = skip + limit;
+        if (limit < 0 || bound < 0 || bound >= Nodes.MAX_ARRAY_SIZE)
+            return;
+        if (upstream instanceof OfRef)
+            ((OfRef<?>) upstream).bound = (int) bound;
+        else if (upstream instanceof OfInt)
+            ((OfInt) upstream).bound = (int) bound;
+        else if (upstream instanceof OfLong)
+            ((OfLong) upstream).bound = (int) bound;
+        else if (upstream instanceof OfDouble)
+            ((OfDouble) upstream).bound = (int) bound;
+    }
+
     /**
      * Specialized subtype for sorting reference streams
      */
@@ -103,6 +129,12 @@ final class SortedOps {
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
 
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are, set by {@link #limitSorted}
+         */
+        int bound = -1;
+
         /**
          * Sort using natural order of {@literal <T>} which must be
          * {@code Comparable}.
@@ -137,6 +169,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (bound >= 0)
+                return new RefTopKSink<>(sink, comparator, bound);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -152,6 +186,14 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (bound >= 0) {
+                // Parallel per-leaf bounded heaps, merged in encounter order
+                int k = bound;
+                RefTopK<T> top = ReduceOps.<T, RefTopK<T>>makeRef(() -> new RefTopK<>(comparator, k),
+                                                                  RefTopK::accept, RefTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toSortedArray(generator));
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
@@ -165,6 +207,12 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are, set by {@link #limitSorted}
+         */
+        int bound = -1;
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -176,6 +224,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (bound >= 0)
+                return new IntTopKSink(sink, bound);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -189,6 +239,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (bound >= 0) {
+                int k = bound;
+                IntTopK top = ReduceOps.makeInt(() -> new IntTopK(k), IntTopK::accept, IntTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toSortedArray());
+            }
             else {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
 
@@ -204,6 +260,12 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are, set by {@link #limitSorted}
+         */
+        int bound = -1;
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -215,6 +277,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (bound >= 0)
+                return new LongTopKSink(sink, bound);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -228,6 +292,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (bound >= 0) {
+                int k = bound;
+                LongTopK top = ReduceOps.makeLong(() -> new LongTopK(k), LongTopK::accept, LongTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toSortedArray());
+            }
             else {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
 
@@ -243,6 +313,12 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are, set by {@link #limitSorted}
+         */
+        int bound = -1;
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -254,6 +330,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (bound >= 0)
+                return new DoubleTopKSink(sink, bound);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -267,6 +345,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (bound >= 0) {
+                int k = bound;
+                DoubleTopK top = ReduceOps.makeDouble(() -> new DoubleTopK(k), DoubleTopK::accept, DoubleTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toSortedArray());
+            }
             else {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
 
@@ -698,4 +782,460 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * A bounded max-heap retaining the {@code k} least elements offered to
+     * it, ordered by comparator and then by encounter position.  The
+     * elements retained, once sorted, are therefore exactly those that a
+     * stable sort followed by a limit of {@code k} would produce.  Heaps
+     * accumulated over adjacent portions of a parallel stream are combined
+     * by offering the elements of the right heap to the left one, with
+     * their positions shifted by the count of the left one.
+     */
+    private static final class RefTopK<T> {
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private Object[] elements;
+        private long[] positions;
+        private int size;
+        /** The number of elements offered, the next position */
+        private long count;
+
+        RefTopK(Comparator<? super T> comparator, int k) {
+            this.comparator = comparator;
+            this.k = k;
+            int n = Math.min(k, 16);
+            elements = new Object[n];
+            positions = new long[n];
+        }
+
+        void accept(T t) {
+            offer(t, count++);
+        }
+
+        void combine(RefTopK<T> right) {
+            for (int i = 0; i < right.size; i++)
+                offer(right.elements[i], right.positions[i] + count);
+            count += right.count;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object a, long pa, Object b, long pb) {
+            int c = comparator.compare((T) a, (T) b);
+            return (c != 0) ? c : Long.compare(pa, pb);
+        }
+
+        private void offer(Object e, long p) {
+            if (size < k) {
+                if (size == elements.length) {
+                    int n = (int) Math.min(k, 2L * size);
+                    elements = Arrays.copyOf(elements, n);
+                    positions = Arrays.copyOf(positions, n);
+                }
+                siftUp(size++, e, p);
+            }
+            else if (k > 0 && compare(e, p, elements[0], positions[0]) < 0) {
+                siftDown(0, e, p, size);
+            }
+        }
+
+        private void siftUp(int i, Object e, long p) {
+            Object[] es = elements;
+            long[] ps = positions;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (compare(es[parent], ps[parent], e, p) >= 0)
+                    break;
+                es[i] = es[parent];
+                ps[i] = ps[parent];
+                i = parent;
+            }
+            es[i] = e;
+            ps[i] = p;
+        }
+
+        private void siftDown(int i, Object e, long p, int n) {
+            Object[] es = elements;
+            long[] ps = positions;
+            int half = n >>> 1;
+            while (i < half) {
+                int c = (i << 1) + 1, r = c + 1;
+                if (r < n && compare(es[r], ps[r], es[c], ps[c]) > 0)
+                    c = r;
+                if (compare(e, p, es[c], ps[c]) >= 0)
+                    break;
+                es[i] = es[c];
+                ps[i] = ps[c];
+                i = c;
+            }
+            es[i] = e;
+            ps[i] = p;
+        }
+
+        /**
+         * Sorts the retained elements in place into ascending order; the
+         * heap may not be offered elements afterwards.
+         */
+        void sort() {
+            Object[] es = elements;
+            long[] ps = positions;
+            for (int n = size - 1; n > 0; n--) {
+                Object e = es[n];
+                long p = ps[n];
+                es[n] = es[0];
+                ps[n] = ps[0];
+                siftDown(0, e, p, n);
+            }
+        }
+
+        T[] toSortedArray(IntFunction<T[]> generator) {
+            sort();
+            T[] array = generator.apply(size);
+            System.arraycopy(elements, 0, array, 0, size);
+            return array;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on reference streams of which only
+     * a bounded number of leading elements are consumed.
+     */
+    private static final class RefTopKSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private RefTopK<T> heap;
+
+        RefTopKSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new RefTopK<>(comparator, k);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void end() {
+            heap.sort();
+            Object[] elements = heap.elements;
+            int n = heap.size;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept((T) elements[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept((T) elements[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            heap.accept(t);
+        }
+    }
+
+    /**
+     * A bounded max-heap retaining the {@code k} least {@code int} values
+     * offered to it.  Equal values are indistinguishable, so no positions
+     * are kept.
+     */
+    private static final class IntTopK {
+        private final int k;
+        private int[] heap;
+        private int size;
+
+        IntTopK(int k) {
+            this.k = k;
+            heap = new int[Math.min(k, 16)];
+        }
+
+        void accept(int v) {
+            int[] h = heap;
+            if (size < k) {
+                if (size == h.length)
+                    heap = h = Arrays.copyOf(h, (int) Math.min(k, 2L * size));
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (h[parent] >= v)
+                        break;
+                    h[i] = h[parent];
+                    i = parent;
+                }
+                h[i] = v;
+            }
+            else if (k > 0 && v < h[0]) {
+                int i = 0, n = size, half = n >>> 1;
+                while (i < half) {
+                    int c = (i << 1) + 1, r = c + 1;
+                    if (r < n && h[c] < h[r])
+                        c = r;
+                    if (v >= h[c])
+                        break;
+                    h[i] = h[c];
+                    i = c;
+                }
+                h[i] = v;
+            }
+        }
+
+        IntTopK combine(IntTopK right) {
+            for (int i = 0; i < right.size; i++)
+                accept(right.heap[i]);
+            return this;
+        }
+
+        int[] toSortedArray() {
+            int[] array = Arrays.copyOf(heap, size);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on int streams of which only a
+     * bounded number of leading elements are consumed.
+     */
+    private static final class IntTopKSink extends AbstractIntSortingSink {
+        private final int k;
+        private IntTopK heap;
+
+        IntTopKSink(Sink<? super Integer> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new IntTopK(k);
+        }
+
+        @Override
+        public void end() {
+            int[] sorted = heap.toSortedArray();
+            downstream.begin(sorted.length);
+            if (!cancellationWasRequested) {
+                for (int v : sorted)
+                    downstream.accept(v);
+            }
+            else {
+                for (int v : sorted) {
+                    if (downstream.cancellationRequested()) break;
+                    downstream.accept(v);
+                }
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            heap.accept(t);
+        }
+    }
+
+    /**
+     * A bounded max-heap retaining the {@code k} least {@code long} values
+     * offered to it.  Equal values are indistinguishable, so no positions
+     * are kept.
+     */
+    private static final class LongTopK {
+        private final int k;
+        private long[] heap;
+        private int size;
+
+        LongTopK(int k) {
+            this.k = k;
+            heap = new long[Math.min(k, 16)];
+        }
+
+        void accept(long v) {
+            long[] h = heap;
+            if (size < k) {
+                if (size == h.length)
+                    heap = h = Arrays.copyOf(h, (int) Math.min(k, 2L * size));
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (h[parent] >= v)
+                        break;
+                    h[i] = h[parent];
+                    i = parent;
+                }
+                h[i] = v;
+            }
+            else if (k > 0 && v < h[0]) {
+                int i = 0, n = size, half = n >>> 1;
+                while (i < half) {
+                    int c = (i << 1) + 1, r = c + 1;
+                    if (r < n && h[c] < h[r])
+                        c = r;
+                    if (v >= h[c])
+                        break;
+                    h[i] = h[c];
+                    i = c;
+                }
+                h[i] = v;
+            }
+        }
+
+        LongTopK combine(LongTopK right) {
+            for (int i = 0; i < right.size; i++)
+                accept(right.heap[i]);
+            return this;
+        }
+
+        long[] toSortedArray() {
+            long[] array = Arrays.copyOf(heap, size);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on long streams of which only a
+     * bounded number of leading elements are consumed.
+     */
+    private static final class LongTopKSink extends AbstractLongSortingSink {
+        private final int k;
+        private LongTopK heap;
+
+        LongTopKSink(Sink<? super Long> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new LongTopK(k);
+        }
+
+        @Override
+        public void end() {
+            long[] sorted = heap.toSortedArray();
+            downstream.begin(sorted.length);
+            if (!cancellationWasRequested) {
+                for (long v : sorted)
+                    downstream.accept(v);
+            }
+            else {
+                for (long v : sorted) {
+                    if (downstream.cancellationRequested()) break;
+                    downstream.accept(v);
+                }
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            heap.accept(t);
+        }
+    }
+
+    /**
+     * A bounded max-heap retaining the {@code k} least {@code double} values
+     * offered to it.  Equal values are indistinguishable, so no positions
+     * are kept.
+     */
+    private static final class DoubleTopK {
+        private final int k;
+        private double[] heap;
+        private int size;
+
+        DoubleTopK(int k) {
+            this.k = k;
+            heap = new double[Math.min(k, 16)];
+        }
+
+        void accept(double v) {
+            double[] h = heap;
+            if (size < k) {
+                if (size == h.length)
+                    heap = h = Arrays.copyOf(h, (int) Math.min(k, 2L * size));
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (Double.compare(h[parent], v) >= 0)
+                        break;
+                    h[i] = h[parent];
+                    i = parent;
+                }
+                h[i] = v;
+            }
+            else if (k > 0 && Double.compare(v, h[0]) < 0) {
+                int i = 0, n = size, half = n >>> 1;
+                while (i < half) {
+                    int c = (i << 1) + 1, r = c + 1;
+                    if (r < n && Double.compare(h[c], h[r]) < 0)
+                        c = r;
+                    if (Double.compare(v, h[c]) >= 0)
+                        break;
+                    h[i] = h[c];
+                    i = c;
+                }
+                h[i] = v;
+            }
+        }
+
+        DoubleTopK combine(DoubleTopK right) {
+            for (int i = 0; i < right.size; i++)
+                accept(right.heap[i]);
+            return this;
+        }
+
+        double[] toSortedArray() {
+            double[] array = Arrays.copyOf(heap, size);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on double streams of which only a
+     * bounded number of leading elements are consumed.
+     */
+    private static final class DoubleTopKSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private DoubleTopK heap;
+
+        DoubleTopKSink(Sink<? super Double> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new DoubleTopK(k);
+        }
+
+        @Override
+        public void end() {
+            double[] sorted = heap.toSortedArray();
+            downstream.begin(sorted.length);
+            if (!cancellationWasRequested) {
+                for (double v : sorted)
+                    downstream.accept(v);
+            }
+            else {
+                for (double v : sorted) {
+                    if (downstream.cancellationRequested()) break;
+                    downstream.accept(v);
+                }
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            heap.accept(t);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * 20261016
+ * A. 把流元素写入、读出外部排序或去重操作溢写其有序段的临时文件。
+ * B. 每个溢写文件通过一个对象流顺序读写, 元素可以用 {@link ObjectOutput} 的基本类型方法和对象方法任意组合写出, 只要 {@link #read}
+ *    准确读回 {@link #write} 写入的内容。 把元素的字段按基本类型写出而不用 {@link ObjectOutput#writeObject}, 可省去序列化的对象开销, 通常快得多。
+ *    读回的元素不必是同一个对象, 但在该操作的比较器下必须与原元素相等。
+ * C. 一个序列化器可能同时被多个溢写操作使用, 因此应当是无状态的。
+ */
+/**
+ * Writes stream elements to, and reads them back from, the temporary files
+ * that an external {@link Stream#sorted(java.util.Comparator, int, SpillSerializer)
+ * sort} or {@link Stream#distinct(java.util.Comparator, int, SpillSerializer)
+ * distinct} operation spills its sorted runs to.
+ *
+ * <p>Each spill file is written and read sequentially through a single
+ * object stream, so an element may be written with any combination of the
+ * primitive and object methods of {@link ObjectOutput}, provided that
+ * {@link #read} reads back exactly what {@link #write} wrote.  Writing the
+ * fields of an element as primitives, rather than through
+ * {@link ObjectOutput#writeObject}, avoids the per-object overhead of
+ * serialization and is usually much faster.  The element read back need
+ * not be the same object as the one written, but must compare equal to it
+ * under the comparator of the operation.
+ *
+ * <p>A serializer may be used by several spilling operations at once, and
+ * so should be stateless.
+ *
+ * @param <T> the type of elements serialized
+ * @since 1.8
+ */
+public interface SpillSerializer<T> {
+
+    /**
+     * Writes an element to a spill file.
+     *
+     * @param t the element
+     * @param out the output to write the element to
+     * @throws IOException if an I/O error occurs
+     */
+    void write(T t, ObjectOutput out) throws IOException;
+
+    /**
+     * Reads an element, as written by {@link #write}, from a spill file.
+     *
+     * @param in the input to read the element from
+     * @return the element
+     * @throws IOException if an I/O error occurs
+     */
+    T read(ObjectInput in) throws IOException;
+
+    /**
+     * Returns a serializer that writes elements with
+     * {@link ObjectOutput#writeObject} and reads them with
+     * {@link ObjectInput#readObject}.  The elements, and everything they
+     * reference, must be {@link java.io.Serializable Serializable}.
+     *
+     * @param <T> the type of elements serialized
+     * @return a serializer using object serialization
+     */
+    static <T> SpillSerializer<T> serialization() {
+        return new SpillSerializer<T>() {
+            @Override
+            public void write(T t, ObjectOutput out) throws IOException {
+                out.writeObject(t);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T read(ObjectInput in) throws IOException {
+                try {
+                    return (T) in.readObject();
+                }
+                catch (ClassNotFoundException e) {
+                    InvalidClassException ice = new InvalidClassException(e.getMessage());
+                    ice.initCause(e);
+                    throw ice;
+                }
+            }
+        };
+    }
+}
@@ -594,7 +594,7 @@ class SpinedBuffer<E>
         }
 
         abstract class BaseSpliterator<T_SPLITR extends Spliterator.OfPrimitive<E, T_CONS, T_SPLITR>>
-                implements Spliterator.OfPrimitive<E, T_CONS, T_SPLITR> {
+                implements Spliterator.OfPrimitive<E, T_CONS, T_SPLITR>, ChunkedSpliterator {
             // The current spine index
             int splSpineIndex;
 
@@ -630,6 +630,8 @@ class SpinedBuffer<E>
 
             abstract void arrayForOne(T_ARR array, int index, T_CONS consumer);
 
+            abstract void arrayForChunk(T_ARR array, int from, int to, Sink<?> sink);
+
             abstract T_SPLITR arraySpliterator(T_ARR array, int offset, int len);
 
             @Override
@@ -688,6 +690,28 @@ class SpinedBuffer<E>
                 }
             }
 
+            @Override
+            public void forEachRemainingChunk(Sink<?> sink) {
+                Objects.requireNonNull(sink);
+
+                if (splSpineIndex < lastSpineIndex
+                    || (splSpineIndex == lastSpineIndex && splElementIndex < lastSpineElementFence)) {
+                    int i = splElementIndex;
+                    // completed chunks, if any, are pushed as they are
+                    for (int sp = splSpineIndex; sp < lastSpineIndex; sp++) {
+                        T_ARR chunk = spine[sp];
+                        arrayForChunk(chunk, i, arrayLength(chunk), sink);
+                        i = 0;
+                    }
+                    // last (or current uncompleted) chunk
+                    T_ARR chunk = (splSpineIndex == lastSpineIndex) ? splChunk : spine[lastSpineIndex];
+                    arrayForChunk(chunk, i, lastSpineElementFence, sink);
+                    // mark consumed
+                    splSpineIndex = lastSpineIndex;
+                    splElementIndex = lastSpineElementFence;
+                }
+            }
+
             @Override
             public T_SPLITR trySplit() {
                 if (splSpineIndex < lastSpineIndex) {
@@ -805,9 +829,14 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                void arrayForChunk(int[] array, int from, int to, Sink<?> sink) {
+                    sink.accept(array, from, to);
+                }
+
                 @Override
                 Spliterator.OfInt arraySpliterator(int[] array, int offset, int len) {
-                    return Arrays.spliterator(array, offset, offset+len);
+                    return new Streams.IntArraySpliterator(array, offset, offset+len);
                 }
             }
             return new Splitr(0, spineIndex, 0, elementIndex);
@@ -919,9 +948,14 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                void arrayForChunk(long[] array, int from, int to, Sink<?> sink) {
+                    sink.accept(array, from, to);
+                }
+
                 @Override
                 Spliterator.OfLong arraySpliterator(long[] array, int offset, int len) {
-                    return Arrays.spliterator(array, offset, offset+len);
+                    return new Streams.LongArraySpliterator(array, offset, offset+len);
                 }
             }
             return new Splitr(0, spineIndex, 0, elementIndex);
@@ -1033,9 +1067,14 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                void arrayForChunk(double[] array, int from, int to, Sink<?> sink) {
+                    sink.accept(array, from, to);
+                }
+
                 @Override
                 Spliterator.OfDouble arraySpliterator(double[] array, int offset, int len) {
-                    return Arrays.spliterator(array, offset, offset+len);
+                    return new Streams.DoubleArraySpliterator(array, offset, offset+len);
                 }
             }
             return new Splitr(0, spineIndex, 0, elementIndex);
@@ -0,0 +1,87 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 20261016
+ * A. {@link SplitPolicy} 各工厂方法所返回策略的实现: 默认策略、代价模型策略和自适应策略。
+ */
+/**
+ * Implementations of the policies of {@link SplitPolicy}.
+ *
+ * @since 1.8
+ */
+final class SplitPolicies {
+    private SplitPolicies() { }
+
+    /** Leaves per unit of parallelism of the default policy. */
+    static final int LEAVES_PER_THREAD = 4;
+
+    /** Desired leaf duration of the adaptive policy. */
+    static final long ADAPTIVE_LEAF_NANOS = 100L * 1000L;
+
+    static final SplitPolicy DEFAULT = (sizeEstimate, parallelism) ->
+        defaultTargetSize(sizeEstimate, parallelism);
+
+    static long defaultTargetSize(long sizeEstimate, int parallelism) {
+        long est = sizeEstimate / ((long)parallelism * LEAVES_PER_THREAD);
+        return est > 0L ? est : 1L;
+    }
+
+    static long costModelTargetSize(long sizeEstimate, int parallelism,
+                                    double elementNanos, long leafNanos) {
+        double leaf = leafNanos / elementNanos;
+        long size = (leaf >= (double)Long.MAX_VALUE) ? Long.MAX_VALUE :
+            Math.max(1L, (long)leaf);
+        // Not coarser than one leaf per thread if there is enough work
+        if (sizeEstimate != Long.MAX_VALUE &&
+            elementNanos * sizeEstimate >= (double)leafNanos * parallelism)
+            size = Math.min(size, Math.max(1L, sizeEstimate / parallelism));
+        return size;
+    }
+
+    /**
+     * Adaptive policy.  The cost per element is an exponentially weighted
+     * moving average of the cost measured by each leaf, kept as the bits
+     * of a double in an AtomicLong.
+     */
+    static final class Adaptive implements SplitPolicy {
+        /** Weight of a new measurement in the moving average. */
+        static final double ALPHA = 0.25;
+
+        final long leafNanos;
+        final AtomicLong elementNanos = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+        Adaptive(long leafNanos) {
+            this.leafNanos = leafNanos;
+        }
+
+        public long targetSize(long sizeEstimate, int parallelism) {
+            double cost = Double.longBitsToDouble(elementNanos.get());
+            return (cost > 0.0)
+                ? costModelTargetSize(sizeEstimate, parallelism, cost, leafNanos)
+                : defaultTargetSize(sizeEstimate, parallelism);
+        }
+
+        public void leafCompleted(long sizeEstimate, long elapsedNanos) {
+            if (sizeEstimate <= 0L || sizeEstimate == Long.MAX_VALUE || elapsedNanos <= 0L)
+                return;
+            double sample = (double)elapsedNanos / sizeEstimate;
+            for (;;) {
+                long bits = elementNanos.get();
+                double cost = Double.longBitsToDouble(bits);
+                double next = (cost > 0.0) ? cost + ALPHA * (sample - cost) : sample;
+                if (elementNanos.compareAndSet(bits, Double.doubleToRawLongBits(next)))
+                    return;
+            }
+        }
+
+        public String toString() {
+            return super.toString() + "[elementNanos=" +
+                Double.longBitsToDouble(elementNanos.get()) + "]";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+/**
+ * 20261016
+ * A. 并行流把数据源拆分成叶子任务的粒度策略, 通过 {@link BaseStream#splitPolicy} 安装。 并行计算不断拆分数据源, 直到每一份的估计大小
+ *    不超过目标大小(target size), 每一份由一个叶子任务处理。
+ * B. 默认目标大小 = 数据源大小 / (4 * 并行度): 对极廉价的元素太细, 任务开销占主导; 对昂贵的(例如I/O密集的)元素太粗, 几个大叶子使其余核空闲。
+ * C. 策略根据数据源的估计大小和池的并行度计算目标大小, 目标大小在计算开始时于根任务上计算一次并复制给子任务; 每个叶子完成后
+ *    其耗时会报告给 {@link #leafCompleted}, 自适应策略据此调整之后的计算。
+ * D. 策略会被同一计算的多个任务并发使用, 也可以在多个计算之间共享。
+ */
+/**
+ * A policy deciding how finely a parallel stream pipeline splits its
+ * source into leaf tasks, installed with {@link BaseStream#splitPolicy}.
+ *
+ * <p>A parallel computation splits its source until the estimated size of
+ * each portion is at most a <em>target size</em>, and processes each
+ * portion in a leaf task.  By default the target size is the size of the
+ * source divided by four times the parallelism of the pool, which is too
+ * fine for very cheap elements, where task overhead dominates, and too
+ * coarse for expensive, for example I/O-bound, elements, where a few
+ * large leaves leave processors idle.  A policy computes the target size
+ * from the size estimate of the source and the parallelism of the pool,
+ * and may learn from the time that leaf tasks take, which is reported to
+ * {@link #leafCompleted} after each leaf.
+ *
+ * <p>Policies are used concurrently by the tasks of a computation, and may
+ * be shared between computations; an adaptive policy retains what it has
+ * learned from one computation for the next.
+ *
+ * @since 1.8
+ */
+public interface SplitPolicy {
+
+    /**
+     * Returns the target size of leaf tasks for a computation.  It is
+     * called once, when the computation starts.
+     *
+     * @param sizeEstimate the estimated size of the source of the
+     *        computation, or {@code Long.MAX_VALUE} if unknown
+     * @param parallelism the parallelism of the pool running the
+     *        computation
+     * @return the target size, at least one
+     */
+    long targetSize(long sizeEstimate, int parallelism);
+
+    /**
+     * Reports that a leaf task has processed a portion of the source.
+     * The default implementation does nothing.
+     *
+     * @param sizeEstimate the estimated size of the portion
+     * @param elapsedNanos the time taken by the leaf, in nanoseconds
+     */
+    default void leafCompleted(long sizeEstimate, long elapsedNanos) { }
+
+    /**
+     * Returns the policy used by default, which targets four leaves per
+     * unit of parallelism.
+     *
+     * @return the default policy
+     */
+    static SplitPolicy defaultPolicy() {
+        return SplitPolicies.DEFAULT;
+    }
+
+    /**
+     * Returns a policy that splits into leaves of at most the given size,
+     * whatever the size of the source.
+     *
+     * @param leafSize the target size of leaves
+     * @return the policy
+     * @throws IllegalArgumentException if {@code leafSize} is not positive
+     */
+    static SplitPolicy fixed(long leafSize) {
+        if (leafSize <= 0L)
+            throw new IllegalArgumentException("leafSize: " + leafSize);
+        return (sizeEstimate, parallelism) -> leafSize;
+    }
+
+    /**
+     * Returns a policy that sizes leaves so that each takes about
+     * {@code leafNanos} to run, given that each element costs about
+     * {@code elementNanos}, but never so large that there are fewer
+     * leaves than the parallelism of the pool when the computation is
+     * estimated to take at least {@code leafNanos} per thread.
+     *
+     * @param elementNanos the estimated cost of processing one element, in
+     *        nanoseconds
+     * @param leafNanos the desired duration of a leaf, in nanoseconds
+     * @return the policy
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    static SplitPolicy costModel(long elementNanos, long leafNanos) {
+        if (elementNanos <= 0L || leafNanos <= 0L)
+            throw new IllegalArgumentException();
+        return (sizeEstimate, parallelism) ->
+            SplitPolicies.costModelTargetSize(sizeEstimate, parallelism,
+                                              (double)elementNanos, leafNanos);
+    }
+
+    /**
+     * Returns a policy that measures the time leaves take, and sizes the
+     * leaves of later computations by the {@linkplain #costModel cost
+     * model} with a smoothed average of the measured cost per element and
+     * a leaf duration of 100 microseconds.  The target size is computed
+     * once, when a computation starts, and is used by all of its tasks,
+     * so what is measured during a computation only takes effect in the
+     * computations that start after it.  Until it has measured a leaf, the
+     * policy behaves as the {@linkplain #defaultPolicy default}.  A new
+     * instance should be used for each kind of computation, so that costs
+     * of different computations are not mixed.
+     *
+     * @return a new adaptive policy
+     */
+    static SplitPolicy adaptive() {
+        return new SplitPolicies.Adaptive(SplitPolicies.ADAPTIVE_LEAF_NANOS);
+    }
+}
@@ -31,10 +31,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -358,6 +360,119 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> distinct();
 
+    /**
+     * Returns a stream consisting of the distinct elements of this stream,
+     * where two elements are duplicates if the provided {@code Comparator}
+     * compares them as equal, holding at most {@code maxBuffered} elements
+     * in memory at a time for each thread of the computation.  Duplicates
+     * are found by sorting the elements externally, as by
+     * {@link #sorted(Comparator, int, SpillSerializer)}, which permits
+     * removing duplicates from streams that do not fit in the heap.
+     *
+     * <p>For ordered streams, the selection of distinct elements is stable,
+     * and the elements kept appear in encounter order; this requires
+     * a second external sort of the elements kept.  For unordered streams,
+     * no stability guarantees are made, and the elements appear in the
+     * order of the comparator.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The temporary files are managed as described for
+     * {@link #sorted(Comparator, int, SpillSerializer)}.
+     *
+     * @implSpec
+     * The default implementation does not spill: it returns a sequential
+     * stream over the {@link #iterator() iterator} of this stream that
+     * keeps, in encounter order, each element that the comparator does not
+     * find in a {@code TreeSet} of the elements already kept, and so holds
+     * every distinct element in memory.
+     *
+     * @param comparator a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   {@code Comparator} deciding which elements are duplicates
+     * @param maxBuffered the maximum number of elements to hold in memory
+     *                    before spilling them
+     * @param serializer the serializer used to spill elements
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxBuffered} is not positive
+     * @throws java.io.UncheckedIOException if an I/O error occurs when
+     *         the terminal operation is executed
+     * @see SpillSerializer
+     * @since 1.8
+     */
+    default Stream<T> distinct(Comparator<? super T> comparator, int maxBuffered,
+                               SpillSerializer<T> serializer) {
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(serializer);
+        if (maxBuffered <= 0)
+            throw new IllegalArgumentException(Integer.toString(maxBuffered));
+        TreeSet<T> kept = new TreeSet<>(comparator);
+        return StreamSupport.stream(
+                () -> Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED),
+                Spliterator.ORDERED, false)
+            .filter(kept::add)
+            .onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of elements of this stream with duplicates
+     * (according to {@link Object#equals(Object)}) removed, using a fixed
+     * amount of memory regardless of the number of elements.  The result is
+     * approximate: every element of the resulting stream is distinct, but an
+     * element may also be dropped, with about the given probability, even
+     * though no equal element was seen before it.  The probability holds while
+     * the number of distinct elements does not exceed
+     * {@code expectedDistinct}, and grows beyond it.
+     *
+     * <p>For ordered streams evaluated sequentially, the element appearing
+     * first in the encounter order is the one preserved, as for
+     * {@link #distinct()}; in parallel, which of a set of equal elements is
+     * preserved is not specified, and elements preserved remain in encounter
+     * order.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @apiNote
+     * This is intended for deduplicating streams with too many distinct
+     * elements to hold in memory, where a small loss of elements is
+     * acceptable.  Elements seen are recorded in a Bloom filter over their
+     * {@linkplain Object#hashCode() hash codes}, of a little over
+     * {@code -2.1 * expectedDistinct * ln(falsePositiveRate)} bits, which is
+     * shared by all threads of a parallel pipeline without locking.  Rates
+     * much below 0.001 are achieved only approximately.  Since the filter
+     * sees only 32-bit hash codes, a new element is also dropped whenever
+     * its hash code equals that of an earlier, unequal element, which
+     * happens to the n-th distinct element with probability about
+     * {@code n / 2^32}.  This birthday bound is reached regardless of
+     * {@code falsePositiveRate}: over 10<sup>8</sup> distinct elements,
+     * about 1.2% of new elements are dropped even with a much smaller
+     * requested rate.
+     *
+     * @implSpec
+     * The default implementation checks the arguments and returns
+     * {@link #distinct()}, which is exact and holds every distinct element in
+     * memory.
+     *
+     * @param expectedDistinct the expected number of distinct elements
+     * @param falsePositiveRate the intended probability that an element is
+     *                          dropped although no equal element preceded it
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code expectedDistinct} is not
+     *         positive, or {@code falsePositiveRate} is not strictly between
+     *         0 and 1
+     * @since 1.8
+     */
+    default Stream<T> approximateDistinct(long expectedDistinct, double falsePositiveRate) {
+        if (expectedDistinct <= 0)
+            throw new IllegalArgumentException(Long.toString(expectedDistinct));
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0))
+            throw new IllegalArgumentException(Double.toString(falsePositiveRate));
+        return distinct();
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to natural order.  If the elements of this stream are not
@@ -391,6 +506,183 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> sorted(Comparator<? super T> comparator);
 
+    /**
+     * Returns a stream consisting of the elements of this stream, sorted
+     * according to the provided {@code Comparator}, holding at most
+     * {@code maxBuffered} elements in memory at a time for each thread of
+     * the computation.  Elements are sorted in runs of at most
+     * {@code maxBuffered} elements; full runs are written to temporary files
+     * with the given serializer, and the runs are merged lazily as the
+     * sorted elements are consumed.  This permits sorting streams that do
+     * not fit in the heap.
+     *
+     * <p>For ordered streams, the sort is stable.  For unordered streams, no
+     * stability guarantees are made.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The temporary files are deleted once the sorted elements have been
+     * consumed, or when the stream is {@linkplain #close closed}.  A stream
+     * whose iterator or spliterator may be abandoned before it is exhausted
+     * should therefore be closed, for example by a try-with-resources
+     * statement.  The files are created in the directory named by the
+     * system property {@code java.util.stream.spillDirectory}, if set.
+     *
+     * @implSpec
+     * The default implementation does not spill: after checking its
+     * arguments, it returns {@link #sorted(Comparator) sorted(comparator)},
+     * which sorts the elements in memory.
+     *
+     * @param comparator a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   {@code Comparator} to be used to compare stream elements
+     * @param maxBuffered the maximum number of elements to hold in memory
+     *                    before spilling them
+     * @param serializer the serializer used to spill elements
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxBuffered} is not positive
+     * @throws java.io.UncheckedIOException if an I/O error occurs when
+     *         the terminal operation is executed
+     * @see SpillSerializer
+     * @since 1.8
+     */
+    default Stream<T> sorted(Comparator<? super T> comparator, int maxBuffered,
+                             SpillSerializer<T> serializer) {
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(serializer);
+        if (maxBuffered <= 0)
+            throw new IllegalArgumentException(Integer.toString(maxBuffered));
+        return sorted(comparator);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive, non-overlapping {@code List}s of {@code size} elements, in
+     * encounter order.  If the number of elements is not a multiple of
+     * {@code size}, the last list holds the remaining elements.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The lists are unmodifiable.  A sequential pipeline holds only the list
+     * being filled in memory.  A parallel pipeline first collects the
+     * elements of this stream, and then splits the resulting stream on
+     * list boundaries.
+     *
+     * @implSpec
+     * The default implementation returns a sequential stream that computes
+     * the lists from the {@link #iterator() iterator} of this stream, holding
+     * only the list being filled in memory.
+     *
+     * @param size the number of elements in each list
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> chunked(int size) {
+        return WindowOps.makeIteratorRef(this, WindowOps.Kind.CHUNKED, size, null);
+    }
+
+    /**
+     * Returns a stream consisting of a sliding window of {@code size}
+     * consecutive elements of this stream, as a {@code List}, for each element
+     * that has at least {@code size - 1} elements following it, in encounter
+     * order.  If this stream has fewer than {@code size} elements, the
+     * resulting stream is empty.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The lists are unmodifiable, and each is a separate copy of its
+     * elements.  A sequential pipeline holds at most {@code 2 * size}
+     * elements in memory.  A parallel pipeline first collects the elements
+     * of this stream, and then splits the resulting stream on window
+     * boundaries.
+     *
+     * @implSpec
+     * The default implementation returns a sequential stream that computes
+     * the windows from the {@link #iterator() iterator} of this stream, holding
+     * only the window being filled in memory.
+     *
+     * @param size the number of elements in each window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> windowed(int size) {
+        return WindowOps.makeIteratorRef(this, WindowOps.Kind.SLIDING, size, null);
+    }
+
+    /**
+     * Returns a stream consisting of the maximal runs of adjacent elements of
+     * this stream whose keys, as computed by the classifier, are
+     * {@linkplain Objects#equals equal}, each as a {@code List}, in encounter
+     * order.  Unlike a grouping collector, elements with equal keys that are
+     * not adjacent are placed in different lists.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The lists are unmodifiable.  A sequential pipeline holds only the run
+     * being collected in memory.  A parallel pipeline first collects the
+     * elements of this stream, and then splits the resulting stream on run
+     * boundaries.
+     *
+     * @implSpec
+     * The default implementation returns a sequential stream that computes
+     * the lists from the {@link #iterator() iterator} of this stream, holding
+     * only the run being filled in memory.
+     *
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   function computing the key of an element
+     * @return the new stream
+     * @since 1.8
+     */
+    default Stream<List<T>> groupAdjacent(Function<? super T, ?> classifier) {
+        return WindowOps.makeIteratorRef(this, WindowOps.Kind.GROUP_ADJACENT, 0, classifier);
+    }
+
+    /**
+     * Returns a stream consisting of the running reductions of the elements
+     * of this stream: the first element of the new stream is the first
+     * element of this stream, and each later element is the result of
+     * applying the operator to the previous element of the new stream and
+     * the corresponding element of this stream.  For example, the scan of
+     * {@code 1, 2, 3, 4} with addition is {@code 1, 3, 6, 10}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * A sequential pipeline holds only the running reduction, and is as lazy
+     * as a stateless operation.  A parallel pipeline collects the elements of
+     * this stream into an array and scans it in place with
+     * {@link java.util.Arrays#parallelPrefix(Object[], BinaryOperator) Arrays.parallelPrefix},
+     * so the operator must be associative for the result to be the same as
+     * sequentially.
+     *
+     * @implSpec
+     * The default implementation returns a sequential stream that computes
+     * the running reduction from the {@link #iterator() iterator} of this
+     * stream.
+     *
+     * @param operator an <a href="package-summary.html#Associativity">associative</a>,
+     *                 <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                 <a href="package-summary.html#Statelessness">stateless</a>
+     *                 function for combining two elements
+     * @return the new stream
+     * @since 1.8
+     */
+    default Stream<T> scan(BinaryOperator<T> operator) {
+        return ScanOps.makeIteratorRef(this, operator);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, additionally
      * performing the provided action on each element as elements are consumed
@@ -58,7 +58,7 @@ final class Streams {
     /**
      * An {@code int} range spliterator.
      */
-    static final class RangeIntSpliterator implements Spliterator.OfInt {
+    static final class RangeIntSpliterator implements Spliterator.OfInt, ChunkedSpliterator {
         // Can never be greater that upTo, this avoids overflow if upper bound
         // is Integer.MAX_VALUE
         // All elements are traversed if from == upTo & last == 0
@@ -115,6 +115,28 @@ final class Streams {
             }
         }
 
+        @Override
+        public void forEachRemainingChunk(Sink<?> sink) {
+            Objects.requireNonNull(sink);
+
+            int i = from;
+            final int hUpTo = upTo;
+            // Widen so that the last element of a closed range ending at
+            // MAX_VALUE is counted without overflow
+            long remaining = ((long) hUpTo) - i + last;
+            from = upTo;
+            last = 0;
+            int[] chunk = new int[(int) Math.min(remaining, Sink.CHUNK_SIZE)];
+            while (remaining > 0) {
+                int n = (int) Math.min(remaining, chunk.length);
+                for (int j = 0; j < n; j++)
+                    chunk[j] = i + j;
+                sink.accept(chunk, 0, n);
+                i += n;
+                remaining -= n;
+            }
+        }
+
         @Override
         public long estimateSize() {
             // Ensure ranges of size > Integer.MAX_VALUE report the correct size
@@ -182,7 +204,7 @@ final class Streams {
      * This implementation cannot be used for ranges whose size is greater
      * than Long.MAX_VALUE
      */
-    static final class RangeLongSpliterator implements Spliterator.OfLong {
+    static final class RangeLongSpliterator implements Spliterator.OfLong, ChunkedSpliterator {
         // Can never be greater that upTo, this avoids overflow if upper bound
         // is Long.MAX_VALUE
         // All elements are traversed if from == upTo & last == 0
@@ -240,6 +262,28 @@ final class Streams {
             }
         }
 
+        @Override
+        public void forEachRemainingChunk(Sink<?> sink) {
+            Objects.requireNonNull(sink);
+
+            long i = from;
+            final long hUpTo = upTo;
+            // Widen so that the last element of a closed range ending at
+            // MAX_VALUE is counted without overflow
+            long remaining = hUpTo - i + last;
+            from = upTo;
+            last = 0;
+            long[] chunk = new long[(int) Math.min(remaining, Sink.CHUNK_SIZE)];
+            while (remaining > 0) {
+                int n = (int) Math.min(remaining, chunk.length);
+                for (int j = 0; j < n; j++)
+                    chunk[j] = i + j;
+                sink.accept(chunk, 0, n);
+                i += n;
+                remaining -= n;
+            }
+        }
+
         @Override
         public long estimateSize() {
             return upTo - from + last;
@@ -298,6 +342,210 @@ final class Streams {
         }
     }
 
+    /**
+     * An {@code int} array spliterator that can push its elements in chunks.
+     * It otherwise behaves as the spliterator returned by
+     * {@link java.util.Arrays#spliterator(int[], int, int)}.
+     */
+    static final class IntArraySpliterator implements Spliterator.OfInt, ChunkedSpliterator {
+        private final int[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        IntArraySpliterator(int[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new IntArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+
+            int[] a = array;
+            int i = index, hi = fence;
+            index = hi;
+            while (i < hi)
+                action.accept(a[i++]);
+        }
+
+        @Override
+        public void forEachRemainingChunk(Sink<?> sink) {
+            Objects.requireNonNull(sink);
+
+            int i = index, hi = fence;
+            index = hi;
+            if (i < hi)
+                sink.accept(array, i, hi);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+
+            if (index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (fence - index);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * An {@code long} array spliterator that can push its elements in chunks.
+     * It otherwise behaves as the spliterator returned by
+     * {@link java.util.Arrays#spliterator(long[], int, int)}.
+     */
+    static final class LongArraySpliterator implements Spliterator.OfLong, ChunkedSpliterator {
+        private final long[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        LongArraySpliterator(long[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new LongArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+
+            long[] a = array;
+            int i = index, hi = fence;
+            index = hi;
+            while (i < hi)
+                action.accept(a[i++]);
+        }
+
+        @Override
+        public void forEachRemainingChunk(Sink<?> sink) {
+            Objects.requireNonNull(sink);
+
+            int i = index, hi = fence;
+            index = hi;
+            if (i < hi)
+                sink.accept(array, i, hi);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+
+            if (index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (fence - index);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * An {@code double} array spliterator that can push its elements in chunks.
+     * It otherwise behaves as the spliterator returned by
+     * {@link java.util.Arrays#spliterator(double[], int, int)}.
+     */
+    static final class DoubleArraySpliterator implements Spliterator.OfDouble, ChunkedSpliterator {
+        private final double[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        DoubleArraySpliterator(double[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new DoubleArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+
+            double[] a = array;
+            int i = index, hi = fence;
+            index = hi;
+            while (i < hi)
+                action.accept(a[i++]);
+        }
+
+        @Override
+        public void forEachRemainingChunk(Sink<?> sink) {
+            Objects.requireNonNull(sink);
+
+            int i = index, hi = fence;
+            index = hi;
+            if (i < hi)
+                sink.accept(array, i, hi);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+
+            if (index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (fence - index);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
     private static abstract class AbstractStreamBuilderImpl<T, S extends Spliterator<T>> implements Spliterator<T> {
         // >= 0 when building, < 0 when built
         // -1 == no elements
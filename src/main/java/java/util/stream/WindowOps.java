@@ -0,0 +1,949 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * 20261016
+ * A. 把流转换为窗口流的工厂方法: 固定大小的连续块、固定大小的滑动窗口, 或键相等的相邻元素组成的段。
+ * B. 顺序执行时只缓冲正在填充的窗口(滑动窗口最多两倍窗口大小), 窗口一满就发出, 内存受窗口大小而非流的长度限制。
+ *    并行执行时先把上游元素收集到数组, 再按下标定位窗口, 使窗口流在窗口边界上拆分。
+ * C. 引用流的窗口是不可修改的 {@code List}, 基本类型流的窗口是数组; 窗口都是副本, 不与其他窗口共享存储。
+ */
+/**
+ * Factory methods for transforming streams into streams of windows:
+ * consecutive chunks of a fixed size, sliding windows of a fixed size, or
+ * runs of adjacent elements with equal keys.
+ *
+ * <p>Sequentially, an operation buffers only the window being filled (for
+ * sliding windows, up to twice the window size) and emits each window as
+ * soon as it is complete, so memory is bounded by the window rather than by
+ * the stream.  In parallel, the upstream elements are first collected into
+ * an array; the windows are then addressed by index, so that the stream of
+ * windows splits on window boundaries.
+ *
+ * <p>A window of a reference stream is an unmodifiable {@code List}, and a
+ * window of a primitive stream is an array; in both cases the window is a
+ * copy, and does not share storage with any other window.
+ *
+ * @since 1.8
+ */
+final class WindowOps {
+
+    private WindowOps() { }
+
+    /**
+     * Kinds of windows.
+     */
+    enum Kind {
+        /**
+         * Consecutive, non-overlapping windows of a fixed size; the last
+         * window is shorter if the elements do not divide evenly.
+         */
+        CHUNKED,
+
+        /**
+         * A window of a fixed size starting at each element that has enough
+         * elements following it; there is none if the stream is shorter than
+         * the window.
+         */
+        SLIDING,
+
+        /**
+         * Maximal runs of adjacent elements whose keys are equal.
+         */
+        GROUP_ADJACENT
+    }
+
+    /** Capacity of a window buffer when the stream size is unknown. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static int checkSize(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return size;
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a reference stream that
+     * groups its elements into consecutive lists of {@code size} elements.
+     *
+     * @param <T> the type of the stream elements
+     * @param upstream a reference stream
+     * @param size the number of elements in each list
+     */
+    static <T> Stream<List<T>> makeChunkedRef(AbstractPipeline<?, T, ?> upstream, int size) {
+        return new OfRef<>(upstream, Kind.CHUNKED, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a reference stream that
+     * produces a sliding window of {@code size} elements at each element.
+     *
+     * @param <T> the type of the stream elements
+     * @param upstream a reference stream
+     * @param size the number of elements in each window
+     */
+    static <T> Stream<List<T>> makeWindowedRef(AbstractPipeline<?, T, ?> upstream, int size) {
+        return new OfRef<>(upstream, Kind.SLIDING, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a reference stream that
+     * groups runs of adjacent elements with equal keys into lists.
+     *
+     * @param <T> the type of the stream elements
+     * @param upstream a reference stream
+     * @param classifier the function computing the key of an element
+     */
+    static <T> Stream<List<T>> makeGroupAdjacentRef(AbstractPipeline<?, T, ?> upstream,
+                                                    Function<? super T, ?> classifier) {
+        return new OfRef<>(upstream, Kind.GROUP_ADJACENT, 0, Objects.requireNonNull(classifier));
+    }
+
+    /**
+     * Appends a stateful intermediate operation to an {@code int} stream that
+     * groups its elements into consecutive arrays of {@code size} elements.
+     *
+     * @param upstream an {@code int} stream
+     * @param size the number of elements in each array
+     */
+    static Stream<int[]> makeChunkedInt(AbstractPipeline<?, Integer, ?> upstream, int size) {
+        return new OfInt(upstream, Kind.CHUNKED, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to an {@code int} stream that
+     * produces a sliding window of {@code size} elements at each element.
+     *
+     * @param upstream an {@code int} stream
+     * @param size the number of elements in each window
+     */
+    static Stream<int[]> makeWindowedInt(AbstractPipeline<?, Integer, ?> upstream, int size) {
+        return new OfInt(upstream, Kind.SLIDING, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to an {@code int} stream that
+     * groups runs of adjacent elements with equal keys into arrays.
+     *
+     * @param upstream an {@code int} stream
+     * @param classifier the function computing the key of an element
+     */
+    static Stream<int[]> makeGroupAdjacentInt(AbstractPipeline<?, Integer, ?> upstream,
+                                              IntFunction<?> classifier) {
+        return new OfInt(upstream, Kind.GROUP_ADJACENT, 0, Objects.requireNonNull(classifier));
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code long} stream that
+     * groups its elements into consecutive arrays of {@code size} elements.
+     *
+     * @param upstream a {@code long} stream
+     * @param size the number of elements in each array
+     */
+    static Stream<long[]> makeChunkedLong(AbstractPipeline<?, Long, ?> upstream, int size) {
+        return new OfLong(upstream, Kind.CHUNKED, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code long} stream that
+     * produces a sliding window of {@code size} elements at each element.
+     *
+     * @param upstream a {@code long} stream
+     * @param size the number of elements in each window
+     */
+    static Stream<long[]> makeWindowedLong(AbstractPipeline<?, Long, ?> upstream, int size) {
+        return new OfLong(upstream, Kind.SLIDING, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code long} stream that
+     * groups runs of adjacent elements with equal keys into arrays.
+     *
+     * @param upstream a {@code long} stream
+     * @param classifier the function computing the key of an element
+     */
+    static Stream<long[]> makeGroupAdjacentLong(AbstractPipeline<?, Long, ?> upstream,
+                                                LongFunction<?> classifier) {
+        return new OfLong(upstream, Kind.GROUP_ADJACENT, 0, Objects.requireNonNull(classifier));
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code double} stream that
+     * groups its elements into consecutive arrays of {@code size} elements.
+     *
+     * @param upstream a {@code double} stream
+     * @param size the number of elements in each array
+     */
+    static Stream<double[]> makeChunkedDouble(AbstractPipeline<?, Double, ?> upstream, int size) {
+        return new OfDouble(upstream, Kind.CHUNKED, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code double} stream that
+     * produces a sliding window of {@code size} elements at each element.
+     *
+     * @param upstream a {@code double} stream
+     * @param size the number of elements in each window
+     */
+    static Stream<double[]> makeWindowedDouble(AbstractPipeline<?, Double, ?> upstream, int size) {
+        return new OfDouble(upstream, Kind.SLIDING, checkSize(size), null);
+    }
+
+    /**
+     * Appends a stateful intermediate operation to a {@code double} stream that
+     * groups runs of adjacent elements with equal keys into arrays.
+     *
+     * @param upstream a {@code double} stream
+     * @param classifier the function computing the key of an element
+     */
+    static Stream<double[]> makeGroupAdjacentDouble(AbstractPipeline<?, Double, ?> upstream,
+                                                    DoubleFunction<?> classifier) {
+        return new OfDouble(upstream, Kind.GROUP_ADJACENT, 0, Objects.requireNonNull(classifier));
+    }
+
+    /**
+     * Returns a sequential stream of the windows of the given stream,
+     * computed by an iterator over its elements.  This implements the
+     * default methods of {@link Stream}, for streams that are not pipelines.
+     *
+     * @param <T> the type of the stream elements
+     * @param upstream a reference stream
+     * @param kind the kind of windows
+     * @param size the window size, or 0 for GROUP_ADJACENT
+     * @param classifier the function computing the key of an element, for
+     *        GROUP_ADJACENT
+     */
+    static <T> Stream<List<T>> makeIteratorRef(Stream<T> upstream, Kind kind, int size,
+                                               Function<? super T, ?> classifier) {
+        if (kind == Kind.GROUP_ADJACENT)
+            Objects.requireNonNull(classifier);
+        else
+            checkSize(size);
+        return StreamSupport.stream(
+                () -> Spliterators.spliteratorUnknownSize(
+                        new WindowIterator<>(upstream.iterator(), kind, size, classifier),
+                        Spliterator.ORDERED | Spliterator.NONNULL),
+                Spliterator.ORDERED | Spliterator.NONNULL, false)
+            .onClose(upstream::close);
+    }
+
+    /** Copies a window of boxed {@code int} values into an array. */
+    static int[] toIntArray(List<Integer> window) {
+        int[] a = new int[window.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = window.get(i);
+        return a;
+    }
+
+    /** Copies a window of boxed {@code long} values into an array. */
+    static long[] toLongArray(List<Long> window) {
+        long[] a = new long[window.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = window.get(i);
+        return a;
+    }
+
+    /** Copies a window of boxed {@code double} values into an array. */
+    static double[] toDoubleArray(List<Double> window) {
+        double[] a = new double[window.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = window.get(i);
+        return a;
+    }
+
+    /**
+     * An iterator over the windows of the elements of another iterator,
+     * buffering only the window being filled.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class WindowIterator<T> implements Iterator<List<T>> {
+        private final Iterator<T> it;
+        private final Kind kind;
+        private final int size;
+        private final Function<? super T, ?> classifier;
+        // The elements of the current sliding window, or the pending run
+        private final ArrayList<T> buffer = new ArrayList<>();
+        // The window to return next, or null if not yet computed
+        private List<T> next;
+        // For GROUP_ADJACENT, the first element of the next run, read ahead
+        private T pending;
+        private Object pendingKey;
+        private boolean hasPending;
+
+        WindowIterator(Iterator<T> it, Kind kind, int size,
+                       Function<? super T, ?> classifier) {
+            this.it = it;
+            this.kind = kind;
+            this.size = size;
+            this.classifier = classifier;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null)
+                next = advance();
+            return next != null;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            List<T> w = next;
+            next = null;
+            return w;
+        }
+
+        /** Returns the next window, or null if there is none. */
+        private List<T> advance() {
+            switch (kind) {
+                case CHUNKED:
+                    buffer.clear();
+                    while (buffer.size() < size && it.hasNext())
+                        buffer.add(it.next());
+                    return buffer.isEmpty() ? null : window();
+
+                case SLIDING:
+                    if (buffer.size() == size) {
+                        if (!it.hasNext())
+                            return null;
+                        buffer.remove(0);
+                        buffer.add(it.next());
+                    }
+                    else {
+                        while (buffer.size() < size && it.hasNext())
+                            buffer.add(it.next());
+                        if (buffer.size() < size)
+                            return null;
+                    }
+                    return window();
+
+                default:
+                    if (!hasPending) {
+                        if (!it.hasNext())
+                            return null;
+                        pending = it.next();
+                        pendingKey = classifier.apply(pending);
+                    }
+                    buffer.clear();
+                    buffer.add(pending);
+                    Object key = pendingKey;
+                    hasPending = false;
+                    pending = null;
+                    while (it.hasNext()) {
+                        T t = it.next();
+                        Object k = classifier.apply(t);
+                        if (!Objects.equals(key, k)) {
+                            pending = t;
+                            pendingKey = k;
+                            hasPending = true;
+                            break;
+                        }
+                        buffer.add(t);
+                    }
+                    return window();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> window() {
+            return Collections.unmodifiableList((List<T>) Arrays.asList(buffer.toArray()));
+        }
+    }
+
+    /**
+     * A stateful intermediate operation that transforms a stream into a
+     * stream of windows.
+     *
+     * @param <E_IN> the type of the input elements
+     * @param <A> the type of the array holding input elements
+     * @param <W> the type of the windows
+     */
+    private abstract static class WindowOp<E_IN, A, W>
+            extends ReferencePipeline.StatefulOp<E_IN, W> {
+        final Kind kind;
+        // The window size, or 0 for GROUP_ADJACENT
+        final int size;
+        // The largest capacity of the window buffer of a sink; a full
+        // SLIDING buffer of this capacity is compacted rather than grown
+        final int capacity;
+
+        WindowOp(AbstractPipeline<?, E_IN, ?> upstream, StreamShape inputShape,
+                 Kind kind, int size) {
+            super(upstream, inputShape,
+                  StreamOpFlag.NOT_SIZED | StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.kind = kind;
+            this.size = size;
+            switch (kind) {
+                case CHUNKED:
+                    capacity = size;
+                    break;
+                case SLIDING:
+                    capacity = (int) Math.min(2L * size, Nodes.MAX_ARRAY_SIZE);
+                    break;
+                default:
+                    capacity = (int) Nodes.MAX_ARRAY_SIZE;
+            }
+        }
+
+        /**
+         * Returns the elements of a flat node as an array, which may be the
+         * array backing the node.
+         */
+        abstract A asArray(Node<E_IN> node);
+
+        /** Returns the length of an array. */
+        abstract int length(A array);
+
+        /** Returns a window holding a copy of a range of an array. */
+        abstract W window(A array, int from, int to);
+
+        /** Returns the key of each element of an array, for GROUP_ADJACENT. */
+        abstract Object[] keys(A array);
+
+        /**
+         * Returns the initial capacity of the window buffer of a sink, given
+         * the exact number of elements it will receive, or -1 if unknown.
+         */
+        final int initialCapacity(long size) {
+            return (int) Math.min((size >= 0 && kind != Kind.GROUP_ADJACENT) ? size : INITIAL_CAPACITY,
+                                  capacity);
+        }
+
+        /**
+         * Returns the capacity to which a full window buffer of the given
+         * length grows.
+         */
+        final int grow(int length) {
+            if (length >= capacity)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            return (int) Math.min(Math.max(2L * length, INITIAL_CAPACITY), capacity);
+        }
+
+        /**
+         * Returns the exact number of windows of a given number of elements,
+         * or -1 if unknown.
+         */
+        final long outputSize(long size) {
+            if (size < 0)
+                return -1;
+            switch (kind) {
+                case CHUNKED:
+                    return size / this.size + (size % this.size == 0 ? 0 : 1);
+                case SLIDING:
+                    return Math.max(0, size - this.size + 1);
+                default:
+                    return -1;
+            }
+        }
+
+        @Override
+        <P_IN> Node<W> opEvaluateParallel(PipelineHelper<W> helper,
+                                          Spliterator<P_IN> spliterator,
+                                          IntFunction<W[]> generator) {
+            WindowSpliterator windows = windows(helper, spliterator);
+            W[] array = generator.apply(windows.fence);
+            Arrays.parallelSetAll(array, windows::get);
+            return Nodes.node(array);
+        }
+
+        @Override
+        <P_IN> Spliterator<W> opEvaluateParallelLazy(PipelineHelper<W> helper,
+                                                     Spliterator<P_IN> spliterator) {
+            return windows(helper, spliterator);
+        }
+
+        /**
+         * Collects the upstream elements into an array and locates the
+         * windows over it.
+         */
+        @SuppressWarnings("unchecked")
+        private <P_IN> WindowSpliterator windows(PipelineHelper<W> helper,
+                                                 Spliterator<P_IN> spliterator) {
+            // The helper is the upstream pipeline, whose elements are of
+            // type E_IN; primitive pipelines ignore the array generator
+            PipelineHelper<E_IN> upstream = (PipelineHelper<E_IN>) (PipelineHelper<?>) helper;
+            A array = asArray(upstream.evaluate(spliterator, true, n -> (E_IN[]) new Object[n]));
+            int length = length(array);
+            switch (kind) {
+                case CHUNKED:
+                case SLIDING:
+                    return new WindowSpliterator(array, length, null, 0,
+                                                 (int) outputSize(length));
+                default:
+                    Object[] keys = keys(array);
+                    int[] starts = IntStream.range(0, length).parallel()
+                            .filter(i -> i == 0 || !Objects.equals(keys[i - 1], keys[i]))
+                            .toArray();
+                    return new WindowSpliterator(array, length, starts, 0, starts.length);
+            }
+        }
+
+        /**
+         * A spliterator over the windows of an array, addressed by index.
+         */
+        final class WindowSpliterator implements Spliterator<W> {
+            private final A array;
+            private final int length;
+            // The index of the first element of each window, for GROUP_ADJACENT
+            private final int[] starts;
+            private int index;        // current window, modified on advance/split
+            private final int fence;  // one past last window
+
+            WindowSpliterator(A array, int length, int[] starts, int origin, int fence) {
+                this.array = array;
+                this.length = length;
+                this.starts = starts;
+                this.index = origin;
+                this.fence = fence;
+            }
+
+            W get(int i) {
+                switch (kind) {
+                    case CHUNKED: {
+                        int from = i * size;
+                        return window(array, from, (int) Math.min((long) from + size, length));
+                    }
+                    case SLIDING:
+                        return window(array, i, i + size);
+                    default:
+                        return window(array, starts[i],
+                                      (i + 1 < starts.length) ? starts[i + 1] : length);
+                }
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super W> action) {
+                Objects.requireNonNull(action);
+                if (index < fence) {
+                    action.accept(get(index++));
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super W> action) {
+                Objects.requireNonNull(action);
+                int i = index, hi = fence;
+                index = hi;
+                while (i < hi)
+                    action.accept(get(i++));
+            }
+
+            @Override
+            public Spliterator<W> trySplit() {
+                int lo = index, mid = (lo + fence) >>> 1;
+                return (lo >= mid)
+                       ? null
+                       : new WindowSpliterator(array, length, starts, lo, index = mid);
+            }
+
+            @Override
+            public long estimateSize() {
+                return (long) (fence - index);
+            }
+
+            @Override
+            public int characteristics() {
+                return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                       Spliterator.NONNULL | Spliterator.IMMUTABLE;
+            }
+        }
+    }
+
+    /**
+     * Windows of a reference stream, as unmodifiable lists.
+     *
+     * @param <T> the type of the stream elements
+     */
+    private static final class OfRef<T> extends WindowOp<T, Object[], List<T>> {
+        private final Function<? super T, ?> classifier;
+
+        OfRef(AbstractPipeline<?, T, ?> upstream, Kind kind, int size,
+              Function<? super T, ?> classifier) {
+            super(upstream, StreamShape.REFERENCE, kind, size);
+            this.classifier = classifier;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object[] asArray(Node<T> node) {
+            return node.asArray(n -> (T[]) new Object[n]);
+        }
+
+        @Override
+        int length(Object[] array) {
+            return array.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        List<T> window(Object[] array, int from, int to) {
+            return Collections.unmodifiableList(Arrays.asList((T[]) Arrays.copyOfRange(array, from, to)));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object[] keys(Object[] array) {
+            Object[] keys = new Object[array.length];
+            Arrays.parallelSetAll(keys, i -> classifier.apply((T) array[i]));
+            return keys;
+        }
+
+        @Override
+        Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+            Objects.requireNonNull(sink);
+            return new Sink.ChainedReference<T, List<T>>(sink) {
+                private Object[] buffer;
+                private int count;
+                private Object key;
+
+                @Override
+                public void begin(long size) {
+                    buffer = new Object[initialCapacity(size)];
+                    count = 0;
+                    downstream.begin(outputSize(size));
+                }
+
+                @Override
+                public void end() {
+                    if (count > 0 && kind != Kind.SLIDING && !downstream.cancellationRequested())
+                        downstream.accept(window(buffer, 0, count));
+                    buffer = null;
+                    key = null;
+                    downstream.end();
+                }
+
+                @Override
+                public void accept(T t) {
+                    if (kind == Kind.GROUP_ADJACENT) {
+                        Object k = classifier.apply(t);
+                        if (count > 0 && !Objects.equals(key, k)) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                        key = k;
+                    }
+                    if (count == buffer.length) {
+                        if (kind == Kind.SLIDING && count == capacity) {
+                            // Keep the last size - 1 elements, which start the next window
+                            System.arraycopy(buffer, count - size + 1, buffer, 0, size - 1);
+                            count = size - 1;
+                        }
+                        else {
+                            buffer = Arrays.copyOf(buffer, grow(count));
+                        }
+                    }
+                    buffer[count++] = t;
+                    if (kind == Kind.CHUNKED) {
+                        if (count == size) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                    }
+                    else if (kind == Kind.SLIDING && count >= size) {
+                        downstream.accept(window(buffer, count - size, count));
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Windows of an {@code int} stream, as arrays.
+     */
+    private static final class OfInt extends WindowOp<Integer, int[], int[]> {
+        private final IntFunction<?> classifier;
+
+        OfInt(AbstractPipeline<?, Integer, ?> upstream, Kind kind, int size,
+              IntFunction<?> classifier) {
+            super(upstream, StreamShape.INT_VALUE, kind, size);
+            this.classifier = classifier;
+        }
+
+        @Override
+        int[] asArray(Node<Integer> node) {
+            return ((Node.OfInt) node).asPrimitiveArray();
+        }
+
+        @Override
+        int length(int[] array) {
+            return array.length;
+        }
+
+        @Override
+        int[] window(int[] array, int from, int to) {
+            return Arrays.copyOfRange(array, from, to);
+        }
+
+        @Override
+        Object[] keys(int[] array) {
+            Object[] keys = new Object[array.length];
+            Arrays.parallelSetAll(keys, i -> classifier.apply(array[i]));
+            return keys;
+        }
+
+        @Override
+        Sink<Integer> opWrapSink(int flags, Sink<int[]> sink) {
+            Objects.requireNonNull(sink);
+            return new Sink.ChainedInt<int[]>(sink) {
+                private int[] buffer;
+                private int count;
+                private Object key;
+
+                @Override
+                public void begin(long size) {
+                    buffer = new int[initialCapacity(size)];
+                    count = 0;
+                    downstream.begin(outputSize(size));
+                }
+
+                @Override
+                public void end() {
+                    if (count > 0 && kind != Kind.SLIDING && !downstream.cancellationRequested())
+                        downstream.accept(window(buffer, 0, count));
+                    buffer = null;
+                    key = null;
+                    downstream.end();
+                }
+
+                @Override
+                public void accept(int t) {
+                    if (kind == Kind.GROUP_ADJACENT) {
+                        Object k = classifier.apply(t);
+                        if (count > 0 && !Objects.equals(key, k)) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                        key = k;
+                    }
+                    if (count == buffer.length) {
+                        if (kind == Kind.SLIDING && count == capacity) {
+                            // Keep the last size - 1 elements, which start the next window
+                            System.arraycopy(buffer, count - size + 1, buffer, 0, size - 1);
+                            count = size - 1;
+                        }
+                        else {
+                            buffer = Arrays.copyOf(buffer, grow(count));
+                        }
+                    }
+                    buffer[count++] = t;
+                    if (kind == Kind.CHUNKED) {
+                        if (count == size) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                    }
+                    else if (kind == Kind.SLIDING && count >= size) {
+                        downstream.accept(window(buffer, count - size, count));
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Windows of a {@code long} stream, as arrays.
+     */
+    private static final class OfLong extends WindowOp<Long, long[], long[]> {
+        private final LongFunction<?> classifier;
+
+        OfLong(AbstractPipeline<?, Long, ?> upstream, Kind kind, int size,
+               LongFunction<?> classifier) {
+            super(upstream, StreamShape.LONG_VALUE, kind, size);
+            this.classifier = classifier;
+        }
+
+        @Override
+        long[] asArray(Node<Long> node) {
+            return ((Node.OfLong) node).asPrimitiveArray();
+        }
+
+        @Override
+        int length(long[] array) {
+            return array.length;
+        }
+
+        @Override
+        long[] window(long[] array, int from, int to) {
+            return Arrays.copyOfRange(array, from, to);
+        }
+
+        @Override
+        Object[] keys(long[] array) {
+            Object[] keys = new Object[array.length];
+            Arrays.parallelSetAll(keys, i -> classifier.apply(array[i]));
+            return keys;
+        }
+
+        @Override
+        Sink<Long> opWrapSink(int flags, Sink<long[]> sink) {
+            Objects.requireNonNull(sink);
+            return new Sink.ChainedLong<long[]>(sink) {
+                private long[] buffer;
+                private int count;
+                private Object key;
+
+                @Override
+                public void begin(long size) {
+                    buffer = new long[initialCapacity(size)];
+                    count = 0;
+                    downstream.begin(outputSize(size));
+                }
+
+                @Override
+                public void end() {
+                    if (count > 0 && kind != Kind.SLIDING && !downstream.cancellationRequested())
+                        downstream.accept(window(buffer, 0, count));
+                    buffer = null;
+                    key = null;
+                    downstream.end();
+                }
+
+                @Override
+                public void accept(long t) {
+                    if (kind == Kind.GROUP_ADJACENT) {
+                        Object k = classifier.apply(t);
+                        if (count > 0 && !Objects.equals(key, k)) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                        key = k;
+                    }
+                    if (count == buffer.length) {
+                        if (kind == Kind.SLIDING && count == capacity) {
+                            // Keep the last size - 1 elements, which start the next window
+                            System.arraycopy(buffer, count - size + 1, buffer, 0, size - 1);
+                            count = size - 1;
+                        }
+                        else {
+                            buffer = Arrays.copyOf(buffer, grow(count));
+                        }
+                    }
+                    buffer[count++] = t;
+                    if (kind == Kind.CHUNKED) {
+                        if (count == size) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                    }
+                    else if (kind == Kind.SLIDING && count >= size) {
+                        downstream.accept(window(buffer, count - size, count));
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Windows of a {@code double} stream, as arrays.
+     */
+    private static final class OfDouble extends WindowOp<Double, double[], double[]> {
+        private final DoubleFunction<?> classifier;
+
+        OfDouble(AbstractPipeline<?, Double, ?> upstream, Kind kind, int size,
+                 DoubleFunction<?> classifier) {
+            super(upstream, StreamShape.DOUBLE_VALUE, kind, size);
+            this.classifier = classifier;
+        }
+
+        @Override
+        double[] asArray(Node<Double> node) {
+            return ((Node.OfDouble) node).asPrimitiveArray();
+        }
+
+        @Override
+        int length(double[] array) {
+            return array.length;
+        }
+
+        @Override
+        double[] window(double[] array, int from, int to) {
+            return Arrays.copyOfRange(array, from, to);
+        }
+
+        @Override
+        Object[] keys(double[] array) {
+            Object[] keys = new Object[array.length];
+            Arrays.parallelSetAll(keys, i -> classifier.apply(array[i]));
+            return keys;
+        }
+
+        @Override
+        Sink<Double> opWrapSink(int flags, Sink<double[]> sink) {
+            Objects.requireNonNull(sink);
+            return new Sink.ChainedDouble<double[]>(sink) {
+                private double[] buffer;
+                private int count;
+                private Object key;
+
+                @Override
+                public void begin(long size) {
+                    buffer = new double[initialCapacity(size)];
+                    count = 0;
+                    downstream.begin(outputSize(size));
+                }
+
+                @Override
+                public void end() {
+                    if (count > 0 && kind != Kind.SLIDING && !downstream.cancellationRequested())
+                        downstream.accept(window(buffer, 0, count));
+                    buffer = null;
+                    key = null;
+                    downstream.end();
+                }
+
+                @Override
+                public void accept(double t) {
+                    if (kind == Kind.GROUP_ADJACENT) {
+                        Object k = classifier.apply(t);
+                        if (count > 0 && !Objects.equals(key, k)) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                        key = k;
+                    }
+                    if (count == buffer.length) {
+                        if (kind == Kind.SLIDING && count == capacity) {
+                            // Keep the last size - 1 elements, which start the next window
+                            System.arraycopy(buffer, count - size + 1, buffer, 0, size - 1);
+                            count = size - 1;
+                        }
+                        else {
+                            buffer = Arrays.copyOf(buffer, grow(count));
+                        }
+                    }
+                    buffer[count++] = t;
+                    if (kind == Kind.CHUNKED) {
+                        if (count == size) {
+                            downstream.accept(window(buffer, 0, count));
+                            count = 0;
+                        }
+                    }
+                    else if (kind == Kind.SLIDING && count >= size) {
+                        downstream.accept(window(buffer, count - size, count));
+                    }
+                }
+            };
+        }
+    }
+}
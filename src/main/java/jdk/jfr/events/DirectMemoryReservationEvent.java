@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.jfr.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+import jdk.jfr.internal.Type;
+
+@Name(Type.EVENT_NAME_PREFIX + "DirectMemoryReservation")
+@Label("Direct Memory Reservation")
+@Category("Java Application")
+@Description("A reservation of direct buffer memory that exceeded the limit at first, "
+             + "and so reclaimed memory or failed, reported after it was made")
+@StackTrace(false)
+public final class DirectMemoryReservationEvent extends AbstractJDKEvent {
+
+    @Label("Reservation Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long reservationTime;
+
+    @Label("Thread Name")
+    @Description("Name of the thread that made the reservation")
+    public String threadName;
+
+    @Label("Capacity")
+    @DataAmount
+    public long capacity;
+
+    @Label("Wait Time")
+    @Description("Time spent reclaiming memory before the reservation succeeded or failed")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waitTime;
+
+    @Label("Reclaim Mode")
+    @Description("Value of jdk.nio.reserveMemory.mode: sync, async or failfast")
+    public String reclaimMode;
+
+    @Label("Reserved")
+    @Description("Whether the reservation succeeded")
+    public boolean reserved;
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.jfr.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.internal.Type;
+
+@Name(Type.EVENT_NAME_PREFIX + "SynchronizerContentionStatistics")
+@Label("Synchronizer Contention Statistics")
+@Category({ "Java Application", "Statistics" })
+@Description("Contention counters of an AbstractQueuedSynchronizer, recorded when "
+             + "java.util.concurrent.locks.instrumentContention is true")
+@StackTrace(false)
+public final class SynchronizerContentionStatisticsEvent extends AbstractJDKEvent {
+
+    @Label("Synchronizer Class")
+    public String synchronizerClass;
+
+    @Label("Identity Hash Code")
+    public int identityHashCode;
+
+    @Label("Contended Acquires")
+    @Description("Number of acquires that queued")
+    public long contendedAcquires;
+
+    @Label("Acquire Wait Time")
+    @Description("Total time spent queued to acquire")
+    @Timespan(Timespan.NANOSECONDS)
+    public long acquireWaitTime;
+
+    @Label("Parks")
+    @Description("Number of times a thread queued to acquire parked")
+    public long parks;
+
+    @Label("Queue Length")
+    public int queueLength;
+
+    @Label("Peak Queue Length")
+    public int peakQueueLength;
+
+    @Label("Condition Waits")
+    public long conditionAwaits;
+
+    @Label("Condition Wait Time")
+    @Description("Total time spent waiting on conditions, excluding reacquiring")
+    @Timespan(Timespan.NANOSECONDS)
+    public long conditionWaitTime;
+}
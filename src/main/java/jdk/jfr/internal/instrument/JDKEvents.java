@@ -31,6 +31,7 @@ import java.util.List;
 import jdk.jfr.Event;
 import jdk.jfr.events.ActiveRecordingEvent;
 import jdk.jfr.events.ActiveSettingEvent;
+import jdk.jfr.events.DirectMemoryReservationEvent;
 import jdk.jfr.events.ErrorThrownEvent;
 import jdk.jfr.events.ExceptionStatisticsEvent;
 import jdk.jfr.events.ExceptionThrownEvent;
@@ -39,12 +40,16 @@ import jdk.jfr.events.FileReadEvent;
 import jdk.jfr.events.FileWriteEvent;
 import jdk.jfr.events.SocketReadEvent;
 import jdk.jfr.events.SocketWriteEvent;
+import jdk.jfr.events.SynchronizerContentionStatisticsEvent;
 import jdk.jfr.internal.JVM;
 import jdk.jfr.internal.LogLevel;
 import jdk.jfr.internal.LogTag;
 import jdk.jfr.internal.Logger;
 import jdk.jfr.internal.RequestEngine;
 import jdk.jfr.internal.SecuritySupport;
+import sun.misc.JavaNioAccess;
+import sun.misc.JavaUtilConcurrentLocksAccess;
+import sun.misc.SharedSecrets;
 
 public final class JDKEvents {
 
@@ -57,6 +62,8 @@ public final class JDKEvents {
         ExceptionThrownEvent.class,
         ExceptionStatisticsEvent.class,
         ErrorThrownEvent.class,
+        SynchronizerContentionStatisticsEvent.class,
+        DirectMemoryReservationEvent.class,
         ActiveSettingEvent.class,
         ActiveRecordingEvent.class
     };
@@ -75,6 +82,8 @@ public final class JDKEvents {
     private static final Class<?>[] targetClasses = new Class<?>[instrumentationClasses.length];
     private static final JVM jvm = JVM.getJVM();
     private static final Runnable emitExceptionStatistics = JDKEvents::emitExceptionStatistics;
+    private static final Runnable emitSynchronizerContentionStatistics = JDKEvents::emitSynchronizerContentionStatistics;
+    private static final Runnable emitDirectMemoryReservations = JDKEvents::emitDirectMemoryReservations;
     private static boolean initializationTriggered;
 
     @SuppressWarnings("unchecked")
@@ -86,6 +95,8 @@ public final class JDKEvents {
                 }
                 initializationTriggered = true;
                 RequestEngine.addTrustedJDKHook(ExceptionStatisticsEvent.class, emitExceptionStatistics);
+                RequestEngine.addTrustedJDKHook(SynchronizerContentionStatisticsEvent.class, emitSynchronizerContentionStatistics);
+                RequestEngine.addTrustedJDKHook(DirectMemoryReservationEvent.class, emitDirectMemoryReservations);
             }
         } catch (Exception e) {
             Logger.log(LogTag.JFR_SYSTEM, LogLevel.WARN, "Could not initialize JDK events. " + e.getMessage());
@@ -116,6 +127,40 @@ public final class JDKEvents {
         t.commit();
     }
 
+    private static void emitSynchronizerContentionStatistics() {
+        JavaUtilConcurrentLocksAccess access = SharedSecrets.getJavaUtilConcurrentLocksAccess();
+        if (!access.isContentionInstrumentationEnabled()) {
+            return;
+        }
+        for (JavaUtilConcurrentLocksAccess.ContentionStatistics s : access.getContentionStatistics()) {
+            SynchronizerContentionStatisticsEvent t = new SynchronizerContentionStatisticsEvent();
+            t.synchronizerClass = s.getClassName();
+            t.identityHashCode = s.getIdentityHashCode();
+            t.contendedAcquires = s.getContendedAcquireCount();
+            t.acquireWaitTime = s.getAcquireWaitTime();
+            t.parks = s.getParkCount();
+            t.queueLength = s.getQueueLength();
+            t.peakQueueLength = s.getPeakQueueLength();
+            t.conditionAwaits = s.getConditionAwaitCount();
+            t.conditionWaitTime = s.getConditionWaitTime();
+            t.commit();
+        }
+    }
+
+    private static void emitDirectMemoryReservations() {
+        JavaNioAccess access = SharedSecrets.getJavaNioAccess();
+        for (JavaNioAccess.SlowReservation r : access.pollSlowReservations()) {
+            DirectMemoryReservationEvent t = new DirectMemoryReservationEvent();
+            t.reservationTime = r.getTime();
+            t.threadName = r.getThreadName();
+            t.capacity = r.getCapacity();
+            t.waitTime = r.getWaitTime();
+            t.reclaimMode = r.getReclaimMode();
+            t.reserved = r.isReserved();
+            t.commit();
+        }
+    }
+
     @SuppressWarnings("deprecation")
     public static byte[] retransformCallback(Class<?> klass, byte[] oldBytes) throws Throwable {
         if (Throwable.class == klass) {
@@ -204,14 +204,24 @@ public class ManagementFactoryHelper {
         }
     }
 
+    private static SynchronizerContentionImpl synchronizerContentionMBean = null;
+    public static synchronized SynchronizerContentionMXBean getSynchronizerContentionMXBean() {
+        if (synchronizerContentionMBean == null) {
+            synchronizerContentionMBean = new SynchronizerContentionImpl();
+        }
+        return synchronizerContentionMBean;
+    }
+
     private static List<BufferPoolMXBean> bufferPools = null;
     public static synchronized List<BufferPoolMXBean> getBufferPoolMXBeans() {
         if (bufferPools == null) {
-            bufferPools = new ArrayList<>(2);
+            bufferPools = new ArrayList<>(3);
             bufferPools.add(createBufferPoolMXBean(sun.misc.SharedSecrets.getJavaNioAccess()
                 .getDirectBufferPool()));
             bufferPools.add(createBufferPoolMXBean(sun.nio.ch.FileChannelImpl
                 .getMappedBufferPool()));
+            bufferPools.add(createBufferPoolMXBean(sun.nio.ch.Util
+                .getTemporaryBufferPool()));
         }
         return bufferPools;
     }
@@ -257,6 +267,14 @@ public class ManagementFactoryHelper {
             public long getMemoryUsed() {
                 return pool.getMemoryUsed();
             }
+            @Override
+            public long getHitCount() {
+                return pool.getHitCount();
+            }
+            @Override
+            public long getMissCount() {
+                return pool.getMissCount();
+            }
         };
     }
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2003, 2008, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.management;
+
+import java.lang.management.SynchronizerContentionInfo;
+import java.lang.management.SynchronizerContentionMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import javax.management.ObjectName;
+import sun.misc.JavaUtilConcurrentLocksAccess;
+import sun.misc.JavaUtilConcurrentLocksAccess.ContentionStatistics;
+import sun.misc.SharedSecrets;
+
+/**
+ * Implementation class for the contention instrumentation of
+ * AbstractQueuedSynchronizer.
+ *
+ * ManagementFactory.getPlatformMXBean(SynchronizerContentionMXBean.class)
+ * returns an instance of this class.
+ */
+class SynchronizerContentionImpl implements SynchronizerContentionMXBean {
+
+    private final static String SYNCHRONIZER_CONTENTION_MXBEAN_NAME =
+        "java.util.concurrent.locks:type=SynchronizerContention";
+
+    private final JavaUtilConcurrentLocksAccess access;
+
+    SynchronizerContentionImpl() {
+        this.access = SharedSecrets.getJavaUtilConcurrentLocksAccess();
+    }
+
+    public boolean isInstrumentationEnabled() {
+        return access.isContentionInstrumentationEnabled();
+    }
+
+    public long getContendedAcquireCount() {
+        return access.getTotalContentionStatistics().getContendedAcquireCount();
+    }
+
+    public long getAcquireWaitTime() {
+        return access.getTotalContentionStatistics().getAcquireWaitTime();
+    }
+
+    public long getParkCount() {
+        return access.getTotalContentionStatistics().getParkCount();
+    }
+
+    public int getQueueLength() {
+        return access.getTotalContentionStatistics().getQueueLength();
+    }
+
+    public int getPeakQueueLength() {
+        return access.getTotalContentionStatistics().getPeakQueueLength();
+    }
+
+    public long getConditionAwaitCount() {
+        return access.getTotalContentionStatistics().getConditionAwaitCount();
+    }
+
+    public long getConditionWaitTime() {
+        return access.getTotalContentionStatistics().getConditionWaitTime();
+    }
+
+    public SynchronizerContentionInfo[] getMostContendedSynchronizers(int maxSynchronizers) {
+        if (maxSynchronizers < 0) {
+            throw new IllegalArgumentException(
+                "Invalid maxSynchronizers parameter: " + maxSynchronizers);
+        }
+        List<ContentionStatistics> list = access.getContentionStatistics();
+        int n = list.size();
+        // Snapshot first, so that the ordering is stable while sorting
+        SynchronizerContentionInfo[] infos = new SynchronizerContentionInfo[n];
+        for (int i = 0; i < n; i++) {
+            ContentionStatistics s = list.get(i);
+            infos[i] = new SynchronizerContentionInfo(s.getClassName(),
+                                                      s.getIdentityHashCode(),
+                                                      s.getContendedAcquireCount(),
+                                                      s.getAcquireWaitTime(),
+                                                      s.getParkCount(),
+                                                      s.getQueueLength(),
+                                                      s.getPeakQueueLength(),
+                                                      s.getConditionAwaitCount(),
+                                                      s.getConditionWaitTime());
+        }
+        Arrays.sort(infos, new Comparator<SynchronizerContentionInfo>() {
+            public int compare(SynchronizerContentionInfo a,
+                               SynchronizerContentionInfo b) {
+                return Long.compare(b.getAcquireWaitTime(), a.getAcquireWaitTime());
+            }
+        });
+        return (n <= maxSynchronizers) ? infos : Arrays.copyOf(infos, maxSynchronizers);
+    }
+
+    public ObjectName getObjectName() {
+        return Util.newObjectName(SYNCHRONIZER_CONTENTION_MXBEAN_NAME);
+    }
+}
@@ -25,8 +25,11 @@
 
 package sun.misc;
 
+import java.io.FileDescriptor;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.MappedSegment;
+import java.util.List;
 
 public interface JavaNioAccess {
     /**
@@ -37,6 +40,22 @@ public interface JavaNioAccess {
         long getCount();
         long getTotalCapacity();
         long getMemoryUsed();
+
+        /**
+         * Returns the number of requests served with a pooled buffer,
+         * or -1 if the pool does not reuse buffers.
+         */
+        default long getHitCount() {
+            return -1L;
+        }
+
+        /**
+         * Returns the number of requests served by allocating a buffer,
+         * or -1 if the pool does not reuse buffers.
+         */
+        default long getMissCount() {
+            return -1L;
+        }
     }
     BufferPool getDirectBufferPool();
 
@@ -48,9 +67,55 @@ public interface JavaNioAccess {
      */
     ByteBuffer newDirectByteBuffer(long addr, int cap, Object ob);
 
+    /**
+     * Constructs a MappedSegment over the {@code size} bytes mapped at the
+     * given address.  The {@code fd} parameter is the descriptor used to
+     * force changes, and {@code unmapper} unmaps the region when the
+     * segment is closed or garbage-collected.
+     */
+    MappedSegment newMappedSegment(long addr, long size, boolean readOnly,
+                                   FileDescriptor fd, Runnable unmapper);
+
     /**
      * Truncates a buffer by changing its capacity to 0.
      */
     void truncate(Buffer buf);
 
+    /**
+     * Reserves {@code size} bytes of direct memory against the
+     * -XX:MaxDirectMemorySize limit, exactly as allocating a direct buffer
+     * of capacity {@code cap} would, so that off-heap structures which call
+     * {@code Unsafe.allocateMemory} themselves are accounted for in the
+     * "direct" buffer pool.
+     *
+     * @throws OutOfMemoryError if the memory cannot be reserved
+     */
+    void reserveMemory(long size, int cap);
+
+    /**
+     * Releases a reservation made by {@link #reserveMemory}.
+     */
+    void unreserveMemory(long size, int cap);
+
+    /**
+     * Describes a reservation of direct memory that could not be made at
+     * once, and so either reclaimed memory or failed.  Times are in
+     * nanoseconds, except that the time of the reservation is in
+     * milliseconds since the epoch.
+     */
+    interface SlowReservation {
+        long getTime();
+        String getThreadName();
+        int getCapacity();
+        long getWaitTime();
+        String getReclaimMode();
+        boolean isReserved();
+    }
+
+    /**
+     * Removes and returns the slow reservations made since the last call,
+     * of which at most a bounded number are kept.
+     */
+    List<SlowReservation> pollSlowReservations();
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2007, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.misc;
+
+import java.util.List;
+
+public interface JavaUtilConcurrentLocksAccess {
+    /**
+     * Provides access to the contention counters of a synchronizer, or
+     * to their totals over all synchronizers.  Times are in nanoseconds.
+     */
+    interface ContentionStatistics {
+        String getClassName();
+        int getIdentityHashCode();
+        long getContendedAcquireCount();
+        long getAcquireWaitTime();
+        long getParkCount();
+        int getQueueLength();
+        int getPeakQueueLength();
+        long getConditionAwaitCount();
+        long getConditionWaitTime();
+    }
+
+    /**
+     * Returns {@code true} if AbstractQueuedSynchronizer was started with
+     * contention instrumentation enabled.
+     */
+    boolean isContentionInstrumentationEnabled();
+
+    /**
+     * Returns the counters of every reachable synchronizer that has been
+     * contended since instrumentation was enabled.
+     */
+    List<ContentionStatistics> getContentionStatistics();
+
+    /**
+     * Returns the totals of the counters over all synchronizers, including
+     * those that have since been garbage collected.
+     */
+    ContentionStatistics getTotalContentionStatistics();
+}
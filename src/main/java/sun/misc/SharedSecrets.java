@@ -53,6 +53,7 @@ public class SharedSecrets {
     private static JavaNetAccess javaNetAccess;
     private static JavaNetHttpCookieAccess javaNetHttpCookieAccess;
     private static JavaNioAccess javaNioAccess;
+    private static JavaUtilConcurrentLocksAccess javaUtilConcurrentLocksAccess;
     private static JavaIOFileDescriptorAccess javaIOFileDescriptorAccess;
     private static JavaSecurityProtectionDomainAccess javaSecurityProtectionDomainAccess;
     private static JavaSecurityAccess javaSecurityAccess;
@@ -125,6 +126,19 @@ public class SharedSecrets {
         return javaNioAccess;
     }
 
+    public static void setJavaUtilConcurrentLocksAccess(JavaUtilConcurrentLocksAccess jucla) {
+        javaUtilConcurrentLocksAccess = jucla;
+    }
+
+    public static JavaUtilConcurrentLocksAccess getJavaUtilConcurrentLocksAccess() {
+        if (javaUtilConcurrentLocksAccess == null) {
+            // AbstractQueuedSynchronizer initializes the class that
+            // provides the shared secret
+            unsafe.ensureClassInitialized(java.util.concurrent.locks.AbstractQueuedSynchronizer.class);
+        }
+        return javaUtilConcurrentLocksAccess;
+    }
+
     public static void setJavaIOAccess(JavaIOAccess jia) {
         javaIOAccess = jia;
     }
@@ -0,0 +1,388 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ */
+
+package sun.nio.ch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import sun.misc.Cleaner;
+
+/**
+ * 20261016
+ * A. 全局的临时直接缓冲区池, 用于在堆缓冲区与本地I/O之间传递数据。
+ * B. 缓冲区按大小类别池化: 从4K到最大值, 每个2的幂有4个类别(4K, 5K, 6K, 7K, 8K, 10K, ...), 因此大于4K的请求得到的缓冲区比请求大不到四分之一。
+ *    最大类别不超过仓库或弹夹所能保留的大小(否则向上取整只会浪费内存), 大于最大类别的请求按原大小分配, 释放时直接回收。
+ * C. 对不超过弹夹(magazine)大小的类别, 每个线程为每个类别保留一个弹夹, 存放几个空闲缓冲区, 取用和归还都无需同步。 弹夹满了就移到全局仓库(depot),
+ *    空了就从仓库取一个满的, 从而一个线程释放的缓冲区可被其他线程复用。 更大类别的缓冲区逐个移入移出仓库, 每个线程最多持有几MB。
+ *    仓库是每个类别固定个数的槽, 用CAS更新, 总字节数有上限; 放不下时被释放的缓冲区直接回收。
+ * D. 线程结束后, 其弹夹的持有对象被回收, Cleaner 把其中的缓冲区移到仓库或回收。
+ */
+/**
+ * A global pool of the temporary direct buffers used to transfer the
+ * contents of heap buffers to and from native I/O.
+ *
+ * <p> Buffers are pooled in size classes, four for each power of two from
+ * 4K up to a maximum size (4K, 5K, 6K, 7K, 8K, 10K, and so on), so that a
+ * request larger than 4K is served with a buffer less than a quarter
+ * larger than it, limited to the requested size.  The largest class is
+ * the largest that the pool can keep, that is, no larger than the depot
+ * or a magazine, as rounding up a buffer that is freed on release only
+ * wastes memory.  Requests larger than the largest class are allocated
+ * exactly and freed on release.
+ *
+ * <p> Each thread keeps, for each class no larger than a configured
+ * magazine size, a magazine of up to a few idle buffers which it gets from
+ * and releases to without synchronization.  When a thread releases a
+ * buffer to a full magazine, the magazine is moved to a global depot, and
+ * when it gets from an empty magazine, it takes a full one from the depot,
+ * so that buffers released by one thread can be reused by others; a buffer
+ * is only allocated when both are empty.  Buffers of larger classes are
+ * moved to and from the depot one at a time, so that a thread holds on to
+ * at most a few megabytes.  The depot is a fixed array of slots per class,
+ * updated by compare and set, and holds at most a configured number of
+ * bytes; a magazine that does not fit is not moved, and the buffer being
+ * released is freed.  When a thread terminates, a cleaner moves the
+ * buffers in its magazines to the depot, or frees them.
+ *
+ * <p> Hits, misses, and the number and total capacity of buffers that are
+ * currently got but not released, are counted for the "temporary"
+ * {@link java.lang.management.BufferPoolMXBean BufferPoolMXBean}.
+ */
+
+class DirectBufferPool {
+
+    // The size of the smallest class
+    private static final int MIN_SHIFT = 12;
+    private static final int MIN_SIZE = 1 << MIN_SHIFT;
+
+    // The number of classes for each power of two, a power of two
+    private static final int SUB_SHIFT = 2;
+    private static final int SUB_CLASSES = 1 << SUB_SHIFT;
+
+    // The number of classes that may be configured; the largest is 1.75G
+    private static final int MAX_CLASSES = (31 - MIN_SHIFT) << SUB_SHIFT;
+
+    // The maximum number of buffers in a magazine
+    private static final int MAX_MAGAZINE_SIZE = 16;
+
+    // The number of depot slots for each class, a power of two
+    private static final int DEPOT_SLOTS = 16;
+
+    /**
+     * A thread's idle buffers of a class; the buffers array is full
+     * exactly when it is moved to the depot.
+     */
+    private static final class Magazine {
+        ByteBuffer[] buffers;
+        int count;
+        Magazine(int size) {
+            buffers = new ByteBuffer[size];
+        }
+    }
+
+    /**
+     * The value of a thread's local, holding its magazines.  It is only
+     * reachable from its thread, so it is collected after the thread
+     * terminates, at which point its cleaner runs a Releaser.
+     */
+    private static final class Magazines {
+        final Magazine[] magazines;
+        Magazines(Magazine[] magazines) {
+            this.magazines = magazines;
+        }
+    }
+
+    /**
+     * Returns the buffers in the magazines of a terminated thread to the
+     * depot, freeing those that do not fit.  It must not refer to the
+     * Magazines holder, which would then never become unreachable.
+     */
+    private static final class Releaser implements Runnable {
+        private final DirectBufferPool pool;
+        private final Magazine[] magazines;
+        Releaser(DirectBufferPool pool, Magazine[] magazines) {
+            this.pool = pool;
+            this.magazines = magazines;
+        }
+        public void run() {
+            for (int c = 0; c < magazines.length; c++) {
+                Magazine m = magazines[c];
+                if (m == null || m.count == 0)
+                    continue;
+                ByteBuffer[] a = (m.count == m.buffers.length)
+                    ? m.buffers : Arrays.copyOf(m.buffers, m.count);
+                m.buffers = null;
+                m.count = 0;
+                if (!pool.flush(c, a)) {
+                    for (ByteBuffer bb : a)
+                        free(bb);
+                }
+            }
+        }
+    }
+
+    // The number of size classes, or 0 if pooling is disabled
+    private final int classes;
+
+    // The total size of the buffers in a magazine, of at least one buffer
+    private final long magazineBytes;
+
+    // The maximum number of bytes of the buffers held in the depot
+    private final long maxDepotBytes;
+
+    // The full magazines, DEPOT_SLOTS for each class in turn
+    private final AtomicReferenceArray<ByteBuffer[]> depot;
+    private final AtomicLong depotBytes = new AtomicLong();
+
+    private final ThreadLocal<Magazines> magazines;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder outstandingCount = new LongAdder();
+    private final LongAdder outstandingBytes = new LongAdder();
+
+    /**
+     * Creates a pool.
+     *
+     * @param  maxBufferSize
+     *         The size of the largest buffers to pool; if less than 4K,
+     *         no buffers are pooled.  Buffers larger than both
+     *         magazineBytes and maxDepotBytes are not pooled either
+     * @param  magazineBytes
+     *         The total size of the buffers a magazine holds; there are
+     *         no magazines for classes larger than this
+     * @param  maxDepotBytes
+     *         The maximum total size of the buffers held in the depot
+     */
+    DirectBufferPool(long maxBufferSize, long magazineBytes,
+                     long maxDepotBytes)
+    {
+        long max = Math.min(maxBufferSize,
+                            Math.max(magazineBytes, maxDepotBytes));
+        int n = 0;
+        while (n < MAX_CLASSES && classSize(n) <= max)
+            n++;
+        this.classes = n;
+        this.magazineBytes = magazineBytes;
+        this.maxDepotBytes = maxDepotBytes;
+        this.depot = new AtomicReferenceArray<>(classes * DEPOT_SLOTS);
+        this.magazines = new ThreadLocal<Magazines>() {
+            @Override
+            protected Magazines initialValue() {
+                Magazine[] ms = new Magazine[classes];
+                Magazines h = new Magazines(ms);
+                Cleaner.create(h, new Releaser(DirectBufferPool.this, ms));
+                return h;
+            }
+        };
+    }
+
+    /**
+     * Returns the capacity of the buffers of the given class.
+     */
+    private static int classSize(int c) {
+        return (SUB_CLASSES + (c & (SUB_CLASSES - 1)))
+            << (MIN_SHIFT - SUB_SHIFT + (c >>> SUB_SHIFT));
+    }
+
+    /**
+     * Returns the class of buffers that hold the given size, or -1 if
+     * it is too large to pool.
+     */
+    private int sizeClass(int size) {
+        if (classes == 0)
+            return -1;
+        if (size <= MIN_SIZE)
+            return 0;
+        int s = size - 1;
+        int shift = 31 - Integer.numberOfLeadingZeros(s);
+        int c = ((shift - MIN_SHIFT) << SUB_SHIFT) +
+            ((s >>> (shift - SUB_SHIFT)) & (SUB_CLASSES - 1)) + 1;
+        return (c < classes) ? c : -1;
+    }
+
+    /**
+     * Returns the class of a buffer of the given capacity, or -1 if it
+     * is not a pooled buffer.
+     */
+    private int capacityClass(int cap) {
+        if (cap < MIN_SIZE)
+            return -1;
+        int c = sizeClass(cap);
+        return (c >= 0 && classSize(c) == cap) ? c : -1;
+    }
+
+    /**
+     * Returns the number of buffers in a full magazine of the given
+     * class, or 0 if threads keep no magazine for it.
+     */
+    private int magazineSize(int c) {
+        return (int)Math.min(MAX_MAGAZINE_SIZE, magazineBytes / classSize(c));
+    }
+
+    private Magazine magazine(int c) {
+        Magazine[] ms = magazines.get().magazines;
+        Magazine m = ms[c];
+        if (m == null)
+            ms[c] = m = new Magazine(magazineSize(c));
+        return m;
+    }
+
+    /**
+     * Returns a buffer with position zero and limit size, and with a
+     * capacity of at least size.
+     */
+    ByteBuffer get(int size) {
+        int c = sizeClass(size);
+        ByteBuffer bb = null;
+        if (c >= 0) {
+            if (magazineSize(c) == 0) {
+                ByteBuffer[] a = take(c);
+                if (a != null)
+                    bb = a[0];
+            } else {
+                Magazine m = magazine(c);
+                if (m.count == 0)
+                    refill(c, m);
+                if (m.count > 0) {
+                    bb = m.buffers[--m.count];
+                    m.buffers[m.count] = null;
+                }
+            }
+        }
+        if (bb != null) {
+            hits.increment();
+            bb.clear();
+        } else {
+            misses.increment();
+            bb = ByteBuffer.allocateDirect((c >= 0) ? classSize(c) : size);
+        }
+        bb.limit(size);
+        outstandingCount.increment();
+        outstandingBytes.add(bb.capacity());
+        return bb;
+    }
+
+    /**
+     * Releases a buffer obtained from get, pooling or freeing it.
+     */
+    void release(ByteBuffer bb) {
+        int cap = bb.capacity();
+        outstandingCount.decrement();
+        outstandingBytes.add(-cap);
+        int c = capacityClass(cap);
+        if (c < 0) {
+            free(bb);
+            return;
+        }
+        if (magazineSize(c) == 0) {
+            if (!flush(c, new ByteBuffer[] { bb }))
+                free(bb);
+            return;
+        }
+        Magazine m = magazine(c);
+        if (m.count == m.buffers.length) {
+            if (!flush(c, m.buffers)) {
+                free(bb);
+                return;
+            }
+            m.buffers = new ByteBuffer[magazineSize(c)];
+            m.count = 0;
+        }
+        m.buffers[m.count++] = bb;
+    }
+
+    /**
+     * Replaces the empty magazine with a full one from the depot, if any.
+     */
+    private void refill(int c, Magazine m) {
+        ByteBuffer[] a = take(c);
+        if (a != null) {
+            m.buffers = a;
+            m.count = a.length;
+        }
+    }
+
+    /**
+     * Removes and returns a full magazine from the depot, or null if
+     * there is none.
+     */
+    private ByteBuffer[] take(int c) {
+        int base = c * DEPOT_SLOTS;
+        int h = (int)Thread.currentThread().getId();
+        for (int i = 0; i < DEPOT_SLOTS; i++) {
+            int k = base + ((h + i) & (DEPOT_SLOTS - 1));
+            ByteBuffer[] a = depot.get(k);
+            if (a != null && depot.compareAndSet(k, a, null)) {
+                depotBytes.addAndGet(-((long)a.length * classSize(c)));
+                return a;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves a full magazine to the depot, returning false if the depot
+     * is full.
+     */
+    private boolean flush(int c, ByteBuffer[] a) {
+        long bytes = (long)a.length * classSize(c);
+        if (depotBytes.addAndGet(bytes) <= maxDepotBytes) {
+            int base = c * DEPOT_SLOTS;
+            int h = (int)Thread.currentThread().getId();
+            for (int i = 0; i < DEPOT_SLOTS; i++) {
+                int k = base + ((h + i) & (DEPOT_SLOTS - 1));
+                if (depot.get(k) == null && depot.compareAndSet(k, null, a))
+                    return true;
+            }
+        }
+        depotBytes.addAndGet(-bytes);
+        return false;
+    }
+
+    /**
+     * Frees the memory for the given direct buffer
+     */
+    private static void free(ByteBuffer buf) {
+        ((DirectBuffer)buf).cleaner().clean();
+    }
+
+    /**
+     * Returns the management view of this pool: its count and total
+     * capacity are those of the buffers got and not yet released, and its
+     * memory used includes the buffers held in the depot, though not
+     * those in the magazines of threads.
+     */
+    sun.misc.JavaNioAccess.BufferPool asBufferPool() {
+        return new sun.misc.JavaNioAccess.BufferPool() {
+            @Override
+            public String getName() {
+                return "temporary";
+            }
+            @Override
+            public long getCount() {
+                return outstandingCount.sum();
+            }
+            @Override
+            public long getTotalCapacity() {
+                return outstandingBytes.sum();
+            }
+            @Override
+            public long getMemoryUsed() {
+                return outstandingBytes.sum() + depotBytes.get();
+            }
+            @Override
+            public long getHitCount() {
+                return hits.sum();
+            }
+            @Override
+            public long getMissCount() {
+                return misses.sum();
+            }
+        };
+    }
+}
@@ -29,6 +29,7 @@ import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.MappedSegment;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
@@ -45,6 +46,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import sun.misc.Cleaner;
+import sun.misc.SharedSecrets;
 import sun.security.action.GetPropertyAction;
 
 public class FileChannelImpl
@@ -780,6 +782,140 @@ public class FileChannelImpl
     }
 
 
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if (!readable)
+            throw new NonReadableChannelException();
+        ensureOpen();
+        if (nd.needsPositionLock()) {
+            synchronized (positionLock) {
+                return readInternal(dsts, offset, length, position);
+            }
+        } else {
+            return readInternal(dsts, offset, length, position);
+        }
+    }
+
+    private long readInternal(ByteBuffer[] dsts, int offset, int length,
+                              long position)
+        throws IOException
+    {
+        assert !nd.needsPositionLock() || Thread.holdsLock(positionLock);
+        long n = 0;
+        int ti = -1;
+        try {
+            begin();
+            ti = threads.add();
+            if (!isOpen())
+                return -1;
+            do {
+                n = IOUtil.read(fd, dsts, offset, length, position, nd);
+            } while ((n == IOStatus.INTERRUPTED) && isOpen());
+            return IOStatus.normalize(n);
+        } finally {
+            threads.remove(ti);
+            end(n > 0);
+            assert IOStatus.check(n);
+        }
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > srcs.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if (!writable)
+            throw new NonWritableChannelException();
+        ensureOpen();
+        if (nd.needsPositionLock()) {
+            synchronized (positionLock) {
+                return writeInternal(srcs, offset, length, position);
+            }
+        } else {
+            return writeInternal(srcs, offset, length, position);
+        }
+    }
+
+    private long writeInternal(ByteBuffer[] srcs, int offset, int length,
+                               long position)
+        throws IOException
+    {
+        assert !nd.needsPositionLock() || Thread.holdsLock(positionLock);
+        long n = 0;
+        int ti = -1;
+        try {
+            begin();
+            ti = threads.add();
+            if (!isOpen())
+                return -1;
+            do {
+                n = IOUtil.write(fd, srcs, offset, length, position, nd);
+            } while ((n == IOStatus.INTERRUPTED) && isOpen());
+            return IOStatus.normalize(n);
+        } finally {
+            threads.remove(ti);
+            end(n > 0);
+            assert IOStatus.check(n);
+        }
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, long[] positions,
+                     int offset, int length)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length)
+            || (offset > positions.length - length))
+            throw new IndexOutOfBoundsException();
+        for (int i = offset; i < offset + length; i++) {
+            if (positions[i] < 0)
+                throw new IllegalArgumentException("Negative position");
+        }
+        if (!readable)
+            throw new NonReadableChannelException();
+        ensureOpen();
+        if (nd.needsPositionLock()) {
+            synchronized (positionLock) {
+                return readInternal(dsts, positions, offset, length);
+            }
+        } else {
+            return readInternal(dsts, positions, offset, length);
+        }
+    }
+
+    private long readInternal(ByteBuffer[] dsts, long[] positions,
+                              int offset, int length)
+        throws IOException
+    {
+        assert !nd.needsPositionLock() || Thread.holdsLock(positionLock);
+        long n = 0;
+        int ti = -1;
+        try {
+            begin();
+            ti = threads.add();
+            if (!isOpen())
+                return -1;
+            do {
+                n = IOUtil.read(fd, dsts, positions, offset, length, nd);
+            } while ((n == IOStatus.INTERRUPTED) && isOpen());
+            return IOStatus.normalize(n);
+        } finally {
+            threads.remove(ti);
+            end(n > 0);
+            assert IOStatus.check(n);
+        }
+    }
+
+
     // -- Memory-mapped buffers --
 
     private static class Unmapper
@@ -795,18 +931,24 @@ public class FileChannelImpl
 
         private volatile long address;
         private final long size;
-        private final int cap;
+        private final long cap;
         private final FileDescriptor fd;
 
-        private Unmapper(long address, long size, int cap,
-                         FileDescriptor fd)
+        // the offset of the mapped region from the page-aligned address
+        private final int pagePosition;
+
+        private Unmapper(long address, long size, long cap,
+                         FileDescriptor fd, int pagePosition)
         {
-            assert (address != 0);
             this.address = address;
             this.size = size;
             this.cap = cap;
             this.fd = fd;
+            this.pagePosition = pagePosition;
 
+            // an empty region is not mapped
+            if (address == 0)
+                return;
             synchronized (Unmapper.class) {
                 count++;
                 totalSize += size;
@@ -849,6 +991,58 @@ public class FileChannelImpl
 
     public MappedByteBuffer map(MapMode mode, long position, long size)
         throws IOException
+    {
+        Unmapper um = mapInternal(mode, position, size, Integer.MAX_VALUE);
+        if (um == null)
+            return null;
+        int isize = (int)size;
+        boolean readOnly = (!writable) || (mode == MapMode.READ_ONLY);
+        if (size == 0) {
+            // a valid file descriptor is not required
+            FileDescriptor dummy = new FileDescriptor();
+            if (readOnly)
+                return Util.newMappedByteBufferR(0, 0, dummy, null);
+            else
+                return Util.newMappedByteBuffer(0, 0, dummy, null);
+        }
+        if (readOnly) {
+            return Util.newMappedByteBufferR(isize,
+                                             um.address + um.pagePosition,
+                                             um.fd,
+                                             um);
+        } else {
+            return Util.newMappedByteBuffer(isize,
+                                            um.address + um.pagePosition,
+                                            um.fd,
+                                            um);
+        }
+    }
+
+    @Override
+    public MappedSegment mapSegment(MapMode mode, long position, long size)
+        throws IOException
+    {
+        Unmapper um = mapInternal(mode, position, size, Long.MAX_VALUE);
+        if (um == null)
+            return null;
+        boolean readOnly = (!writable) || (mode == MapMode.READ_ONLY);
+        if (size == 0) {
+            return SharedSecrets.getJavaNioAccess()
+                .newMappedSegment(0, 0, readOnly, new FileDescriptor(), null);
+        }
+        return SharedSecrets.getJavaNioAccess()
+            .newMappedSegment(um.address + um.pagePosition, size, readOnly,
+                              um.fd, um);
+    }
+
+    /**
+     * Maps the given region of the file, extending the file if required,
+     * and returns the Unmapper of the mapping, whose address is 0 if size
+     * is 0, or null if the channel was closed.
+     */
+    private Unmapper mapInternal(MapMode mode, long position, long size,
+                                 long maxSize)
+        throws IOException
     {
         ensureOpen();
         if (mode == null)
@@ -859,7 +1053,7 @@ public class FileChannelImpl
             throw new IllegalArgumentException("Negative size");
         if (position + size < 0)
             throw new IllegalArgumentException("Position + size overflow");
-        if (size > Integer.MAX_VALUE)
+        if (size > maxSize)
             throw new IllegalArgumentException("Size exceeds Integer.MAX_VALUE");
 
         int imode = -1;
@@ -908,12 +1102,7 @@ public class FileChannelImpl
 
                 if (size == 0) {
                     addr = 0;
-                    // a valid file descriptor is not required
-                    FileDescriptor dummy = new FileDescriptor();
-                    if ((!writable) || (imode == MAP_RO))
-                        return Util.newMappedByteBufferR(0, 0, dummy, null);
-                    else
-                        return Util.newMappedByteBuffer(0, 0, dummy, null);
+                    return new Unmapper(0, 0, 0, null, 0);
                 }
 
                 pagePosition = (int)(position % allocationGranularity);
@@ -952,19 +1141,7 @@ public class FileChannelImpl
 
             assert (IOStatus.checkAll(addr));
             assert (addr % allocationGranularity == 0);
-            int isize = (int)size;
-            Unmapper um = new Unmapper(addr, mapSize, isize, mfd);
-            if ((!writable) || (imode == MAP_RO)) {
-                return Util.newMappedByteBufferR(isize,
-                                                 addr + pagePosition,
-                                                 mfd,
-                                                 um);
-            } else {
-                return Util.newMappedByteBuffer(isize,
-                                                addr + pagePosition,
-                                                mfd,
-                                                um);
-            }
+            return new Unmapper(addr, mapSize, size, mfd, pagePosition);
         } finally {
             threads.remove(ti);
             end(IOStatus.checkAll(addr));
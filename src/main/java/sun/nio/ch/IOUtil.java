@@ -41,6 +41,12 @@ public class IOUtil {
      */
     static final int IOV_MAX;
 
+    /**
+     * Max number of bytes between two ranges of a multi-range read that
+     * are read, and discarded, rather than split into separate reads
+     */
+    static final int MAX_READ_GAP = 32 * 1024;
+
     private IOUtil() { }                // No instantiation
 
     static int write(FileDescriptor fd, ByteBuffer src, long position,
@@ -106,6 +112,13 @@ public class IOUtil {
     static long write(FileDescriptor fd, ByteBuffer[] bufs, int offset, int length,
                       NativeDispatcher nd)
         throws IOException
+    {
+        return write(fd, bufs, offset, length, -1, nd);
+    }
+
+    static long write(FileDescriptor fd, ByteBuffer[] bufs, int offset, int length,
+                      long position, NativeDispatcher nd)
+        throws IOException
     {
         IOVecWrapper vec = IOVecWrapper.get(length);
 
@@ -145,7 +158,12 @@ public class IOUtil {
             if (iov_len == 0)
                 return 0L;
 
-            long bytesWritten = nd.writev(fd, vec.address, iov_len);
+            long bytesWritten;
+            if (position != -1) {
+                bytesWritten = nd.pwritev(fd, vec.address, iov_len, position);
+            } else {
+                bytesWritten = nd.writev(fd, vec.address, iov_len);
+            }
 
             // Notify the buffers how many bytes were taken
             long left = bytesWritten;
@@ -236,6 +254,13 @@ public class IOUtil {
     static long read(FileDescriptor fd, ByteBuffer[] bufs, int offset, int length,
                      NativeDispatcher nd)
         throws IOException
+    {
+        return read(fd, bufs, offset, length, -1, nd);
+    }
+
+    static long read(FileDescriptor fd, ByteBuffer[] bufs, int offset, int length,
+                     long position, NativeDispatcher nd)
+        throws IOException
     {
         IOVecWrapper vec = IOVecWrapper.get(length);
 
@@ -275,7 +300,12 @@ public class IOUtil {
             if (iov_len == 0)
                 return 0L;
 
-            long bytesRead = nd.readv(fd, vec.address, iov_len);
+            long bytesRead;
+            if (position != -1) {
+                bytesRead = nd.preadv(fd, vec.address, iov_len, position);
+            } else {
+                bytesRead = nd.readv(fd, vec.address, iov_len);
+            }
 
             // Notify the buffers how many bytes were read
             long left = bytesRead;
@@ -316,6 +346,158 @@ public class IOUtil {
         }
     }
 
+    /**
+     * Reads into each of the given buffers from the corresponding file
+     * position.  The ranges are read in ascending order of position, and
+     * each run of adjacent ranges is read with a single preadv.  If the
+     * dispatcher has a native preadv, runs also span gaps of at most
+     * MAX_READ_GAP bytes, which are read into a scratch buffer and
+     * discarded; otherwise preadv costs a pread per range anyway, and
+     * reading a gap would only add another.  Stops at the first run that is
+     * not read in full, returning the number of bytes read into the buffers,
+     * or the status of the first run if nothing was read.
+     */
+    static long read(FileDescriptor fd, ByteBuffer[] bufs, long[] positions,
+                     int offset, int length, NativeDispatcher nd)
+        throws IOException
+    {
+        // Visit the ranges in ascending order of position
+        Integer[] order = new Integer[length];
+        boolean sorted = true;
+        for (int i = 0; i < length; i++) {
+            order[i] = offset + i;
+            if (i > 0 && positions[offset + i] < positions[offset + i - 1])
+                sorted = false;
+        }
+        if (!sorted) {
+            java.util.Arrays.sort(order, new java.util.Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    return Long.compare(positions[a], positions[b]);
+                }
+            });
+        }
+
+        long maxGap = nd.hasNativePreadv() ? MAX_READ_GAP : 0;
+        IOVecWrapper vec = IOVecWrapper.get(Math.min(2 * length, IOV_MAX));
+        ByteBuffer scratch = null;
+        long total = 0;
+        int k = 0;
+        try {
+            while (k < length) {
+                // Populate the native iovec array with the next run of ranges
+                boolean completed = false;
+                int iov_len = 0;
+                long start = -1;
+                long end = -1;
+                long runLength = 0;
+                try {
+                    while (k < length && iov_len < IOV_MAX) {
+                        int i = order[k];
+                        ByteBuffer buf = bufs[i];
+                        if (buf.isReadOnly())
+                            throw new IllegalArgumentException("Read-only buffer");
+                        int pos = buf.position();
+                        int lim = buf.limit();
+                        assert (pos <= lim);
+                        int rem = (pos <= lim ? lim - pos : 0);
+                        if (rem == 0) {
+                            k++;
+                            continue;
+                        }
+                        long p = positions[i];
+                        if (iov_len == 0) {
+                            start = p;
+                        } else {
+                            long gap = p - end;
+                            if (gap < 0 || gap > maxGap)
+                                break;
+                            if (gap > 0) {
+                                if (iov_len + 1 == IOV_MAX)
+                                    break;
+                                if (scratch == null)
+                                    scratch = Util.getTemporaryDirectBuffer(MAX_READ_GAP);
+                                vec.setBuffer(iov_len, null, 0, (int)gap);
+                                vec.putBase(iov_len, ((DirectBuffer)scratch).address());
+                                vec.putLen(iov_len, gap);
+                                iov_len++;
+                                runLength += gap;
+                            }
+                        }
+
+                        vec.setBuffer(iov_len, buf, pos, rem);
+
+                        // allocate shadow buffer to ensure I/O is done with direct buffer
+                        if (!(buf instanceof DirectBuffer)) {
+                            ByteBuffer shadow = Util.getTemporaryDirectBuffer(rem);
+                            vec.setShadow(iov_len, shadow);
+                            buf = shadow;
+                            pos = shadow.position();
+                        }
+
+                        vec.putBase(iov_len, ((DirectBuffer)buf).address() + pos);
+                        vec.putLen(iov_len, rem);
+                        iov_len++;
+                        runLength += rem;
+                        end = p + rem;
+                        k++;
+                    }
+                    if (iov_len == 0)
+                        break;
+
+                    long bytesRead = nd.preadv(fd, vec.address, iov_len, start);
+
+                    // Notify the buffers how many bytes were read
+                    long left = bytesRead;
+                    for (int j=0; j<iov_len; j++) {
+                        ByteBuffer buf = vec.getBuffer(j);
+                        ByteBuffer shadow = vec.getShadow(j);
+                        if (left > 0) {
+                            int rem = vec.getRemaining(j);
+                            int n = (left > rem) ? rem : (int)left;
+                            // a null buffer is a gap, read into the scratch buffer
+                            if (buf != null) {
+                                if (shadow == null) {
+                                    int pos = vec.getPosition(j);
+                                    buf.position(pos + n);
+                                } else {
+                                    shadow.limit(shadow.position() + n);
+                                    buf.put(shadow);
+                                }
+                                total += n;
+                            }
+                            left -= n;
+                        }
+                        if (shadow != null)
+                            Util.offerLastTemporaryDirectBuffer(shadow);
+                        vec.clearRefs(j);
+                    }
+
+                    completed = true;
+                    if (bytesRead < 0)
+                        return (total > 0) ? total : bytesRead;
+                    if (bytesRead < runLength)
+                        break;
+
+                } finally {
+                    // if an error occurred then clear refs to buffers and return any shadow
+                    // buffers to cache
+                    if (!completed) {
+                        for (int j=0; j<iov_len; j++) {
+                            ByteBuffer shadow = vec.getShadow(j);
+                            if (shadow != null)
+                                Util.offerLastTemporaryDirectBuffer(shadow);
+                            vec.clearRefs(j);
+                        }
+                    }
+                }
+            }
+            return total;
+        } finally {
+            if (scratch != null)
+                Util.offerFirstTemporaryDirectBuffer(scratch);
+        }
+    }
+
     public static FileDescriptor newFD(int i) {
         FileDescriptor fd = new FileDescriptor();
         setfdVal(fd, i);
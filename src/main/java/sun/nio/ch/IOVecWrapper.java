@@ -154,6 +154,30 @@ class IOVecWrapper {
             vecArray.putLong(offset, len);
     }
 
+    /**
+     * Returns the base of the given element of the iovec array at the given
+     * address.
+     */
+    static long getBase(long address, int i) {
+        long a = address + SIZE_IOVEC * i + BASE_OFFSET;
+        if (addressSize == 4)
+            return Util.unsafe().getInt(a) & 0xFFFFFFFFL;
+        else
+            return Util.unsafe().getLong(a);
+    }
+
+    /**
+     * Returns the length of the given element of the iovec array at the
+     * given address.
+     */
+    static long getLen(long address, int i) {
+        long a = address + SIZE_IOVEC * i + LEN_OFFSET;
+        if (addressSize == 4)
+            return Util.unsafe().getInt(a) & 0xFFFFFFFFL;
+        else
+            return Util.unsafe().getLong(a);
+    }
+
     static {
         addressSize = Util.unsafe().addressSize();
         LEN_OFFSET = addressSize;
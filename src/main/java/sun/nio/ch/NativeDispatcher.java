@@ -55,6 +55,39 @@ abstract class NativeDispatcher
     abstract long readv(FileDescriptor fd, long address, int len)
         throws IOException;
 
+    /**
+     * Reads into the given iovec array starting at the given file position,
+     * without changing the file position.  The default implementation reads
+     * into each element in turn with pread, stopping at the first short
+     * read; dispatchers with a native preadv override it so that the whole
+     * array is read with a single call, and override hasNativePreadv.
+     */
+    long preadv(FileDescriptor fd, long address, int len, long position)
+        throws IOException
+    {
+        long total = 0;
+        for (int i = 0; i < len; i++) {
+            int rem = (int)IOVecWrapper.getLen(address, i);
+            int n = pread(fd, IOVecWrapper.getBase(address, i), rem,
+                          position + total);
+            if (n < 0)
+                return (total > 0) ? total : n;
+            total += n;
+            if (n < rem)
+                break;
+        }
+        return total;
+    }
+
+    /**
+     * Returns {@code true} if preadv reads the whole iovec array with a
+     * single call, so that callers may coalesce nearby ranges into one
+     * read at the cost of reading the gaps between them.
+     */
+    boolean hasNativePreadv() {
+        return false;
+    }
+
     abstract int write(FileDescriptor fd, long address, int len)
         throws IOException;
 
@@ -67,6 +100,30 @@ abstract class NativeDispatcher
     abstract long writev(FileDescriptor fd, long address, int len)
         throws IOException;
 
+    /**
+     * Writes from the given iovec array starting at the given file position,
+     * without changing the file position.  The default implementation writes
+     * each element in turn with pwrite, stopping at the first short write;
+     * dispatchers with a native pwritev override it so that the whole array
+     * is written with a single call.
+     */
+    long pwritev(FileDescriptor fd, long address, int len, long position)
+        throws IOException
+    {
+        long total = 0;
+        for (int i = 0; i < len; i++) {
+            int rem = (int)IOVecWrapper.getLen(address, i);
+            int n = pwrite(fd, IOVecWrapper.getBase(address, i), rem,
+                           position + total);
+            if (n < 0)
+                return (total > 0) ? total : n;
+            total += n;
+            if (n < rem)
+                break;
+        }
+        return total;
+    }
+
     abstract void close(FileDescriptor fd) throws IOException;
 
     // Prepare the given fd for closing by duping it to a known internal fd
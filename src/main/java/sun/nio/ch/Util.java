@@ -44,35 +44,37 @@ public class Util {
 
     // -- Caches --
 
-    // The number of temp buffers in our pool
-    private static final int TEMP_BUF_POOL_SIZE = IOUtil.IOV_MAX;
-
-    // The max size allowed for a cached temp buffer, in bytes
-    private static final long MAX_CACHED_BUFFER_SIZE = getMaxCachedBufferSize();
-
-    // Per-thread cache of temporary direct buffers
-    private static ThreadLocal<BufferCache> bufferCache =
-        new ThreadLocal<BufferCache>()
-    {
-        @Override
-        protected BufferCache initialValue() {
-            return new BufferCache();
-        }
-    };
+    // Global pool of temporary direct buffers
+    private static final DirectBufferPool bufferPool = new DirectBufferPool(
+        getLongProperty("jdk.nio.maxCachedBufferSize", Long.MAX_VALUE),
+        getLongProperty("jdk.nio.bufferPool.magazineBytes", 1L << 18),
+        getLongProperty("jdk.nio.bufferPool.maxDepotBytes", 1L << 26));
 
     /**
-     * Returns the max size allowed for a cached temp buffers, in
-     * bytes. It defaults to Long.MAX_VALUE. It can be set with the
-     * jdk.nio.maxCachedBufferSize property. Even though
-     * ByteBuffer.capacity() returns an int, we're using a long here
-     * for potential future-proofing.
+     * Returns the value of a non-negative long system property, or the
+     * given default if it is not set, or not well formed, or negative.
+     * The properties are:
+     *
+     * jdk.nio.maxCachedBufferSize: the max size of a pooled temp
+     * buffer, in bytes (Long.MAX_VALUE by default, though buffers larger
+     * than 1.75G, or than both of the sizes below, are never pooled);
+     * larger temp buffers are allocated for each use, at exactly the
+     * requested size, and if it is less than 4K no buffers are pooled at
+     * all.
+     *
+     * jdk.nio.bufferPool.magazineBytes: the total size of the buffers of
+     * a size class that each thread keeps to itself (256K by default);
+     * buffers of larger classes are only kept in the depot.
+     *
+     * jdk.nio.bufferPool.maxDepotBytes: the max total size of the buffers
+     * kept for all threads in the global depot (64M by default).
      */
-    private static long getMaxCachedBufferSize() {
+    private static long getLongProperty(final String name, long def) {
         String s = java.security.AccessController.doPrivileged(
             new PrivilegedAction<String>() {
                 @Override
                 public String run() {
-                    return System.getProperty("jdk.nio.maxCachedBufferSize");
+                    return System.getProperty(name);
                 }
             });
         if (s != null) {
@@ -87,216 +89,48 @@ public class Util {
                 // if the string is not well formed, ignore the system property
             }
         }
-        return Long.MAX_VALUE;
-    }
-
-    /**
-     * Returns true if a buffer of this size is too large to be
-     * added to the buffer cache, false otherwise.
-     */
-    private static boolean isBufferTooLarge(int size) {
-        return size > MAX_CACHED_BUFFER_SIZE;
-    }
-
-    /**
-     * Returns true if the buffer is too large to be added to the
-     * buffer cache, false otherwise.
-     */
-    private static boolean isBufferTooLarge(ByteBuffer buf) {
-        return isBufferTooLarge(buf.capacity());
-    }
-
-    /**
-     * A simple cache of direct buffers.
-     */
-    private static class BufferCache {
-        // the array of buffers
-        private ByteBuffer[] buffers;
-
-        // the number of buffers in the cache
-        private int count;
-
-        // the index of the first valid buffer (undefined if count == 0)
-        private int start;
-
-        private int next(int i) {
-            return (i + 1) % TEMP_BUF_POOL_SIZE;
-        }
-
-        BufferCache() {
-            buffers = new ByteBuffer[TEMP_BUF_POOL_SIZE];
-        }
-
-        /**
-         * Removes and returns a buffer from the cache of at least the given
-         * size (or null if no suitable buffer is found).
-         */
-        ByteBuffer get(int size) {
-            // Don't call this if the buffer would be too large.
-            assert !isBufferTooLarge(size);
-
-            if (count == 0)
-                return null;  // cache is empty
-
-            ByteBuffer[] buffers = this.buffers;
-
-            // search for suitable buffer (often the first buffer will do)
-            ByteBuffer buf = buffers[start];
-            if (buf.capacity() < size) {
-                buf = null;
-                int i = start;
-                while ((i = next(i)) != start) {
-                    ByteBuffer bb = buffers[i];
-                    if (bb == null)
-                        break;
-                    if (bb.capacity() >= size) {
-                        buf = bb;
-                        break;
-                    }
-                }
-                if (buf == null)
-                    return null;
-                // move first element to here to avoid re-packing
-                buffers[i] = buffers[start];
-            }
-
-            // remove first element
-            buffers[start] = null;
-            start = next(start);
-            count--;
-
-            // prepare the buffer and return it
-            buf.rewind();
-            buf.limit(size);
-            return buf;
-        }
-
-        boolean offerFirst(ByteBuffer buf) {
-            // Don't call this if the buffer is too large.
-            assert !isBufferTooLarge(buf);
-
-            if (count >= TEMP_BUF_POOL_SIZE) {
-                return false;
-            } else {
-                start = (start + TEMP_BUF_POOL_SIZE - 1) % TEMP_BUF_POOL_SIZE;
-                buffers[start] = buf;
-                count++;
-                return true;
-            }
-        }
-
-        boolean offerLast(ByteBuffer buf) {
-            // Don't call this if the buffer is too large.
-            assert !isBufferTooLarge(buf);
-
-            if (count >= TEMP_BUF_POOL_SIZE) {
-                return false;
-            } else {
-                int next = (start + count) % TEMP_BUF_POOL_SIZE;
-                buffers[next] = buf;
-                count++;
-                return true;
-            }
-        }
-
-        boolean isEmpty() {
-            return count == 0;
-        }
-
-        ByteBuffer removeFirst() {
-            assert count > 0;
-            ByteBuffer buf = buffers[start];
-            buffers[start] = null;
-            start = next(start);
-            count--;
-            return buf;
-        }
+        return def;
     }
 
     /**
      * Returns a temporary buffer of at least the given size
      */
     public static ByteBuffer getTemporaryDirectBuffer(int size) {
-        // If a buffer of this size is too large for the cache, there
-        // should not be a buffer in the cache that is at least as
-        // large. So we'll just create a new one. Also, we don't have
-        // to remove the buffer from the cache (as this method does
-        // below) given that we won't put the new buffer in the cache.
-        if (isBufferTooLarge(size)) {
-            return ByteBuffer.allocateDirect(size);
-        }
-
-        BufferCache cache = bufferCache.get();
-        ByteBuffer buf = cache.get(size);
-        if (buf != null) {
-            return buf;
-        } else {
-            // No suitable buffer in the cache so we need to allocate a new
-            // one. To avoid the cache growing then we remove the first
-            // buffer from the cache and free it.
-            if (!cache.isEmpty()) {
-                buf = cache.removeFirst();
-                free(buf);
-            }
-            return ByteBuffer.allocateDirect(size);
-        }
+        return bufferPool.get(size);
     }
 
     /**
-     * Releases a temporary buffer by returning to the cache or freeing it.
+     * Releases a temporary buffer by returning to the pool or freeing it.
      */
     public static void releaseTemporaryDirectBuffer(ByteBuffer buf) {
-        offerFirstTemporaryDirectBuffer(buf);
+        bufferPool.release(buf);
     }
 
     /**
-     * Releases a temporary buffer by returning to the cache or freeing it. If
-     * returning to the cache then insert it at the start so that it is
-     * likely to be returned by a subsequent call to getTemporaryDirectBuffer.
+     * Releases a temporary buffer by returning to the pool or freeing it.
+     * The pool returns the most recently released buffer of a size first,
+     * so this is the same as releaseTemporaryDirectBuffer.
      */
     static void offerFirstTemporaryDirectBuffer(ByteBuffer buf) {
-        // If the buffer is too large for the cache we don't have to
-        // check the cache. We'll just free it.
-        if (isBufferTooLarge(buf)) {
-            free(buf);
-            return;
-        }
-
-        assert buf != null;
-        BufferCache cache = bufferCache.get();
-        if (!cache.offerFirst(buf)) {
-            // cache is full
-            free(buf);
-        }
+        bufferPool.release(buf);
     }
 
     /**
-     * Releases a temporary buffer by returning to the cache or freeing it. If
-     * returning to the cache then insert it at the end. This makes it
-     * suitable for scatter/gather operations where the buffers are returned to
-     * cache in same order that they were obtained.
+     * Releases a temporary buffer by returning to the pool or freeing it,
+     * for scatter/gather operations where the buffers are returned in the
+     * same order that they were obtained. The pool does not distinguish
+     * this from releaseTemporaryDirectBuffer.
      */
     static void offerLastTemporaryDirectBuffer(ByteBuffer buf) {
-        // If the buffer is too large for the cache we don't have to
-        // check the cache. We'll just free it.
-        if (isBufferTooLarge(buf)) {
-            free(buf);
-            return;
-        }
-
-        assert buf != null;
-        BufferCache cache = bufferCache.get();
-        if (!cache.offerLast(buf)) {
-            // cache is full
-            free(buf);
-        }
+        bufferPool.release(buf);
     }
 
     /**
-     * Frees the memory for the given direct buffer
+     * Invoked by sun.management.ManagementFactoryHelper to create the management
+     * interface for temporary buffers.
      */
-    private static void free(ByteBuffer buf) {
-        ((DirectBuffer)buf).cleaner().clean();
+    public static sun.misc.JavaNioAccess.BufferPool getTemporaryBufferPool() {
+        return bufferPool.asBufferPool();
     }
 
 